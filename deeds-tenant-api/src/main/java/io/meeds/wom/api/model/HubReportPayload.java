@@ -20,8 +20,6 @@ package io.meeds.wom.api.model;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -30,6 +28,8 @@ import org.springframework.hateoas.server.core.Relation;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
+import io.meeds.wom.api.utils.LowerCaseSortedSet;
+
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -132,11 +132,8 @@ public class HubReportPayload implements DataPayload, Cloneable {
   }
 
   protected static SortedSet<String> lowerCase(SortedSet<String> transactions) {
-    return CollectionUtils.isEmpty(transactions) ? transactions :
-                                                 transactions.stream()
-                                                             .map(StringUtils::lowerCase)
-                                                             .filter(StringUtils::isNotBlank)
-                                                             .collect(Collectors.toCollection(TreeSet::new));
+    // Already lower cased sets are immutable and thus shared without copy
+    return CollectionUtils.isEmpty(transactions) ? transactions : LowerCaseSortedSet.of(transactions);
   }
 
   @Override
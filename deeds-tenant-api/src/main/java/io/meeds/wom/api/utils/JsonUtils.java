@@ -17,13 +17,20 @@
  */
 package io.meeds.wom.api.utils;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.introspect.VisibilityChecker;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
@@ -33,7 +40,23 @@ import io.meeds.wom.api.constant.WomParsingException;
 
 public class JsonUtils {
 
-  public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  public static final ObjectMapper                 OBJECT_MAPPER      = new ObjectMapper();
+
+  private static final boolean                     OPTIMIZER_ENABLED  = Boolean.parseBoolean(System.getProperty("meeds.json.optimizer.enabled", "true"));
+
+  /**
+   * Jackson optimizer modules, by order of preference, which are registered
+   * when available in classpath. Blackbird is used on recent JVMs while
+   * Afterburner is kept as fallback for older Jackson versions.
+   */
+  private static final String[]                    OPTIMIZER_MODULES  = {
+                                                                          "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+                                                                          "com.fasterxml.jackson.module.afterburner.AfterburnerModule",
+  };
+
+  private static final Map<Class<?>, ObjectReader> OBJECT_READERS     = new ConcurrentHashMap<>();
+
+  private static final Map<Class<?>, ObjectWriter> OBJECT_WRITERS     = new ConcurrentHashMap<>();
 
   static {
     // Workaround when Jackson is defined in shared library with different
@@ -43,18 +66,59 @@ public class JsonUtils {
     OBJECT_MAPPER.setVisibility(VisibilityChecker.Std.defaultInstance().withFieldVisibility(JsonAutoDetect.Visibility.ANY));
     OBJECT_MAPPER.registerModule(new JavaTimeModule());
     OBJECT_MAPPER.setDateFormat(new StdDateFormat().withTimeZone(TimeZone.getTimeZone("UTC")));
+    if (OPTIMIZER_ENABLED) {
+      registerOptimizerModule();
+    }
   }
 
   private JsonUtils() {
     // Utils class
   }
 
+  /**
+   * @param resultClass deserialized object {@link Class}
+   * @return a cached {@link ObjectReader} bound to the designated type
+   */
+  public static final ObjectReader getObjectReader(Class<?> resultClass) {
+    return OBJECT_READERS.computeIfAbsent(resultClass, OBJECT_MAPPER::readerFor);
+  }
+
+  /**
+   * @param objectClass serialized object {@link Class}
+   * @return a cached {@link ObjectWriter} bound to the designated type
+   */
+  public static final ObjectWriter getObjectWriter(Class<?> objectClass) {
+    return OBJECT_WRITERS.computeIfAbsent(objectClass, OBJECT_MAPPER::writerFor);
+  }
+
   public static final <T> T fromJsonString(String value, Class<T> resultClass) throws WomParsingException {
     if (StringUtils.isBlank(value)) {
       return null;
     }
     try {
-      return OBJECT_MAPPER.readValue(value, resultClass);
+      return getObjectReader(resultClass).readValue(value);
+    } catch (Exception e) {
+      throw new WomParsingException("wom.unableToParseObject", e);
+    }
+  }
+
+  public static final <T> T fromJsonBytes(byte[] value, Class<T> resultClass) throws WomParsingException {
+    if (value == null || value.length == 0) {
+      return null;
+    }
+    try {
+      return getObjectReader(resultClass).readValue(value);
+    } catch (Exception e) {
+      throw new WomParsingException("wom.unableToParseObject", e);
+    }
+  }
+
+  public static final <T> T fromJsonStream(InputStream inputStream, Class<T> resultClass) throws WomParsingException {
+    if (inputStream == null) {
+      return null;
+    }
+    try {
+      return getObjectReader(resultClass).readValue(inputStream);
     } catch (Exception e) {
       throw new WomParsingException("wom.unableToParseObject", e);
     }
@@ -70,7 +134,23 @@ public class JsonUtils {
 
   public static final String toJsonString(Object object) throws WomParsingException {
     try {
-      return OBJECT_MAPPER.writeValueAsString(object);
+      return getInstanceWriter(object).writeValueAsString(object);
+    } catch (Exception e) {
+      throw new WomParsingException("wom.unableToParseObject", e);
+    }
+  }
+
+  public static final byte[] toJsonBytes(Object object) throws WomParsingException {
+    try {
+      return getInstanceWriter(object).writeValueAsBytes(object);
+    } catch (Exception e) {
+      throw new WomParsingException("wom.unableToParseObject", e);
+    }
+  }
+
+  public static final void toJsonStream(Object object, OutputStream outputStream) throws WomParsingException {
+    try {
+      getInstanceWriter(object).writeValue(outputStream, object);
     } catch (Exception e) {
       throw new WomParsingException("wom.unableToParseObject", e);
     }
@@ -84,4 +164,23 @@ public class JsonUtils {
     }
   }
 
+  private static ObjectWriter getInstanceWriter(Object object) {
+    return object == null ? OBJECT_MAPPER.writer() : getObjectWriter(object.getClass());
+  }
+
+  private static void registerOptimizerModule() {
+    for (String moduleClassName : OPTIMIZER_MODULES) {
+      try {
+        Class<?> moduleClass = Class.forName(moduleClassName, true, JsonUtils.class.getClassLoader());
+        OBJECT_MAPPER.registerModule((Module) moduleClass.getDeclaredConstructor().newInstance());
+        return;
+      } catch (ClassNotFoundException | LinkageError e) {
+        // Optional module not available in classpath, try next one
+      } catch (Exception e) {
+        // Keep default Jackson (de)serializers when the module can't be used
+        return;
+      }
+    }
+  }
+
 }
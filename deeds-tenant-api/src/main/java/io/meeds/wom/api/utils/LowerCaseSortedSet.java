@@ -0,0 +1,204 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.wom.api.utils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An immutable {@link SortedSet} of lower cased and not blank Strings, backed
+ * by a sorted array. It's used to hold large lists of transaction hashes in
+ * reports with less memory than a {@link java.util.TreeSet} and to be shared
+ * between report representations without having to copy it.
+ */
+public final class LowerCaseSortedSet extends AbstractSet<String> implements SortedSet<String> {
+
+  private static final String[]           EMPTY_VALUES = new String[0];
+
+  private static final LowerCaseSortedSet EMPTY        = new LowerCaseSortedSet(EMPTY_VALUES, 0, 0);
+
+  private final String[]                  values;
+
+  private final int                       fromIndex;
+
+  private final int                       toIndex;
+
+  private LowerCaseSortedSet(String[] values, int fromIndex, int toIndex) {
+    this.values = values;
+    this.fromIndex = fromIndex;
+    this.toIndex = toIndex;
+  }
+
+  /**
+   * @param values {@link Collection} of Strings to lower case
+   * @return the same instance when already a {@link LowerCaseSortedSet}, else
+   *         a new one with lower cased values, not blank values
+   */
+  public static LowerCaseSortedSet of(Collection<String> values) {
+    if (values instanceof LowerCaseSortedSet) {
+      return (LowerCaseSortedSet) values;
+    } else if (values == null || values.isEmpty()) {
+      return EMPTY;
+    } else {
+      Builder builder = new Builder(values.size());
+      values.forEach(builder::add);
+      return builder.build();
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder(16);
+  }
+
+  @Override
+  public int size() {
+    return toIndex - fromIndex;
+  }
+
+  @Override
+  public boolean contains(Object value) {
+    return value instanceof String && indexOf((String) value) >= 0;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<>() {
+      private int index = fromIndex;
+
+      @Override
+      public boolean hasNext() {
+        return index < toIndex;
+      }
+
+      @Override
+      public String next() {
+        if (index >= toIndex) {
+          throw new NoSuchElementException();
+        }
+        return values[index++];
+      }
+    };
+  }
+
+  @Override
+  public Object[] toArray() {
+    return Arrays.copyOfRange(values, fromIndex, toIndex, Object[].class);
+  }
+
+  @Override
+  public Comparator<? super String> comparator() {
+    // Natural ordering
+    return null;
+  }
+
+  @Override
+  public SortedSet<String> subSet(String fromElement, String toElement) {
+    if (fromElement.compareTo(toElement) > 0) {
+      throw new IllegalArgumentException("fromElement > toElement");
+    }
+    return new LowerCaseSortedSet(values, getInsertionIndex(fromElement), getInsertionIndex(toElement));
+  }
+
+  @Override
+  public SortedSet<String> headSet(String toElement) {
+    return new LowerCaseSortedSet(values, fromIndex, getInsertionIndex(toElement));
+  }
+
+  @Override
+  public SortedSet<String> tailSet(String fromElement) {
+    return new LowerCaseSortedSet(values, getInsertionIndex(fromElement), toIndex);
+  }
+
+  @Override
+  public String first() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return values[fromIndex];
+  }
+
+  @Override
+  public String last() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return values[toIndex - 1];
+  }
+
+  private int indexOf(String value) {
+    return Arrays.binarySearch(values, fromIndex, toIndex, value);
+  }
+
+  private int getInsertionIndex(String value) {
+    int index = indexOf(value);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Collects values, lower cased on insertion, then sorts them and removes
+   * duplicates only once when building the {@link LowerCaseSortedSet}
+   */
+  public static final class Builder {
+
+    private String[] values;
+
+    private int      size;
+
+    private Builder(int capacity) {
+      this.values = new String[Math.max(capacity, 1)];
+    }
+
+    public Builder add(String value) {
+      if (StringUtils.isNotBlank(value)) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = StringUtils.lowerCase(value);
+      }
+      return this;
+    }
+
+    public LowerCaseSortedSet build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+      String[] sortedValues = Arrays.copyOf(values, size);
+      Arrays.sort(sortedValues);
+      int uniqueSize = 1;
+      for (int i = 1; i < sortedValues.length; i++) {
+        if (!sortedValues[i].equals(sortedValues[uniqueSize - 1])) {
+          sortedValues[uniqueSize++] = sortedValues[i];
+        }
+      }
+      if (uniqueSize < sortedValues.length) {
+        sortedValues = Arrays.copyOf(sortedValues, uniqueSize);
+      }
+      return new LowerCaseSortedSet(sortedValues, 0, uniqueSize);
+    }
+
+  }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.wom.api.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class LowerCaseSortedSetTest {
+
+  @Test
+  void sortLowerCasedValues() {
+    LowerCaseSortedSet set = LowerCaseSortedSet.of(Arrays.asList("0xCC", "0xaa", "0xBB"));
+    assertEquals(List.of("0xaa", "0xbb", "0xcc"), List.copyOf(set));
+    assertEquals("0xaa", set.first());
+    assertEquals("0xcc", set.last());
+    assertEquals(new TreeSet<>(List.of("0xaa", "0xbb", "0xcc")), set);
+  }
+
+  @Test
+  void removeDuplicatesAndBlankValues() {
+    LowerCaseSortedSet set = LowerCaseSortedSet.builder()
+                                               .add("0xAA")
+                                               .add("0xaa")
+                                               .add(" ")
+                                               .add(null)
+                                               .add("0xBB")
+                                               .add("0xbb")
+                                               .build();
+    assertEquals(2, set.size());
+    assertEquals(List.of("0xaa", "0xbb"), List.copyOf(set));
+  }
+
+  @Test
+  void ofEmptyOrLowerCaseSet() {
+    assertTrue(LowerCaseSortedSet.of(null).isEmpty());
+    assertTrue(LowerCaseSortedSet.of(new TreeSet<>()).isEmpty());
+    assertThrows(NoSuchElementException.class, () -> LowerCaseSortedSet.of(null).first());
+
+    LowerCaseSortedSet set = LowerCaseSortedSet.of(List.of("0xAA"));
+    assertSame(set, LowerCaseSortedSet.of(set));
+  }
+
+  @Test
+  void contains() {
+    LowerCaseSortedSet set = LowerCaseSortedSet.of(List.of("0xAA", "0xBB"));
+    assertTrue(set.contains("0xaa"));
+    assertTrue(set.contains("0xbb"));
+    // Values are lower cased on insertion only
+    assertFalse(set.contains("0xAA"));
+    assertFalse(set.contains("0xcc"));
+    assertFalse(set.contains(1));
+    assertFalse(set.contains(null));
+  }
+
+  @Test
+  void rangeViews() {
+    LowerCaseSortedSet set = LowerCaseSortedSet.of(List.of("0xaa", "0xbb", "0xcc", "0xdd"));
+
+    SortedSet<String> subSet = set.subSet("0xbb", "0xdd");
+    assertEquals(List.of("0xbb", "0xcc"), List.copyOf(subSet));
+    assertTrue(subSet.contains("0xcc"));
+    assertFalse(subSet.contains("0xaa"));
+    assertFalse(subSet.contains("0xdd"));
+    assertEquals("0xbb", subSet.first());
+    assertEquals("0xcc", subSet.last());
+    assertEquals(List.of("0xcc"), List.copyOf(subSet.tailSet("0xc")));
+    assertThrows(IllegalArgumentException.class, () -> set.subSet("0xdd", "0xaa"));
+
+    assertEquals(List.of("0xaa", "0xbb"), List.copyOf(set.headSet("0xcc")));
+    assertEquals(List.of("0xcc", "0xdd"), List.copyOf(set.tailSet("0xc")));
+    assertTrue(set.headSet("0xaa").isEmpty());
+    assertTrue(set.tailSet("0xee").isEmpty());
+  }
+
+  @Test
+  void immutable() {
+    LowerCaseSortedSet set = LowerCaseSortedSet.of(List.of("0xaa"));
+    assertThrows(UnsupportedOperationException.class, () -> set.add("0xbb"));
+    assertThrows(UnsupportedOperationException.class, () -> set.remove("0xaa"));
+    assertThrows(UnsupportedOperationException.class, set::clear);
+  }
+
+}
@@ -0,0 +1,93 @@
+#!/usr/bin/env python3
+#
+# This file is part of the Meeds project (https://meeds.io/).
+#
+# Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+#
+# This program is free software; you can redistribute it and/or
+# modify it under the terms of the GNU Lesser General Public
+# License as published by the Free Software Foundation; either
+# version 3 of the License, or (at your option) any later version.
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+# Lesser General Public License for more details.
+#
+# You should have received a copy of the GNU Lesser General Public License
+# along with this program; if not, write to the Free Software Foundation,
+# Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+#
+"""Compares JMH JSON results with a baseline.
+
+Exits with status 1 when a benchmark is slower than the baseline by more
+than the given threshold, so that it can be used in a CI job.
+"""
+
+import argparse
+import json
+import os
+import shutil
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as results_file:
+        results = json.load(results_file)
+    scores = {}
+    for result in results:
+        params = result.get("params") or {}
+        key = result["benchmark"]
+        if params:
+            key += "(" + ",".join("%s=%s" % (name, params[name]) for name in sorted(params)) + ")"
+        metric = result["primaryMetric"]
+        scores[key] = (result["mode"], metric["score"], metric.get("scoreError") or 0, metric["scoreUnit"])
+    return scores
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument("baseline", help="baseline JMH JSON results file")
+    parser.add_argument("results", help="JMH JSON results file, generated with -rf json")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="allowed slowdown percentage before failing, 10 by default")
+    parser.add_argument("--update", action="store_true",
+                        help="replace the baseline by the results after comparison")
+    args = parser.parse_args()
+
+    if os.path.exists(args.baseline):
+        baseline = load(args.baseline)
+    else:
+        print("No baseline found at %s, all benchmarks are listed as new" % args.baseline)
+        baseline = {}
+    results = load(args.results)
+
+    regressions = 0
+    print("%-90s %14s %14s %9s" % ("Benchmark", "Baseline", "Current", "Change"))
+    for key in sorted(results):
+        mode, score, error, unit = results[key]
+        if key not in baseline:
+            print("%-90s %14s %14.3f %9s  %s" % (key, "-", score, "new", unit))
+            continue
+        _, baseline_score, baseline_error, _ = baseline[key]
+        change = (score - baseline_score) * 100.0 / baseline_score if baseline_score else 0.0
+        # Throughput modes are better when higher, time modes when lower
+        slowdown = -change if mode == "thrpt" else change
+        # Ignore differences within the measurement errors
+        regression = slowdown > args.threshold and abs(score - baseline_score) > error + baseline_error
+        regressions += regression
+        print("%-90s %14.3f %14.3f %+8.1f%%  %s%s" % (key, baseline_score, score, change, unit,
+                                                      "  REGRESSION" if regression else ""))
+    for key in sorted(set(baseline) - set(results)):
+        print("%-90s %14.3f %14s %9s" % (key, baseline[key][1], "-", "missing"))
+
+    if args.update:
+        shutil.copyfile(args.results, args.baseline)
+        print("Baseline updated from %s" % args.results)
+    if regressions:
+        print("%d benchmark(s) regressed by more than %.1f%%" % (regressions, args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,117 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.benchmark;
+
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import io.meeds.wom.api.model.HubReportPayload;
+import io.meeds.wom.api.model.HubReportVerifiableData;
+
+import lombok.SneakyThrows;
+
+/**
+ * Synthetic data shared by benchmarks
+ */
+public class BenchmarkData {
+
+  public static final String REWARD_TOKEN_ADDRESS = "0x334d85047da64738c065d36e10b2adeb965000d0";
+
+  public static final long   REWARD_NETWORK_ID    = 80001l;
+
+  private BenchmarkData() {
+    // Utils class
+  }
+
+  @SneakyThrows
+  public static ECKeyPair newKeyPair() {
+    return Keys.createEcKeyPair();
+  }
+
+  public static String getAddress(ECKeyPair keyPair) {
+    return "0x" + Keys.getAddress(keyPair);
+  }
+
+  public static String newTransactionHash(int index) {
+    return Hash.sha3(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(index), 64));
+  }
+
+  public static HubReportPayload newReport(String hubAddress, int transactionsCount) {
+    SortedSet<String> transactions = new TreeSet<>();
+    for (int i = 0; i < transactionsCount; i++) {
+      transactions.add(newTransactionHash(i));
+    }
+    Instant toDate = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    return new HubReportPayload(0l,
+                                hubAddress,
+                                3l,
+                                toDate.minus(7, ChronoUnit.DAYS),
+                                toDate,
+                                Instant.now(),
+                                "WEEK",
+                                250l,
+                                120l,
+                                transactionsCount,
+                                3500l,
+                                45l,
+                                REWARD_TOKEN_ADDRESS,
+                                REWARD_NETWORK_ID,
+                                1250.5d,
+                                32.25d,
+                                transactions);
+  }
+
+  public static HubReportVerifiableData newSignedReport(ECKeyPair keyPair, int transactionsCount) {
+    HubReportPayload report = newReport(getAddress(keyPair), transactionsCount);
+    String signature = sign(keyPair, report.generateRawMessage());
+    return new HubReportVerifiableData(Hash.sha3(signature), signature, report);
+  }
+
+  public static String sign(ECKeyPair keyPair, String rawMessage) {
+    Sign.SignatureData signatureData = Sign.signPrefixedMessage(rawMessage.getBytes(StandardCharsets.UTF_8), keyPair);
+    byte[] signature = new byte[65];
+    System.arraycopy(signatureData.getR(), 0, signature, 0, 32);
+    System.arraycopy(signatureData.getS(), 0, signature, 32, 32);
+    System.arraycopy(signatureData.getV(), 0, signature, 64, 1);
+    return Numeric.toHexString(signature);
+  }
+
+  /**
+   * Injects a private field value of a Spring component instantiated outside
+   * of a container
+   */
+  @SneakyThrows
+  public static void setField(Object target, String fieldName, Object value) {
+    Field field = target.getClass().getDeclaredField(fieldName);
+    field.setAccessible(true);
+    field.set(target, value);
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.benchmark;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import io.meeds.tenant.hub.utils.ContractUtils;
+import io.meeds.tenant.hub.utils.ContractUtils.ReportSentEventResponse;
+
+/**
+ * ReportSent events extraction from a report sending transaction receipt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractUtilsBenchmark {
+
+  @Param({ "1", "100" })
+  private int                logsCount;
+
+  private TransactionReceipt transactionReceipt;
+
+  @Setup
+  public void setup() {
+    String hubAddress = BenchmarkData.getAddress(BenchmarkData.newKeyPair());
+    String eventTopic = EventEncoder.encode(ContractUtils.REPORTSENT_EVENT);
+    List<Log> logs = new ArrayList<>();
+    for (int i = 0; i < logsCount; i++) {
+      Log log = new Log();
+      log.setData("0x");
+      log.setTopics(Arrays.asList(eventTopic,
+                                  "0x" + TypeEncoder.encode(new Address(hubAddress)),
+                                  "0x" + TypeEncoder.encode(new Uint256(BigInteger.valueOf(i)))));
+      logs.add(log);
+    }
+    transactionReceipt = new TransactionReceipt();
+    transactionReceipt.setLogs(logs);
+  }
+
+  @Benchmark
+  public List<ReportSentEventResponse> getReportSentEvents() {
+    return ContractUtils.getReportSentEvents(transactionReceipt);
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.MockedStatic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.exoplatform.wallet.model.reward.RewardPeriod;
+import org.exoplatform.wallet.model.reward.RewardPeriodType;
+import org.exoplatform.wallet.model.reward.RewardReport;
+import org.exoplatform.wallet.model.reward.WalletReward;
+import org.exoplatform.wallet.model.transaction.TransactionDetail;
+import org.exoplatform.wallet.utils.WalletUtils;
+
+import io.meeds.tenant.hub.utils.EntityMapper;
+import io.meeds.wom.api.model.HubReportPayload;
+
+/**
+ * Hub Report computation from a synthetic {@link RewardReport}. The Reward
+ * Report and its period are mocked, since they are retrieved only once per
+ * computation, while the recipients rewards are real objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+  @Param({ "10", "1000", "100000" })
+  private int                       recipientsCount;
+
+  private RewardReport              rewardReport;
+
+  private String                    hubAddress;
+
+  private Instant                   sentDate;
+
+  // Static mocks are bound to the thread creating them, thus the Thread scope
+  private MockedStatic<WalletUtils> walletUtils;
+
+  @Setup
+  public void setup() {
+    walletUtils = mockStatic(WalletUtils.class);
+    walletUtils.when(WalletUtils::getContractAddress).thenReturn(BenchmarkData.REWARD_TOKEN_ADDRESS);
+    walletUtils.when(WalletUtils::getNetworkId).thenReturn(BenchmarkData.REWARD_NETWORK_ID);
+
+    Instant toDate = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    RewardPeriod rewardPeriod = mock(RewardPeriod.class);
+    when(rewardPeriod.getRewardPeriodType()).thenReturn(RewardPeriodType.WEEK);
+    when(rewardPeriod.getStartDateInSeconds()).thenReturn(toDate.minus(7, ChronoUnit.DAYS).getEpochSecond());
+    when(rewardPeriod.getEndDateInSeconds()).thenReturn(toDate.getEpochSecond());
+
+    // Identity based Set to not depend on WalletReward equality
+    Set<WalletReward> rewards = Collections.newSetFromMap(new IdentityHashMap<>());
+    double tokensSent = 0;
+    for (int i = 0; i < recipientsCount; i++) {
+      TransactionDetail transaction = new TransactionDetail();
+      transaction.setHash(BenchmarkData.newTransactionHash(i).toUpperCase());
+      transaction.setSucceeded(i % 20 != 0);
+      transaction.setContractAmount(1d + i % 100);
+      rewards.add(new WalletReward(null, null, transaction, null, null));
+      tokensSent += transaction.isSucceeded() ? transaction.getContractAmount() : 0;
+    }
+    rewardReport = mock(RewardReport.class);
+    when(rewardReport.getPeriod()).thenReturn(rewardPeriod);
+    when(rewardReport.getValidRewardCount()).thenReturn((long) recipientsCount);
+    when(rewardReport.getTokensSent()).thenReturn(tokensSent);
+    when(rewardReport.getValidRewards()).thenReturn(rewards);
+
+    hubAddress = BenchmarkData.getAddress(BenchmarkData.newKeyPair());
+    sentDate = Instant.now();
+  }
+
+  @TearDown
+  public void tearDown() {
+    walletUtils.close();
+  }
+
+  @Benchmark
+  public HubReportPayload toHubReport() {
+    return EntityMapper.toHubReport(rewardReport, hubAddress, 3l, 250l, 120l, 3500l, 45l, sentDate);
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.meeds.wom.api.constant.WomParsingException;
+import io.meeds.wom.api.model.HubReportVerifiableData;
+import io.meeds.wom.api.utils.JsonUtils;
+
+/**
+ * Round trips of the signed Hub Report through {@link JsonUtils}, compared to
+ * the unbound {@link com.fasterxml.jackson.databind.ObjectMapper} calls
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonUtilsBenchmark {
+
+  @Param({ "10", "1000" })
+  private int                     transactionsCount;
+
+  private HubReportVerifiableData report;
+
+  @Setup
+  public void setup() {
+    report = BenchmarkData.newSignedReport(BenchmarkData.newKeyPair(), transactionsCount);
+  }
+
+  @Benchmark
+  public HubReportVerifiableData roundTripString() throws WomParsingException {
+    return JsonUtils.fromJsonString(JsonUtils.toJsonString(report), HubReportVerifiableData.class);
+  }
+
+  @Benchmark
+  public HubReportVerifiableData roundTripBytes() throws WomParsingException {
+    return JsonUtils.fromJsonBytes(JsonUtils.toJsonBytes(report), HubReportVerifiableData.class);
+  }
+
+  @Benchmark
+  public HubReportVerifiableData roundTripObjectMapper() throws Exception {
+    return JsonUtils.OBJECT_MAPPER.readValue(JsonUtils.OBJECT_MAPPER.writeValueAsString(report),
+                                             HubReportVerifiableData.class);
+  }
+
+  @Benchmark
+  public String generateRawMessage() {
+    return report.generateRawMessage();
+  }
+
+}
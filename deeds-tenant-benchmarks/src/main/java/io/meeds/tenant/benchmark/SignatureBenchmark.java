@@ -0,0 +1,105 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+import io.meeds.tenant.hub.storage.HubWalletStorage;
+import io.meeds.tenant.metamask.service.MetamaskLoginService;
+import io.meeds.wom.api.constant.WomException;
+import io.meeds.wom.api.model.HubReportVerifiableData;
+
+/**
+ * Signature generation and verification used when sending Hub Reports and
+ * when authenticating with Metamask
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+  private HubWalletStorage        hubWalletStorage;
+
+  private MetamaskLoginService    metamaskLoginService;
+
+  private String                  walletAddress;
+
+  private String                  rawReportMessage;
+
+  private String                  loginMessage;
+
+  private String                  loginSignature;
+
+  private HubReportVerifiableData signedReport;
+
+  @Setup
+  public void setup() {
+    ECKeyPair keyPair = BenchmarkData.newKeyPair();
+    walletAddress = BenchmarkData.getAddress(keyPair);
+
+    // Use an already decrypted Hub Wallet, as done between two cache expirations
+    hubWalletStorage = new HubWalletStorage();
+    BenchmarkData.setField(hubWalletStorage,
+                           "hubWalletPrivateKey",
+                           Numeric.toBytesPadded(keyPair.getPrivateKey(), Keys.PRIVATE_KEY_SIZE));
+    BenchmarkData.setField(hubWalletStorage, "hubWalletExpirationTime", Long.MAX_VALUE);
+
+    signedReport = BenchmarkData.newSignedReport(keyPair, 10);
+    rawReportMessage = signedReport.generateRawMessage();
+
+    metamaskLoginService = new MetamaskLoginService();
+    loginMessage = Numeric.toHexStringNoPrefix("metamask-login-message".getBytes(StandardCharsets.UTF_8));
+    loginSignature = BenchmarkData.sign(keyPair, loginMessage);
+  }
+
+  @Benchmark
+  public String signHubMessage() throws WomException {
+    return hubWalletStorage.signHubMessage(rawReportMessage);
+  }
+
+  @Benchmark
+  public boolean validateSignedMessage() {
+    return metamaskLoginService.validateSignedMessage(walletAddress, loginMessage, loginSignature);
+  }
+
+  @Benchmark
+  public boolean isValidReport() throws SignatureException {
+    return signedReport.isValid();
+  }
+
+}
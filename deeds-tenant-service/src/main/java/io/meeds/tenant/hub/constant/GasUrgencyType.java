@@ -0,0 +1,43 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.constant;
+
+import lombok.Getter;
+
+/**
+ * Urgency of a transaction to send on blockchain, mapped to the percentile of
+ * priority fees paid in latest blocks.
+ */
+public enum GasUrgencyType {
+
+  // Cheapest, may wait few more blocks when the network is busy
+  LOW(10d),
+  // Median priority fee paid in latest blocks
+  MEDIUM(50d),
+  // Mined first in the next blocks, even during fee spikes
+  HIGH(90d);
+
+  @Getter
+  private final double percentile;
+
+  private GasUrgencyType(double percentile) {
+    this.percentile = percentile;
+  }
+
+}
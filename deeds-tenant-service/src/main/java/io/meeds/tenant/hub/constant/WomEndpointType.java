@@ -0,0 +1,66 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.constant;
+
+import java.net.URI;
+
+import org.apache.commons.lang3.StringUtils;
+
+import lombok.Getter;
+
+/**
+ * Logical WoM Server endpoints called by the Hub, used to configure request
+ * timeouts by endpoint using the system property
+ * 'meeds.wom.timeout.{endpoint}' in milliseconds.
+ */
+public enum WomEndpointType {
+
+  HUBS(10000),
+  TOKEN(5000),
+  MANAGER(5000),
+  AVATAR(30000),
+  BANNER(30000),
+  REPORTS(30000);
+
+  @Getter
+  private final long responseTimeout;
+
+  private WomEndpointType(long defaultResponseTimeout) {
+    this.responseTimeout = Long.parseLong(System.getProperty("meeds.wom.timeout." + name().toLowerCase(),
+                                                             String.valueOf(defaultResponseTimeout)));
+  }
+
+  public static WomEndpointType fromUri(URI uri) {
+    String path = StringUtils.removeEnd(uri.getPath(), "/");
+    if (StringUtils.contains(path, "/hub/reports")) {
+      return REPORTS;
+    } else if (StringUtils.endsWith(path, "/hubs/token")) {
+      return TOKEN;
+    } else if (StringUtils.endsWith(path, "/hubs/manager")) {
+      return MANAGER;
+    } else if (StringUtils.endsWith(path, "/avatar")) {
+      return AVATAR;
+    } else if (StringUtils.endsWith(path, "/banner")) {
+      return BANNER;
+    } else {
+      return HUBS;
+    }
+  }
+
+}
@@ -0,0 +1,39 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.entity.HubReportEntity;
+
+public interface HubReportDAO extends JpaRepository<HubReportEntity, Long> {
+
+  HubReportEntity findFirstByReportId(long reportId);
+
+  HubReportEntity findFirstByTransactionHash(String transactionHash);
+
+  List<HubReportEntity> findByPeriodIdIn(Collection<Long> periodIds);
+
+  List<HubReportEntity> findByStatus(HubReportStatusType status);
+
+}
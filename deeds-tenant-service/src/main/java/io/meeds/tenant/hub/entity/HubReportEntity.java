@@ -0,0 +1,71 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local bookkeeping of a reward period report sending status
+ */
+@Entity(name = "HubReport")
+@Table(name = "HUB_REPORTS")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportEntity implements Serializable {
+
+  private static final long   serialVersionUID = -4713097385126870127L;
+
+  @Id
+  @Column(name = "PERIOD_ID", nullable = false)
+  private Long                periodId;
+
+  @Column(name = "REPORT_ID")
+  private long                reportId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "STATUS")
+  private HubReportStatusType status;
+
+  @Column(name = "SENT_DATE")
+  private Instant             sentDate;
+
+  @Column(name = "TX_HASH")
+  private String              transactionHash;
+
+  @Column(name = "ERROR_KEY")
+  private String              errorKey;
+
+  @Column(name = "ERROR")
+  private String              error;
+
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last block indexed for ReportSent events of a UEM contract
+ */
+@Entity(name = "HubReportEventCheckpoint")
+@Table(name = "HUB_REPORT_EVENT_CHECKPOINTS")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportEventCheckpointEntity implements Serializable {
+
+  private static final long serialVersionUID = -1842309726185624019L;
+
+  @Id
+  @Column(name = "CONTRACT_ADDRESS", nullable = false)
+  private String            contractAddress;
+
+  @Column(name = "LAST_BLOCK")
+  private long              lastBlock;
+
+  @Column(name = "UPDATED_DATE")
+  private Instant           updatedDate;
+
+}
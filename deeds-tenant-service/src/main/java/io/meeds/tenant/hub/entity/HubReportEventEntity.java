@@ -0,0 +1,58 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local index of the ReportSent events emitted by the UEM contract for the
+ * current Hub
+ */
+@Entity(name = "HubReportEvent")
+@Table(name = "HUB_REPORT_EVENTS")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportEventEntity implements Serializable {
+
+  private static final long serialVersionUID = 6420985411268383614L;
+
+  @Id
+  @Column(name = "REPORT_ID", nullable = false)
+  private Long              reportId;
+
+  @Column(name = "TX_HASH", nullable = false)
+  private String            transactionHash;
+
+  @Column(name = "BLOCK_NUMBER")
+  private long              blockNumber;
+
+  @Column(name = "BLOCK_TIME")
+  private Instant           blockTime;
+
+}
@@ -0,0 +1,74 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A durable record of a report transaction, written before submitting it to
+ * the blockchain, in order to resume its processing after a restart instead of
+ * sending a new transaction.
+ */
+@Entity(name = "HubReportOutbox")
+@Table(name = "HUB_REPORT_OUTBOX")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportOutboxEntity implements Serializable {
+
+  private static final long serialVersionUID = -2207638311565383423L;
+
+  @Id
+  @Column(name = "PERIOD_ID", nullable = false)
+  private Long              periodId;
+
+  @Lob
+  @Column(name = "PAYLOAD", nullable = false)
+  private String            payload;
+
+  @Column(name = "UEM_ADDRESS", nullable = false)
+  private String            uemAddress;
+
+  @Column(name = "UEM_NETWORK_ID")
+  private long              uemNetworkId;
+
+  @Column(name = "TX_HASH", nullable = false)
+  private String            transactionHash;
+
+  @Column(name = "NONCE", nullable = false)
+  private long              nonce;
+
+  @Lob
+  @Column(name = "RAW_TRANSACTION", nullable = false)
+  private String            rawTransaction;
+
+  @Column(name = "CREATED_DATE")
+  private Instant           createdDate;
+
+}
@@ -0,0 +1,57 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Engagement metrics computed once for closed reward periods
+ */
+@Entity(name = "HubReportPeriodMetrics")
+@Table(name = "HUB_REPORT_PERIOD_METRICS")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportPeriodMetricsEntity implements Serializable {
+
+  private static final long serialVersionUID = -3907125184021730642L;
+
+  @Id
+  @Column(name = "PERIOD_ID", nullable = false)
+  private Long              periodId;
+
+  @Column(name = "PARTICIPANTS_COUNT")
+  private long              participantsCount;
+
+  @Column(name = "ACHIEVEMENTS_COUNT")
+  private long              achievementsCount;
+
+  @Column(name = "COMPUTED_DATE")
+  private Instant           computedDate;
+
+}
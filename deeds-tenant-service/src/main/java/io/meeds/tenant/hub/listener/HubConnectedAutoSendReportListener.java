@@ -18,10 +18,6 @@
  */
 package io.meeds.tenant.hub.listener;
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneOffset;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -29,63 +25,35 @@ import org.exoplatform.services.listener.Asynchronous;
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.services.listener.Listener;
 import org.exoplatform.services.listener.ListenerService;
-import org.exoplatform.services.log.ExoLogger;
-import org.exoplatform.services.log.Log;
-import org.exoplatform.wallet.model.reward.RewardReport;
-import org.exoplatform.wallet.reward.service.RewardReportService;
 
 import io.meeds.common.ContainerTransactional;
-import io.meeds.tenant.hub.service.HubReportService;
+import io.meeds.tenant.hub.service.HubReportSendJobService;
 import io.meeds.tenant.hub.service.HubService;
-import io.meeds.wom.api.constant.WomException;
 import io.meeds.wom.api.model.Hub;
 
 import jakarta.annotation.PostConstruct;
 
 /**
  * This listener will be triggered when the Hub is connected to the WoM. Once
- * connected, the listener will send automatically last elligible reward report.
+ * connected, the listener will send automatically all elligible reward reports
+ * which weren't sent yet, starting from the week preceding the Hub join date.
  */
 @Component
 @Asynchronous
 public class HubConnectedAutoSendReportListener extends Listener<Hub, Object> {
 
-  private static final Log    LOG = ExoLogger.getLogger(HubConnectedAutoSendReportListener.class);
-
-  @Autowired
-  private RewardReportService rewardReportService;
-
   @Autowired
-  private HubReportService    hubReportService;
+  private HubReportSendJobService hubReportSendJobService;
 
   @Autowired
-  private ListenerService     listenerService;
+  private ListenerService         listenerService;
 
   @Override
   @ContainerTransactional
   public void onEvent(Event<Hub, Object> event) throws Exception { // NOSONAR
     Hub hub = event.getSource();
-    if (hub.isConnected() && hub.getJoinDate() != null && Instant.now().minusSeconds(hub.getJoinDate().getEpochSecond()).getEpochSecond() < 3600l) {
-      RewardReport rewardReport = rewardReportService.getRewardReport(LocalDate.ofInstant(hub.getJoinDate(), ZoneOffset.UTC)
-                                                                               .minusWeeks(1));
-      if (rewardReport != null && rewardReport.isCompletelyProceeded()) {
-        long periodId = rewardReport.getPeriod().getId();
-        if (hubReportService.getReportId(periodId) == 0) {
-          int retries = 3;
-          while (retries-- > 0) {
-            try {
-              hubReportService.sendReport(periodId);
-              retries = 0;
-            } catch (WomException e) {
-              if (retries == 0) {
-                LOG.error("Error sending automatically the previous period Hub report", e);
-              } else {
-                LOG.warn("Error sending automatically the previous period Hub report. Automatically retry.");
-              }
-            }
-          }
-        }
-      }
+    if (hub.isConnected() && hub.getJoinDate() != null) {
+      hubReportSendJobService.backfillReports(null);
     }
   }
 
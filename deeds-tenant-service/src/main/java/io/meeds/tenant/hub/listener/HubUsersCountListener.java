@@ -0,0 +1,73 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.organization.OrganizationService;
+import org.exoplatform.services.organization.User;
+import org.exoplatform.services.organization.UserEventListener;
+
+import io.meeds.tenant.hub.service.HubUsersCounter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * A listener that keeps the enabled users counter up to date when users are
+ * created, enabled, disabled or deleted
+ */
+@Component
+public class HubUsersCountListener extends UserEventListener {
+
+  @Autowired
+  private OrganizationService organizationService;
+
+  @Autowired
+  private HubUsersCounter     hubUsersCounter;
+
+  @PostConstruct
+  public void init() {
+    organizationService.getUserHandler().addUserEventListener(this);
+  }
+
+  @Override
+  public void postSave(User user, boolean isNew) throws Exception {
+    if (isNew && user.isEnabled()) {
+      hubUsersCounter.increment();
+    }
+  }
+
+  @Override
+  public void postSetEnabled(User user) throws Exception {
+    if (user.isEnabled()) {
+      hubUsersCounter.increment();
+    } else {
+      hubUsersCounter.decrement();
+    }
+  }
+
+  @Override
+  public void postDelete(User user) throws Exception {
+    if (user.isEnabled()) {
+      hubUsersCounter.decrement();
+    }
+  }
+
+}
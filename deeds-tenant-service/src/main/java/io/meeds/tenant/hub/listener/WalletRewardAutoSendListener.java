@@ -27,7 +27,7 @@ import org.exoplatform.services.listener.ListenerService;
 import org.exoplatform.wallet.model.reward.RewardReport;
 
 import io.meeds.common.ContainerTransactional;
-import io.meeds.tenant.hub.service.HubReportService;
+import io.meeds.tenant.hub.service.HubReportSendJobService;
 
 import jakarta.annotation.PostConstruct;
 
@@ -35,19 +35,19 @@ import jakarta.annotation.PostConstruct;
 @Component
 public class WalletRewardAutoSendListener extends Listener<RewardReport, Object> {
 
-  private static final String EVENT_NAME = "exo.wallet.reward.report.success";
+  private static final String     EVENT_NAME = "exo.wallet.reward.report.success";
 
   @Autowired
-  private HubReportService    reportService;
+  private HubReportSendJobService reportSendJobService;
 
   @Autowired
-  private ListenerService     listenerService;
+  private ListenerService         listenerService;
 
   @Override
   @ContainerTransactional
   public void onEvent(Event<RewardReport, Object> event) throws Exception {
     RewardReport rewardReport = event.getSource();
-    reportService.sendReport(rewardReport);
+    reportSendJobService.sendReport(rewardReport.getPeriod().getId());
   }
 
   @PostConstruct
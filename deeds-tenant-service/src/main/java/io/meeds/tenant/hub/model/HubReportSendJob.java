@@ -0,0 +1,52 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.model;
+
+import java.time.Instant;
+
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+import io.meeds.tenant.hub.constant.HubReportSendJobStatusType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HubReportSendJob {
+
+  private String                              id;
+
+  private long                                periodId;
+
+  private GasUrgencyType                      urgency;
+
+  // Updated by the sender thread while read by other threads
+  private volatile HubReportSendJobStatusType status;
+
+  private volatile long                       reportId;
+
+  private volatile String                     error;
+
+  private Instant                             createdDate;
+
+  private volatile Instant                    endDate;
+
+}
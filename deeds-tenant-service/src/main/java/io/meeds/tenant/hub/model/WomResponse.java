@@ -31,4 +31,18 @@ public class WomResponse {
 
   private String entity;
 
+  private String entityTag;
+
+  private String lastModified;
+
+  /**
+   * Response entity deserialized while reading the response stream, when a
+   * result type was requested
+   */
+  private Object content;
+
+  public WomResponse(int code, String entity, String entityTag, String lastModified) {
+    this(code, entity, entityTag, lastModified, null);
+  }
+
 }
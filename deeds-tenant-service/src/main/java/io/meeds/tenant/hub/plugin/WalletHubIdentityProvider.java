@@ -58,6 +58,10 @@ public class WalletHubIdentityProvider extends IdentityProvider<String> {
 
   public static final String HUB_AVATAR_UPDATE        = "HUB_AVATAR_UPDATE_TIME";
 
+  public static final String HUB_AVATAR_HASH          = "HUB_AVATAR_HASH";
+
+  public static final String HUB_BANNER_HASH          = "HUB_BANNER_HASH";
+
   public static final String REWARD_PERIOD_TYPE       = "HUB_PERIOD_TYPE";
 
   public static final String REWARD_AMOUNT            = "HUB_REWARDS_AMOUNT";
@@ -19,8 +19,10 @@ package io.meeds.tenant.hub.rest;
 
 import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,7 +35,10 @@ import org.springframework.web.server.ResponseStatusException;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
+import io.meeds.tenant.hub.constant.GasUrgencyType;
 import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.tenant.hub.model.HubReportSendJob;
+import io.meeds.tenant.hub.service.HubReportSendJobService;
 import io.meeds.tenant.hub.service.HubReportService;
 import io.meeds.wom.api.constant.WomException;
 
@@ -47,10 +52,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "reports", description = "An endpoint to manage current Hub as a WoM member")
 public class HubReportController {
 
-  private static final Log LOG = ExoLogger.getLogger(HubReportController.class);
+  private static final Log        LOG = ExoLogger.getLogger(HubReportController.class);
 
   @Autowired
-  private HubReportService reportService;
+  private HubReportService        reportService;
+
+  @Autowired
+  private HubReportSendJobService reportSendJobService;
 
   @GetMapping
   @Secured("rewarding")
@@ -88,19 +96,78 @@ public class HubReportController {
 
   @PutMapping("{periodId}")
   @Secured("rewarding")
-  @Operation(summary = "Send manually Hub reward report to the UEM engine", method = "GET")
+  @Operation(summary = "Send manually Hub reward report to the UEM engine asynchronously", method = "PUT")
+  @ApiResponse(responseCode = "202", description = "Request accepted, the sending job is queued")
+  @ApiResponse(responseCode = "400", description = "Bad request")
+  @ApiResponse(responseCode = "429", description = "Too many reports are being sent or the report is already being sent")
+  @ApiResponse(responseCode = "503", description = "Service unavailable")
+  public ResponseEntity<HubReportSendJob> sendReport(
+                                                     @Parameter(description = "Report period identifier key", required = true)
+                                                     @PathVariable("periodId")
+                                                     long periodId,
+                                                     @Parameter(description = "Urgency of the blockchain transaction, determining the fees to pay", required = false)
+                                                     @RequestParam(name = "urgency", required = false)
+                                                     GasUrgencyType urgency) {
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED)
+                           .body(reportSendJobService.sendReport(periodId, urgency));
+    } catch (WomException e) {
+      LOG.warn("Error queuing Report sending for period {}. Message: {}", periodId, e.getMessage());
+      if (StringUtils.equalsAny(e.getMessage(), "wom.reportSendingQueueFull", "wom.reportSendingInProgress")) {
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+      } else {
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+      }
+    }
+  }
+
+  @PutMapping("{periodId}/metrics")
+  @Secured("rewarding")
+  @Operation(summary = "Recomputes the stored engagement metrics of a Hub reward report period", method = "PUT")
   @ApiResponse(responseCode = "200", description = "Request fulfilled")
   @ApiResponse(responseCode = "400", description = "Bad request")
-  public HubReportLocalStatus sendReport(
-                                         @Parameter(description = "Report period identifier key", required = true)
-                                         @PathVariable("periodId")
-                                         long periodId) {
+  @ApiResponse(responseCode = "503", description = "Service unavailable")
+  public HubReportLocalStatus recomputeReportMetrics(
+                                                     @Parameter(description = "Report period identifier key", required = true)
+                                                     @PathVariable("periodId")
+                                                     long periodId) {
     try {
-      return reportService.sendReport(periodId);
+      return reportService.recomputeReportMetrics(periodId);
     } catch (WomException e) {
-      LOG.warn("Error sending Report for period {} Transaction. Message: {}", periodId, e.getMessage());
-      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+      if (StringUtils.equals(e.getMessage(), "wom.unableToRetrieveReward")) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+      } else {
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+      }
+    }
+  }
+
+  @PutMapping("backfill")
+  @Secured("rewarding")
+  @Operation(summary = "Send asynchronously all sendable Hub reward reports that weren't sent yet", method = "PUT")
+  @ApiResponse(responseCode = "202", description = "Request accepted, the sending jobs are queued")
+  public ResponseEntity<List<HubReportSendJob>> backfillReports(
+                                                                @Parameter(description = "Urgency of the blockchain transactions, determining the fees to pay", required = false)
+                                                                @RequestParam(name = "urgency", required = false)
+                                                                GasUrgencyType urgency) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                         .body(reportSendJobService.backfillReports(urgency));
+  }
+
+  @GetMapping("jobs/{jobId}")
+  @Secured("rewarding")
+  @Operation(summary = "Retrieve a Hub Reward report sending job status", method = "GET")
+  @ApiResponse(responseCode = "200", description = "Request fulfilled")
+  @ApiResponse(responseCode = "404", description = "Not found")
+  public HubReportSendJob getSendJob(
+                                     @Parameter(description = "Report sending job identifier", required = true)
+                                     @PathVariable("jobId")
+                                     String jobId) {
+    HubReportSendJob job = reportSendJobService.getJob(jobId);
+    if (job == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
     }
+    return job;
   }
 
 }
@@ -0,0 +1,54 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.meeds.tenant.hub.rest.client.WomClientMetrics;
+import io.meeds.tenant.hub.service.HubUsersCounter;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("hub/metrics")
+@Tag(name = "hub/metrics", description = "An endpoint to retrieve WoM Server calls and Hub metrics")
+public class WomMetricsController {
+
+  @Autowired
+  private WomClientMetrics womClientMetrics;
+
+  @Autowired
+  private HubUsersCounter  hubUsersCounter;
+
+  @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+  @Secured("rewarding")
+  @Operation(summary = "Retrieves WoM Server calls and Hub metrics using Prometheus text format", method = "GET")
+  @ApiResponse(responseCode = "200", description = "Request fulfilled")
+  public String getMetrics() {
+    return womClientMetrics.toPrometheusFormat() + hubUsersCounter.toPrometheusFormat();
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+/**
+ * A circuit breaker isolating the Hub from WoM Server failures. Once a number
+ * of consecutive failures is reached, the circuit is opened and requests fail
+ * fast until the open duration elapses. A single trial request is then allowed
+ * (half-open state): the circuit is closed again if it succeeds, else it's
+ * re-opened.
+ */
+public class WomCircuitBreaker {
+
+  private static final Log             LOG      = ExoLogger.getLogger(WomCircuitBreaker.class);
+
+  private final int                    failureThreshold;
+
+  private final long                   openDuration;
+
+  private final AtomicReference<State> state    = new AtomicReference<>(State.CLOSED);
+
+  private final AtomicInteger          failures = new AtomicInteger();
+
+  private volatile long                openedTime;
+
+  public WomCircuitBreaker(int failureThreshold, long openDuration) {
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+  }
+
+  /**
+   * @return true if a request can be sent to WoM Server, else false when the
+   *         request has to fail fast
+   */
+  public boolean allowRequest() {
+    State currentState = state.get();
+    if (currentState == State.CLOSED) {
+      return true;
+    } else if (currentState == State.OPEN && System.currentTimeMillis() - openedTime >= openDuration) {
+      // Only one trial request at a time
+      return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    } else {
+      return false;
+    }
+  }
+
+  public void recordSuccess() {
+    failures.set(0);
+    if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+      LOG.info("WoM Server is reachable again, close circuit");
+    }
+  }
+
+  public void recordFailure() {
+    State currentState = state.get();
+    if (currentState == State.HALF_OPEN
+        || (currentState == State.CLOSED && failures.incrementAndGet() >= failureThreshold)) {
+      openedTime = System.currentTimeMillis();
+      if (state.getAndSet(State.OPEN) != State.OPEN) {
+        LOG.warn("WoM Server is unavailable, open circuit for {}ms", openDuration);
+      }
+    }
+  }
+
+  /**
+   * Releases the half-open trial when the request ended without a success
+   * or a failure outcome (cancelled or unreadable response), so that another
+   * trial request can be sent right away instead of keeping the circuit
+   * half-open.
+   */
+  public void releaseTrial() {
+    state.compareAndSet(State.HALF_OPEN, State.OPEN);
+  }
+
+  public boolean isOpen() {
+    return state.get() != State.CLOSED;
+  }
+
+  private enum State {
+    CLOSED, OPEN, HALF_OPEN;
+  }
+
+}
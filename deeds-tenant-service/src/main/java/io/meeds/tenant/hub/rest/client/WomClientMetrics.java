@@ -0,0 +1,270 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.tenant.hub.constant.WomEndpointType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Collects WoM Server HTTP calls metrics: latency histograms, response status
+ * codes and error keys by logical endpoint, and the HTTP connection pools
+ * usage. Metrics are exposed through JMX and in Prometheus text format.
+ */
+@Component
+public class WomClientMetrics implements WomClientMetricsMXBean {
+
+  private static final Log                            LOG                = ExoLogger.getLogger(WomClientMetrics.class);
+
+  private static final String                         OBJECT_NAME        = "io.meeds.tenant:type=WomClientMetrics";
+
+  private static final long[]                         LATENCY_BUCKETS_MS = { 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+  private final Map<WomEndpointType, EndpointMetrics> endpointMetrics    = new EnumMap<>(WomEndpointType.class);
+
+  private final Map<String, ConnPoolControl<?>>       pools              = new ConcurrentHashMap<>();
+
+  public WomClientMetrics() {
+    Arrays.stream(WomEndpointType.values()).forEach(endpoint -> endpointMetrics.put(endpoint, new EndpointMetrics()));
+  }
+
+  @PostConstruct
+  public void init() {
+    try {
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      ObjectName objectName = new ObjectName(OBJECT_NAME);
+      if (!mBeanServer.isRegistered(objectName)) {
+        mBeanServer.registerMBean(this, objectName);
+      }
+    } catch (Exception e) {
+      LOG.warn("Unable to register WoM client metrics in JMX", e);
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    try {
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      ObjectName objectName = new ObjectName(OBJECT_NAME);
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOG.debug("Unable to unregister WoM client metrics from JMX", e);
+    }
+  }
+
+  /**
+   * Records a sent HTTP request
+   *
+   * @param endpoint {@link WomEndpointType}
+   * @param durationNanos request duration in nanoseconds
+   * @param statusCode HTTP response status code, 0 when no response was
+   *          received
+   */
+  public void recordRequest(WomEndpointType endpoint, long durationNanos, int statusCode) {
+    EndpointMetrics metrics = endpointMetrics.get(endpoint);
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    metrics.count.increment();
+    metrics.totalNanos.add(durationNanos);
+    metrics.maxNanos.accumulateAndGet(durationNanos, Math::max);
+    int bucket = 0;
+    while (bucket < LATENCY_BUCKETS_MS.length && durationMillis > LATENCY_BUCKETS_MS[bucket]) {
+      bucket++;
+    }
+    metrics.buckets[bucket].increment();
+    metrics.statusCounts.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Records an error returned to WoM client callers
+   *
+   * @param endpoint {@link WomEndpointType}
+   * @param errorMessage WomException message, which starts with an error key
+   */
+  public void recordError(WomEndpointType endpoint, String errorMessage) {
+    endpointMetrics.get(endpoint)
+                   .errorCounts.computeIfAbsent(getErrorKey(errorMessage), key -> new LongAdder())
+                   .increment();
+  }
+
+  public void registerPool(String name, ConnPoolControl<?> pool) {
+    pools.put(name, pool);
+  }
+
+  @Override
+  public Map<String, Long> getRequestCounts() {
+    Map<String, Long> result = new TreeMap<>();
+    endpointMetrics.forEach((endpoint, metrics) -> result.put(getName(endpoint), metrics.count.sum()));
+    return result;
+  }
+
+  @Override
+  public Map<String, Double> getMeanLatencies() {
+    Map<String, Double> result = new TreeMap<>();
+    endpointMetrics.forEach((endpoint, metrics) -> {
+      long count = metrics.count.sum();
+      result.put(getName(endpoint), count == 0 ? 0d : metrics.totalNanos.sum() / (count * 1000000d));
+    });
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getMaxLatencies() {
+    Map<String, Long> result = new TreeMap<>();
+    endpointMetrics.forEach((endpoint,
+                             metrics) -> result.put(getName(endpoint), TimeUnit.NANOSECONDS.toMillis(metrics.maxNanos.get())));
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getStatusCounts() {
+    Map<String, Long> result = new TreeMap<>();
+    endpointMetrics.forEach((endpoint, metrics) -> metrics.statusCounts.forEach((status, count) -> result.put(getName(endpoint)
+        + "." + status, count.sum())));
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getErrorCounts() {
+    Map<String, Long> result = new TreeMap<>();
+    endpointMetrics.forEach((endpoint, metrics) -> metrics.errorCounts.forEach((errorKey, count) -> result.put(getName(endpoint)
+        + "." + errorKey, count.sum())));
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getPoolStats() {
+    Map<String, Long> result = new TreeMap<>();
+    pools.forEach((name, pool) -> {
+      PoolStats stats = pool.getTotalStats();
+      result.put(name + ".leased", (long) stats.getLeased());
+      result.put(name + ".pending", (long) stats.getPending());
+      result.put(name + ".available", (long) stats.getAvailable());
+      result.put(name + ".max", (long) stats.getMax());
+    });
+    return result;
+  }
+
+  /**
+   * @return metrics using Prometheus text exposition format
+   */
+  public String toPrometheusFormat() {
+    StringBuilder result = new StringBuilder();
+    result.append("# HELP meeds_wom_requests_seconds WoM Server HTTP requests latency\n");
+    result.append("# TYPE meeds_wom_requests_seconds histogram\n");
+    endpointMetrics.forEach((endpoint, metrics) -> {
+      String endpointLabel = "endpoint=\"" + getName(endpoint) + "\"";
+      long cumulativeCount = 0;
+      for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+        cumulativeCount += metrics.buckets[i].sum();
+        appendSample(result,
+                     "meeds_wom_requests_seconds_bucket",
+                     endpointLabel + ",le=\"" + (LATENCY_BUCKETS_MS[i] / 1000d) + "\"",
+                     cumulativeCount);
+      }
+      cumulativeCount += metrics.buckets[LATENCY_BUCKETS_MS.length].sum();
+      appendSample(result, "meeds_wom_requests_seconds_bucket", endpointLabel + ",le=\"+Inf\"", cumulativeCount);
+      appendSample(result, "meeds_wom_requests_seconds_sum", endpointLabel, metrics.totalNanos.sum() / 1000000000d);
+      appendSample(result, "meeds_wom_requests_seconds_count", endpointLabel, cumulativeCount);
+    });
+    result.append("# HELP meeds_wom_responses_total WoM Server HTTP responses by status code\n");
+    result.append("# TYPE meeds_wom_responses_total counter\n");
+    endpointMetrics.forEach((endpoint, metrics) -> metrics.statusCounts.forEach((status, count) -> {
+      String labels = String.format("endpoint=\"%s\",status=\"%s\"", getName(endpoint), status);
+      appendSample(result, "meeds_wom_responses_total", labels, count.sum());
+    }));
+    result.append("# HELP meeds_wom_errors_total WoM Server call errors by error key\n");
+    result.append("# TYPE meeds_wom_errors_total counter\n");
+    endpointMetrics.forEach((endpoint, metrics) -> metrics.errorCounts.forEach((errorKey, count) -> {
+      String labels = String.format("endpoint=\"%s\",error=\"%s\"", getName(endpoint), errorKey);
+      appendSample(result, "meeds_wom_errors_total", labels, count.sum());
+    }));
+    result.append("# HELP meeds_wom_pool_connections WoM Server HTTP connection pools usage\n");
+    result.append("# TYPE meeds_wom_pool_connections gauge\n");
+    getPoolStats().forEach((key, value) -> {
+      String labels = String.format("pool=\"%s\",state=\"%s\"",
+                                    StringUtils.substringBeforeLast(key, "."),
+                                    StringUtils.substringAfterLast(key, "."));
+      appendSample(result, "meeds_wom_pool_connections", labels, value);
+    });
+    return result.toString();
+  }
+
+  private void appendSample(StringBuilder result, String name, String labels, Number value) {
+    result.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+  }
+
+  private String getName(WomEndpointType endpoint) {
+    return endpoint.name().toLowerCase();
+  }
+
+  private String getErrorKey(String errorMessage) {
+    if (StringUtils.isBlank(errorMessage)) {
+      return "unknown";
+    }
+    // Remove details added to error keys, such as status codes or messages
+    String errorKey = StringUtils.substringBefore(errorMessage, ":");
+    errorKey = StringUtils.substringBefore(errorKey, " ");
+    return errorKey.replace("\"", "");
+  }
+
+  private static class EndpointMetrics {
+
+    private final LongAdder               count        = new LongAdder();
+
+    private final LongAdder               totalNanos   = new LongAdder();
+
+    private final AtomicLong              maxNanos     = new AtomicLong();
+
+    private final LongAdder[]             buckets      = new LongAdder[LATENCY_BUCKETS_MS.length + 1];
+
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder>  errorCounts  = new ConcurrentHashMap<>();
+
+    public EndpointMetrics() {
+      Arrays.setAll(buckets, i -> new LongAdder());
+    }
+
+  }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import java.util.Map;
+
+/**
+ * JMX view of the WoM Server HTTP calls metrics
+ */
+public interface WomClientMetricsMXBean {
+
+  /**
+   * @return count of HTTP requests sent by endpoint
+   */
+  Map<String, Long> getRequestCounts();
+
+  /**
+   * @return mean HTTP requests latency in milliseconds by endpoint
+   */
+  Map<String, Double> getMeanLatencies();
+
+  /**
+   * @return max HTTP requests latency in milliseconds by endpoint
+   */
+  Map<String, Long> getMaxLatencies();
+
+  /**
+   * @return count of HTTP responses by endpoint and status code, 0 when no
+   *         response was received
+   */
+  Map<String, Long> getStatusCounts();
+
+  /**
+   * @return count of errors by endpoint and error key
+   */
+  Map<String, Long> getErrorCounts();
+
+  /**
+   * @return HTTP connection pools statistics by pool and state: leased,
+   *         pending, available and max
+   */
+  Map<String, Long> getPoolStats();
+
+}
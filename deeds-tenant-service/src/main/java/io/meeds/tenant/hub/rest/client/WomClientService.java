@@ -19,17 +19,24 @@ package io.meeds.tenant.hub.rest.client;
 
 import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
 import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
+import static io.meeds.wom.api.utils.JsonUtils.toJsonStringNoCheckedEx;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.entity.mime.InputStreamBody;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import io.meeds.tenant.hub.model.WomResponse;
 import io.meeds.wom.api.constant.WomException;
 import io.meeds.wom.api.model.Hub;
 import io.meeds.wom.api.model.HubReport;
@@ -39,6 +46,10 @@ import io.meeds.wom.api.model.WomConnectionRequest;
 import io.meeds.wom.api.model.WomConnectionResponse;
 import io.meeds.wom.api.model.WomDisconnectionRequest;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
 @Component
 public class WomClientService {
 
@@ -83,83 +94,203 @@ public class WomClientService {
   @Autowired
   private WomConnectionService womConnectionService;
 
+  private Map<URI, CachedHub>  hubCache                      = new ConcurrentHashMap<>();
+
   public boolean isDeedManager(String address, long nftId) throws WomException {
     String responseText = womConnectionService.processGet(getIsHubManagerUri(address, nftId));
     return StringUtils.equals("true", responseText);
   }
 
+  public CompletableFuture<Boolean> isDeedManagerAsync(String address, long nftId) {
+    return womConnectionService.processGetAsync(getIsHubManagerUri(address, nftId))
+                               .thenApply(responseText -> StringUtils.equals("true", responseText));
+  }
+
+  /**
+   * Retrieves the Hub from WoM using a conditional request when the Hub was
+   * already retrieved with an ETag or Last-Modified validator.
+   *
+   * @param hubAddress Hub address
+   * @param forceRefresh whether to force refresh the Hub on WoM from
+   *          Blockchain or not
+   * @return the same previously returned {@link Hub} instance when not modified
+   *         on WoM, else a newly retrieved one. null if not found.
+   * @throws WomException when an error occurs while retrieving the Hub
+   */
   public Hub getHub(String hubAddress, boolean forceRefresh) throws WomException {
-    String responseText = womConnectionService.processGet(getDeedHubTenantUri(hubAddress, forceRefresh));
-    return fromJsonString(responseText, Hub.class);
+    URI uri = getDeedHubTenantUri(hubAddress, forceRefresh);
+    CachedHub cachedHub = hubCache.get(uri);
+    WomResponse response = cachedHub == null ? womConnectionService.processGet(uri, null, null, Hub.class) :
+                                              womConnectionService.processGet(uri,
+                                                                              cachedHub.getEntityTag(),
+                                                                              cachedHub.getLastModified(),
+                                                                              Hub.class);
+    return toHub(uri, cachedHub, response);
+  }
+
+  /**
+   * Retrieves asynchronously the Hub from WoM, the same way than
+   * {@link #getHub(String, boolean)}, without blocking the calling thread.
+   *
+   * @param hubAddress Hub address
+   * @param forceRefresh whether to force refresh the Hub on WoM from
+   *          Blockchain or not
+   * @return {@link CompletableFuture} of the retrieved {@link Hub}, completed
+   *         with null if not found
+   */
+  public CompletableFuture<Hub> getHubAsync(String hubAddress, boolean forceRefresh) {
+    URI uri = getDeedHubTenantUri(hubAddress, forceRefresh);
+    CachedHub cachedHub = hubCache.get(uri);
+    CompletableFuture<WomResponse> response;
+    if (cachedHub == null) {
+      response = womConnectionService.processGetAsync(uri, null, null);
+    } else {
+      response = womConnectionService.processGetAsync(uri, cachedHub.getEntityTag(), cachedHub.getLastModified());
+    }
+    return response.thenApply(womResponse -> toHub(uri, cachedHub, womResponse));
   }
 
   public String generateToken() throws WomException {
     return womConnectionService.processGet(getTokenGenerationUri());
   }
 
+  public CompletableFuture<String> generateTokenAsync() {
+    return womConnectionService.processGetAsync(getTokenGenerationUri());
+  }
+
   public WomConnectionResponse connectToWom(WomConnectionRequest connectionRequest) throws WomException {
-    String responseText = womConnectionService.processPost(getWoMConnectionUri(), toJsonString(connectionRequest));
-    return fromJsonString(responseText, WomConnectionResponse.class);
+    return womConnectionService.processPost(getWoMConnectionUri(),
+                                            toJsonString(connectionRequest),
+                                            WomConnectionResponse.class);
+  }
+
+  public CompletableFuture<WomConnectionResponse> connectToWomAsync(WomConnectionRequest connectionRequest) {
+    return womConnectionService.processPostAsync(getWoMConnectionUri(), toJsonStringNoCheckedEx(connectionRequest))
+                               .thenApply(responseText -> fromJson(responseText, WomConnectionResponse.class));
   }
 
   public String disconnectFromWom(WomDisconnectionRequest disconnectionRequest) throws WomException {
     return womConnectionService.processDelete(getWoMDisonnectionUri(), toJsonString(disconnectionRequest));
   }
 
+  public CompletableFuture<String> disconnectFromWomAsync(WomDisconnectionRequest disconnectionRequest) {
+    return womConnectionService.processDeleteAsync(getWoMDisonnectionUri(), toJsonStringNoCheckedEx(disconnectionRequest));
+  }
+
   public HubReport saveReport(HubReportVerifiableData reportRequest) throws WomException {
-    String responseText = womConnectionService.processPost(getWoMReportUri(), toJsonString(reportRequest));
-    return fromJsonString(responseText, HubReport.class);
+    return womConnectionService.processPost(getWoMReportUri(), toJsonString(reportRequest), HubReport.class);
+  }
+
+  public CompletableFuture<HubReport> saveReportAsync(HubReportVerifiableData reportRequest) {
+    return womConnectionService.processPostAsync(getWoMReportUri(), toJsonStringNoCheckedEx(reportRequest))
+                               .thenApply(responseText -> fromJson(responseText, HubReport.class));
   }
 
   public HubReport retrieveReport(long reportId) throws WomException {
-    String responseText = womConnectionService.processGet(getWoMReportUri(reportId));
-    return fromJsonString(responseText, HubReport.class);
+    return womConnectionService.processGet(getWoMReportUri(reportId), HubReport.class);
+  }
+
+  public CompletableFuture<HubReport> retrieveReportAsync(long reportId) {
+    return womConnectionService.processGetAsync(getWoMReportUri(reportId))
+                               .thenApply(responseText -> fromJson(responseText, HubReport.class));
   }
 
   public String saveHub(Hub hub,
                         String hubSignedMessage,
                         String token) throws WomException {
-    return womConnectionService.processPut(getWoMUpdateHubUri(),
-                                           toJsonString(new HubUpdateRequest(hub.getAddress(),
-                                                                             hub.getName(),
-                                                                             hub.getDescription(),
-                                                                             hub.getUrl(),
-                                                                             hub.getColor(),
-                                                                             hubSignedMessage,
-                                                                             token)));
+    HubUpdateRequest updateRequest = toHubUpdateRequest(hub, hubSignedMessage, token);
+    return womConnectionService.processPut(getWoMUpdateHubUri(), toJsonString(updateRequest));
+  }
+
+  public CompletableFuture<String> saveHubAsync(Hub hub,
+                                                String hubSignedMessage,
+                                                String token) {
+    HubUpdateRequest updateRequest = toHubUpdateRequest(hub, hubSignedMessage, token);
+    return womConnectionService.processPutAsync(getWoMUpdateHubUri(), toJsonStringNoCheckedEx(updateRequest));
   }
 
   public void saveHubAvatar(String hubAddress,
                             String signedMessage,
                             String token,
-                            InputStream inputStream) throws WomException {
-    saveHubAttachment(getSaveAvatarUri(hubAddress), hubAddress, signedMessage, token, token, inputStream);
+                            InputStream inputStream,
+                            long contentLength) throws WomException {
+    saveHubAttachment(getSaveAvatarUri(hubAddress), hubAddress, signedMessage, token, token, inputStream, contentLength);
   }
 
   public void saveHubBanner(String hubAddress,
                             String signedMessage,
                             String rawMessage,
                             String token,
-                            InputStream inputStream) throws WomException {
-    saveHubAttachment(getSaveBannerUri(hubAddress), hubAddress, signedMessage, rawMessage, token, inputStream);
+                            InputStream inputStream,
+                            long contentLength) throws WomException {
+    saveHubAttachment(getSaveBannerUri(hubAddress),
+                      hubAddress,
+                      signedMessage,
+                      rawMessage,
+                      token,
+                      inputStream,
+                      contentLength);
   }
 
   public String getWomUrl() {
     return WOM_URL;
   }
 
+  @SneakyThrows
+  private Hub toHub(URI uri, CachedHub cachedHub, WomResponse response) {
+    if (response == null) {
+      hubCache.remove(uri);
+      return null;
+    } else if (cachedHub != null && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+      return cachedHub.getHub();
+    }
+    Hub hub;
+    if (response.getContent() != null) {
+      // Already deserialized from the response stream
+      hub = (Hub) response.getContent();
+    } else {
+      hub = StringUtils.isBlank(response.getEntity()) ? null : fromJsonString(response.getEntity(), Hub.class);
+    }
+    if (hub != null
+        && (StringUtils.isNotBlank(response.getEntityTag()) || StringUtils.isNotBlank(response.getLastModified()))) {
+      hubCache.put(uri, new CachedHub(hub, response.getEntityTag(), response.getLastModified()));
+    } else {
+      hubCache.remove(uri);
+    }
+    return hub;
+  }
+
+  private HubUpdateRequest toHubUpdateRequest(Hub hub, String hubSignedMessage, String token) {
+    return new HubUpdateRequest(hub.getAddress(),
+                                hub.getName(),
+                                hub.getDescription(),
+                                hub.getUrl(),
+                                hub.getColor(),
+                                hubSignedMessage,
+                                token);
+  }
+
+  @SneakyThrows
+  private <T> T fromJson(String value, Class<T> resultClass) {
+    return fromJsonString(value, resultClass);
+  }
+
   private void saveHubAttachment(URI attachmentUri,
                                  String hubAddress,
                                  String signedMessage,
                                  String rawMessage,
                                  String token,
-                                 InputStream inputStream) throws WomException {
+                                 InputStream inputStream,
+                                 long contentLength) throws WomException {
     HttpPost httpPost = new HttpPost(attachmentUri);
+    // Stream the file with its known length to avoid chunked or buffered
+    // uploads
     MultipartEntityBuilder entityBuilder = MultipartEntityBuilder.create()
-                                                                 .addBinaryBody("file",
-                                                                                inputStream,
-                                                                                ContentType.MULTIPART_FORM_DATA,
-                                                                                "file")
+                                                                 .addPart("file",
+                                                                          new InputStreamBody(inputStream,
+                                                                                              ContentType.MULTIPART_FORM_DATA,
+                                                                                              "file",
+                                                                                              contentLength))
                                                                  .addTextBody("hubAddress", hubAddress)
                                                                  .addTextBody("signedMessage", signedMessage)
                                                                  .addTextBody("rawMessage", rawMessage)
@@ -225,4 +356,16 @@ public class WomClientService {
               .replace(":/", "://");
   }
 
+  @Getter
+  @AllArgsConstructor
+  private static class CachedHub {
+
+    private final Hub    hub;
+
+    private final String entityTag;
+
+    private final String lastModified;
+
+  }
+
 }
@@ -19,50 +19,193 @@ package io.meeds.tenant.hub.rest.client;
 
 import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.impl.DefaultConnectionReuseStrategy;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.nio.entity.AbstractBinResponseConsumer;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
+import io.meeds.tenant.hub.constant.WomEndpointType;
 import io.meeds.tenant.hub.model.WomResponse;
 import io.meeds.wom.api.constant.WomException;
+import io.meeds.wom.api.constant.WomParsingException;
 import io.meeds.wom.api.model.WomErrorMessage;
+import io.meeds.wom.api.utils.JsonUtils;
 
+import jakarta.annotation.PreDestroy;
 import lombok.SneakyThrows;
 
 @Component
 public class WomConnectionService {
 
-  private static final Log LOG                  = ExoLogger.getLogger(WomConnectionService.class);
+  private static final Log                          LOG                  = ExoLogger.getLogger(WomConnectionService.class);
+
+  private static final String                       WOM_UNAVAILABLE      = "wom.unavailable";
+
+  private static final String                       RESPONSE_TOO_LARGE   = "wom.responseTooLarge";
+
+  private static final int                          MAX_POOL_CONNECTIONS = Integer.parseInt(System.getProperty("meeds.http.clientPool.max", "5"));
+
+  private static final long                         CONNECT_TIMEOUT      = Long.parseLong(System.getProperty("meeds.wom.connectTimeout", "5000"));
+
+  private static final int                          MAX_RETRIES          = Integer.parseInt(System.getProperty("meeds.wom.retry.max", "2"));
+
+  private static final long                         RETRY_DELAY          = Long.parseLong(System.getProperty("meeds.wom.retry.delay", "200"));
+
+  private static final int                          FAILURE_THRESHOLD    = Integer.parseInt(System.getProperty("meeds.wom.circuitBreaker.failureThreshold", "5"));
+
+  private static final long                         MAX_BODY_SIZE        = Long.parseLong(System.getProperty("meeds.wom.response.maxSize", "10485760"));
+
+  private static final long                         OPEN_DURATION        = Long.parseLong(System.getProperty("meeds.wom.circuitBreaker.openDuration", "30000"));
+
+  private final WomCircuitBreaker                   circuitBreaker       = new WomCircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION);
 
-  private static final int MAX_POOL_CONNECTIONS = Integer.parseInt(System.getProperty("meeds.http.clientPool.max", "5"));
+  private final Map<WomEndpointType, RequestConfig> requestConfigs       = getRequestConfigs();
 
-  private HttpClient       client;
+  private HttpClient                                client;
+
+  private CloseableHttpAsyncClient                  asyncClient;
+
+  @Autowired
+  private WomClientMetrics                          womClientMetrics;
 
   public String processGet(URI uri) throws WomException {
     return processRequest(new HttpGet(uri));
   }
 
+  /**
+   * Sends a GET request and deserializes the response entity while reading
+   * it from the response stream
+   *
+   * @param <T> result type
+   * @param uri request {@link URI}
+   * @param resultClass result {@link Class}
+   * @return deserialized response entity, null when not found or empty
+   * @throws WomException when an error response is returned or when the
+   *           response entity can't be deserialized
+   */
+  public <T> T processGet(URI uri, Class<T> resultClass) throws WomException {
+    return processRequest(new HttpGet(uri), resultClass);
+  }
+
+  /**
+   * Sends a conditional GET request using the designated validators
+   *
+   * @param uri request {@link URI}
+   * @param entityTag ETag sent as If-None-Match header when not blank
+   * @param lastModified Last-Modified value sent as If-Modified-Since header
+   *          when not blank
+   * @return {@link WomResponse} with a 304 code when not modified, else the
+   *         retrieved entity with its validators. null when not found.
+   * @throws WomException when an error response is returned
+   */
+  public WomResponse processGet(URI uri, String entityTag, String lastModified) throws WomException {
+    return executeRequest(getConditionalRequest(uri, entityTag, lastModified));
+  }
+
+  /**
+   * Sends a conditional GET request using the designated validators and
+   * deserializes the response entity while reading it from the response
+   * stream
+   *
+   * @param uri request {@link URI}
+   * @param entityTag ETag sent as If-None-Match header when not blank
+   * @param lastModified Last-Modified value sent as If-Modified-Since header
+   *          when not blank
+   * @param resultClass result {@link Class}
+   * @return {@link WomResponse} with a 304 code when not modified, else the
+   *         deserialized entity as content with its validators. null when not
+   *         found.
+   * @throws WomException when an error response is returned
+   */
+  public WomResponse processGet(URI uri, String entityTag, String lastModified, Class<?> resultClass) throws WomException {
+    ObjectReader objectReader = JsonUtils.getObjectReader(resultClass);
+    return executeRequest(getConditionalRequest(uri, entityTag, lastModified),
+                          httpResponse -> handleHttpResponse(httpResponse, objectReader));
+  }
+
+  public CompletableFuture<String> processGetAsync(URI uri) {
+    return processRequestAsync(SimpleRequestBuilder.get(uri).build());
+  }
+
+  /**
+   * Sends asynchronously a conditional GET request using the designated
+   * validators, without blocking the calling thread.
+   *
+   * @param uri request {@link URI}
+   * @param entityTag ETag sent as If-None-Match header when not blank
+   * @param lastModified Last-Modified value sent as If-Modified-Since header
+   *          when not blank
+   * @return {@link CompletableFuture} of {@link WomResponse}, completed the
+   *         same way than {@link #processGet(URI, String, String)} returns
+   */
+  public CompletableFuture<WomResponse> processGetAsync(URI uri, String entityTag, String lastModified) {
+    SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uri);
+    if (StringUtils.isNotBlank(entityTag)) {
+      requestBuilder.setHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+    }
+    if (StringUtils.isNotBlank(lastModified)) {
+      requestBuilder.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+    }
+    return executeRequestAsync(requestBuilder.build());
+  }
+
   public String processPost(URI uri, String jsonString) throws WomException {
     HttpPost request = new HttpPost(uri);
     StringEntity entity = new StringEntity(jsonString, ContentType.APPLICATION_JSON);
@@ -70,6 +213,13 @@ public class WomConnectionService {
     return processRequest(request);
   }
 
+  public <T> T processPost(URI uri, String jsonString, Class<T> resultClass) throws WomException {
+    HttpPost request = new HttpPost(uri);
+    StringEntity entity = new StringEntity(jsonString, ContentType.APPLICATION_JSON);
+    request.setEntity(entity);
+    return processRequest(request, resultClass);
+  }
+
   public String processPut(URI uri, String jsonString) throws WomException {
     HttpPut request = new HttpPut(uri);
     StringEntity entity = new StringEntity(jsonString, ContentType.APPLICATION_JSON);
@@ -84,17 +234,251 @@ public class WomConnectionService {
     return processRequest(request);
   }
 
-  @SneakyThrows
+  public CompletableFuture<String> processPostAsync(URI uri, String jsonString) {
+    return processRequestAsync(SimpleRequestBuilder.post(uri)
+                                                   .setBody(jsonString, ContentType.APPLICATION_JSON)
+                                                   .build());
+  }
+
+  public CompletableFuture<String> processPutAsync(URI uri, String jsonString) {
+    return processRequestAsync(SimpleRequestBuilder.put(uri)
+                                                   .setBody(jsonString, ContentType.APPLICATION_JSON)
+                                                   .build());
+  }
+
+  public CompletableFuture<String> processDeleteAsync(URI uri, String jsonString) {
+    return processRequestAsync(SimpleRequestBuilder.delete(uri)
+                                                   .setBody(jsonString, ContentType.APPLICATION_JSON)
+                                                   .build());
+  }
+
   public String processRequest(HttpUriRequestBase request) throws WomException {
-    WomResponse response = getHttpClient().execute(request, this::handleHttpResponse);
+    WomResponse response = executeRequest(request);
+    return response == null ? null : processSuccessResponse(response);
+  }
+
+  public <T> T processRequest(HttpUriRequestBase request, Class<T> resultClass) throws WomException {
+    ObjectReader objectReader = JsonUtils.getObjectReader(resultClass);
+    WomResponse response = executeRequest(request, httpResponse -> handleHttpResponse(httpResponse, objectReader));
+    return response == null ? null : resultClass.cast(response.getContent());
+  }
+
+  /**
+   * Executes the request with the timeouts of its endpoint, while failing
+   * fast when WoM Server is considered as unavailable. Idempotent GET requests
+   * are retried with a jittered exponential backoff when WoM Server is
+   * unreachable.
+   *
+   * @param request {@link HttpUriRequestBase} to execute
+   * @return {@link WomResponse}
+   * @throws WomException when WoM is unavailable or returns an error response
+   */
+  private WomResponse executeRequest(HttpUriRequestBase request) throws WomException {
+    return executeRequest(request, this::handleHttpResponse);
+  }
+
+  private WomResponse executeRequest(HttpUriRequestBase request,
+                                     HttpClientResponseHandler<WomResponse> responseHandler) throws WomException {
+    URI uri = getUri(request);
+    WomEndpointType endpoint = WomEndpointType.fromUri(uri);
+    try {
+      return executeRequest(request, responseHandler, uri, endpoint);
+    } catch (WomException e) {
+      womClientMetrics.recordError(endpoint, e.getMessage());
+      throw e;
+    }
+  }
+
+  private WomResponse executeRequest(HttpUriRequestBase request,
+                                     HttpClientResponseHandler<WomResponse> responseHandler,
+                                     URI uri,
+                                     WomEndpointType endpoint) throws WomException {
+    checkAvailability();
+    request.setConfig(requestConfigs.get(endpoint));
+    for (int attempt = 0;; attempt++) {
+      long start = System.nanoTime();
+      boolean outcomeRecorded = false;
+      try {
+        WomResponse response = getHttpClient().execute(request, responseHandler);
+        womClientMetrics.recordRequest(endpoint, System.nanoTime() - start, response.getCode());
+        outcomeRecorded = true;
+        if (!isUnavailable(response)) {
+          circuitBreaker.recordSuccess();
+          return handleWomResponse(response, request.getMethod(), uri);
+        }
+        circuitBreaker.recordFailure();
+        if (!canRetry(request.getMethod(), attempt)) {
+          return handleWomResponse(response, request.getMethod(), uri);
+        }
+      } catch (IOException e) {
+        womClientMetrics.recordRequest(endpoint, System.nanoTime() - start, 0);
+        outcomeRecorded = true;
+        circuitBreaker.recordFailure();
+        if (!canRetry(request.getMethod(), attempt)) {
+          throw new WomException(WOM_UNAVAILABLE, e);
+        }
+      } finally {
+        if (!outcomeRecorded) {
+          // The response handler failed to read or parse the response entity
+          circuitBreaker.releaseTrial();
+        }
+      }
+      waitBeforeRetry(attempt);
+      checkAvailability();
+    }
+  }
+
+  private void waitBeforeRetry(int attempt) throws WomException {
+    try {
+      Thread.sleep(getRetryDelay(attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WomException(WOM_UNAVAILABLE, e);
+    }
+  }
+
+  private CompletableFuture<String> processRequestAsync(SimpleHttpRequest request) {
+    return executeRequestAsync(request).thenApply(response -> response == null ? null : processSuccessResponse(response));
+  }
+
+  private CompletableFuture<WomResponse> executeRequestAsync(SimpleHttpRequest request) {
+    WomEndpointType endpoint = WomEndpointType.fromUri(getUri(request));
+    CompletableFuture<WomResponse> future;
+    if (circuitBreaker.allowRequest()) {
+      request.setConfig(requestConfigs.get(endpoint));
+      future = executeRequestAsync(request, endpoint, 0);
+    } else {
+      future = CompletableFuture.failedFuture(new WomException(WOM_UNAVAILABLE));
+    }
+    return future.whenComplete((response, e) -> {
+      Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+      if (cause instanceof WomException) {
+        womClientMetrics.recordError(endpoint, cause.getMessage());
+      }
+    });
+  }
+
+  private CompletableFuture<WomResponse> executeRequestAsync(SimpleHttpRequest request,
+                                                             WomEndpointType endpoint,
+                                                             int attempt) {
+    CompletableFuture<WomResponse> future = new CompletableFuture<>();
+    long start = System.nanoTime();
+    FutureCallback<SimpleHttpResponse> callback = new FutureCallback<>() {
+      @Override
+      public void completed(SimpleHttpResponse httpResponse) {
+        boolean outcomeRecorded = false;
+        try {
+          womClientMetrics.recordRequest(endpoint, System.nanoTime() - start, httpResponse.getCode());
+          WomResponse response = handleHttpResponse(httpResponse);
+          outcomeRecorded = true;
+          if (isUnavailable(response)) {
+            circuitBreaker.recordFailure();
+            if (canRetry(request.getMethod(), attempt)) {
+              retryRequestAsync(request, endpoint, attempt, future);
+              return;
+            }
+          } else {
+            circuitBreaker.recordSuccess();
+          }
+          future.complete(handleWomResponse(response, request.getMethod(), getUri(request)));
+        } catch (Exception e) {
+          future.completeExceptionally(e);
+        } finally {
+          if (!outcomeRecorded) {
+            circuitBreaker.releaseTrial();
+          }
+        }
+      }
+
+      @Override
+      public void failed(Exception e) {
+        if (e instanceof ResponseTooLargeException) {
+          // WoM Server responded, thus not considered as unavailable
+          circuitBreaker.releaseTrial();
+          future.completeExceptionally(new WomException(RESPONSE_TOO_LARGE, e));
+          return;
+        }
+        womClientMetrics.recordRequest(endpoint, System.nanoTime() - start, 0);
+        circuitBreaker.recordFailure();
+        if (canRetry(request.getMethod(), attempt)) {
+          retryRequestAsync(request, endpoint, attempt, future);
+        } else {
+          future.completeExceptionally(new WomException(WOM_UNAVAILABLE, e));
+        }
+      }
+
+      @Override
+      public void cancelled() {
+        circuitBreaker.releaseTrial();
+        future.cancel(false);
+      }
+    };
+    getHttpAsyncClient().execute(SimpleRequestProducer.create(request), new SizeLimitedResponseConsumer(), callback);
+    return future;
+  }
+
+  private void retryRequestAsync(SimpleHttpRequest request,
+                                 WomEndpointType endpoint,
+                                 int attempt,
+                                 CompletableFuture<WomResponse> future) {
+    Executor delayedExecutor = CompletableFuture.delayedExecutor(getRetryDelay(attempt), TimeUnit.MILLISECONDS);
+    CompletableFuture.runAsync(() -> {
+      // Wait for the retry delay before retrying
+    }, delayedExecutor)
+                     .thenCompose(v -> circuitBreaker.allowRequest() ? executeRequestAsync(request, endpoint, attempt + 1) :
+                                                                     CompletableFuture.failedFuture(new WomException(WOM_UNAVAILABLE)))
+                     .whenComplete((response, e) -> {
+                       if (e == null) {
+                         future.complete(response);
+                       } else {
+                         future.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                       }
+                     });
+  }
+
+  private HttpGet getConditionalRequest(URI uri, String entityTag, String lastModified) {
+    HttpGet request = new HttpGet(uri);
+    if (StringUtils.isNotBlank(entityTag)) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+    }
+    if (StringUtils.isNotBlank(lastModified)) {
+      request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+    }
+    return request;
+  }
+
+  private void checkAvailability() throws WomException {
+    if (!circuitBreaker.allowRequest()) {
+      throw new WomException(WOM_UNAVAILABLE);
+    }
+  }
+
+  private boolean isUnavailable(WomResponse response) {
+    return response != null
+           && (response.getCode() == HttpStatus.SC_BAD_GATEWAY
+               || response.getCode() == HttpStatus.SC_SERVICE_UNAVAILABLE
+               || response.getCode() == HttpStatus.SC_GATEWAY_TIMEOUT);
+  }
+
+  private boolean canRetry(String method, int attempt) {
+    return StringUtils.equals(method, HttpGet.METHOD_NAME) && attempt < MAX_RETRIES;
+  }
+
+  private long getRetryDelay(int attempt) {
+    long maxDelay = RETRY_DELAY << attempt;
+    return maxDelay / 2 + ThreadLocalRandom.current().nextLong(maxDelay / 2 + 1);
+  }
+
+  private WomResponse handleWomResponse(WomResponse response, String method, URI uri) throws WomException {
     boolean isSuccess = response != null
-                        && (response.getCode() >= 200 && response.getCode() < 300);
+                        && ((response.getCode() >= 200 && response.getCode() < 300)
+                            || response.getCode() == HttpStatus.SC_NOT_MODIFIED);
     if (isSuccess) {
-      return processSuccessResponse(response);
+      return response;
     } else if (response != null && response.getCode() == 404) {
       return null;
     } else {
-      processErrorResponse(response, request);
+      processErrorResponse(response, method, uri);
       return null;
     }
   }
@@ -109,7 +493,7 @@ public class WomConnectionService {
   }
 
   @SneakyThrows
-  private void processErrorResponse(WomResponse response, HttpUriRequestBase request) throws WomException { // NOSONAR
+  private void processErrorResponse(WomResponse response, String method, URI uri) throws WomException { // NOSONAR
     if (response == null) {
       throw new WomException("wom.noResponse");
     } else if (StringUtils.isNotBlank(response.getEntity())) {
@@ -128,8 +512,8 @@ public class WomConnectionService {
       } else {
         throw new WomException(String.format("wom.errorResponse: %s. URL = %s %s",
                                              errorMessage,
-                                             request.getMethod(),
-                                             request.getUri()));
+                                             method,
+                                             uri));
       }
     } else {
       throw new WomException("wom.errorResponse:" + response.getCode());
@@ -138,7 +522,8 @@ public class WomConnectionService {
 
   private HttpClient getHttpClient() {
     if (client == null) {
-      HttpClientConnectionManager clientConnectionManager = getClientConnectionManager();
+      PoolingHttpClientConnectionManager clientConnectionManager = getClientConnectionManager();
+      womClientMetrics.registerPool("classic", clientConnectionManager);
       HttpClientBuilder httpClientBuilder = HttpClients.custom()
                                                        .setConnectionManager(clientConnectionManager)
                                                        .setConnectionReuseStrategy(new DefaultConnectionReuseStrategy());
@@ -147,16 +532,224 @@ public class WomConnectionService {
     return client;
   }
 
-  private HttpClientConnectionManager getClientConnectionManager() {
+  private synchronized CloseableHttpAsyncClient getHttpAsyncClient() {
+    if (asyncClient == null) {
+      PoolingAsyncClientConnectionManager connectionManager = new PoolingAsyncClientConnectionManager();
+      connectionManager.setDefaultMaxPerRoute(MAX_POOL_CONNECTIONS);
+      connectionManager.setDefaultConnectionConfig(getConnectionConfig());
+      womClientMetrics.registerPool("async", connectionManager);
+      asyncClient = HttpAsyncClients.custom()
+                                    .setConnectionManager(connectionManager)
+                                    .build();
+      asyncClient.start();
+    }
+    return asyncClient;
+  }
+
+  @PreDestroy
+  public synchronized void destroy() {
+    if (asyncClient != null) {
+      asyncClient.close(CloseMode.GRACEFUL);
+    }
+  }
+
+  private PoolingHttpClientConnectionManager getClientConnectionManager() {
     PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
     connectionManager.setDefaultMaxPerRoute(MAX_POOL_CONNECTIONS);
+    connectionManager.setDefaultConnectionConfig(getConnectionConfig());
     return connectionManager;
   }
 
+  private ConnectionConfig getConnectionConfig() {
+    return ConnectionConfig.custom()
+                           .setConnectTimeout(Timeout.ofMilliseconds(CONNECT_TIMEOUT))
+                           .build();
+  }
+
+  private Map<WomEndpointType, RequestConfig> getRequestConfigs() {
+    Map<WomEndpointType, RequestConfig> configs = new EnumMap<>(WomEndpointType.class);
+    for (WomEndpointType endpoint : WomEndpointType.values()) {
+      configs.put(endpoint,
+                  RequestConfig.custom()
+                               .setConnectionRequestTimeout(Timeout.ofMilliseconds(CONNECT_TIMEOUT))
+                               .setResponseTimeout(Timeout.ofMilliseconds(endpoint.getResponseTimeout()))
+                               .build());
+    }
+    return configs;
+  }
+
+  @SneakyThrows
+  private URI getUri(HttpRequest request) {
+    return request.getUri();
+  }
+
   @SneakyThrows
   private WomResponse handleHttpResponse(ClassicHttpResponse httpResponse) {
     HttpEntity entity = httpResponse.getEntity();
-    return new WomResponse(httpResponse.getCode(), entity == null ? null : EntityUtils.toString(entity));
+    try {
+      return new WomResponse(httpResponse.getCode(),
+                             entity == null ? null : readEntity(entity),
+                             getHeaderValue(httpResponse, HttpHeaders.ETAG),
+                             getHeaderValue(httpResponse, HttpHeaders.LAST_MODIFIED));
+    } catch (ResponseTooLargeException e) {
+      throw new WomException(RESPONSE_TOO_LARGE, e);
+    }
+  }
+
+  /**
+   * Deserializes successful responses entity directly from the response
+   * stream without buffering it, while error responses entity are read as
+   * text to build the error message.
+   */
+  @SneakyThrows
+  private WomResponse handleHttpResponse(ClassicHttpResponse httpResponse, ObjectReader objectReader) {
+    HttpEntity entity = httpResponse.getEntity();
+    if (httpResponse.getCode() != HttpStatus.SC_OK || entity == null) {
+      return handleHttpResponse(httpResponse);
+    }
+    try (InputStream inputStream = getContent(entity); JsonParser parser = objectReader.createParser(inputStream)) {
+      return new WomResponse(httpResponse.getCode(),
+                             null,
+                             getHeaderValue(httpResponse, HttpHeaders.ETAG),
+                             getHeaderValue(httpResponse, HttpHeaders.LAST_MODIFIED),
+                             parser.nextToken() == null ? null : objectReader.readValue(parser));
+    } catch (ResponseTooLargeException e) {
+      throw new WomException(RESPONSE_TOO_LARGE, e);
+    } catch (JsonProcessingException e) {
+      throw new WomParsingException("wom.unableToParseObject", e);
+    }
+  }
+
+  private String readEntity(HttpEntity entity) throws IOException {
+    try (InputStream inputStream = getContent(entity)) {
+      return new String(inputStream.readAllBytes(), getCharset(entity));
+    }
+  }
+
+  private InputStream getContent(HttpEntity entity) throws IOException {
+    if (entity.getContentLength() > MAX_BODY_SIZE) {
+      throw new ResponseTooLargeException(entity.getContentLength());
+    }
+    return new SizeLimitedInputStream(entity.getContent(), MAX_BODY_SIZE);
+  }
+
+  private Charset getCharset(HttpEntity entity) {
+    ContentType contentType = ContentType.parseLenient(entity.getContentType());
+    Charset charset = contentType == null ? null : contentType.getCharset();
+    return charset == null ? StandardCharsets.UTF_8 : charset;
+  }
+
+  private WomResponse handleHttpResponse(SimpleHttpResponse httpResponse) {
+    return new WomResponse(httpResponse.getCode(),
+                           httpResponse.getBodyText(),
+                           getHeaderValue(httpResponse, HttpHeaders.ETAG),
+                           getHeaderValue(httpResponse, HttpHeaders.LAST_MODIFIED));
+  }
+
+  private String getHeaderValue(HttpResponse httpResponse, String headerName) {
+    Header header = httpResponse.getFirstHeader(headerName);
+    return header == null ? null : header.getValue();
+  }
+
+  private static class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+
+    private long       readSize;
+
+    protected SizeLimitedInputStream(InputStream inputStream, long maxSize) {
+      super(inputStream);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value >= 0) {
+        checkSize(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int count = super.read(buffer, offset, length);
+      if (count > 0) {
+        checkSize(count);
+      }
+      return count;
+    }
+
+    private void checkSize(int count) throws ResponseTooLargeException {
+      readSize += count;
+      if (readSize > maxSize) {
+        throw new ResponseTooLargeException(readSize);
+      }
+    }
+
+  }
+
+  /**
+   * Buffers the async response entity while failing as soon as its size
+   * exceeds the maximum allowed size, the same way than the classic client
+   * response entity stream.
+   */
+  private static class SizeLimitedResponseConsumer extends AbstractBinResponseConsumer<SimpleHttpResponse> {
+
+    private SimpleHttpResponse    response;
+
+    private ContentType           contentType;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    @Override
+    protected void start(HttpResponse httpResponse, ContentType responseContentType) throws HttpException, IOException {
+      Header contentLength = httpResponse.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+      if (contentLength != null && NumberUtils.toLong(contentLength.getValue()) > MAX_BODY_SIZE) {
+        throw new ResponseTooLargeException(NumberUtils.toLong(contentLength.getValue()));
+      }
+      this.response = SimpleHttpResponse.copy(httpResponse);
+      this.contentType = responseContentType;
+    }
+
+    @Override
+    protected int capacityIncrement() {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void data(ByteBuffer data, boolean endOfStream) throws IOException {
+      if (buffer.size() + (long) data.remaining() > MAX_BODY_SIZE) {
+        throw new ResponseTooLargeException(buffer.size() + (long) data.remaining());
+      }
+      byte[] bytes = new byte[data.remaining()];
+      data.get(bytes);
+      buffer.write(bytes);
+    }
+
+    @Override
+    protected SimpleHttpResponse buildResult() {
+      if (buffer.size() > 0) {
+        response.setBody(buffer.toByteArray(), contentType);
+      }
+      return response;
+    }
+
+    @Override
+    public void releaseResources() {
+      buffer = new ByteArrayOutputStream();
+    }
+
+  }
+
+  private static class ResponseTooLargeException extends IOException {
+
+    private static final long serialVersionUID = -2093582915489498374L;
+
+    public ResponseTooLargeException(long size) {
+      super("Response entity size " + size + " exceeds the maximum allowed size " + MAX_BODY_SIZE);
+    }
+
   }
 
 }
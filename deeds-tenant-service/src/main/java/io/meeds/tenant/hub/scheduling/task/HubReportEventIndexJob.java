@@ -0,0 +1,52 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.scheduling.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.common.ContainerTransactional;
+import io.meeds.tenant.hub.service.HubReportEventIndexer;
+
+/**
+ * A Job that will frequently index the UEM ReportSent events of the Hub
+ */
+@Component
+public class HubReportEventIndexJob {
+
+  private static final Log      LOG = ExoLogger.getLogger(HubReportEventIndexJob.class);
+
+  @Autowired
+  private HubReportEventIndexer hubReportEventIndexer;
+
+  @Scheduled(cron = "${meeds.deed.tenant.reportEvents.cron:0 0/10 * * * *}")
+  @ContainerTransactional
+  public void run() {
+    try {
+      hubReportEventIndexer.indexReportEvents();
+    } catch (Exception e) {
+      LOG.warn("Error while indexing UEM Report events", e);
+    }
+  }
+
+}
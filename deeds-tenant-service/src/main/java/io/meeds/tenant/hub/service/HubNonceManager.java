@@ -0,0 +1,140 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+/**
+ * Allocates transaction nonces locally per sender address, in order to allow
+ * submitting multiple transactions back to back without waiting for each
+ * transaction receipt. The nonce is seeded from the blockchain pending
+ * transactions count the first time it's requested and after each
+ * resynchronization.
+ */
+@Component
+public class HubNonceManager {
+
+  private static final Log           LOG          = ExoLogger.getLogger(HubNonceManager.class);
+
+  private static final String[]      NONCE_ERRORS = new String[] {
+    "nonce too low",
+    "replacement transaction underpriced",
+  };
+
+  private static final String[]      KNOWN_TRANSACTION_ERRORS = new String[] {
+    "already known",
+    "known transaction",
+    "already imported",
+    "already exists",
+  };
+
+  @Autowired
+  private PolygonContractGasProvider polygonContractGasProvider;
+
+  private Map<String, AtomicLong>    nonces       = new ConcurrentHashMap<>();
+
+  /**
+   * @param address sender address
+   * @return the next nonce to use without reserving it
+   * @throws IOException when an error occurs while seeding nonce from
+   *           blockchain
+   */
+  public BigInteger getNonce(String address) throws IOException {
+    return BigInteger.valueOf(getCounter(address).get());
+  }
+
+  /**
+   * Reserves a nonce to use for a transaction to send
+   *
+   * @param address sender address
+   * @return the reserved nonce
+   * @throws IOException when an error occurs while seeding nonce from
+   *           blockchain
+   */
+  public BigInteger allocateNonce(String address) throws IOException {
+    return BigInteger.valueOf(getCounter(address).getAndIncrement());
+  }
+
+  /**
+   * Drops the locally managed nonce, so that it gets re-seeded from
+   * blockchain on next allocation. To use when a transaction sending fails,
+   * which leaves a gap in allocated nonces, or when the blockchain rejects an
+   * allocated nonce.
+   *
+   * @param address sender address
+   */
+  public void resync(String address) {
+    if (nonces.remove(StringUtils.lowerCase(address)) != null) {
+      LOG.info("Resynchronize nonce of address {} from blockchain", address);
+    }
+  }
+
+  /**
+   * @param message blockchain error message
+   * @return true if the error is due to an already used nonce
+   */
+  public boolean isNonceError(String message) {
+    return StringUtils.containsAnyIgnoreCase(message, NONCE_ERRORS);
+  }
+
+  /**
+   * @param message blockchain error message
+   * @return true if the error is due to submitting a signed transaction which
+   *         is already known by the node, thus its nonce is consumed by the
+   *         same transaction and mustn't be re-allocated
+   */
+  public boolean isKnownTransactionError(String message) {
+    return StringUtils.containsAnyIgnoreCase(message, KNOWN_TRANSACTION_ERRORS);
+  }
+
+  private AtomicLong getCounter(String address) throws IOException {
+    String key = StringUtils.lowerCase(address);
+    AtomicLong counter = nonces.get(key);
+    if (counter == null) {
+      synchronized (this) {
+        counter = nonces.get(key);
+        if (counter == null) {
+          counter = new AtomicLong(getPendingNonce(address).longValue());
+          nonces.put(key, counter);
+        }
+      }
+    }
+    return counter;
+  }
+
+  private BigInteger getPendingNonce(String address) throws IOException {
+    return polygonContractGasProvider.getWeb3j()
+                                     .ethGetTransactionCount(address, DefaultBlockParameterName.PENDING)
+                                     .send()
+                                     .getTransactionCount();
+  }
+
+}
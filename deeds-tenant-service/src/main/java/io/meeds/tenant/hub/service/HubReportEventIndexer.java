@@ -0,0 +1,205 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static io.meeds.tenant.hub.utils.ContractUtils.REPORTSENT_EVENT;
+import static io.meeds.tenant.hub.utils.ContractUtils.getReportSentEvent;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthLog.LogObject;
+import org.web3j.protocol.core.methods.response.EthLog.LogResult;
+import org.web3j.utils.Numeric;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.tenant.hub.model.HubReportEvent;
+import io.meeds.tenant.hub.model.HubReportState;
+import io.meeds.tenant.hub.model.HubTenant;
+import io.meeds.tenant.hub.storage.HubReportEventStorage;
+import io.meeds.tenant.hub.storage.HubReportSnapshotStorage;
+import io.meeds.tenant.hub.storage.HubReportStorage;
+import io.meeds.tenant.hub.utils.ContractUtils.ReportSentEventResponse;
+
+/**
+ * Incrementally indexes the ReportSent events emitted by the UEM contract for
+ * the current Hub, using bounded eth_getLogs block ranges starting from a
+ * persisted checkpoint. The local index allows to resolve and verify the sent
+ * reports without requesting WoM Server.
+ */
+@Service
+public class HubReportEventIndexer {
+
+  private static final Log           LOG                 = ExoLogger.getLogger(HubReportEventIndexer.class);
+
+  private static final long          BLOCK_RANGE         = Long.parseLong(System.getProperty("meeds.wom.reportEvents.blockRange", "5000"));
+
+  private static final int           MAX_RANGES_PER_RUN  = Integer.parseInt(System.getProperty("meeds.wom.reportEvents.maxRangesPerRun", "200"));
+
+  private static final long          CONFIRMATION_BLOCKS = Long.parseLong(System.getProperty("meeds.wom.reportEvents.confirmations", "32"));
+
+  private static final long          START_BLOCK         = Long.parseLong(System.getProperty("meeds.wom.reportEvents.startBlock", "0"));
+
+  private static final long          MAX_LOOKBACK_BLOCKS = Long.parseLong(System.getProperty("meeds.wom.reportEvents.maxLookbackBlocks", "20000000"));
+
+  @Autowired
+  private HubService                 hubService;
+
+  @Autowired
+  private PolygonContractGasProvider polygonContractGasProvider;
+
+  @Autowired
+  private HubReportEventStorage      hubReportEventStorage;
+
+  @Autowired
+  private HubReportStorage           hubReportStorage;
+
+  @Autowired
+  private HubReportSnapshotStorage   hubReportSnapshotStorage;
+
+  /**
+   * Indexes the ReportSent events of the Hub emitted since the last indexed
+   * block
+   *
+   * @return indexed events count
+   * @throws IOException when an error happens while requesting the blockchain
+   */
+  public synchronized int indexReportEvents() throws IOException {
+    if (!hubService.isConnected()) {
+      return 0;
+    }
+    HubTenant hub = hubService.getHub();
+    String hubAddress = hubService.getHubAddress();
+    if (hub == null || StringUtils.isBlank(hub.getUemAddress()) || StringUtils.isBlank(hubAddress)) {
+      return 0;
+    }
+    String uemAddress = hub.getUemAddress();
+    Web3j web3j = polygonContractGasProvider.getWeb3j();
+    long lastBlock = web3j.ethBlockNumber().send().getBlockNumber().longValue() - CONFIRMATION_BLOCKS;
+    long fromBlock = getStartBlock(uemAddress, lastBlock);
+
+    int indexedCount = 0;
+    int rangesCount = 0;
+    long blockRange = BLOCK_RANGE;
+    while (fromBlock <= lastBlock && rangesCount++ < MAX_RANGES_PER_RUN) {
+      long toBlock = Math.min(fromBlock + blockRange - 1, lastBlock);
+      EthLog ethLog = web3j.ethGetLogs(getReportSentFilter(uemAddress, hubAddress, fromBlock, toBlock)).send();
+      if (ethLog.hasError()) {
+        if (blockRange > 1) {
+          // Providers limit the range or the results count of eth_getLogs
+          blockRange = Math.max(1, blockRange / 2);
+          continue;
+        } else {
+          throw new IOException("Error while retrieving UEM ReportSent events: " + ethLog.getError().getMessage());
+        }
+      }
+      indexedCount += indexReportEvents(web3j, ethLog.getLogs());
+      hubReportEventStorage.saveLastIndexedBlock(uemAddress, toBlock);
+      fromBlock = toBlock + 1;
+    }
+    if (indexedCount > 0) {
+      LOG.info("{} UEM Report events indexed until block {}", indexedCount, fromBlock - 1);
+    }
+    return indexedCount;
+  }
+
+  private long getStartBlock(String uemAddress, long lastBlock) {
+    long lastIndexedBlock = hubReportEventStorage.getLastIndexedBlock(uemAddress);
+    if (lastIndexedBlock >= 0) {
+      return lastIndexedBlock + 1;
+    } else if (START_BLOCK > 0) {
+      return START_BLOCK;
+    } else {
+      return Math.max(0, lastBlock - MAX_LOOKBACK_BLOCKS);
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private int indexReportEvents(Web3j web3j, List<LogResult> logResults) throws IOException {
+    if (logResults == null || logResults.isEmpty()) {
+      return 0;
+    }
+    Map<BigInteger, Instant> blockTimes = new HashMap<>();
+    int indexedCount = 0;
+    for (LogResult logResult : logResults) {
+      LogObject log = (LogObject) logResult.get();
+      ReportSentEventResponse reportSentEvent = getReportSentEvent(log);
+      if (reportSentEvent == null || reportSentEvent.reportId == null) {
+        continue;
+      }
+      Instant blockTime = blockTimes.get(log.getBlockNumber());
+      if (blockTime == null) {
+        blockTime = getBlockTime(web3j, log.getBlockNumber());
+        blockTimes.put(log.getBlockNumber(), blockTime);
+      }
+      HubReportEvent event = new HubReportEvent(reportSentEvent.reportId.longValue(),
+                                                log.getTransactionHash(),
+                                                log.getBlockNumber().longValue(),
+                                                blockTime);
+      hubReportEventStorage.saveEvent(event);
+      resolveReportId(event);
+      indexedCount++;
+    }
+    return indexedCount;
+  }
+
+  private void resolveReportId(HubReportEvent event) {
+    HubReportState reportState = hubReportStorage.getReportStateByTransactionHash(event.getTransactionHash());
+    if (reportState != null) {
+      if (reportState.getReportId() != event.getReportId()) {
+        hubReportStorage.saveReportPeriodId(reportState.getPeriodId(), event.getReportId());
+      }
+      // Recompute the report using the indexed event data
+      hubReportSnapshotStorage.deleteSnapshot(reportState.getPeriodId());
+    }
+  }
+
+  private Instant getBlockTime(Web3j web3j, BigInteger blockNumber) throws IOException {
+    BigInteger timestamp = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(blockNumber), false)
+                                .send()
+                                .getBlock()
+                                .getTimestamp();
+    return Instant.ofEpochSecond(Objects.requireNonNull(timestamp).longValue());
+  }
+
+  private EthFilter getReportSentFilter(String uemAddress, String hubAddress, long fromBlock, long toBlock) {
+    EthFilter filter = new EthFilter(DefaultBlockParameter.valueOf(BigInteger.valueOf(fromBlock)),
+                                     DefaultBlockParameter.valueOf(BigInteger.valueOf(toBlock)),
+                                     uemAddress);
+    filter.addSingleTopic(EventEncoder.encode(REPORTSENT_EVENT));
+    filter.addSingleTopic(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(hubAddress), 64));
+    return filter;
+  }
+
+}
@@ -0,0 +1,317 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import org.exoplatform.services.listener.ListenerService;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+import io.meeds.tenant.hub.constant.HubReportSendJobStatusType;
+import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.tenant.hub.model.HubReportSendJob;
+import io.meeds.wom.api.constant.WomException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * A service to send Hub Reports asynchronously using a dedicated bounded
+ * thread pool, in order to not block the caller thread while preparing and
+ * submitting the blockchain transaction. The jobs are completed once the
+ * transaction receipt is retrieved, without holding a pool thread while
+ * waiting for it. The sending completion is notified using
+ * {@link HubReportService#REPORT_SENT_EVENT} and
+ * {@link HubReportService#REPORT_SENDING_ERROR_EVENT} events.
+ * <p>
+ * The service allows as well to backfill all unsent reports at once, using a
+ * separate pool which bounds the concurrently sent reports and throttles the
+ * transactions submission rate. Concurrent jobs share the pipelined nonce of
+ * the Hub wallet and wait for their transaction receipts concurrently.
+ */
+@Service
+public class HubReportSendJobService {
+
+  private static final Log              LOG                         = ExoLogger.getLogger(HubReportSendJobService.class);
+
+  private static final int              SENDER_THREADS_COUNT        = Integer.parseInt(System.getProperty("meeds.deed.tenant.report.send.threads", "2"));
+
+  private static final int              SENDER_QUEUE_SIZE           = Integer.parseInt(System.getProperty("meeds.deed.tenant.report.send.queueSize", "20"));
+
+  private static final int              BACKFILL_THREADS            = Integer.parseInt(System.getProperty("meeds.deed.tenant.report.backfill.threads", "4"));
+
+  private static final int              BACKFILL_RATE               = Integer.parseInt(System.getProperty("meeds.deed.tenant.report.backfill.ratePerMinute", "20"));
+
+  private static final int              BACKFILL_MAX_PERIODS        = Integer.parseInt(System.getProperty("meeds.deed.tenant.report.backfill.maxPeriods", "52"));
+
+  private static final Duration         JOB_RETENTION               = Duration.ofHours(1);
+
+  private static final Duration         ELIGIBLE_PERIOD_BEFORE_JOIN = Duration.ofDays(7);
+
+  @Autowired
+  private HubReportService              hubReportService;
+
+  @Autowired
+  private HubService                    hubService;
+
+  @Autowired
+  private ListenerService               listenerService;
+
+  private Map<String, HubReportSendJob> jobs                        = new ConcurrentHashMap<>();
+
+  private ThreadPoolExecutor            executor;
+
+  private ThreadPoolExecutor            backfillExecutor;
+
+  private final Object                  submissionRateLock          = new Object();
+
+  private long                          nextSubmissionTime;
+
+  @PostConstruct
+  public void init() {
+    executor = new ThreadPoolExecutor(SENDER_THREADS_COUNT,
+                                      SENDER_THREADS_COUNT,
+                                      60,
+                                      TimeUnit.SECONDS,
+                                      new ArrayBlockingQueue<>(SENDER_QUEUE_SIZE),
+                                      new BasicThreadFactory.Builder().namingPattern("HubReportSender-%d")
+                                                                      .daemon(true)
+                                                                      .build());
+    backfillExecutor = new ThreadPoolExecutor(BACKFILL_THREADS,
+                                              BACKFILL_THREADS,
+                                              60,
+                                              TimeUnit.SECONDS,
+                                              new LinkedBlockingQueue<>(),
+                                              new BasicThreadFactory.Builder().namingPattern("HubReportBackfill-%d")
+                                                                              .daemon(true)
+                                                                              .build());
+  }
+
+  /**
+   * Submits a report sending job. When a job is already queued or running for
+   * the same period, it's returned instead of creating a new one.
+   *
+   * @param periodId Reward Period technical identifier
+   * @return {@link HubReportSendJob} handle
+   * @throws WomException when the sending queue is full or when the report is
+   *           already being sent
+   */
+  public HubReportSendJob sendReport(long periodId) throws WomException {
+    return sendReport(periodId, null);
+  }
+
+  /**
+   * Submits a report sending job using designated transaction urgency.
+   *
+   * @param periodId Reward Period technical identifier
+   * @param urgency {@link GasUrgencyType} of the blockchain transaction, when
+   *          null the default configured urgency is used
+   * @return {@link HubReportSendJob} handle
+   * @throws WomException when the sending queue is full or when the report is
+   *           already being sent
+   */
+  public synchronized HubReportSendJob sendReport(long periodId, GasUrgencyType urgency) throws WomException {
+    cleanupFinishedJobs();
+    HubReportSendJob existingJob = getRunningJob(periodId);
+    if (existingJob != null) {
+      return existingJob;
+    } else if (hubReportService.isSending(periodId)) {
+      // Being recovered or sent without a job
+      throw new WomException("wom.reportSendingInProgress");
+    }
+    HubReportSendJob job = newJob(periodId, urgency);
+    jobs.put(job.getId(), job);
+    try {
+      executor.execute(() -> executeJob(job));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      throw new WomException("wom.reportSendingQueueFull", true);
+    }
+    return job;
+  }
+
+  /**
+   * Submits a sending job for each sendable and not sent report, starting from
+   * the period of the week preceding the Hub join date. The periods which have
+   * a queued or running job already are not submitted again.
+   *
+   * @param urgency {@link GasUrgencyType} of the blockchain transactions, when
+   *          null the default configured urgency is used
+   * @return {@link List} of submitted {@link HubReportSendJob}
+   */
+  public synchronized List<HubReportSendJob> backfillReports(GasUrgencyType urgency) {
+    Instant joinDate = hubService.getHubJoinDate();
+    if (joinDate == null) {
+      return Collections.emptyList();
+    }
+    cleanupFinishedJobs();
+    List<Long> periodIds = hubReportService.getSendablePeriodIds(joinDate.minus(ELIGIBLE_PERIOD_BEFORE_JOIN),
+                                                                 BACKFILL_MAX_PERIODS);
+    List<HubReportSendJob> backfillJobs = new ArrayList<>();
+    for (long periodId : periodIds) {
+      if (getRunningJob(periodId) != null || hubReportService.isSending(periodId)) {
+        continue;
+      }
+      HubReportSendJob job = newJob(periodId, urgency);
+      jobs.put(job.getId(), job);
+      backfillExecutor.execute(() -> {
+        if (awaitSubmissionRate()) {
+          executeJob(job);
+        } else {
+          job.setError("wom.unknownError");
+          job.setStatus(HubReportSendJobStatusType.FAILED);
+          job.setEndDate(Instant.now());
+        }
+      });
+      backfillJobs.add(job);
+    }
+    if (!backfillJobs.isEmpty()) {
+      LOG.info("{} unsent Hub Reports submitted for sending", backfillJobs.size());
+    }
+    return backfillJobs;
+  }
+
+  public HubReportSendJob getJob(String jobId) {
+    return jobs.get(jobId);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    executor.shutdownNow();
+    backfillExecutor.shutdownNow();
+  }
+
+  private HubReportSendJob getRunningJob(long periodId) {
+    return jobs.values()
+               .stream()
+               .filter(job -> job.getPeriodId() == periodId && !job.getStatus().isFinished())
+               .findFirst()
+               .orElse(null);
+  }
+
+  private HubReportSendJob newJob(long periodId, GasUrgencyType urgency) {
+    return new HubReportSendJob(UUID.randomUUID().toString(),
+                                periodId,
+                                urgency,
+                                HubReportSendJobStatusType.QUEUED,
+                                0,
+                                null,
+                                Instant.now(),
+                                null);
+  }
+
+  /**
+   * Waits until the next transaction submission slot, to not exceed the
+   * configured backfill rate.
+   *
+   * @return false when interrupted while waiting
+   */
+  private boolean awaitSubmissionRate() {
+    long waitTime;
+    synchronized (submissionRateLock) {
+      long now = System.currentTimeMillis();
+      long submissionTime = Math.max(now, nextSubmissionTime);
+      nextSubmissionTime = submissionTime + 60000l / Math.max(1, BACKFILL_RATE);
+      waitTime = submissionTime - now;
+    }
+    if (waitTime > 0) {
+      try {
+        Thread.sleep(waitTime);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void executeJob(HubReportSendJob job) {
+    job.setStatus(HubReportSendJobStatusType.RUNNING);
+    try {
+      hubReportService.sendReportAsync(job.getPeriodId(), job.getUrgency())
+                      .whenComplete((report, error) -> completeJob(job, report, error));
+    } catch (WomException e) {
+      if (!"wom.reportSendingInProgress".equals(e.getMessage())) {
+        // The report was rejected before changing its status, else the
+        // sending error is already notified when storing it
+        broadcastSendingError(job.getPeriodId());
+      }
+      completeJob(job, null, e);
+    } catch (Exception e) {
+      completeJob(job, null, e);
+    }
+  }
+
+  private void completeJob(HubReportSendJob job, HubReportLocalStatus report, Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    if (cause instanceof WomException e) {
+      LOG.warn("Error sending Report for period {} Transaction. Message: {}", job.getPeriodId(), e.getMessage());
+      job.setError(e.getMessage());
+      job.setStatus(HubReportSendJobStatusType.FAILED);
+    } else if (cause != null) {
+      LOG.warn("Error sending Report for period {} Transaction", job.getPeriodId(), cause);
+      job.setError("wom.unknownError");
+      job.setStatus(HubReportSendJobStatusType.FAILED);
+    } else if (report == null) {
+      job.setError("wom.reportNotSendable");
+      job.setStatus(HubReportSendJobStatusType.FAILED);
+      broadcastSendingError(job.getPeriodId());
+    } else {
+      job.setReportId(report.getReportId());
+      job.setStatus(HubReportSendJobStatusType.DONE);
+    }
+    job.setEndDate(Instant.now());
+  }
+
+  private void broadcastSendingError(long periodId) {
+    try {
+      listenerService.broadcast(HubReportService.REPORT_SENDING_ERROR_EVENT, periodId, null);
+    } catch (Exception e) {
+      LOG.warn("Error while notifying Report sending error for period {}", periodId, e);
+    }
+  }
+
+  private void cleanupFinishedJobs() {
+    Instant expirationDate = Instant.now().minus(JOB_RETENTION);
+    jobs.values()
+        .removeIf(job -> job.getStatus().isFinished()
+                         && job.getEndDate() != null
+                         && job.getEndDate().isBefore(expirationDate));
+  }
+
+}
@@ -21,11 +21,18 @@ import static io.meeds.tenant.hub.utils.EntityMapper.toHubReport;
 import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -36,8 +43,6 @@ import org.web3j.crypto.Hash;
 import org.exoplatform.services.listener.ListenerService;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
-import org.exoplatform.services.organization.OrganizationService;
-import org.exoplatform.services.organization.UserStatus;
 import org.exoplatform.wallet.model.reward.RewardPeriod;
 import org.exoplatform.wallet.model.reward.RewardReport;
 import org.exoplatform.wallet.reward.service.RewardReportService;
@@ -50,14 +55,24 @@ import io.meeds.gamification.model.filter.RealizationFilter;
 import io.meeds.gamification.model.filter.RuleFilter;
 import io.meeds.gamification.service.RealizationService;
 import io.meeds.gamification.service.RuleService;
+import io.meeds.tenant.hub.constant.GasUrgencyType;
 import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.model.HubReportEvent;
 import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+import io.meeds.tenant.hub.model.HubReportPeriodMetrics;
+import io.meeds.tenant.hub.model.HubReportState;
+import io.meeds.tenant.hub.model.HubSignedTransaction;
 import io.meeds.tenant.hub.model.HubTenant;
 import io.meeds.tenant.hub.rest.client.WomClientService;
+import io.meeds.tenant.hub.storage.HubReportEventStorage;
+import io.meeds.tenant.hub.storage.HubReportOutboxStorage;
+import io.meeds.tenant.hub.storage.HubReportPeriodMetricsStorage;
+import io.meeds.tenant.hub.storage.HubReportSendingStorage;
+import io.meeds.tenant.hub.storage.HubReportSnapshotStorage;
 import io.meeds.tenant.hub.storage.HubReportStorage;
 import io.meeds.tenant.hub.storage.HubWalletStorage;
 import io.meeds.wom.api.constant.WomException;
-import io.meeds.wom.api.constant.WomParsingException;
 import io.meeds.wom.api.model.HubReport;
 import io.meeds.wom.api.model.HubReportPayload;
 import io.meeds.wom.api.model.HubReportVerifiableData;
@@ -67,105 +82,308 @@ import lombok.SneakyThrows;
 @Service
 public class HubReportService {
 
-  public static final String  REPORT_SENT_EVENT                = "deed.tenant.report.sent";
+  public static final String            REPORT_SENT_EVENT                = "deed.tenant.report.sent";
 
-  public static final String  REPORT_SENDING_IN_PROGRESS_EVENT = "deed.tenant.report.sending";
+  public static final String            REPORT_SENDING_IN_PROGRESS_EVENT = "deed.tenant.report.sending";
 
-  public static final String  REPORT_SENDING_ERROR_EVENT       = "deed.tenant.report.error";
+  public static final String            REPORT_SENDING_ERROR_EVENT       = "deed.tenant.report.error";
 
-  public static final String  REPORT_PERSISTED_EVENT           = "deed.tenant.report.persistedInServer";
+  public static final String            REPORT_PERSISTED_EVENT           = "deed.tenant.report.persistedInServer";
 
-  public static final String  REPORT_PERSIST_ERROR_EVENT       = "deed.tenant.report.persistError";
+  public static final String            REPORT_PERSIST_ERROR_EVENT       = "deed.tenant.report.persistError";
 
-  private static final String DEFAULT_LOG_LANG                 = Locale.ENGLISH.toLanguageTag();
+  private static final String           DEFAULT_LOG_LANG                 = Locale.ENGLISH.toLanguageTag();
 
-  private static final Log    LOG                              = ExoLogger.getLogger(HubReportService.class);
+  private static final Log              LOG                              = ExoLogger.getLogger(HubReportService.class);
+
+  private static final int              SENDABLE_PERIODS_PAGE_SIZE       = 20;
+
+  private static final Set<HubReportStatusType> NOT_SENDABLE_STATUSES = EnumSet.of(HubReportStatusType.SENT,
+                                                                                   HubReportStatusType.SENDING,
+                                                                                   HubReportStatusType.PENDING_REWARD,
+                                                                                   HubReportStatusType.REWARDED,
+                                                                                   HubReportStatusType.REJECTED);
+
+  @Autowired
+  private RewardReportService           rewardReportService;
+
+  @Autowired
+  private RealizationService            realizationService;
+
+  @Autowired
+  private RuleService                   ruleService;
 
   @Autowired
-  private OrganizationService organizationService;
+  private HubService                    hubService;
 
   @Autowired
-  private RewardReportService rewardReportService;
+  private HubUsersCounter               hubUsersCounter;
 
   @Autowired
-  private RealizationService  realizationService;
+  private WomClientService              womServiceClient;
 
   @Autowired
-  private RuleService         ruleService;
+  private HubWalletStorage              hubWalletStorage;
 
   @Autowired
-  private HubService          hubService;
+  private HubReportStorage              hubReportStorage;
 
   @Autowired
-  private WomClientService    womServiceClient;
+  private HubReportSnapshotStorage      hubReportSnapshotStorage;
 
   @Autowired
-  private HubWalletStorage    hubWalletStorage;
+  private HubReportPeriodMetricsStorage hubReportPeriodMetricsStorage;
 
   @Autowired
-  private HubReportStorage    hubReportStorage;
+  private HubReportOutboxStorage        hubReportOutboxStorage;
 
   @Autowired
-  private ListenerService     listenerService;
+  private HubReportEventStorage         hubReportEventStorage;
+
+  @Autowired
+  private HubReportSendingStorage       hubReportSendingStorage;
+
+  @Autowired
+  private ListenerService               listenerService;
+
+  private final Set<Long>               sendingPeriods                   = ConcurrentHashMap.newKeySet();
 
   public HubReportLocalStatus sendReport(long periodId) throws WomException {
+    return sendReport(periodId, null);
+  }
+
+  public HubReportLocalStatus sendReport(long periodId, GasUrgencyType urgency) throws WomException {
+    return join(sendReportAsync(periodId, urgency));
+  }
+
+  /**
+   * Sends the report of a reward period without blocking the calling thread
+   * while waiting for the blockchain transaction receipt. The report is
+   * persisted in WoM once the transaction is mined. The sending state changes
+   * are committed separately, thus this method mustn't be called inside a
+   * transaction, else the signed transaction wouldn't be committed before
+   * submitting it.
+   *
+   * @param periodId Reward Period technical identifier
+   * @param urgency {@link GasUrgencyType} of the blockchain transaction, when
+   *          null the default configured urgency is used
+   * @return {@link CompletableFuture} completed with the sent report, with
+   *         null when the report isn't sendable, or exceptionally with a
+   *         {@link WomException} when the sending fails
+   * @throws WomException when the report sending is already in progress
+   */
+  public CompletableFuture<HubReportLocalStatus> sendReportAsync(long periodId,
+                                                                 GasUrgencyType urgency) throws WomException {
     RewardReport rewardReport = rewardReportService.getRewardReportByPeriodId(periodId);
     if (rewardReport == null) {
-      return null;
+      return CompletableFuture.completedFuture(null);
     } else {
-      return sendReport(rewardReport);
+      return sendReportAsync(rewardReport, urgency);
     }
   }
 
-  public HubReportLocalStatus sendReport(RewardReport rewardReport) throws WomException { // NOSONAR
+  public HubReportLocalStatus sendReport(RewardReport rewardReport) throws WomException {
+    return sendReport(rewardReport, null);
+  }
+
+  public HubReportLocalStatus sendReport(RewardReport rewardReport, GasUrgencyType urgency) throws WomException {
+    return join(sendReportAsync(rewardReport, urgency));
+  }
+
+  public CompletableFuture<HubReportLocalStatus> sendReportAsync(RewardReport rewardReport, // NOSONAR
+                                                                 GasUrgencyType urgency) throws WomException {
     if (!hubService.isConnected()) {
-      return null;
+      return CompletableFuture.completedFuture(null);
     }
 
     RewardPeriod rewardPeriod = rewardReport.getPeriod();
     if (!rewardReport.isCompletelyProceeded()) {
-      return null;
+      return CompletableFuture.completedFuture(null);
     } else {
+      // The in-memory users count is incrementally updated with the users
+      // events of the current node only, thus recount it before signing it
+      hubUsersCounter.reconcile();
       HubReportPayload reportData = toReport(rewardReport);
+      long periodId = hubReportStorage.getPeriodKey(rewardPeriod);
+      if (!sendingPeriods.add(periodId)) {
+        throw new WomException("wom.reportSendingInProgress");
+      }
+      CompletableFuture<HubReportLocalStatus> sending;
+      try {
+        if (hubReportOutboxStorage.getEntry(periodId) != null) {
+          // A previously submitted transaction is still waiting to be
+          // reconciled with blockchain state
+          throw new WomException("wom.reportSendingInProgress");
+        }
+
+        HubTenant hub = hubService.getHub(true);
+        long start = System.currentTimeMillis();
+        LOG.info("Sending: Hub Report of Reward date '{}' to '{}' to UEM",
+                 rewardPeriod.getStartDateFormatted(DEFAULT_LOG_LANG),
+                 rewardPeriod.getEndDateFormatted(DEFAULT_LOG_LANG));
+
+        sending = sendTransactionAsync(periodId, reportData, hub, urgency).thenCompose(reportId -> {
+          LOG.info("Sent: Hub Report with id '{}' of Reward date '{}' to '{}' to UEM within {}ms",
+                   rewardPeriod.getStartDateFormatted(DEFAULT_LOG_LANG),
+                   rewardPeriod.getEndDateFormatted(DEFAULT_LOG_LANG),
+                   reportId,
+                   System.currentTimeMillis() - start);
+          reportData.setReportId(reportId);
+          try {
+            return persistReportAsync(reportData);
+          } catch (WomException e) {
+            throw new CompletionException(e);
+          }
+        }).thenApply(report -> {
+          hubReportOutboxStorage.deleteEntry(periodId);
+          return toHubLocalReport(report,
+                                  periodId,
+                                  HubReportStatusType.SENT.isCanRefresh(),
+                                  HubReportStatusType.SENT.isCanSend(),
+                                  HubReportStatusType.SENT,
+                                  null);
+        });
+      } catch (WomException | RuntimeException e) {
+        sendingPeriods.remove(periodId);
+        throw e;
+      }
+      return sending.whenComplete((report, error) -> sendingPeriods.remove(periodId));
+    }
+  }
 
-      HubTenant hub = hubService.getHub(true);
-      long start = System.currentTimeMillis();
-      LOG.info("Sending: Hub Report of Reward date '{}' to '{}' to UEM",
-               rewardPeriod.getStartDateFormatted(DEFAULT_LOG_LANG),
-               rewardPeriod.getEndDateFormatted(DEFAULT_LOG_LANG));
-
-      long reportId = sendTransaction(rewardPeriod, reportData, hub);
-      reportData.setReportId(reportId);
-
-      LOG.info("Sent: Hub Report with id '{}' of Reward date '{}' to '{}' to UEM within {}ms",
-               rewardPeriod.getStartDateFormatted(DEFAULT_LOG_LANG),
-               rewardPeriod.getEndDateFormatted(DEFAULT_LOG_LANG),
-               reportId,
-               System.currentTimeMillis() - start);
+  /**
+   * @param periodId Reward Period technical identifier
+   * @return true when the report of the period is being sent by the current
+   *         node, or when its submitted transaction is still waiting to be
+   *         reconciled with blockchain state
+   */
+  public boolean isSending(long periodId) {
+    return sendingPeriods.contains(periodId) || hubReportOutboxStorage.getEntry(periodId) != null;
+  }
 
-      HubReport report = persistReport(reportData);
-      return toHubLocalReport(report,
-                              hubReportStorage.getPeriodKey(rewardPeriod),
-                              HubReportStatusType.SENT.isCanRefresh(),
-                              HubReportStatusType.SENT.isCanSend(),
-                              HubReportStatusType.SENT,
-                              null);
+  /**
+   * Reconciles the reports which transactions were submitted to the blockchain
+   * without knowing their outcome, typically when the server was stopped while
+   * waiting for the transaction receipt. The reconciliation retrieves the
+   * transaction receipt to extract the created report identifier, then
+   * persists the report in WoM, without sending a new transaction.
+   */
+  public void recoverPendingReports() {
+    List<HubReportOutboxEntry> entries = hubReportOutboxStorage.getEntries();
+    for (HubReportOutboxEntry entry : entries) {
+      long periodId = entry.getPeriodId();
+      if (!sendingPeriods.add(periodId)) {
+        // Being sent currently
+        continue;
+      }
+      try {
+        recoverReport(entry);
+      } catch (Exception e) {
+        LOG.warn("Error while recovering Hub Report of period {} with transaction {}. Retry later.",
+                 periodId,
+                 entry.getTransactionHash(),
+                 e);
+      } finally {
+        sendingPeriods.remove(periodId);
+      }
     }
   }
 
+  /**
+   * Retrieves the completely processed reward periods which reports weren't
+   * sent yet. The eligibility is computed from the stored sending state of
+   * each period rather than from the reports snapshots, which may not be
+   * refreshed yet after a Hub connection.
+   *
+   * @param fromDate minimum end date of eligible periods, null to not filter
+   *          on dates
+   * @param limit maximum periods count to retrieve
+   * @return {@link List} of Reward Period technical identifiers
+   */
+  public List<Long> getSendablePeriodIds(Instant fromDate, int limit) {
+    List<Long> periodIds = new ArrayList<>();
+    int offset = 0;
+    boolean fromDateReached = false;
+    List<RewardPeriod> rewardPeriods;
+    do {
+      // Reward periods are sorted from the most recent to the oldest
+      rewardPeriods = rewardReportService.findRewardReportPeriods(offset, SENDABLE_PERIODS_PAGE_SIZE);
+      if (CollectionUtils.isEmpty(rewardPeriods)) {
+        break;
+      }
+      for (RewardPeriod rewardPeriod : rewardPeriods) {
+        if (fromDate != null && Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds()).isBefore(fromDate)) {
+          fromDateReached = true;
+          break;
+        } else if (periodIds.size() >= limit) {
+          break;
+        } else if (isSendable(rewardPeriod)) {
+          periodIds.add(rewardPeriod.getId());
+        }
+      }
+      offset += SENDABLE_PERIODS_PAGE_SIZE;
+    } while (!fromDateReached && rewardPeriods.size() == SENDABLE_PERIODS_PAGE_SIZE && periodIds.size() < limit);
+    return periodIds;
+  }
+
   public List<HubReportLocalStatus> getReports(int offset, int limit) {
     List<RewardPeriod> rewardPeriods = rewardReportService.findRewardReportPeriods(offset, limit);
     if (CollectionUtils.isEmpty(rewardPeriods)) {
       return Collections.emptyList();
     } else {
+      Map<Long, HubReportLocalStatus> snapshots = hubReportSnapshotStorage.getSnapshots(rewardPeriods.stream()
+                                                                                                     .map(RewardPeriod::getId)
+                                                                                                     .filter(id -> id > 0)
+                                                                                                     .toList());
+      List<Long> notSnapshotPeriodIds = rewardPeriods.stream()
+                                                     .map(RewardPeriod::getId)
+                                                     .filter(id -> id > 0 && !snapshots.containsKey(id))
+                                                     .toList();
+      Map<Long, HubReportPeriodMetrics> periodsMetrics = hubReportPeriodMetricsStorage.getMetrics(notSnapshotPeriodIds);
       return rewardPeriods.stream()
-                          .map(p -> rewardReportService.getRewardReport(p.getPeriodMedianDate()))
+                          .map(p -> snapshots.containsKey(p.getId()) ? snapshots.get(p.getId()) :
+                                                                     generateNewReport(p, periodsMetrics.get(p.getId())))
                           .filter(Objects::nonNull)
-                          .map(this::generateNewReport)
                           .toList();
     }
   }
 
+  /**
+   * Recomputes and stores the engagement metrics of a closed reward period,
+   * then its report snapshot.
+   *
+   * @param periodId Reward Period technical identifier
+   * @return recomputed {@link HubReportLocalStatus}
+   * @throws WomException when the reward period wasn't found
+   */
+  public HubReportLocalStatus recomputeReportMetrics(long periodId) throws WomException {
+    hubReportPeriodMetricsStorage.deleteMetrics(periodId);
+    hubReportSnapshotStorage.deleteSnapshot(periodId);
+    return getReport(periodId, false);
+  }
+
+  /**
+   * Recomputes the report of a reward period and stores it as snapshot when
+   * the period is completely processed and not in a transient sending status.
+   *
+   * @param periodId Reward Period technical identifier
+   */
+  public void refreshReportSnapshot(long periodId) {
+    hubReportSnapshotStorage.deleteSnapshot(periodId);
+    RewardReport rewardReport = rewardReportService.getRewardReportByPeriodId(periodId);
+    if (rewardReport != null) {
+      generateNewReport(rewardReport);
+    }
+  }
+
+  /**
+   * Clears all reports snapshots, used when a global computing input changes,
+   * like the Hub connection status.
+   */
+  public void clearReportSnapshots() {
+    hubReportSnapshotStorage.deleteSnapshots();
+  }
+
   public HubReportLocalStatus getReport(long periodId, boolean refresh) throws WomException {
     if (refresh) {
       return retrieveReport(periodId);
@@ -179,20 +397,53 @@ public class HubReportService {
     }
   }
 
+  /**
+   * @param periodId Reward Period technical identifier
+   * @return UEM Report identifier resolved from the locally indexed ReportSent
+   *         event when available, else from the identifier stored at sending
+   *         time, 0 when not sent
+   */
   public long getReportId(long periodId) {
-    return hubReportStorage.getReportId(periodId);
+    HubReportEvent reportEvent = getReportEvent(hubReportStorage.getReportState(periodId));
+    return reportEvent == null ? hubReportStorage.getReportId(periodId) : reportEvent.getReportId();
   }
 
+  /**
+   * @param reportId UEM Report identifier
+   * @return Reward Period technical identifier resolved from the transaction
+   *         hash of the locally indexed ReportSent event when available, else
+   *         from the identifier stored at sending time, 0 when not found
+   */
   public long getPeriodId(long reportId) {
+    HubReportEvent reportEvent = hubReportEventStorage.getEvent(reportId);
+    if (reportEvent != null) {
+      HubReportState reportState = hubReportStorage.getReportStateByTransactionHash(reportEvent.getTransactionHash());
+      if (reportState != null) {
+        return reportState.getPeriodId();
+      }
+    }
     return hubReportStorage.getPeriodId(reportId);
   }
 
   private HubReportLocalStatus retrieveReport(long periodId) throws WomException {
-    long reportId = hubReportStorage.getReportId(periodId);
+    long reportId = getReportId(periodId);
     if (reportId == 0) {
       throw new WomException("wom.notSentReward");
     }
-    HubReport report = womServiceClient.retrieveReport(reportId);
+    HubReport report;
+    try {
+      report = womServiceClient.retrieveReport(reportId);
+    } catch (WomException e) {
+      HubReportLocalStatus indexedReport = getIndexedReport(periodId, reportId);
+      if (indexedReport == null) {
+        throw e;
+      } else {
+        LOG.warn("Unable to retrieve report {} from WoM, use the locally indexed report. Error: {}",
+                 reportId,
+                 e.getMessage());
+        return indexedReport;
+      }
+    }
     if (report == null) {
       throw new WomException("wom.rewardNotFoundInWom");
     } else {
@@ -206,38 +457,151 @@ public class HubReportService {
     }
   }
 
-  private long sendTransaction(RewardPeriod rewardPeriod, HubReportPayload reportData, HubTenant hub) throws WomException {
-    long reportId;
-    try {
-      markReportAsSending(rewardPeriod);
-      reportId = hubWalletStorage.sendReportTransaction(reportData, hub.getUemAddress(), hub.getNetworkId());
-      markReportAsSent(rewardPeriod, reportId);
-    } catch (WomException e) {
-      markReportAsError(rewardPeriod, e);
-      throw e;
-    } catch (RuntimeException e) {
-      markReportAsError(rewardPeriod, new WomException("wom.unknownError", true));
-      throw e;
-    } finally {
-      String status = hubReportStorage.getStatus(rewardPeriod);
-      HubReportStatusType statusType = computeReportStatusType(status);
-      if (statusType == HubReportStatusType.SENDING) {
-        markReportAsError(rewardPeriod, new WomException("wom.unknownError", true));
+  /**
+   * Builds the report from its locally indexed ReportSent event, which
+   * verifies that it was created in UEM contract, and from the last computed
+   * report snapshot of the period when available.
+   *
+   * @param periodId Reward Period technical identifier
+   * @param reportId UEM Report identifier
+   * @return {@link HubReportLocalStatus} or null when not indexed
+   */
+  private HubReportLocalStatus getIndexedReport(long periodId, long reportId) {
+    HubReportEvent reportEvent = hubReportEventStorage.getEvent(reportId);
+    if (reportEvent == null) {
+      return null;
+    }
+    HubReportLocalStatus report = hubReportSnapshotStorage.getSnapshot(periodId);
+    if (report == null) {
+      report = new HubReportLocalStatus();
+      report.setPeriodId(periodId);
+      report.setHubAddress(hubService.getHubAddress());
+      RewardReport rewardReport = rewardReportService.getRewardReportByPeriodId(periodId);
+      if (rewardReport != null) {
+        RewardPeriod rewardPeriod = rewardReport.getPeriod();
+        report.setFromDate(Instant.ofEpochSecond(rewardPeriod.getStartDateInSeconds()));
+        report.setToDate(Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds()));
+        report.setPeriodType(rewardPeriod.getRewardPeriodType().name());
       }
     }
-    return reportId;
+    report.setReportId(reportEvent.getReportId());
+    report.setDeedId(hubService.getDeedId());
+    report.setSentDate(reportEvent.getBlockTime());
+    report.setStatus(HubReportStatusType.SENT);
+    report.setCanRefresh(HubReportStatusType.SENT.isCanRefresh());
+    report.setCanSend(HubReportStatusType.SENT.isCanSend());
+    report.setError(null);
+    return report;
+  }
+
+  /**
+   * @param reportState stored report sending state of a reward period
+   * @return the locally indexed ReportSent event of the period, resolved by
+   *         its report identifier or its sent transaction hash, else null
+   */
+  private HubReportEvent getReportEvent(HubReportState reportState) {
+    if (reportState == null) {
+      return null;
+    }
+    HubReportEvent reportEvent = reportState.getReportId() > 0 ? hubReportEventStorage.getEvent(reportState.getReportId()) :
+                                                               null;
+    if (reportEvent == null && StringUtils.isNotBlank(reportState.getTransactionHash())) {
+      reportEvent = hubReportEventStorage.getEventByTransactionHash(reportState.getTransactionHash());
+    }
+    return reportEvent;
+  }
+
+  private CompletableFuture<Long> sendTransactionAsync(long periodId,
+                                                       HubReportPayload reportData,
+                                                       HubTenant hub,
+                                                       GasUrgencyType urgency) {
+    markReportAsSending(periodId);
+    return hubWalletStorage.sendReportTransactionAsync(reportData,
+                                                       hub.getUemAddress(),
+                                                       hub.getNetworkId(),
+                                                       urgency,
+                                                       signedTransaction -> saveOutboxEntry(periodId,
+                                                                                            reportData,
+                                                                                            hub,
+                                                                                            signedTransaction))
+                           .handle((reportId, error) -> {
+                             if (error == null) {
+                               markReportAsSent(periodId, reportId);
+                               return reportId;
+                             }
+                             Throwable cause = unwrap(error);
+                             if (cause instanceof WomException e) {
+                               markReportAsError(periodId, e);
+                             } else if (hubReportOutboxStorage.getEntry(periodId) == null) {
+                               markReportAsError(periodId, new WomException("wom.unknownError", true));
+                             } else {
+                               // The transaction may have been submitted, thus keep
+                               // the SENDING status until reconciling it with
+                               // blockchain state
+                               LOG.warn("Hub Report transaction of period {} was submitted without knowing its outcome. "
+                                   + "It will be recovered later.", periodId);
+                             }
+                             throw new CompletionException(cause);
+                           });
+  }
+
+  /**
+   * Commits the signed transaction in its own transaction, before submitting
+   * it to the blockchain, to be able to recover it when the server stops
+   * before knowing its outcome
+   */
+  private void saveOutboxEntry(long periodId,
+                               HubReportPayload reportData,
+                               HubTenant hub,
+                               HubSignedTransaction signedTransaction) {
+    hubReportSendingStorage.saveSignedTransaction(new HubReportOutboxEntry(periodId,
+                                                                           reportData,
+                                                                           hub.getUemAddress(),
+                                                                           hub.getNetworkId(),
+                                                                           signedTransaction.getTransactionHash(),
+                                                                           signedTransaction.getNonce(),
+                                                                           signedTransaction.getRawTransaction(),
+                                                                           Instant.now()));
+  }
+
+  private void recoverReport(HubReportOutboxEntry entry) throws WomException {
+    long periodId = entry.getPeriodId();
+    long reportId = hubReportStorage.getReportId(periodId);
+    if (reportId == 0) {
+      try {
+        reportId = hubWalletStorage.recoverReportTransaction(entry.getTransactionHash(), entry.getRawTransaction());
+      } catch (WomException e) {
+        markReportAsError(periodId, e);
+        return;
+      }
+      if (reportId == 0) {
+        LOG.info("Hub Report transaction {} of period {} is still pending", entry.getTransactionHash(), periodId);
+        return;
+      }
+      markReportAsSent(periodId, reportId);
+    }
+    HubReportPayload reportData = entry.getPayload();
+    reportData.setReportId(reportId);
+    persistReport(reportData);
+    hubReportOutboxStorage.deleteEntry(periodId);
+    LOG.info("Recovered: Hub Report with id '{}' of period {}", reportId, periodId);
   }
 
-  @SneakyThrows
   private HubReport persistReport(HubReportPayload reportData) throws WomException {
+    return join(persistReportAsync(reportData));
+  }
+
+  private CompletableFuture<HubReport> persistReportAsync(HubReportPayload reportData) throws WomException {
     String signature = signHubMessage(reportData);
     String hash = StringUtils.lowerCase(Hash.sha3(signature));
     HubReportVerifiableData reportRequest = new HubReportVerifiableData(hash,
                                                                         signature,
                                                                         reportData);
-    HubReport report = womServiceClient.saveReport(reportRequest);
-    listenerService.broadcast(REPORT_PERSISTED_EVENT, reportRequest.getReportId(), null);
-    return report;
+    return womServiceClient.saveReportAsync(reportRequest)
+                           .thenApply(report -> {
+                             broadcastEvent(REPORT_PERSISTED_EVENT, reportRequest.getReportId());
+                             return report;
+                           });
   }
 
   private String signHubMessage(HubReportPayload reportData) throws WomException {
@@ -246,43 +610,120 @@ public class HubReportService {
   }
 
   private HubReportPayload toReport(RewardReport rewardReport) {
-    RewardPeriod rewardPeriod = rewardReport.getPeriod();
-    Date fromDate = Date.from(Instant.ofEpochSecond(rewardPeriod.getStartDateInSeconds()));
-    Date toDate = Date.from(Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds()));
+    return toReport(rewardReport, null);
+  }
 
+  private HubReportPayload toReport(RewardReport rewardReport, HubReportPeriodMetrics periodMetrics) {
+    RewardPeriod rewardPeriod = rewardReport.getPeriod();
+    if (periodMetrics == null) {
+      periodMetrics = getPeriodMetrics(rewardReport);
+    }
     return toHubReport(rewardReport,
                        hubService.getHubAddress(),
                        hubService.getDeedId(),
                        computeUsersCount(),
-                       countParticipants(fromDate, toDate),
-                       countAchievements(fromDate, toDate),
+                       periodMetrics.getParticipantsCount(),
+                       periodMetrics.getAchievementsCount(),
                        countActions(),
                        hubReportStorage.getSentDate(rewardPeriod));
   }
 
-  @SneakyThrows
-  private void markReportAsSent(RewardPeriod rewardPeriod, long reportId) {
-    hubReportStorage.saveReportPeriodId(rewardPeriod, reportId);
-    hubReportStorage.saveStatus(rewardPeriod, HubReportStatusType.SENT.name());
-    hubReportStorage.saveSentDate(rewardPeriod, Instant.now());
-    listenerService.broadcast(REPORT_SENT_EVENT, rewardPeriod.getId(), reportId);
+  /**
+   * Retrieves the engagement metrics of a reward period. The metrics of
+   * completely processed periods aren't supposed to change anymore, thus they
+   * are computed once and stored, while the metrics of the open period are
+   * computed each time.
+   *
+   * @param rewardReport {@link RewardReport}
+   * @return {@link HubReportPeriodMetrics}
+   */
+  private HubReportPeriodMetrics getPeriodMetrics(RewardReport rewardReport) {
+    RewardPeriod rewardPeriod = rewardReport.getPeriod();
+    boolean closedPeriod = rewardReport.isCompletelyProceeded();
+    long periodId = closedPeriod ? hubReportStorage.getPeriodKey(rewardPeriod) : rewardPeriod.getId();
+    HubReportPeriodMetrics periodMetrics = closedPeriod && periodId > 0 ? hubReportPeriodMetricsStorage.getMetrics(periodId) :
+                                                                        null;
+    if (periodMetrics == null) {
+      Date fromDate = Date.from(Instant.ofEpochSecond(rewardPeriod.getStartDateInSeconds()));
+      Date toDate = Date.from(Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds()));
+      periodMetrics = new HubReportPeriodMetrics(periodId,
+                                                 countParticipants(fromDate, toDate),
+                                                 countAchievements(fromDate, toDate),
+                                                 Instant.now());
+      if (closedPeriod && periodId > 0) {
+        hubReportPeriodMetricsStorage.saveMetrics(periodMetrics);
+      }
+    }
+    return periodMetrics;
   }
 
-  @SneakyThrows
-  private void markReportAsSending(RewardPeriod rewardPeriod) {
-    hubReportStorage.saveStatus(rewardPeriod, HubReportStatusType.SENDING.name());
-    listenerService.broadcast(REPORT_SENDING_IN_PROGRESS_EVENT, rewardPeriod.getId(), null);
+  private void markReportAsSent(long periodId, long reportId) {
+    hubReportSendingStorage.markAsSent(periodId, reportId);
+    broadcastEvent(REPORT_SENT_EVENT, periodId, reportId);
+  }
+
+  private void markReportAsSending(long periodId) {
+    hubReportSendingStorage.markAsSending(periodId);
+    broadcastEvent(REPORT_SENDING_IN_PROGRESS_EVENT, periodId, null);
   }
 
   @SneakyThrows
-  private void markReportAsError(RewardPeriod rewardPeriod, String error) {
-    hubReportStorage.saveStatus(rewardPeriod, error);
-    listenerService.broadcast(REPORT_SENDING_ERROR_EVENT, rewardPeriod.getId(), null);
+  private void markReportAsError(long periodId, WomException e) {
+    hubReportSendingStorage.markAsError(periodId, toJsonString(e.getErrorCode()));
+    broadcastEvent(REPORT_SENDING_ERROR_EVENT, periodId, null);
+  }
+
+  private <T> T join(CompletableFuture<T> future) throws WomException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof WomException womException) {
+        throw womException;
+      } else if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  private Throwable unwrap(Throwable e) {
+    return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+  }
+
+  private void broadcastEvent(String eventName, long id) {
+    broadcastEvent(eventName, id, null);
   }
 
-  private void markReportAsError(RewardPeriod rewardPeriod, WomException e) throws WomParsingException {
-    String error = toJsonString(e.getErrorCode());
-    markReportAsError(rewardPeriod, error);
+  /**
+   * Broadcasts a report event. The status events are broadcasted once the
+   * status change is committed, since the asynchronous listeners read the
+   * stored status again, and a failing listener doesn't fail the sending
+   * since the status change is already committed.
+   */
+  private void broadcastEvent(String eventName, long id, Long data) {
+    try {
+      listenerService.broadcast(eventName, id, data);
+    } catch (Exception e) {
+      LOG.warn("Error while broadcasting event {} for {}", eventName, id, e);
+    }
+  }
+
+  private boolean isSendable(RewardPeriod rewardPeriod) {
+    long periodId = rewardPeriod.getId();
+    if (periodId <= 0 || Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds()).isAfter(Instant.now())) {
+      return false;
+    }
+    HubReportState reportState = hubReportStorage.getReportState(periodId);
+    if (reportState != null
+        && (reportState.getReportId() > 0
+            || NOT_SENDABLE_STATUSES.contains(reportState.getStatus())
+            || getReportEvent(reportState) != null)) {
+      return false;
+    }
+    RewardReport rewardReport = rewardReportService.getRewardReportByPeriodId(periodId);
+    return rewardReport != null && rewardReport.isCompletelyProceeded();
   }
 
   private HubReportStatusType computeReportStatusType(String status) {
@@ -312,9 +753,8 @@ public class HubReportService {
     }
   }
 
-  @SneakyThrows
   public long computeUsersCount() {
-    return organizationService.getUserHandler().findAllUsers(UserStatus.ENABLED).getSize();
+    return hubUsersCounter.getEnabledUsersCount();
   }
 
   private long countParticipants(Date fromDate, Date toDate) {
@@ -339,16 +779,36 @@ public class HubReportService {
     return ruleService.countRules(ruleFilter);
   }
 
+  private HubReportLocalStatus generateNewReport(RewardPeriod rewardPeriod, HubReportPeriodMetrics periodMetrics) {
+    RewardReport rewardReport = rewardReportService.getRewardReport(rewardPeriod.getPeriodMedianDate());
+    return rewardReport == null ? null : generateNewReport(rewardReport, periodMetrics);
+  }
+
   private HubReportLocalStatus generateNewReport(RewardReport rewardReport) {
+    return generateNewReport(rewardReport, null);
+  }
+
+  private HubReportLocalStatus generateNewReport(RewardReport rewardReport, HubReportPeriodMetrics periodMetrics) {
     RewardPeriod rewardPeriod = rewardReport.getPeriod();
     String status = hubReportStorage.getStatus(rewardPeriod);
 
     HubReportStatusType statusType = computeReportStatusType(status);
     String errorMessageKey = statusType == HubReportStatusType.ERROR_SENDING ? status : null;
 
-    HubReportPayload reportData = toReport(rewardReport);
+    HubReportPayload reportData = toReport(rewardReport, periodMetrics);
     long reportId = hubReportStorage.getReportId(rewardPeriod);
     long periodId = hubReportStorage.getPeriodKey(rewardPeriod);
+    HubReportEvent reportEvent = periodId > 0 ? getReportEvent(hubReportStorage.getReportState(periodId)) : null;
+    if (reportEvent != null) {
+      // The report was created in UEM contract, whatever the locally stored
+      // sending status, which may not have been updated after a crash
+      reportId = reportEvent.getReportId();
+      reportData.setSentDate(reportEvent.getBlockTime());
+      if (statusType.isCanSend() || statusType == HubReportStatusType.INVALID) {
+        statusType = HubReportStatusType.SENT;
+        errorMessageKey = null;
+      }
+    }
     boolean canRefresh = statusType.isCanRefresh() && reportId == 0;
     boolean canSend = statusType.isCanSend();
 
@@ -362,6 +822,14 @@ public class HubReportService {
     if (reportId == 0 && !canSend) {
       reportLocalStatus.setDeedId(-1);
     }
+    // While the report is being sent by the current node, a status read
+    // without report identifier may not reflect the sending state yet
+    if (periodId > 0
+        && rewardReport.isCompletelyProceeded()
+        && statusType != HubReportStatusType.SENDING
+        && (reportId > 0 || !sendingPeriods.contains(periodId))) {
+      hubReportSnapshotStorage.saveSnapshot(reportLocalStatus);
+    }
     return reportLocalStatus;
   }
 
@@ -16,19 +16,24 @@
  */
 package io.meeds.tenant.hub.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import org.exoplatform.commons.file.model.FileInfo;
+import org.exoplatform.commons.file.model.FileItem;
+import org.exoplatform.commons.file.services.FileService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.portal.branding.BrandingService;
-import org.exoplatform.portal.branding.model.Logo;
 import org.exoplatform.portal.config.model.PortalConfig;
 import org.exoplatform.portal.mop.service.LayoutService;
 import org.exoplatform.services.listener.ListenerService;
@@ -100,6 +105,11 @@ public class HubService {
   @Autowired
   private ListenerService     listenerService;
 
+  @Autowired
+  private FileService         fileService;
+
+  private volatile List<Object> hubCardFingerprint;
+
   public String getHubAddress() {
     return hubIdentityStorage.getHubAddress();
   }
@@ -196,33 +206,68 @@ public class HubService {
     }
   }
 
+  /**
+   * Pushes the Hub card properties and avatar to WoM when changed locally. A
+   * local fingerprint of the card properties is kept to avoid comparing and
+   * signing anything when nothing changed since the last push.
+   *
+   * @throws WomException when an error occurs while updating the Hub on WoM
+   */
   @SneakyThrows
   public void updateHubCard() throws WomException { // NOSONAR
     if (!isConnected()) {
       return;
     }
 
-    String token = womServiceClient.generateToken();
-    String hubSignedMessage = hubWalletStorage.signHubMessage(token);
+    // The fingerprint is computed using metadata only, before retrieving
+    // the description content and the logo data
+    HubTenant original = getHub();
+    Page descriptionNote = getPublicDescriptionNote();
+    FileInfo logoInfo = getLogoInfo();
+    long logoUpdateDate = getUpdateTime(logoInfo);
+    List<Object> fingerprint = getHubCardFingerprint(original, descriptionNote, logoUpdateDate);
+    if (fingerprint.equals(hubCardFingerprint)) {
+      return;
+    }
+
+    // The retrieved Hub is shared, thus work on a copy
+    HubTenant hub = original.clone();
+    setHubCardProperties(hub, descriptionNote);
+    boolean hubChanged = !original.equals(hub);
+    boolean avatarChanged = hub.getAvatarUpdateTime() == 0 || hub.getAvatarUpdateTime() < logoUpdateDate;
+    if (!hubChanged && !avatarChanged) {
+      hubCardFingerprint = fingerprint;
+      return;
+    }
 
     try {
-      HubTenant hub = getHub();
-      HubTenant original = hub.clone();
-      setHubCardProperties(hub);
-      boolean updated = false;
-      if (!original.equals(hub)) {
-        LOG.info("Updating Hub Card on WoM Server");
-        womServiceClient.saveHub(hub, hubSignedMessage, token);
-        updated = true;
+      // Avoid uploading the same avatar content again when only its update
+      // date changed
+      String avatarHash = avatarChanged && hasData(logoInfo) ? getContentHash(logoInfo) : null;
+      boolean avatarUpload = avatarHash != null && !StringUtils.equals(avatarHash, hubIdentityStorage.getHubAvatarHash());
+      if (hubChanged || avatarUpload) {
+        String token = womServiceClient.generateToken();
+        String hubSignedMessage = hubWalletStorage.signHubMessage(token);
+        // The Hub card is sent without blocking while the avatar is
+        // uploaded
+        CompletableFuture<String> hubUpdate = null;
+        if (hubChanged) {
+          LOG.info("Updating Hub Card on WoM Server");
+          hubUpdate = womServiceClient.saveHubAsync(hub, hubSignedMessage, token);
+        }
+        if (avatarUpload) {
+          LOG.info("Updating Hub Card Avatar on WoM Server");
+          saveHubAvatar(logoInfo, hubSignedMessage, token);
+        }
+        if (hubUpdate != null) {
+          waitForHubUpdate(hubUpdate);
+        }
       }
-      long logoUpdateDate = getLogoUpdateDate();
-      if (hub.getAvatarUpdateTime() == 0 || hub.getAvatarUpdateTime() < logoUpdateDate) {
-        LOG.info("Updating Hub Card Avatar on WoM Server");
-        saveHubAvatar();
-        hubIdentityStorage.saveHubAvatarUpdateTime(logoUpdateDate == 0 ? System.currentTimeMillis() : logoUpdateDate);
-        updated = true;
+      if (avatarChanged) {
+        hubIdentityStorage.saveHubAvatarUpdateTime(logoUpdateDate == 0 ? System.currentTimeMillis() : logoUpdateDate,
+                                                   avatarHash);
       }
-      if (updated) {
+      if (hubChanged || avatarUpload) {
         listenerService.broadcast(HUB_DISCONNECTED_EVENT, original, hub);
       }
     } finally {
@@ -231,33 +276,107 @@ public class HubService {
   }
 
   public void saveHubAvatar() throws WomException {
+    if (StringUtils.isBlank(getHubAddress())) {
+      throw new WomException("wom.notConnected");
+    }
+
+    FileInfo logoInfo = getLogoInfo();
+    if (!hasData(logoInfo)) {
+      return;
+    }
+    String token = womServiceClient.generateToken();
+    String signedMessage = hubWalletStorage.signHubMessage(token);
+    saveHubAvatar(logoInfo, signedMessage, token);
+    long logoUpdateDate = getUpdateTime(logoInfo);
+    hubIdentityStorage.saveHubAvatarUpdateTime(logoUpdateDate == 0 ? System.currentTimeMillis() : logoUpdateDate,
+                                               getContentHash(logoInfo));
+  }
+
+  /**
+   * Uploads the Hub banner to WoM by streaming the designated file from the
+   * file storage. The upload is skipped when the same content was already
+   * uploaded.
+   *
+   * @param bannerFileId banner file identifier in {@link FileService}
+   * @throws WomException when the Hub isn't connected or the upload fails
+   */
+  @SneakyThrows
+  public void saveHubBanner(long bannerFileId) throws WomException {
     String hubAddress = getHubAddress();
     if (StringUtils.isBlank(hubAddress)) {
       throw new WomException("wom.notConnected");
     }
-
-    Logo logo = brandingService.getLogo();
-    if (logo == null || logo.getData() == null || logo.getData().length == 0) {
+    FileInfo bannerInfo = fileService.getFileInfo(bannerFileId);
+    if (!hasData(bannerInfo)) {
+      return;
+    }
+    String bannerHash = getContentHash(bannerInfo);
+    if (StringUtils.equals(bannerHash, hubIdentityStorage.getHubBannerHash())) {
+      return;
+    }
+    FileItem bannerFile = fileService.getFile(bannerFileId);
+    if (bannerFile == null) {
       return;
     }
     String token = womServiceClient.generateToken();
     String signedMessage = hubWalletStorage.signHubMessage(token);
+    try (InputStream inputStream = bannerFile.getAsStream()) {
+      womServiceClient.saveHubBanner(hubAddress,
+                                     signedMessage,
+                                     token,
+                                     token,
+                                     inputStream,
+                                     bannerInfo.getSize());
+    }
+    hubIdentityStorage.saveHubBannerHash(bannerHash);
+  }
 
-    womServiceClient.saveHubAvatar(hubAddress,
-                                   signedMessage,
-                                   token,
-                                   new ByteArrayInputStream(logo.getData()));
+  private void waitForHubUpdate(CompletableFuture<String> hubUpdate) throws WomException {
+    try {
+      hubUpdate.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof WomException womException) {
+        throw womException;
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  @SneakyThrows
+  private void saveHubAvatar(FileInfo logoInfo, String signedMessage, String token) throws WomException {
+    String hubAddress = getHubAddress();
+    if (StringUtils.isBlank(hubAddress)) {
+      throw new WomException("wom.notConnected");
+    }
+    // Stream the logo from the file storage rather than loading it in memory
+    FileItem logoFile = fileService.getFile(logoInfo.getId());
+    if (logoFile == null) {
+      return;
+    }
+    try (InputStream inputStream = logoFile.getAsStream()) {
+      womServiceClient.saveHubAvatar(hubAddress,
+                                     signedMessage,
+                                     token,
+                                     inputStream,
+                                     logoInfo.getSize());
+    }
   }
 
   private void setHubCardProperties(Hub hub) {
+    setHubCardProperties(hub, getPublicDescriptionNote());
+  }
+
+  private void setHubCardProperties(Hub hub, Page descriptionNote) {
     String enLanguage = Locale.ENGLISH.toLanguageTag();
+    String description = descriptionNote == null ? null : descriptionNote.getContent();
     hub.setName(Collections.singletonMap(enLanguage, brandingService.getCompanyName()));
-    hub.setDescription(Collections.singletonMap(enLanguage, getPublicDescription()));
+    hub.setDescription(Collections.singletonMap(enLanguage, StringUtils.defaultIfBlank(description, "")));
     hub.setColor(brandingService.getThemeStyle().get("primaryColor"));
     hub.setUrl(CommonsUtils.getCurrentDomain());
   }
 
-  private String getPublicDescription() {
+  private Page getPublicDescriptionNote() {
     Page note = null;
     if (isPublisSitePublished()) {
       CMSSetting setting = cmsService.getSetting(NotePageViewService.CMS_CONTENT_TYPE, PUBLIC_HUB_SUMMARY_SETTING_NAME);
@@ -271,7 +390,16 @@ public class HubService {
         }
       }
     }
-    return note == null || StringUtils.isBlank(note.getContent()) ? "" : note.getContent();
+    return note;
+  }
+
+  private FileInfo getLogoInfo() {
+    Long logoId = brandingService.getLogoId();
+    return logoId == null || logoId == 0 ? null : fileService.getFileInfo(logoId);
+  }
+
+  private long getUpdateTime(FileInfo fileInfo) {
+    return fileInfo == null || fileInfo.getUpdatedDate() == null ? 0 : fileInfo.getUpdatedDate().getTime();
   }
 
   private boolean isPublisSitePublished() {
@@ -281,9 +409,27 @@ public class HubService {
            && Arrays.asList(portalConfig.getAccessPermissions()).contains(PUBLIC_ACCESS_PERMISSION);
   }
 
-  private long getLogoUpdateDate() {
-    Logo logo = brandingService.getLogo();
-    return logo == null ? 0 : logo.getUpdatedDate();
+  private List<Object> getHubCardFingerprint(HubTenant original, Page descriptionNote, long logoUpdateDate) {
+    return Arrays.asList(original.getAddress(),
+                         original.getUpdatedDate(),
+                         original.getAvatarUpdateTime(),
+                         brandingService.getCompanyName(),
+                         brandingService.getThemeStyle().get("primaryColor"),
+                         CommonsUtils.getCurrentDomain(),
+                         descriptionNote == null ? null : descriptionNote.getId(),
+                         descriptionNote == null ? null : descriptionNote.getUpdatedDate(),
+                         logoUpdateDate);
+  }
+
+  private String getContentHash(FileInfo fileInfo) {
+    // Use the checksum computed by the file storage to avoid reading the
+    // file content
+    return StringUtils.isBlank(fileInfo.getChecksum()) ? fileInfo.getId() + "-" + getUpdateTime(fileInfo) :
+                                                         fileInfo.getChecksum();
+  }
+
+  private boolean hasData(FileInfo fileInfo) {
+    return fileInfo != null && fileInfo.getSize() > 0;
   }
 
   private boolean isAfterNow(Instant untilDate) {
@@ -0,0 +1,93 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.TransactionManager;
+
+import io.meeds.tenant.hub.model.HubSignedTransaction;
+
+/**
+ * Creates the {@link TransactionManager} used to send Hub transactions. The
+ * created manager allocates nonces locally using {@link HubNonceManager} and
+ * notifies the signed transaction listener before submitting the transaction
+ * to the network, in order to store it and recover it after a crash.
+ */
+@Component
+public class HubTransactionManagerFactory {
+
+  @Autowired
+  private HubNonceManager hubNonceManager;
+
+  /**
+   * @param web3j {@link Web3j} client to use to send transactions
+   * @param credentials Hub wallet credentials used to sign transactions
+   * @param chainId blockchain network identifier
+   * @param signedTransactionListener listener notified with each signed
+   *          transaction before submitting it, can be null
+   * @return a {@link TransactionManager} signing and sending transactions
+   */
+  public TransactionManager createTransactionManager(Web3j web3j,
+                                                     Credentials credentials,
+                                                     long chainId,
+                                                     Consumer<HubSignedTransaction> signedTransactionListener) {
+    return new RawTransactionManager(web3j, credentials, chainId) {
+      @Override
+      protected BigInteger getNonce() throws IOException {
+        return hubNonceManager.allocateNonce(getFromAddress());
+      }
+
+      @Override
+      public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
+        String signedTransaction = sign(rawTransaction);
+        String transactionHash = Hash.sha3(signedTransaction);
+        if (signedTransactionListener != null) {
+          signedTransactionListener.accept(new HubSignedTransaction(transactionHash,
+                                                                    rawTransaction.getNonce(),
+                                                                    signedTransaction));
+        }
+        EthSendTransaction sendTransactionCall = web3j.ethSendRawTransaction(signedTransaction).send();
+        if (sendTransactionCall != null
+            && sendTransactionCall.hasError()
+            && hubNonceManager.isKnownTransactionError(sendTransactionCall.getError().getMessage())) {
+          // The same signed transaction is already submitted, thus consider
+          // it as sent instead of re-signing it with a new nonce
+          EthSendTransaction knownTransactionCall = new EthSendTransaction();
+          knownTransactionCall.setId(sendTransactionCall.getId());
+          knownTransactionCall.setJsonrpc(sendTransactionCall.getJsonrpc());
+          knownTransactionCall.setResult(transactionHash);
+          return knownTransactionCall;
+        }
+        return sendTransactionCall;
+      }
+    };
+  }
+
+}
@@ -0,0 +1,295 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tracks the receipts of sent transactions using a single polling loop shared
+ * by all pending transactions. The pending transactions receipts are checked
+ * once per new mined block, using a batched JSON-RPC request, instead of
+ * polling each transaction receipt separately by the sending thread. The
+ * receipts futures are completed using a separate executor, to not block the
+ * polling loop by the chained processing.
+ */
+@Component
+public class HubTransactionReceiptTracker {
+
+  private static final Log                  LOG              = ExoLogger.getLogger(HubTransactionReceiptTracker.class);
+
+  private static final long                 POLLING_INTERVAL = Long.parseLong(System.getProperty("meeds.deed.tenant.receipt.pollingInterval", "2000"));
+
+  private static final long                 RECEIPT_TIMEOUT  = Long.parseLong(System.getProperty("meeds.deed.tenant.receipt.timeout", String.valueOf(TransactionManager.DEFAULT_POLLING_FREQUENCY * TransactionManager.DEFAULT_POLLING_ATTEMPTS_PER_TX_HASH)));
+
+  private static final int                  BATCH_SIZE       = Integer.parseInt(System.getProperty("meeds.deed.tenant.receipt.batchSize", "50"));
+
+  @Autowired
+  private PolygonContractGasProvider        polygonContractGasProvider;
+
+  private final Map<String, PendingReceipt> pendingReceipts  = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService          executor;
+
+  private ExecutorService                   callbackExecutor;
+
+  private ScheduledFuture<?>                pollingTask;
+
+  private BigInteger                        lastCheckedBlock;
+
+  /**
+   * Registers a transaction to track until its receipt is available
+   *
+   * @param transactionHash sent transaction hash
+   * @return {@link CompletableFuture} completed with the transaction receipt
+   *         once mined or exceptionally with a {@link TransactionException}
+   *         when not mined before timeout. The future is cancelled when the
+   *         tracker is stopped.
+   */
+  public CompletableFuture<TransactionReceipt> getTransactionReceipt(String transactionHash) {
+    PendingReceipt pendingReceipt = pendingReceipts.computeIfAbsent(StringUtils.lowerCase(transactionHash),
+                                                                    PendingReceipt::new);
+    startPolling();
+    return pendingReceipt.getFuture();
+  }
+
+  /**
+   * Waits for a transaction receipt without polling the blockchain from the
+   * calling thread
+   *
+   * @param transactionHash sent transaction hash
+   * @return mined transaction receipt
+   * @throws IOException when the receipt couldn't be retrieved
+   * @throws TransactionException when the transaction isn't mined before
+   *           timeout or when the tracking is stopped
+   */
+  public TransactionReceipt waitForTransactionReceipt(String transactionHash) throws IOException, TransactionException {
+    try {
+      return getTransactionReceipt(transactionHash).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TransactionException("Interrupted while waiting for transaction receipt", transactionHash);
+    } catch (CancellationException e) {
+      throw new TransactionException("Transaction receipt tracking stopped", transactionHash);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TransactionException transactionException) {
+        throw transactionException;
+      } else if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      } else {
+        throw new IOException("Error while waiting for transaction receipt " + transactionHash, e.getCause());
+      }
+    }
+  }
+
+  /**
+   * @return a {@link TransactionReceiptProcessor} relying on the shared
+   *         polling loop
+   */
+  public TransactionReceiptProcessor getTransactionReceiptProcessor() {
+    return new TransactionReceiptProcessor(polygonContractGasProvider.getWeb3j()) {
+      @Override
+      public TransactionReceipt waitForTransactionReceipt(String transactionHash) throws IOException, TransactionException {
+        return HubTransactionReceiptTracker.this.waitForTransactionReceipt(transactionHash);
+      }
+    };
+  }
+
+  public int getPendingTransactionsCount() {
+    return pendingReceipts.size();
+  }
+
+  @PreDestroy
+  public synchronized void destroy() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+      pollingTask = null;
+    }
+    if (callbackExecutor != null) {
+      callbackExecutor.shutdown();
+      callbackExecutor = null;
+    }
+    pendingReceipts.values().forEach(pendingReceipt -> pendingReceipt.getFuture().cancel(false));
+    pendingReceipts.clear();
+  }
+
+  /**
+   * Checks pending transactions receipts when a new block has been mined since
+   * last check
+   */
+  protected void checkPendingReceipts() {
+    try {
+      expirePendingReceipts();
+      if (pendingReceipts.isEmpty()) {
+        return;
+      }
+      Web3j web3j = polygonContractGasProvider.getWeb3j();
+      BigInteger blockNumber = web3j.ethBlockNumber().send().getBlockNumber();
+      if (lastCheckedBlock == null || blockNumber.compareTo(lastCheckedBlock) > 0) {
+        List<String> transactionHashes = new ArrayList<>(pendingReceipts.keySet());
+        for (int i = 0; i < transactionHashes.size(); i += BATCH_SIZE) {
+          checkPendingReceipts(web3j, transactionHashes.subList(i, Math.min(i + BATCH_SIZE, transactionHashes.size())));
+        }
+        lastCheckedBlock = blockNumber;
+      }
+    } catch (Exception e) {
+      LOG.warn("Error while checking pending transactions receipts. Retry on next block.", e);
+    } finally {
+      stopPollingWhenIdle();
+    }
+  }
+
+  private void checkPendingReceipts(Web3j web3j, List<String> transactionHashes) throws IOException {
+    List<? extends Response<?>> responses;
+    try {
+      BatchRequest batchRequest = web3j.newBatch();
+      transactionHashes.forEach(transactionHash -> batchRequest.add(web3j.ethGetTransactionReceipt(transactionHash)));
+      responses = batchRequest.send().getResponses();
+    } catch (UnsupportedOperationException e) {
+      // Batch requests not supported by the Web3j service implementation
+      List<EthGetTransactionReceipt> receiptResponses = new ArrayList<>();
+      for (String transactionHash : transactionHashes) {
+        receiptResponses.add(web3j.ethGetTransactionReceipt(transactionHash).send());
+      }
+      responses = receiptResponses;
+    }
+    for (Response<?> response : responses) {
+      if (response.hasError()) {
+        LOG.debug("Error while retrieving transaction receipt: {}", response.getError().getMessage());
+      } else if (response instanceof EthGetTransactionReceipt receiptResponse) {
+        receiptResponse.getTransactionReceipt().ifPresent(this::completeReceipt);
+      }
+    }
+  }
+
+  private void completeReceipt(TransactionReceipt receipt) {
+    PendingReceipt pendingReceipt = pendingReceipts.remove(StringUtils.lowerCase(receipt.getTransactionHash()));
+    if (pendingReceipt != null) {
+      pendingReceipt.getFuture().completeAsync(() -> receipt, getCallbackExecutor());
+    }
+  }
+
+  private void expirePendingReceipts() {
+    long now = System.currentTimeMillis();
+    pendingReceipts.values().removeIf(pendingReceipt -> {
+      if (now - pendingReceipt.getRegistrationTime() < RECEIPT_TIMEOUT) {
+        return false;
+      }
+      TransactionException exception =
+                                     new TransactionException(String.format("Transaction receipt was not generated after %s seconds for transaction: %s",
+                                                                            RECEIPT_TIMEOUT / 1000,
+                                                                            pendingReceipt.getTransactionHash()),
+                                                              pendingReceipt.getTransactionHash());
+      getCallbackExecutor().execute(() -> pendingReceipt.getFuture().completeExceptionally(exception));
+      return true;
+    });
+  }
+
+  private synchronized void startPolling() {
+    if (pollingTask == null) {
+      if (executor == null) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "Hub-Transaction-Receipt-Tracker");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      pollingTask = executor.scheduleWithFixedDelay(this::checkPendingReceipts,
+                                                    POLLING_INTERVAL,
+                                                    POLLING_INTERVAL,
+                                                    TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private synchronized ExecutorService getCallbackExecutor() {
+    if (callbackExecutor == null) {
+      callbackExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Hub-Transaction-Receipt-Callback");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return callbackExecutor;
+  }
+
+  private synchronized void stopPollingWhenIdle() {
+    if (pendingReceipts.isEmpty() && pollingTask != null) {
+      pollingTask.cancel(false);
+      pollingTask = null;
+    }
+  }
+
+  private static class PendingReceipt {
+
+    private final String                                transactionHash;
+
+    private final long                                  registrationTime;
+
+    private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+
+    public PendingReceipt(String transactionHash) {
+      this.transactionHash = transactionHash;
+      this.registrationTime = System.currentTimeMillis();
+    }
+
+    public String getTransactionHash() {
+      return transactionHash;
+    }
+
+    public long getRegistrationTime() {
+      return registrationTime;
+    }
+
+    public CompletableFuture<TransactionReceipt> getFuture() {
+      return future;
+    }
+
+  }
+
+}
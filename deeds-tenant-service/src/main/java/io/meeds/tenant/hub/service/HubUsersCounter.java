@@ -0,0 +1,83 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.services.organization.OrganizationService;
+import org.exoplatform.services.organization.UserStatus;
+
+import lombok.SneakyThrows;
+
+/**
+ * Maintains the count of enabled users of the Hub in memory, to avoid counting
+ * them from the users store each time a Hub Report is computed. The counter is
+ * seeded at first access, incrementally updated by the users lifecycle
+ * listener and periodically reconciled with the users store.
+ */
+@Component
+public class HubUsersCounter {
+
+  private static final Log    LOG          = ExoLogger.getLogger(HubUsersCounter.class);
+
+  @Autowired
+  private OrganizationService organizationService;
+
+  private final AtomicLong    enabledUsers = new AtomicLong(-1);
+
+  public long getEnabledUsersCount() {
+    long count = enabledUsers.get();
+    return count < 0 ? reconcile() : count;
+  }
+
+  public void increment() {
+    enabledUsers.updateAndGet(count -> count < 0 ? count : count + 1);
+  }
+
+  public void decrement() {
+    enabledUsers.updateAndGet(count -> count <= 0 ? count : count - 1);
+  }
+
+  /**
+   * Recounts the enabled users from the users store
+   *
+   * @return the enabled users count
+   */
+  @SneakyThrows
+  public long reconcile() {
+    long count = organizationService.getUserHandler().findAllUsers(UserStatus.ENABLED).getSize();
+    long previousCount = enabledUsers.getAndSet(count);
+    if (previousCount >= 0 && previousCount != count) {
+      LOG.debug("Enabled users count reconciled from {} to {}", previousCount, count);
+    }
+    return count;
+  }
+
+  public String toPrometheusFormat() {
+    return "# HELP meeds_hub_enabled_users Enabled users of the Hub\n"
+        + "# TYPE meeds_hub_enabled_users gauge\n"
+        + "meeds_hub_enabled_users " + getEnabledUsersCount() + "\n";
+  }
+
+}
@@ -19,42 +19,55 @@
 package io.meeds.tenant.hub.service;
 
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.RoundingMode;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.web3j.protocol.Web3j;
-import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
 
 import org.exoplatform.wallet.blockchain.service.EthereumClientConnector;
 
-import lombok.SneakyThrows;
+import io.meeds.tenant.hub.constant.GasUrgencyType;
 
 @Component
-public class PolygonContractGasProvider implements ContractGasProvider {
+public class PolygonContractGasProvider implements ContractEIP1559GasProvider {
 
-  private static final Logger     LOG       = LoggerFactory.getLogger(PolygonContractGasProvider.class);
+  private static final Logger         LOG             = LoggerFactory.getLogger(PolygonContractGasProvider.class);
 
-  private static final BigInteger GAS_LIMIT = BigInteger.valueOf(1000000);
+  private static final BigInteger     GAS_LIMIT       = BigInteger.valueOf(1000000);
+
+  private static final boolean        EIP1559_ENABLED = Boolean.parseBoolean(System.getProperty("meeds.deed.tenant.gas.eip1559.enabled", "true"));
+
+  private static final GasUrgencyType DEFAULT_URGENCY;
+
+  static {
+    String urgency = System.getProperty("meeds.deed.tenant.gas.urgency", GasUrgencyType.MEDIUM.name());
+    GasUrgencyType defaultUrgency;
+    try {
+      defaultUrgency = GasUrgencyType.valueOf(urgency.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid gas urgency '{}' configured, '{}' will be used instead", urgency, GasUrgencyType.MEDIUM);
+      defaultUrgency = GasUrgencyType.MEDIUM;
+    }
+    DEFAULT_URGENCY = defaultUrgency;
+  }
 
   @Autowired(required = false)
-  private EthereumClientConnector clientConnector;
+  private EthereumClientConnector     clientConnector;
+
+  @Autowired
+  private PolygonGasOracle            polygonGasOracle;
 
-  private Web3j                   web3j;
+  private Web3j                       web3j;
 
-  private long                    chainId;
+  private long                        chainId;
 
   @Override
-  @SneakyThrows
   public BigInteger getGasPrice() {
-    BigInteger gasPrice = getWeb3j().ethGasPrice().send().getGasPrice();
-    return new BigDecimal(gasPrice).multiply(BigDecimal.valueOf(1.2))
-                                   .setScale(0, RoundingMode.HALF_EVEN)
-                                   .toBigInteger();
+    return getGasPrice(DEFAULT_URGENCY);
   }
 
   @Override
@@ -62,6 +75,33 @@ public class PolygonContractGasProvider implements ContractGasProvider {
     return getGasPrice();
   }
 
+  public BigInteger getGasPrice(GasUrgencyType urgency) {
+    return polygonGasOracle.getGasPrice(getUrgency(urgency));
+  }
+
+  @Override
+  public boolean isEIP1559Enabled() {
+    return EIP1559_ENABLED;
+  }
+
+  @Override
+  public BigInteger getMaxFeePerGas(String contractFunc) {
+    return getMaxFeePerGas(DEFAULT_URGENCY);
+  }
+
+  public BigInteger getMaxFeePerGas(GasUrgencyType urgency) {
+    return polygonGasOracle.getMaxFeePerGas(getUrgency(urgency));
+  }
+
+  @Override
+  public BigInteger getMaxPriorityFeePerGas(String contractFunc) {
+    return getMaxPriorityFeePerGas(DEFAULT_URGENCY);
+  }
+
+  public BigInteger getMaxPriorityFeePerGas(GasUrgencyType urgency) {
+    return polygonGasOracle.getMaxPriorityFeePerGas(getUrgency(urgency));
+  }
+
   @Override
   public BigInteger getGasLimit(String contractFunc) {
     return getGasLimit();
@@ -72,6 +112,7 @@ public class PolygonContractGasProvider implements ContractGasProvider {
     return GAS_LIMIT;
   }
 
+  @Override
   public long getChainId() {
     if (chainId == 0) {
       try {
@@ -91,4 +132,8 @@ public class PolygonContractGasProvider implements ContractGasProvider {
     return web3j;
   }
 
+  private GasUrgencyType getUrgency(GasUrgencyType urgency) {
+    return urgency == null ? DEFAULT_URGENCY : urgency;
+  }
+
 }
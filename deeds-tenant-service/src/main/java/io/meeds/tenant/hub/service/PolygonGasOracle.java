@@ -0,0 +1,209 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthFeeHistory.FeeHistory;
+import org.web3j.utils.Convert;
+
+import org.exoplatform.wallet.blockchain.service.EthereumClientConnector;
+
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+/**
+ * A Gas Oracle which samples latest blocks fees using eth_feeHistory and keeps
+ * the computed base fee and priority fee percentiles in memory for a short
+ * period of time, in order to avoid requesting the blockchain each time a
+ * transaction is sent.
+ */
+@Component
+public class PolygonGasOracle {
+
+  private static final Logger       LOG                 = LoggerFactory.getLogger(PolygonGasOracle.class);
+
+  private static final int          FEE_HISTORY_BLOCKS  = Integer.parseInt(System.getProperty("meeds.deed.tenant.gas.feeHistoryBlocks", "10"));
+
+  private static final long         FEES_TTL            = Long.parseLong(System.getProperty("meeds.deed.tenant.gas.feesTtl", "30")) * 1000;
+
+  private static final long         SAMPLING_IDLE_DELAY = Long.parseLong(System.getProperty("meeds.deed.tenant.gas.samplingIdleDelay", "600")) * 1000;
+
+  private static final BigInteger   MIN_PRIORITY_FEE    = Convert.toWei(System.getProperty("meeds.deed.tenant.gas.minPriorityFee", "30"), Convert.Unit.GWEI).toBigInteger();
+
+  private static final List<Double> REWARD_PERCENTILES  = Arrays.stream(GasUrgencyType.values()).map(GasUrgencyType::getPercentile).toList();
+
+  @Autowired(required = false)
+  private EthereumClientConnector   clientConnector;
+
+  private volatile GasFees          gasFees;
+
+  private volatile long             lastUsageTime;
+
+  /**
+   * @return estimated base fee of next block
+   */
+  public BigInteger getBaseFee() {
+    return getGasFees().getBaseFee();
+  }
+
+  /**
+   * @param urgency {@link GasUrgencyType}
+   * @return priority fee (tip) to pay for a transaction with the designated
+   *         urgency
+   */
+  public BigInteger getMaxPriorityFeePerGas(GasUrgencyType urgency) {
+    return getGasFees().getPriorityFees().get(urgency);
+  }
+
+  /**
+   * @param urgency {@link GasUrgencyType}
+   * @return maximum fee per gas to pay for a transaction with the designated
+   *         urgency. The double of the base fee is used in order to keep the
+   *         transaction valid even if the next blocks are full, knowing that
+   *         only effective base fee is paid.
+   */
+  public BigInteger getMaxFeePerGas(GasUrgencyType urgency) {
+    GasFees fees = getGasFees();
+    return fees.getBaseFee()
+               .multiply(BigInteger.TWO)
+               .add(fees.getPriorityFees().get(urgency));
+  }
+
+  /**
+   * @param urgency {@link GasUrgencyType}
+   * @return gas price to use for legacy transactions (not EIP-1559) with the
+   *         designated urgency. Since the whole gas price is paid in this case,
+   *         a margin of a quarter of base fee only is added to support the
+   *         base fee increase of the next blocks.
+   */
+  public BigInteger getGasPrice(GasUrgencyType urgency) {
+    GasFees fees = getGasFees();
+    return fees.getBaseFee()
+               .add(fees.getBaseFee().divide(BigInteger.valueOf(4)))
+               .add(fees.getPriorityFees().get(urgency));
+  }
+
+  /**
+   * Refreshes the fees periodically in background as long as the oracle was
+   * recently used, so that the transaction sending doesn't wait for the
+   * blockchain fees computing.
+   */
+  @Scheduled(fixedDelayString = "${meeds.deed.tenant.gas.samplingDelay:10000}")
+  public void sampleFees() {
+    if (clientConnector == null
+        || lastUsageTime == 0
+        || (System.currentTimeMillis() - lastUsageTime) > SAMPLING_IDLE_DELAY) {
+      return;
+    }
+    try {
+      refreshFees();
+    } catch (Exception e) {
+      LOG.warn("Error while sampling blockchain fees", e);
+    }
+  }
+
+  public synchronized GasFees refreshFees() throws IOException {
+    if (clientConnector == null) {
+      throw new IOException("Blockchain client connector isn't available");
+    }
+    Web3j web3j = clientConnector.getWeb3j(false);
+    EthFeeHistory ethFeeHistory = web3j.ethFeeHistory(FEE_HISTORY_BLOCKS,
+                                                      DefaultBlockParameterName.LATEST,
+                                                      REWARD_PERCENTILES)
+                                       .send();
+    if (ethFeeHistory.hasError()) {
+      throw new IOException(ethFeeHistory.getError().getMessage());
+    }
+    FeeHistory feeHistory = ethFeeHistory.getFeeHistory();
+    List<BigInteger> baseFees = feeHistory.getBaseFeePerGas();
+    // Last element is the base fee of the next block
+    BigInteger baseFee = baseFees.get(baseFees.size() - 1);
+
+    Map<GasUrgencyType, BigInteger> priorityFees = new EnumMap<>(GasUrgencyType.class);
+    GasUrgencyType[] urgencies = GasUrgencyType.values();
+    for (int i = 0; i < urgencies.length; i++) {
+      int percentileIndex = i;
+      List<BigInteger> rewards = feeHistory.getReward()
+                                           .stream()
+                                           .filter(Objects::nonNull)
+                                           .filter(blockRewards -> blockRewards.size() > percentileIndex)
+                                           .map(blockRewards -> blockRewards.get(percentileIndex))
+                                           .sorted()
+                                           .toList();
+      BigInteger priorityFee = rewards.isEmpty() ? MIN_PRIORITY_FEE : rewards.get(rewards.size() / 2);
+      priorityFees.put(urgencies[i], priorityFee.max(MIN_PRIORITY_FEE));
+    }
+    gasFees = new GasFees(baseFee, priorityFees, System.currentTimeMillis());
+    return gasFees;
+  }
+
+  @SneakyThrows
+  private GasFees getGasFees() {
+    lastUsageTime = System.currentTimeMillis();
+    GasFees fees = gasFees;
+    if (fees == null || fees.isExpired()) {
+      fees = refreshExpiredFees();
+    }
+    return fees;
+  }
+
+  private synchronized GasFees refreshExpiredFees() throws IOException {
+    // Fees may have been refreshed by a concurrent thread while waiting the lock
+    GasFees fees = gasFees;
+    if (fees == null || fees.isExpired()) {
+      fees = refreshFees();
+    }
+    return fees;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class GasFees {
+
+    private final BigInteger                      baseFee;
+
+    private final Map<GasUrgencyType, BigInteger> priorityFees;
+
+    private final long                            sampledTime;
+
+    public boolean isExpired() {
+      return (System.currentTimeMillis() - sampledTime) > FEES_TTL;
+    }
+
+  }
+
+}
@@ -48,8 +48,12 @@ import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
 import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,57 +73,101 @@ import io.meeds.wom.api.constant.WomParsingException;
 import io.meeds.wom.api.model.Hub;
 import io.meeds.wom.api.model.WomConnectionResponse;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.SneakyThrows;
 
 @Component
 public class HubIdentityStorage {
 
+  private static final String[]        HUB_PROFILE_PROPERTIES = {
+      DEED_ID,
+      DEED_CITY,
+      DEED_TYPE,
+      ADDRESS,
+      NAME,
+      DESCRIPTION,
+      URL,
+      REWARD_AMOUNT,
+      REWARD_PERIOD_TYPE,
+      USERS_COUNT,
+      COLOR,
+      HUB_OWNER_ADDRESS,
+      DEED_OWNER_ADDRESS,
+      DEED_MANAGER_ADDRESS,
+      WOM_CONTRACT_ADDRESS,
+      UEM_CONTRACT_ADDRESS,
+      OWNER_CLAIMABLE_AMOUNT,
+      MANAGER_CLAIMABLE_AMOUNT,
+      WOM_NETWORK_ID,
+      CREATED_DATE,
+      UPDATED_DATE,
+      START_JOIN_DATE,
+      END_JOIN_DATE,
+      HUB_ENABLED,
+      HUB_AVATAR_UPDATE,
+  };
+
   @Autowired
-  private IdentityManager         identityManager;
+  private IdentityManager              identityManager;
 
   @Autowired
-  private WomClientService        womServiceClient;
+  private WomClientService             womServiceClient;
 
   @Autowired
-  private WalletTokenAdminService walletTokenAdminService;
+  private WalletTokenAdminService      walletTokenAdminService;
 
   @Autowired
-  private ListenerService         listenerService;
+  private ListenerService              listenerService;
+
+  private AtomicReference<HubSnapshot> snapshot               = new AtomicReference<>();
+
+  private AtomicReference<HubRefresh>  inflightRefresh        = new AtomicReference<>();
 
-  private boolean                 retrievedFromWom;
+  private Hub                          remoteHub;
 
-  private HubTenant               hub = null;
+  private volatile HubTenantView       hubTenantView; // NOSONAR
 
   public HubTenant getHub() {
     return getHub(false);
   }
 
-  @SneakyThrows
+  /**
+   * Retrieves the Hub from the last computed snapshot when still valid, else
+   * refresh it. Only one refresh is made at a time: concurrent callers will
+   * use the previous snapshot while the refresh is in progress, or will wait
+   * for it when no previous snapshot is available or when the refresh is
+   * forced.
+   *
+   * @param forceRefresh whether to force refreshing the Hub from WoM or not
+   * @return {@link HubTenant}
+   */
   public HubTenant getHub(boolean forceRefresh) {
-    if (!forceRefresh
-        && retrievedFromWom
-        && (hub == null
-            || !hub.isConnected()
-            || hub.getUntilDate() == null
-            || hub.getUntilDate().isAfter(Instant.now()))) {
-      return hub;
+    HubSnapshot currentSnapshot = snapshot.get();
+    if (!forceRefresh && currentSnapshot != null && currentSnapshot.isValid()) {
+      return currentSnapshot.getHub();
     }
-    Profile hubProfile = getHubProfile();
-    if (forceRefresh || hubProfile.getProperty(NAME) != null) { // Connected at least once
-      hub = mapToHub(hubProfile);
-      retrieveHubFromWoM(hubProfile, forceRefresh);
-      HubTenant refreshedHub = mapToHub(hubProfile);
-      if (refreshedHub.isConnected() && !hub.isConnected()) {
-        listenerService.broadcast(HubService.HUB_CONNECTED_EVENT, refreshedHub, hub);
-      } else if (!refreshedHub.isConnected() && hub.isConnected()) {
-        listenerService.broadcast(HubService.HUB_DISCONNECTED_EVENT, hub, null);
+    HubRefresh refresh = new HubRefresh(forceRefresh);
+    HubRefresh currentRefresh = inflightRefresh.compareAndExchange(null, refresh);
+    if (currentRefresh == null) {
+      try {
+        return refreshHub(refresh);
+      } catch (RuntimeException e) {
+        refresh.completeExceptionally(e);
+        throw e;
+      } finally {
+        inflightRefresh.compareAndSet(refresh, null);
       }
-      hub = refreshedHub;
+    } else if (!forceRefresh && currentSnapshot != null) {
+      // Stale while revalidate
+      return currentSnapshot.getHub();
+    } else if (forceRefresh && !currentRefresh.isForced()) {
+      // Wait for current refresh, then force refresh from WoM
+      waitForRefresh(currentRefresh);
+      return getHub(true);
     } else {
-      hub = mapToHub(hubProfile);
-      retrievedFromWom = true;
+      return waitForRefresh(currentRefresh);
     }
-    return hub;
   }
 
   public String getHubAddress() {
@@ -143,18 +191,97 @@ public class HubIdentityStorage {
     hubProfile.setProperty(UEM_CONTRACT_ADDRESS, connectionResponse.getUemAddress());
     hubProfile.setProperty(WOM_NETWORK_ID, connectionResponse.getNetworkId());
     identityManager.updateProfile(hubProfile);
+    // Ensure to update profile with WoM Hub properties after connection
+    remoteHub = null;
   }
 
   public void saveHubAvatarUpdateTime(long avatarUpdateTime) {
+    saveHubAvatarUpdateTime(avatarUpdateTime, null);
+  }
+
+  /**
+   * Saves the last Hub avatar upload time and the uploaded content hash
+   *
+   * @param avatarUpdateTime avatar upload time in milliseconds
+   * @param avatarHash uploaded avatar content hash, null when unknown
+   */
+  public void saveHubAvatarUpdateTime(long avatarUpdateTime, String avatarHash) {
     Profile hubProfile = getHubProfile();
     hubProfile.setProperty(HUB_AVATAR_UPDATE, String.valueOf(avatarUpdateTime));
+    if (StringUtils.isBlank(avatarHash)) {
+      hubProfile.removeProperty(HUB_AVATAR_HASH);
+    } else {
+      hubProfile.setProperty(HUB_AVATAR_HASH, avatarHash);
+    }
     identityManager.updateProfile(hubProfile);
   }
 
+  public String getHubAvatarHash() {
+    return (String) getHubProfile().getProperty(HUB_AVATAR_HASH);
+  }
+
+  /**
+   * Saves the last uploaded Hub banner content hash
+   *
+   * @param bannerHash uploaded banner content hash
+   */
+  public void saveHubBannerHash(String bannerHash) {
+    Profile hubProfile = getHubProfile();
+    hubProfile.setProperty(HUB_BANNER_HASH, bannerHash);
+    identityManager.updateProfile(hubProfile);
+  }
+
+  public String getHubBannerHash() {
+    return (String) getHubProfile().getProperty(HUB_BANNER_HASH);
+  }
+
   public void refreshHubIdentity() {
-    // Force Retrieve Hub profile again
-    retrievedFromWom = false;
-    hub = null;
+    // Force Retrieve Hub profile again while keeping the previous one to
+    // serve concurrent requests while refreshing
+    snapshot.updateAndGet(currentSnapshot -> currentSnapshot == null ? null : currentSnapshot.invalidate());
+  }
+
+  @SneakyThrows
+  private HubTenant refreshHub(HubRefresh refresh) {
+    Profile hubProfile = getHubProfile();
+    if (refresh.isForced() || hubProfile.getProperty(NAME) != null) { // Connected at least once
+      // Retrieve the Hub from WoM while mapping the locally stored one
+      CompletableFuture<Hub> hubRetrieval = womServiceClient.getHubAsync((String) hubProfile.getProperty(ADDRESS),
+                                                                         refresh.isForced());
+      HubTenant hub = mapToHub(hubProfile);
+      updateHubFromWoM(hubProfile, hubRetrieval);
+      HubTenant refreshedHub = mapToHub(hubProfile);
+      // Publish before broadcasting, to let listeners retrieve the new Hub
+      publishSnapshot(refresh, refreshedHub);
+      if (refreshedHub.isConnected() && !hub.isConnected()) {
+        listenerService.broadcast(HubService.HUB_CONNECTED_EVENT, refreshedHub, hub);
+      } else if (!refreshedHub.isConnected() && hub.isConnected()) {
+        listenerService.broadcast(HubService.HUB_DISCONNECTED_EVENT, hub, null);
+      }
+      return refreshedHub;
+    } else {
+      HubTenant hub = mapToHub(hubProfile);
+      publishSnapshot(refresh, hub);
+      return hub;
+    }
+  }
+
+  private void publishSnapshot(HubRefresh refresh, HubTenant hub) {
+    snapshot.set(new HubSnapshot(hub, true));
+    inflightRefresh.compareAndSet(refresh, null);
+    refresh.complete(hub);
+  }
+
+  private HubTenant waitForRefresh(HubRefresh refresh) {
+    try {
+      return refresh.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else {
+        throw e;
+      }
+    }
   }
 
   private Profile getHubProfile() {
@@ -165,21 +292,32 @@ public class HubIdentityStorage {
     return identityManager.getOrCreateIdentity(IDENTITY_PROVIDER_NAME, IDENTITY_REMOTE_ID);
   }
 
-  private void retrieveHubFromWoM(Profile hubProfile, boolean forceRefresh) {
+  private void updateHubFromWoM(Profile hubProfile, CompletableFuture<Hub> hubRetrieval) {
     try {
-      String hubAddress = (String) hubProfile.getProperty(ADDRESS);
-      Hub remoteHub = womServiceClient.getHub(hubAddress, forceRefresh);
-      if (remoteHub == null) {
+      Hub retrievedHub = waitForHubRetrieval(hubRetrieval);
+      if (retrievedHub == null) {
         clearHubProperties(hubProfile);
-      } else {
-        mapToProfile(hubProfile, remoteHub);
-      }
-      this.retrievedFromWom = true;
+      } else if (retrievedHub != remoteHub) {
+        mapToProfile(hubProfile, retrievedHub);
+      } // Else not modified on WoM since last profile update
+      this.remoteHub = retrievedHub;
     } catch (WomException e) {
       throw new IllegalStateException("Error communicating with WoM Server, couldn't retrieve Hub remote status", e);
     }
   }
 
+  private Hub waitForHubRetrieval(CompletableFuture<Hub> hubRetrieval) throws WomException {
+    try {
+      return hubRetrieval.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof WomException womException) {
+        throw womException;
+      } else {
+        throw e;
+      }
+    }
+  }
+
   private void mapToProfile(Profile hubProfile, Hub hub) throws WomParsingException {
     hubProfile.setProperty(DEED_ID, String.valueOf(hub.getDeedId()));
     hubProfile.setProperty(DEED_CITY, String.valueOf(hub.getCity()));
@@ -212,7 +350,34 @@ public class HubIdentityStorage {
     identityManager.updateProfile(hubProfile);
   }
 
+  /**
+   * Retrieves the {@link HubTenant} computed from the Hub profile. The Hub is
+   * parsed once per profile version, identified by the values of the profile
+   * properties it's computed from, and recomputed only once those properties
+   * change or once its connection ends.
+   *
+   * @param hubProfile Hub {@link Profile}
+   * @return {@link HubTenant}
+   */
   private HubTenant mapToHub(Profile hubProfile) {
+    Object[] profileVersion = getProfileVersion(hubProfile);
+    HubTenantView view = hubTenantView;
+    if (view == null || !view.isValid(profileVersion)) {
+      view = new HubTenantView(profileVersion, parseHub(hubProfile));
+      hubTenantView = view;
+    }
+    return view.getHub();
+  }
+
+  private Object[] getProfileVersion(Profile hubProfile) {
+    Object[] profileVersion = new Object[HUB_PROFILE_PROPERTIES.length];
+    for (int i = 0; i < HUB_PROFILE_PROPERTIES.length; i++) {
+      profileVersion[i] = hubProfile.getProperty(HUB_PROFILE_PROPERTIES[i]);
+    }
+    return profileVersion;
+  }
+
+  private HubTenant parseHub(Profile hubProfile) {
     String deedId = (String) hubProfile.getProperty(DEED_ID);
     String city = (String) hubProfile.getProperty(DEED_CITY);
     String type = (String) hubProfile.getProperty(DEED_TYPE);
@@ -284,6 +449,8 @@ public class HubIdentityStorage {
       hubProfile.removeProperty(USERS_COUNT);
       hubProfile.removeProperty(HUB_ENABLED);
       hubProfile.removeProperty(HUB_AVATAR_UPDATE);
+      hubProfile.removeProperty(HUB_AVATAR_HASH);
+      hubProfile.removeProperty(HUB_BANNER_HASH);
       identityManager.updateProfile(hubProfile);
     }
   }
@@ -318,4 +485,72 @@ public class HubIdentityStorage {
     return StringUtils.isBlank(value) ? defaulValue : StringUtils.equals(value, "true");
   }
 
+  /**
+   * @param hub {@link HubTenant}
+   * @return the time in milliseconds until which the Hub connection status
+   *         remains unchanged, which is its until date when connected with a
+   *         deadline, else {@link Long#MAX_VALUE}
+   */
+  private static long getExpiryTime(HubTenant hub) {
+    return hub == null || !hub.isConnected() || hub.getUntilDate() == null ? Long.MAX_VALUE :
+                                                                             hub.getUntilDate().toEpochMilli();
+  }
+
+  @Getter
+  private static class HubSnapshot {
+
+    private final HubTenant hub;
+
+    private final boolean   retrievedFromWom;
+
+    private final long      expiryTime;
+
+    public HubSnapshot(HubTenant hub, boolean retrievedFromWom) {
+      this.hub = hub;
+      this.retrievedFromWom = retrievedFromWom;
+      this.expiryTime = getExpiryTime(hub);
+    }
+
+    public boolean isValid() {
+      return retrievedFromWom && System.currentTimeMillis() < expiryTime;
+    }
+
+    public HubSnapshot invalidate() {
+      return new HubSnapshot(hub, false);
+    }
+
+  }
+
+  @Getter
+  private static class HubTenantView {
+
+    private final Object[]  profileVersion;
+
+    private final HubTenant hub;
+
+    private final long      expiryTime;
+
+    public HubTenantView(Object[] profileVersion, HubTenant hub) {
+      this.profileVersion = profileVersion;
+      this.hub = hub;
+      this.expiryTime = getExpiryTime(hub);
+    }
+
+    public boolean isValid(Object[] currentProfileVersion) {
+      return Arrays.equals(profileVersion, currentProfileVersion)
+             && System.currentTimeMillis() < expiryTime
+             // Admin wallet may be created after Hub retrieval
+             && hub.getAdminAddress() != null;
+    }
+
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class HubRefresh extends CompletableFuture<HubTenant> {
+
+    private final boolean forced;
+
+  }
+
 }
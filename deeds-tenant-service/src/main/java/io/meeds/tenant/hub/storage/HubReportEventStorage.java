@@ -0,0 +1,83 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import java.time.Instant;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.meeds.tenant.hub.dao.HubReportEventCheckpointDAO;
+import io.meeds.tenant.hub.dao.HubReportEventDAO;
+import io.meeds.tenant.hub.entity.HubReportEventCheckpointEntity;
+import io.meeds.tenant.hub.entity.HubReportEventEntity;
+import io.meeds.tenant.hub.model.HubReportEvent;
+
+@Component
+public class HubReportEventStorage {
+
+  @Autowired
+  private HubReportEventDAO           hubReportEventDAO;
+
+  @Autowired
+  private HubReportEventCheckpointDAO hubReportEventCheckpointDAO;
+
+  public HubReportEvent getEvent(long reportId) {
+    return hubReportEventDAO.findById(reportId)
+                            .map(this::toEvent)
+                            .orElse(null);
+  }
+
+  public HubReportEvent getEventByTransactionHash(String transactionHash) {
+    HubReportEventEntity entity = hubReportEventDAO.findFirstByTransactionHash(StringUtils.lowerCase(transactionHash));
+    return entity == null ? null : toEvent(entity);
+  }
+
+  public void saveEvent(HubReportEvent event) {
+    hubReportEventDAO.save(new HubReportEventEntity(event.getReportId(),
+                                                    StringUtils.lowerCase(event.getTransactionHash()),
+                                                    event.getBlockNumber(),
+                                                    event.getBlockTime()));
+  }
+
+  /**
+   * @param contractAddress UEM contract address
+   * @return last indexed block number, else -1 when not indexed yet
+   */
+  public long getLastIndexedBlock(String contractAddress) {
+    return hubReportEventCheckpointDAO.findById(StringUtils.lowerCase(contractAddress))
+                                      .map(HubReportEventCheckpointEntity::getLastBlock)
+                                      .orElse(-1l);
+  }
+
+  public void saveLastIndexedBlock(String contractAddress, long blockNumber) {
+    hubReportEventCheckpointDAO.save(new HubReportEventCheckpointEntity(StringUtils.lowerCase(contractAddress),
+                                                                        blockNumber,
+                                                                        Instant.now()));
+  }
+
+  private HubReportEvent toEvent(HubReportEventEntity entity) {
+    return new HubReportEvent(entity.getReportId(),
+                              entity.getTransactionHash(),
+                              entity.getBlockNumber(),
+                              entity.getBlockTime());
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
+import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import io.meeds.tenant.hub.dao.HubReportOutboxDAO;
+import io.meeds.tenant.hub.entity.HubReportOutboxEntity;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+import io.meeds.wom.api.model.HubReportPayload;
+
+import lombok.SneakyThrows;
+
+@Component
+public class HubReportOutboxStorage {
+
+  @Autowired
+  private HubReportOutboxDAO hubReportOutboxDAO;
+
+  public HubReportOutboxEntry getEntry(long periodId) {
+    return hubReportOutboxDAO.findById(periodId)
+                             .map(this::toEntry)
+                             .orElse(null);
+  }
+
+  public List<HubReportOutboxEntry> getEntries() {
+    return hubReportOutboxDAO.findAll(Sort.by("createdDate"))
+                             .stream()
+                             .map(this::toEntry)
+                             .toList();
+  }
+
+  @SneakyThrows
+  public void saveEntry(HubReportOutboxEntry entry) {
+    HubReportOutboxEntity entity = new HubReportOutboxEntity(entry.getPeriodId(),
+                                                             toJsonString(entry.getPayload()),
+                                                             entry.getUemAddress(),
+                                                             entry.getUemNetworkId(),
+                                                             entry.getTransactionHash(),
+                                                             entry.getNonce().longValue(),
+                                                             entry.getRawTransaction(),
+                                                             entry.getCreatedDate());
+    hubReportOutboxDAO.save(entity);
+  }
+
+  public void deleteEntry(long periodId) {
+    if (hubReportOutboxDAO.existsById(periodId)) {
+      hubReportOutboxDAO.deleteById(periodId);
+    }
+  }
+
+  @SneakyThrows
+  private HubReportOutboxEntry toEntry(HubReportOutboxEntity entity) {
+    return new HubReportOutboxEntry(entity.getPeriodId(),
+                                    fromJsonString(entity.getPayload(), HubReportPayload.class),
+                                    entity.getUemAddress(),
+                                    entity.getUemNetworkId(),
+                                    entity.getTransactionHash(),
+                                    BigInteger.valueOf(entity.getNonce()),
+                                    entity.getRawTransaction(),
+                                    entity.getCreatedDate());
+  }
+
+}
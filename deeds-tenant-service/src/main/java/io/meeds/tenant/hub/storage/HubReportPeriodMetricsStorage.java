@@ -0,0 +1,76 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.meeds.tenant.hub.dao.HubReportPeriodMetricsDAO;
+import io.meeds.tenant.hub.entity.HubReportPeriodMetricsEntity;
+import io.meeds.tenant.hub.model.HubReportPeriodMetrics;
+
+@Component
+public class HubReportPeriodMetricsStorage {
+
+  @Autowired
+  private HubReportPeriodMetricsDAO hubReportPeriodMetricsDAO;
+
+  public HubReportPeriodMetrics getMetrics(long periodId) {
+    return hubReportPeriodMetricsDAO.findById(periodId)
+                                    .map(this::toMetrics)
+                                    .orElse(null);
+  }
+
+  public Map<Long, HubReportPeriodMetrics> getMetrics(Collection<Long> periodIds) {
+    if (CollectionUtils.isEmpty(periodIds)) {
+      return Collections.emptyMap();
+    }
+    Map<Long, HubReportPeriodMetrics> metrics = new HashMap<>();
+    hubReportPeriodMetricsDAO.findAllById(periodIds)
+                             .forEach(entity -> metrics.put(entity.getPeriodId(), toMetrics(entity)));
+    return metrics;
+  }
+
+  public void saveMetrics(HubReportPeriodMetrics metrics) {
+    hubReportPeriodMetricsDAO.save(new HubReportPeriodMetricsEntity(metrics.getPeriodId(),
+                                                                    metrics.getParticipantsCount(),
+                                                                    metrics.getAchievementsCount(),
+                                                                    metrics.getComputedDate()));
+  }
+
+  public void deleteMetrics(long periodId) {
+    if (hubReportPeriodMetricsDAO.existsById(periodId)) {
+      hubReportPeriodMetricsDAO.deleteById(periodId);
+    }
+  }
+
+  private HubReportPeriodMetrics toMetrics(HubReportPeriodMetricsEntity entity) {
+    return new HubReportPeriodMetrics(entity.getPeriodId(),
+                                      entity.getParticipantsCount(),
+                                      entity.getAchievementsCount(),
+                                      entity.getComputedDate());
+  }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.meeds.common.ContainerTransactional;
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+
+/**
+ * Stores the sending state changes of Hub Reports, each one within its own
+ * transaction, committed before submitting the report transaction to the
+ * blockchain or while waiting for its receipt, without holding a database
+ * transaction during these network operations.
+ */
+@Component
+public class HubReportSendingStorage {
+
+  @Autowired
+  private HubReportStorage       hubReportStorage;
+
+  @Autowired
+  private HubReportOutboxStorage hubReportOutboxStorage;
+
+  @ContainerTransactional
+  public void markAsSending(long periodId) {
+    hubReportStorage.saveStatus(periodId, HubReportStatusType.SENDING.name());
+  }
+
+  /**
+   * Stores the signed report transaction and its hash, in order to be able to
+   * recover it if the server stops before knowing its outcome. It has to be
+   * called before submitting the transaction to the blockchain.
+   *
+   * @param entry {@link HubReportOutboxEntry} of the signed transaction
+   */
+  @ContainerTransactional
+  public void saveSignedTransaction(HubReportOutboxEntry entry) {
+    hubReportOutboxStorage.saveEntry(entry);
+    hubReportStorage.saveTransactionHash(entry.getPeriodId(), entry.getTransactionHash());
+  }
+
+  @ContainerTransactional
+  public void markAsSent(long periodId, long reportId) {
+    hubReportStorage.saveReportPeriodId(periodId, reportId);
+    hubReportStorage.saveStatus(periodId, HubReportStatusType.SENT.name());
+    hubReportStorage.saveSentDate(periodId, Instant.now());
+  }
+
+  /**
+   * Marks the report as not sent with the designated error and removes its
+   * signed transaction, if any, since it's not pending anymore.
+   *
+   * @param periodId Reward Period technical identifier
+   * @param error sending error message
+   */
+  @ContainerTransactional
+  public void markAsError(long periodId, String error) {
+    hubReportOutboxStorage.deleteEntry(periodId);
+    hubReportStorage.saveStatus(periodId, error);
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
+import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.meeds.tenant.hub.dao.HubReportSnapshotDAO;
+import io.meeds.tenant.hub.entity.HubReportSnapshotEntity;
+import io.meeds.tenant.hub.model.HubReportLocalStatus;
+
+import lombok.SneakyThrows;
+
+@Component
+public class HubReportSnapshotStorage {
+
+  @Autowired
+  private HubReportSnapshotDAO hubReportSnapshotDAO;
+
+  public HubReportLocalStatus getSnapshot(long periodId) {
+    return hubReportSnapshotDAO.findById(periodId)
+                               .map(this::toLocalStatus)
+                               .orElse(null);
+  }
+
+  public Map<Long, HubReportLocalStatus> getSnapshots(Collection<Long> periodIds) {
+    if (CollectionUtils.isEmpty(periodIds)) {
+      return Collections.emptyMap();
+    }
+    Map<Long, HubReportLocalStatus> snapshots = new HashMap<>();
+    hubReportSnapshotDAO.findByPeriodIdIn(periodIds)
+                        .forEach(entity -> snapshots.put(entity.getPeriodId(), toLocalStatus(entity)));
+    return snapshots;
+  }
+
+  @SneakyThrows
+  public void saveSnapshot(HubReportLocalStatus report) {
+    HubReportSnapshotEntity entity = new HubReportSnapshotEntity(report.getPeriodId(),
+                                                                 report.getReportId(),
+                                                                 report.getStatus(),
+                                                                 report.getFromDate(),
+                                                                 toJsonString(report),
+                                                                 Instant.now());
+    hubReportSnapshotDAO.save(entity);
+  }
+
+  public void deleteSnapshot(long periodId) {
+    if (hubReportSnapshotDAO.existsById(periodId)) {
+      hubReportSnapshotDAO.deleteById(periodId);
+    }
+  }
+
+  public void deleteSnapshots() {
+    hubReportSnapshotDAO.deleteAllInBatch();
+  }
+
+  @SneakyThrows
+  private HubReportLocalStatus toLocalStatus(HubReportSnapshotEntity entity) {
+    return fromJsonString(entity.getPayload(), HubReportLocalStatus.class);
+  }
+
+}
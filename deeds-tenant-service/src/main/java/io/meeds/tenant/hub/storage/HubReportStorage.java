@@ -17,56 +17,69 @@
  */
 package io.meeds.tenant.hub.storage;
 
+import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
+import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
+
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import org.exoplatform.commons.api.settings.SettingService;
-import org.exoplatform.commons.api.settings.SettingValue;
-import org.exoplatform.commons.api.settings.data.Context;
-import org.exoplatform.commons.api.settings.data.Scope;
 import org.exoplatform.wallet.model.reward.RewardPeriod;
 import org.exoplatform.wallet.reward.service.RewardReportService;
 
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.dao.HubReportDAO;
+import io.meeds.tenant.hub.entity.HubReportEntity;
+import io.meeds.tenant.hub.model.HubReportState;
+import io.meeds.wom.api.constant.WomParsingException;
+import io.meeds.wom.api.model.WomErrorMessage;
+
 @Component
 public class HubReportStorage {
 
-  public static final Context UEM_CONTEXT                         = Context.GLOBAL.id("HubUEM");
-
-  public static final String  REWARD_REPORT_ID                    = "HubReportId";
-
-  public static final String  REWARD_PERIOD_ID                    = "HubPeriodId";
-
-  public static final String  REWARD_REPORT_STATUS                = "HubReportStatus";
-
-  public static final String  REWARD_REPORT_SENT_DATE             = "HubReportSentDate";
+  private static final int    ERROR_KEY_MAX_LENGTH = 250;
 
-  public static final Scope   REWARD_REPORT_STATUS_APPLICATION    = Scope.APPLICATION.id(REWARD_REPORT_STATUS);
-
-  public static final Scope   REWARD_REPORT_SENT_DATE_APPLICATION = Scope.APPLICATION.id(REWARD_REPORT_SENT_DATE);
-
-  public static final Scope   REWARD_REPORT_ID_APPLICATION        = Scope.APPLICATION.id(REWARD_REPORT_ID);
-
-  public static final Scope   REWARD_PERIOD_ID_APPLICATION        = Scope.APPLICATION.id(REWARD_PERIOD_ID);
+  private static final int    ERROR_MAX_LENGTH     = 2000;
 
   @Autowired
-  private RewardReportService  rewardReportService;
+  private RewardReportService rewardReportService;
 
   @Autowired
-  private SettingService       settingService;
+  private HubReportDAO        hubReportDAO;
 
   public void saveStatus(RewardPeriod rewardPeriod, String status) {
     long periodId = getPeriodKey(rewardPeriod);
     saveStatus(periodId, status);
   }
 
+  /**
+   * Saves the report sending status of a reward period. When the status isn't
+   * a known {@link HubReportStatusType}, it's considered as a sending error
+   * message.
+   *
+   * @param periodId Reward Period technical identifier
+   * @param status {@link HubReportStatusType} name or a sending error message
+   */
   public void saveStatus(long periodId, String status) {
-    settingService.set(UEM_CONTEXT,
-                       REWARD_REPORT_STATUS_APPLICATION,
-                       String.valueOf(periodId),
-                       SettingValue.create(status));
+    HubReportEntity entity = getOrCreateEntity(periodId);
+    HubReportStatusType statusType = EnumUtils.getEnum(HubReportStatusType.class, status);
+    if (statusType == null && StringUtils.isNotBlank(status)) {
+      entity.setStatus(HubReportStatusType.ERROR_SENDING);
+      entity.setError(truncateError(status));
+      entity.setErrorKey(getErrorKey(status));
+    } else {
+      entity.setStatus(statusType);
+      entity.setError(null);
+      entity.setErrorKey(null);
+    }
+    hubReportDAO.save(entity);
   }
 
   public void saveReportPeriodId(RewardPeriod rewardPeriod, long reportId) {
@@ -75,30 +88,38 @@ public class HubReportStorage {
   }
 
   public void saveReportPeriodId(long periodId, long reportId) {
-    settingService.set(UEM_CONTEXT,
-                       REWARD_REPORT_ID_APPLICATION,
-                       String.valueOf(periodId),
-                       SettingValue.create(String.valueOf(reportId)));
-    settingService.set(UEM_CONTEXT,
-                       REWARD_PERIOD_ID_APPLICATION,
-                       String.valueOf(reportId),
-                       SettingValue.create(String.valueOf(periodId)));
+    HubReportEntity entity = getOrCreateEntity(periodId);
+    entity.setReportId(reportId);
+    hubReportDAO.save(entity);
   }
 
   public void saveSentDate(RewardPeriod rewardPeriod, Instant sentDate) {
     long periodId = getPeriodKey(rewardPeriod);
-    settingService.set(UEM_CONTEXT,
-                       REWARD_REPORT_SENT_DATE_APPLICATION,
-                       String.valueOf(periodId),
-                       SettingValue.create(String.valueOf(sentDate.toEpochMilli())));
+    saveSentDate(periodId, sentDate);
+  }
+
+  public void saveSentDate(long periodId, Instant sentDate) {
+    HubReportEntity entity = getOrCreateEntity(periodId);
+    entity.setSentDate(sentDate);
+    hubReportDAO.save(entity);
+  }
+
+  public void saveTransactionHash(long periodId, String transactionHash) {
+    HubReportEntity entity = getOrCreateEntity(periodId);
+    entity.setTransactionHash(StringUtils.lowerCase(transactionHash));
+    hubReportDAO.save(entity);
   }
 
   public String getStatus(RewardPeriod rewardPeriod) {
     long periodId = getPeriodKey(rewardPeriod);
-    SettingValue<?> statusValue = settingService.get(UEM_CONTEXT,
-                                                     REWARD_REPORT_STATUS_APPLICATION,
-                                                     String.valueOf(periodId));
-    return statusValue == null || statusValue.getValue() == null ? null : statusValue.getValue().toString();
+    HubReportEntity entity = hubReportDAO.findById(periodId).orElse(null);
+    if (entity == null || entity.getStatus() == null) {
+      return null;
+    } else if (StringUtils.isNotBlank(entity.getError())) {
+      return entity.getError();
+    } else {
+      return entity.getStatus().name();
+    }
   }
 
   public long getReportId(RewardPeriod rewardPeriod) {
@@ -107,17 +128,14 @@ public class HubReportStorage {
   }
 
   public long getReportId(long periodId) {
-    SettingValue<?> settingValue = settingService.get(UEM_CONTEXT,
-                                                      REWARD_REPORT_ID_APPLICATION,
-                                                      String.valueOf(periodId));
-    return settingValue == null || settingValue.getValue() == null ? 0 : Long.parseLong(settingValue.getValue().toString());
+    return hubReportDAO.findById(periodId)
+                       .map(HubReportEntity::getReportId)
+                       .orElse(0l);
   }
 
   public long getPeriodId(long reportId) {
-    SettingValue<?> settingValue = settingService.get(UEM_CONTEXT,
-                                                      REWARD_PERIOD_ID_APPLICATION,
-                                                      String.valueOf(reportId));
-    return settingValue == null || settingValue.getValue() == null ? 0 : Long.parseLong(settingValue.getValue().toString());
+    HubReportEntity entity = hubReportDAO.findFirstByReportId(reportId);
+    return entity == null ? 0 : entity.getPeriodId();
   }
 
   public Instant getSentDate(RewardPeriod rewardPeriod) {
@@ -126,15 +144,38 @@ public class HubReportStorage {
   }
 
   public Instant getSentDate(long periodId) {
-    SettingValue<?> settingValue = settingService.get(UEM_CONTEXT,
-                                                      REWARD_REPORT_SENT_DATE_APPLICATION,
-                                                      String.valueOf(periodId));
-    String sentDateString = settingValue == null || settingValue.getValue() == null ? null : settingValue.getValue().toString();
-    if (StringUtils.isBlank(sentDateString)) {
-      return Instant.now();
-    } else {
-      return Instant.ofEpochMilli(Long.parseLong(sentDateString));
+    Instant sentDate = hubReportDAO.findById(periodId)
+                                   .map(HubReportEntity::getSentDate)
+                                   .orElse(null);
+    return sentDate == null ? Instant.now() : sentDate;
+  }
+
+  public HubReportState getReportState(long periodId) {
+    return hubReportDAO.findById(periodId)
+                       .map(this::toState)
+                       .orElse(null);
+  }
+
+  public HubReportState getReportStateByTransactionHash(String transactionHash) {
+    HubReportEntity entity = hubReportDAO.findFirstByTransactionHash(StringUtils.lowerCase(transactionHash));
+    return entity == null ? null : toState(entity);
+  }
+
+  public List<HubReportState> findByPeriodIds(Collection<Long> periodIds) {
+    if (CollectionUtils.isEmpty(periodIds)) {
+      return Collections.emptyList();
     }
+    return hubReportDAO.findByPeriodIdIn(periodIds)
+                       .stream()
+                       .map(this::toState)
+                       .toList();
+  }
+
+  public List<HubReportState> findByStatus(HubReportStatusType status) {
+    return hubReportDAO.findByStatus(status)
+                       .stream()
+                       .map(this::toState)
+                       .toList();
   }
 
   public long getPeriodKey(RewardPeriod rewardPeriod) {
@@ -150,4 +191,65 @@ public class HubReportStorage {
     }
   }
 
+  private HubReportEntity getOrCreateEntity(long periodId) {
+    return hubReportDAO.findById(periodId)
+                       .orElseGet(() -> {
+                         HubReportEntity entity = new HubReportEntity();
+                         entity.setPeriodId(periodId);
+                         return entity;
+                       });
+  }
+
+  private String getErrorKey(String error) {
+    String errorKey = error;
+    WomErrorMessage errorMessage = parseErrorMessage(error);
+    if (errorMessage != null && StringUtils.isNotBlank(errorMessage.getMessageKey())) {
+      errorKey = errorMessage.getMessageKey();
+    }
+    return StringUtils.substring(errorKey, 0, ERROR_KEY_MAX_LENGTH);
+  }
+
+  private String truncateError(String error) {
+    int exceedingLength = error.length() - ERROR_MAX_LENGTH;
+    if (exceedingLength <= 0) {
+      return error;
+    }
+    WomErrorMessage errorMessage = parseErrorMessage(error);
+    if (errorMessage != null && StringUtils.length(errorMessage.getMessageKey()) > exceedingLength) {
+      // Truncate the message before serializing it, to store a valid JSON
+      String messageKey = errorMessage.getMessageKey();
+      errorMessage.setMessageKey(messageKey.substring(0, messageKey.length() - exceedingLength));
+      try {
+        return toJsonString(errorMessage);
+      } catch (WomParsingException e) {
+        return getErrorKey(error);
+      }
+    } else if (errorMessage != null) {
+      return getErrorKey(error);
+    } else {
+      return error.substring(0, ERROR_MAX_LENGTH);
+    }
+  }
+
+  private WomErrorMessage parseErrorMessage(String error) {
+    if (StringUtils.contains(error, "{")) {
+      try {
+        return fromJsonString(error, WomErrorMessage.class);
+      } catch (WomParsingException e) {
+        // Not a structured error
+      }
+    }
+    return null;
+  }
+
+  private HubReportState toState(HubReportEntity entity) {
+    return new HubReportState(entity.getPeriodId(),
+                              entity.getReportId(),
+                              entity.getStatus(),
+                              entity.getSentDate(),
+                              entity.getTransactionHash(),
+                              entity.getErrorKey(),
+                              entity.getError());
+  }
+
 }
@@ -19,15 +19,21 @@ package io.meeds.tenant.hub.storage;
 
 import static io.meeds.tenant.hub.utils.ContractUtils.executeRemoteCallTransaction;
 import static io.meeds.tenant.hub.utils.ContractUtils.getReportSentEvents;
+import static io.meeds.tenant.hub.utils.ContractUtils.submitRemoteCallTransaction;
 import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
 import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
 import static org.exoplatform.wallet.utils.WalletUtils.WALLET_ADMIN_REMOTE_ID;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,26 +46,34 @@ import org.web3j.abi.datatypes.Type;
 import org.web3j.crypto.CipherException;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
 import org.web3j.crypto.Sign;
 import org.web3j.crypto.WalletFile;
 import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.RemoteFunctionCall;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
-import org.web3j.tx.RawTransactionManager;
 import org.web3j.tx.TransactionManager;
-import org.web3j.tx.response.PollingTransactionReceiptProcessor;
 import org.web3j.tx.response.TransactionReceiptProcessor;
 import org.web3j.utils.Numeric;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
 import org.exoplatform.wallet.model.WalletType;
 import org.exoplatform.wallet.service.WalletAccountService;
 import org.exoplatform.wallet.utils.WalletUtils;
 import org.exoplatform.web.security.codec.CodecInitializer;
 import org.exoplatform.web.security.security.TokenServiceInitializationException;
 
+import io.meeds.tenant.hub.constant.GasUrgencyType;
 import io.meeds.tenant.hub.model.BlockchainHubReport;
+import io.meeds.tenant.hub.model.HubSignedTransaction;
+import io.meeds.tenant.hub.service.HubNonceManager;
+import io.meeds.tenant.hub.service.HubTransactionManagerFactory;
+import io.meeds.tenant.hub.service.HubTransactionReceiptTracker;
 import io.meeds.tenant.hub.service.PolygonContractGasProvider;
 import io.meeds.tenant.hub.utils.ContractUtils.ReportSentEventResponse;
 import io.meeds.wom.api.constant.WomException;
@@ -71,25 +85,43 @@ import lombok.SneakyThrows;
 @Component
 public class HubWalletStorage {
 
-  public static final String          FUNC_ADDREPORT = "addReport";
+  private static final Log             LOG                  = ExoLogger.getLogger(HubWalletStorage.class);
+
+  public static final String           FUNC_ADDREPORT       = "addReport";
+
+  private static final long            HUB_WALLET_CACHE_TTL = Long.parseLong(System.getProperty("meeds.deed.tenant.hubWallet.cacheTtl", "1800")) * 1000;
+
+  private static final ObjectReader    WALLET_FILE_READER   = ObjectMapperFactory.getObjectMapper().readerFor(WalletFile.class);
 
   @Autowired
-  private WalletAccountService        walletAccountService;
+  private WalletAccountService         walletAccountService;
 
   @Autowired
-  private HubIdentityStorage          hubIdentityStorage;
+  private HubIdentityStorage           hubIdentityStorage;
 
   @Autowired
-  private CodecInitializer            codecInitializer;
+  private CodecInitializer             codecInitializer;
 
   @Autowired(required = false)
-  private PolygonContractGasProvider  polygonContractGasProvider;
+  private PolygonContractGasProvider   polygonContractGasProvider;
 
-  @Setter
-  private TransactionManager          transactionManager;
+  @Autowired
+  private HubNonceManager              hubNonceManager;
+
+  @Autowired
+  private HubTransactionReceiptTracker hubTransactionReceiptTracker;
+
+  @Autowired
+  private HubTransactionManagerFactory hubTransactionManagerFactory;
 
   @Setter
-  private TransactionReceiptProcessor transactionReceiptProcessor;
+  private TransactionReceiptProcessor  transactionReceiptProcessor;
+
+  private byte[]                       hubWalletPrivateKey;
+
+  private Credentials                  hubWalletCredentials;
+
+  private long                         hubWalletExpirationTime;
 
   @SneakyThrows
   public String getOrCreateHubAddress() {
@@ -112,49 +144,46 @@ public class HubWalletStorage {
   }
 
   public long sendReportTransaction(HubReportPayload report, String uemAddress, long uemNetworkId) throws WomException {
-    BlockchainHubReport blockchainReport = new BlockchainHubReport(report.getHubAddress(),
-                                                                   BigInteger.valueOf(report.getUsersCount()),
-                                                                   BigInteger.valueOf(report.getRecipientsCount()),
-                                                                   BigInteger.valueOf(report.getParticipantsCount()),
-                                                                   BigInteger.valueOf(report.getAchievementsCount()),
-                                                                   WalletUtils.convertToDecimals(report.getHubRewardAmount(),
-                                                                                                 getHubContractDecimals()),
-                                                                   report.getRewardTokenAddress(),
-                                                                   BigInteger.valueOf(report.getRewardTokenNetworkId()),
-                                                                   BigInteger.valueOf(report.getFromDate().getEpochSecond()),
-                                                                   BigInteger.valueOf(report.getToDate().getEpochSecond()));
+    return sendReportTransaction(report, uemAddress, uemNetworkId, null);
+  }
 
-    @SuppressWarnings("rawtypes")
-    Function function = new Function(FUNC_ADDREPORT,
-                                     Arrays.<Type> asList(blockchainReport),
-                                     Collections.<TypeReference<?>> emptyList());
+  public long sendReportTransaction(HubReportPayload report,
+                                    String uemAddress,
+                                    long uemNetworkId,
+                                    GasUrgencyType urgency) throws WomException {
+    return sendReportTransaction(report, uemAddress, uemNetworkId, urgency, null);
+  }
 
-    RemoteFunctionCall<TransactionReceipt> remoteCall = executeRemoteCallTransaction(getTransactionManager(),
+  /**
+   * Sends the Hub Report to the UEM contract
+   *
+   * @param report {@link HubReportPayload}
+   * @param uemAddress UEM contract address
+   * @param uemNetworkId UEM contract network identifier
+   * @param urgency {@link GasUrgencyType} determining the fees to pay, when
+   *          null the default configured urgency is used
+   * @param signedTransactionListener a listener invoked with the signed
+   *          transaction just before submitting it to the blockchain, can be
+   *          null
+   * @return created Report identifier on Blockchain
+   * @throws WomException when an error happens while sending the transaction
+   */
+  public long sendReportTransaction(HubReportPayload report,
+                                    String uemAddress,
+                                    long uemNetworkId,
+                                    GasUrgencyType urgency,
+                                    Consumer<HubSignedTransaction> signedTransactionListener) throws WomException {
+    TransactionManager reportTransactionManager = getTransactionManager(signedTransactionListener);
+    RemoteFunctionCall<TransactionReceipt> remoteCall = executeRemoteCallTransaction(reportTransactionManager,
                                                                                      polygonContractGasProvider,
+                                                                                     hubNonceManager,
                                                                                      getTransactionReceiptProcessor(),
-                                                                                     function,
+                                                                                     getAddReportFunction(report),
                                                                                      uemAddress,
-                                                                                     uemNetworkId);
+                                                                                     uemNetworkId,
+                                                                                     urgency);
     try {
-      TransactionReceipt receipt = remoteCall.send();
-      if (receipt == null) {
-        throw new WomException("uem.sendReportFailedWithoutReceipt");
-      } else if (!receipt.isStatusOK()) {
-        String message = getUemContractMessage(receipt.getRevertReason());
-        if (StringUtils.isNotBlank(message)) {
-          throw new WomException(message);
-        } else {
-          message = getUemContractMessage(receipt.getStatus());
-          if (StringUtils.isNotBlank(message)) {
-            throw new WomException(message);
-          } else {
-            throw new WomException("uem.sendReportTransactionFailed");
-          }
-        }
-      } else {
-        List<ReportSentEventResponse> reportSentEvents = getReportSentEvents(receipt);
-        return reportSentEvents.get(0).reportId.longValue();
-      }
+      return getReportId(remoteCall.send());
     } catch (Exception e) {
       String message = getUemContractExceptionMessage(e);
       if (StringUtils.isNotBlank(message)) {
@@ -165,7 +194,142 @@ public class HubWalletStorage {
     }
   }
 
+  /**
+   * Sends the Hub Report to the UEM contract without blocking the calling
+   * thread until the transaction is mined. The transaction is signed and
+   * submitted by the calling thread, then its receipt is tracked by
+   * {@link HubTransactionReceiptTracker}.
+   *
+   * @param report {@link HubReportPayload}
+   * @param uemAddress UEM contract address
+   * @param uemNetworkId UEM contract network identifier
+   * @param urgency {@link GasUrgencyType} determining the fees to pay, when
+   *          null the default configured urgency is used
+   * @param signedTransactionListener a listener invoked with the signed
+   *          transaction just before submitting it to the blockchain, can be
+   *          null
+   * @return {@link CompletableFuture} completed with the created Report
+   *         identifier on Blockchain, or exceptionally with a
+   *         {@link WomException} when the transaction fails
+   */
+  public CompletableFuture<Long> sendReportTransactionAsync(HubReportPayload report,
+                                                            String uemAddress,
+                                                            long uemNetworkId,
+                                                            GasUrgencyType urgency,
+                                                            Consumer<HubSignedTransaction> signedTransactionListener) {
+    String transactionHash;
+    try {
+      TransactionManager reportTransactionManager = getTransactionManager(signedTransactionListener);
+      transactionHash = submitRemoteCallTransaction(reportTransactionManager,
+                                                    polygonContractGasProvider,
+                                                    hubNonceManager,
+                                                    getAddReportFunction(report),
+                                                    uemAddress,
+                                                    uemNetworkId,
+                                                    urgency).send();
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(toReportTransactionError(e));
+    }
+    return hubTransactionReceiptTracker.getTransactionReceipt(transactionHash)
+                                       .handle((receipt, error) -> {
+                                         try {
+                                           if (error != null) {
+                                             throw toReportTransactionError(error);
+                                           }
+                                           return getReportId(receipt);
+                                         } catch (Exception e) {
+                                           throw new CompletionException(e);
+                                         }
+                                       });
+  }
+
+  /**
+   * Reconciles a report transaction, signed and stored before submitting it,
+   * with the blockchain state. When the transaction isn't mined yet, it's
+   * submitted again using the same signed transaction, which doesn't consume
+   * a new nonce nor create a duplicated report.
+   *
+   * @param transactionHash signed transaction hash
+   * @param rawTransaction signed raw transaction
+   * @return created Report identifier on Blockchain, else 0 when the
+   *         transaction is still pending
+   * @throws WomException when the transaction failed or when its nonce was
+   *           consumed without mining it
+   */
+  public long recoverReportTransaction(String transactionHash, String rawTransaction) throws WomException {
+    Web3j web3j = polygonContractGasProvider.getWeb3j();
+    try {
+      TransactionReceipt receipt = getTransactionReceipt(web3j, transactionHash);
+      if (receipt == null) {
+        EthSendTransaction sendTransactionCall = web3j.ethSendRawTransaction(rawTransaction).send();
+        String error = sendTransactionCall.hasError() ? sendTransactionCall.getError().getMessage() : null;
+        if (StringUtils.containsIgnoreCase(error, "nonce too low")) {
+          // The nonce is consumed, check again in case it's by this
+          // transaction and it was mined meanwhile
+          receipt = getTransactionReceipt(web3j, transactionHash);
+          if (receipt == null) {
+            throw new WomException("uem.sendReportTransactionDropped");
+          }
+        } else {
+          if (StringUtils.isNotBlank(error) && !hubNonceManager.isKnownTransactionError(error)) {
+            LOG.warn("Error while submitting again Report transaction {}, retry on next run. Message: {}",
+                     transactionHash,
+                     error);
+          }
+          return 0;
+        }
+      }
+      return getReportId(receipt);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error while retrieving Report transaction " + transactionHash + " status", e);
+    }
+  }
+
+  /**
+   * Clears the decrypted Hub Wallet keys from memory. Only the private key
+   * byte array is zeroed, the cached {@link ECKeyPair} and {@link Credentials}
+   * hold immutable {@link BigInteger} copies which are only dereferenced and
+   * left to the garbage collector.
+   */
+  public synchronized void clearHubWallet() {
+    if (hubWalletPrivateKey != null) {
+      Arrays.fill(hubWalletPrivateKey, (byte) 0);
+      hubWalletPrivateKey = null;
+    }
+    hubWalletCredentials = null;
+    hubWalletExpirationTime = 0;
+  }
+
+  /**
+   * Retrieves the Hub Wallet keys from cache when available and not expired,
+   * else decrypt it from stored wallet file, which is CPU intensive when using
+   * scrypt algorithm. The key pair is cached during the configured TTL to not
+   * derive the public key again on each signature.
+   *
+   * @return Hub Wallet {@link ECKeyPair}
+   * @throws WomException when the wallet can't be decrypted
+   */
   private ECKeyPair getHubWallet() throws WomException {
+    return getHubWalletCredentials().getEcKeyPair();
+  }
+
+  private synchronized Credentials getHubWalletCredentials() throws WomException {
+    if (hubWalletCredentials != null && !isHubWalletExpired()) {
+      return hubWalletCredentials;
+    }
+    clearHubWallet();
+    ECKeyPair ecKeyPair = decryptHubWallet();
+    hubWalletPrivateKey = Numeric.toBytesPadded(ecKeyPair.getPrivateKey(), Keys.PRIVATE_KEY_SIZE);
+    hubWalletCredentials = Credentials.create(ecKeyPair);
+    hubWalletExpirationTime = System.currentTimeMillis() + HUB_WALLET_CACHE_TTL;
+    return hubWalletCredentials;
+  }
+
+  private boolean isHubWalletExpired() {
+    return hubWalletPrivateKey != null && System.currentTimeMillis() > hubWalletExpirationTime;
+  }
+
+  private ECKeyPair decryptHubWallet() throws WomException {
     String hubWalletString = hubIdentityStorage.getHubWallet();
     try {
       hubWalletString = codecInitializer.getCodec().decode(hubWalletString);
@@ -200,6 +364,7 @@ public class HubWalletStorage {
       address = "0x" + address;
     }
     hubIdentityStorage.saveHubWallet(address, walletFileJson);
+    clearHubWallet();
     return address;
   }
 
@@ -210,8 +375,7 @@ public class HubWalletStorage {
     }
     WalletFile adminWallet = null;
     try {
-      ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
-      adminWallet = objectMapper.readerFor(WalletFile.class).readValue(privateKey);
+      adminWallet = WALLET_FILE_READER.readValue(privateKey);
     } catch (Exception e) {
       throw new IllegalStateException("An error occurred while parsing admin wallet keys", e);
     }
@@ -222,6 +386,69 @@ public class HubWalletStorage {
     }
   }
 
+  @SuppressWarnings("rawtypes")
+  private Function getAddReportFunction(HubReportPayload report) {
+    BlockchainHubReport blockchainReport = new BlockchainHubReport(report.getHubAddress(),
+                                                                   BigInteger.valueOf(report.getUsersCount()),
+                                                                   BigInteger.valueOf(report.getRecipientsCount()),
+                                                                   BigInteger.valueOf(report.getParticipantsCount()),
+                                                                   BigInteger.valueOf(report.getAchievementsCount()),
+                                                                   WalletUtils.convertToDecimals(report.getHubRewardAmount(),
+                                                                                                 getHubContractDecimals()),
+                                                                   report.getRewardTokenAddress(),
+                                                                   BigInteger.valueOf(report.getRewardTokenNetworkId()),
+                                                                   BigInteger.valueOf(report.getFromDate().getEpochSecond()),
+                                                                   BigInteger.valueOf(report.getToDate().getEpochSecond()));
+    return new Function(FUNC_ADDREPORT,
+                        Arrays.<Type> asList(blockchainReport),
+                        Collections.<TypeReference<?>> emptyList());
+  }
+
+  private Exception toReportTransactionError(Throwable e) {
+    if (e instanceof CompletionException && e.getCause() != null) {
+      e = e.getCause();
+    }
+    if (e instanceof WomException womException) {
+      return womException;
+    }
+    String message = getUemContractExceptionMessage(e);
+    if (StringUtils.isNotBlank(message)) {
+      return new WomException(message);
+    } else if (e instanceof CancellationException) {
+      return new IllegalStateException("Report transaction receipt tracking stopped", e);
+    } else {
+      return new IllegalStateException("Error While processing Deed Update transaction", e);
+    }
+  }
+
+  private long getReportId(TransactionReceipt receipt) throws WomException {
+    if (receipt == null) {
+      throw new WomException("uem.sendReportFailedWithoutReceipt");
+    } else if (!receipt.isStatusOK()) {
+      String message = getUemContractMessage(receipt.getRevertReason());
+      if (StringUtils.isNotBlank(message)) {
+        throw new WomException(message);
+      } else {
+        message = getUemContractMessage(receipt.getStatus());
+        if (StringUtils.isNotBlank(message)) {
+          throw new WomException(message);
+        } else {
+          throw new WomException("uem.sendReportTransactionFailed");
+        }
+      }
+    } else {
+      List<ReportSentEventResponse> reportSentEvents = getReportSentEvents(receipt);
+      return reportSentEvents.get(0).reportId.longValue();
+    }
+  }
+
+  private TransactionReceipt getTransactionReceipt(Web3j web3j, String transactionHash) throws IOException {
+    return web3j.ethGetTransactionReceipt(transactionHash)
+                .send()
+                .getTransactionReceipt()
+                .orElse(null);
+  }
+
   private String getUemContractExceptionMessage(Throwable e) {
     if (e != null) {
       String message = getUemContractMessage(e.getMessage());
@@ -261,20 +488,16 @@ public class HubWalletStorage {
     return WalletUtils.getSettings().getContractDetail().getDecimals();
   }
 
-  private TransactionManager getTransactionManager() throws WomException {
-    if (transactionManager == null) {
-      transactionManager = new RawTransactionManager(polygonContractGasProvider.getWeb3j(),
-                                                     Credentials.create(getHubWallet()),
-                                                     polygonContractGasProvider.getChainId());
-    }
-    return transactionManager;
+  private TransactionManager getTransactionManager(Consumer<HubSignedTransaction> signedTransactionListener) throws WomException {
+    return hubTransactionManagerFactory.createTransactionManager(polygonContractGasProvider.getWeb3j(),
+                                                                 getHubWalletCredentials(),
+                                                                 polygonContractGasProvider.getChainId(),
+                                                                 signedTransactionListener);
   }
 
   private TransactionReceiptProcessor getTransactionReceiptProcessor() {
     if (transactionReceiptProcessor == null) {
-      transactionReceiptProcessor = new PollingTransactionReceiptProcessor(polygonContractGasProvider.getWeb3j(),
-                                                                           TransactionManager.DEFAULT_POLLING_FREQUENCY,
-                                                                           TransactionManager.DEFAULT_POLLING_ATTEMPTS_PER_TX_HASH);
+      transactionReceiptProcessor = hubTransactionReceiptTracker.getTransactionReceiptProcessor();
     }
     return transactionReceiptProcessor;
   }
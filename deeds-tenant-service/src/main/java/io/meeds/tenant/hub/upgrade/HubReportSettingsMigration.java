@@ -0,0 +1,139 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.upgrade;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.commons.api.settings.SettingService;
+import org.exoplatform.commons.api.settings.SettingValue;
+import org.exoplatform.commons.api.settings.data.Context;
+import org.exoplatform.commons.api.settings.data.Scope;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.common.ContainerTransactional;
+import io.meeds.tenant.hub.storage.HubReportStorage;
+
+/**
+ * Imports the reports bookkeeping previously stored using {@link SettingService}
+ * into the dedicated HUB_REPORTS table, then deletes the migrated settings.
+ * The migration is triggered once the context is refreshed, through the bean
+ * proxy, to let it run inside a container transaction. Its completion is
+ * stored as a setting to not scan the settings again on next startups.
+ */
+@Component
+public class HubReportSettingsMigration {
+
+  public static final Context UEM_CONTEXT                         = Context.GLOBAL.id("HubUEM");
+
+  public static final String  REWARD_REPORT_ID                    = "HubReportId";
+
+  public static final String  REWARD_PERIOD_ID                    = "HubPeriodId";
+
+  public static final String  REWARD_REPORT_STATUS                = "HubReportStatus";
+
+  public static final String  REWARD_REPORT_SENT_DATE             = "HubReportSentDate";
+
+  public static final Scope   REWARD_REPORT_STATUS_APPLICATION    = Scope.APPLICATION.id(REWARD_REPORT_STATUS);
+
+  public static final Scope   REWARD_REPORT_SENT_DATE_APPLICATION = Scope.APPLICATION.id(REWARD_REPORT_SENT_DATE);
+
+  public static final Scope   REWARD_REPORT_ID_APPLICATION        = Scope.APPLICATION.id(REWARD_REPORT_ID);
+
+  public static final Scope   REWARD_PERIOD_ID_APPLICATION        = Scope.APPLICATION.id(REWARD_PERIOD_ID);
+
+  public static final Scope   MIGRATION_APPLICATION               = Scope.APPLICATION.id("HubReportsMigration");
+
+  public static final String  MIGRATION_DONE_KEY                  = "settingsMigrated";
+
+  private static final Log    LOG                                 = ExoLogger.getLogger(HubReportSettingsMigration.class);
+
+  @Autowired
+  private SettingService      settingService;
+
+  @Autowired
+  private HubReportStorage    hubReportStorage;
+
+  @EventListener(ContextRefreshedEvent.class)
+  @ContainerTransactional
+  public void init() {
+    if (isMigrated()) {
+      return;
+    }
+    try {
+      migrate();
+      settingService.set(UEM_CONTEXT, MIGRATION_APPLICATION, MIGRATION_DONE_KEY, SettingValue.create(true));
+    } catch (Exception e) {
+      LOG.warn("Error while migrating Hub Reports from settings to dedicated table", e);
+    }
+  }
+
+  public void migrate() {
+    Set<Long> periodIds = new HashSet<>();
+    readSettings(REWARD_REPORT_STATUS_APPLICATION, periodIds, hubReportStorage::saveStatus);
+    readSettings(REWARD_REPORT_ID_APPLICATION,
+                 periodIds,
+                 (periodId, value) -> hubReportStorage.saveReportPeriodId(periodId, Long.parseLong(value)));
+    readSettings(REWARD_REPORT_SENT_DATE_APPLICATION,
+                 periodIds,
+                 (periodId, value) -> hubReportStorage.saveSentDate(periodId, Instant.ofEpochMilli(Long.parseLong(value))));
+    if (!periodIds.isEmpty()) {
+      settingService.remove(UEM_CONTEXT, REWARD_REPORT_STATUS_APPLICATION);
+      settingService.remove(UEM_CONTEXT, REWARD_REPORT_ID_APPLICATION);
+      settingService.remove(UEM_CONTEXT, REWARD_PERIOD_ID_APPLICATION);
+      settingService.remove(UEM_CONTEXT, REWARD_REPORT_SENT_DATE_APPLICATION);
+      LOG.info("{} Hub Reports migrated from settings to dedicated table", periodIds.size());
+    }
+  }
+
+  private boolean isMigrated() {
+    SettingValue<?> settingValue = settingService.get(UEM_CONTEXT, MIGRATION_APPLICATION, MIGRATION_DONE_KEY);
+    return settingValue != null && settingValue.getValue() != null && Boolean.parseBoolean(settingValue.getValue().toString());
+  }
+
+  @SuppressWarnings("rawtypes")
+  private void readSettings(Scope scope, Set<Long> periodIds, BiConsumer<Long, String> consumer) {
+    Map<String, SettingValue> settings = settingService.getSettingsByContextAndScope(UEM_CONTEXT.getName(),
+                                                                                     UEM_CONTEXT.getId(),
+                                                                                     scope.getName(),
+                                                                                     scope.getId());
+    if (settings == null) {
+      return;
+    }
+    settings.forEach((key, settingValue) -> {
+      String value = settingValue == null || settingValue.getValue() == null ? null : settingValue.getValue().toString();
+      if (StringUtils.isNumeric(key) && StringUtils.isNotBlank(value)) {
+        long periodId = Long.parseLong(key);
+        consumer.accept(periodId, value);
+        periodIds.add(periodId);
+      }
+    });
+  }
+
+}
@@ -34,13 +34,10 @@ import org.web3j.abi.datatypes.Event;
 import org.web3j.abi.datatypes.Function;
 import org.web3j.abi.datatypes.Type;
 import org.web3j.abi.datatypes.generated.Uint256;
-import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.BaseEventResponse;
 import org.web3j.protocol.core.methods.response.EthEstimateGas;
-import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
@@ -50,6 +47,8 @@ import org.web3j.tx.Contract;
 import org.web3j.tx.TransactionManager;
 import org.web3j.tx.response.TransactionReceiptProcessor;
 
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+import io.meeds.tenant.hub.service.HubNonceManager;
 import io.meeds.tenant.hub.service.PolygonContractGasProvider;
 import io.meeds.wom.api.constant.WomException;
 
@@ -69,38 +68,91 @@ public class ContractUtils {
 
   public static RemoteFunctionCall<TransactionReceipt> executeRemoteCallTransaction(TransactionManager transactionManager,
                                                                                     PolygonContractGasProvider polygonContractGasProvider,
+                                                                                    HubNonceManager hubNonceManager,
                                                                                     TransactionReceiptProcessor transactionReceiptProcessor,
                                                                                     Function function,
                                                                                     String uemAddress,
-                                                                                    long uemNetworkId) {
+                                                                                    long uemNetworkId,
+                                                                                    GasUrgencyType urgency) {
     return new RemoteFunctionCall<>(function,
                                     () -> executeTransaction(transactionManager,
                                                              polygonContractGasProvider,
+                                                             hubNonceManager,
                                                              transactionReceiptProcessor,
                                                              FunctionEncoder.encode(function),
-                                                             function.getName(),
                                                              uemAddress,
-                                                             uemNetworkId));
+                                                             uemNetworkId,
+                                                             urgency));
+  }
+
+  /**
+   * Builds a remote call which sends the transaction and returns its hash
+   * without waiting for its receipt
+   */
+  public static RemoteFunctionCall<String> submitRemoteCallTransaction(TransactionManager transactionManager,
+                                                                       PolygonContractGasProvider polygonContractGasProvider,
+                                                                       HubNonceManager hubNonceManager,
+                                                                       Function function,
+                                                                       String uemAddress,
+                                                                       long uemNetworkId,
+                                                                       GasUrgencyType urgency) {
+    return new RemoteFunctionCall<>(function,
+                                    () -> submitTransaction(transactionManager,
+                                                            polygonContractGasProvider,
+                                                            hubNonceManager,
+                                                            FunctionEncoder.encode(function),
+                                                            uemAddress,
+                                                            uemNetworkId,
+                                                            urgency));
   }
 
   @SneakyThrows
-  private static TransactionReceipt executeTransaction(TransactionManager transactionManager,
+  private static TransactionReceipt executeTransaction(TransactionManager transactionManager, // NOSONAR
                                                        PolygonContractGasProvider polygonContractGasProvider,
+                                                       HubNonceManager hubNonceManager,
                                                        TransactionReceiptProcessor transactionReceiptProcessor,
                                                        String data,
-                                                       String funcName,
                                                        String uemAddress,
-                                                       long uemNetworkId) {
+                                                       long uemNetworkId,
+                                                       GasUrgencyType urgency) {
+    String transactionHash = submitTransaction(transactionManager,
+                                               polygonContractGasProvider,
+                                               hubNonceManager,
+                                               data,
+                                               uemAddress,
+                                               uemNetworkId,
+                                               urgency);
+    return transactionReceiptProcessor.waitForTransactionReceipt(transactionHash);
+  }
+
+  @SneakyThrows
+  private static String submitTransaction(TransactionManager transactionManager, // NOSONAR
+                                          PolygonContractGasProvider polygonContractGasProvider,
+                                          HubNonceManager hubNonceManager,
+                                          String data,
+                                          String uemAddress,
+                                          long uemNetworkId,
+                                          GasUrgencyType urgency) {
+    String fromAddress = transactionManager.getFromAddress();
     try {
       BigInteger estimatedGas;
 
-      String fromAddress = transactionManager.getFromAddress();
-      BigInteger gasPrice = polygonContractGasProvider.getGasPrice(funcName);
-      BigInteger gasLimit = polygonContractGasProvider.getGasLimit(funcName);
-      BigInteger nonce = getNonce(polygonContractGasProvider.getWeb3j(), fromAddress);
+      TransactionFees transactionFees;
+      if (polygonContractGasProvider.isEIP1559Enabled()) {
+        transactionFees = new TransactionFees(polygonContractGasProvider.getChainId(),
+                                              null,
+                                              polygonContractGasProvider.getMaxPriorityFeePerGas(urgency),
+                                              polygonContractGasProvider.getMaxFeePerGas(urgency));
+      } else {
+        transactionFees = new TransactionFees(0, polygonContractGasProvider.getGasPrice(urgency), null, null);
+      }
+      BigInteger gasLimit = polygonContractGasProvider.getGasLimit();
+      BigInteger nonce = hubNonceManager.getNonce(fromAddress);
+      BigInteger estimationGasPrice = transactionFees.isEip1559() ? transactionFees.getMaxFeePerGas() :
+                                                                  transactionFees.getGasPrice();
       Transaction tx = Transaction.createFunctionCallTransaction(fromAddress,
                                                                  nonce,
-                                                                 gasPrice,
+                                                                 estimationGasPrice,
                                                                  gasLimit,
                                                                  uemAddress,
                                                                  data);
@@ -111,14 +163,16 @@ public class ContractUtils {
         estimatedGas = gasEstimate.getAmountUsed();
       }
 
-      EthSendTransaction sendTransactionCall = transactionManager.sendTransaction(gasPrice,
-                                                                                  BigDecimal.valueOf(estimatedGas.doubleValue())
-                                                                                            .multiply(BigDecimal.valueOf(1.2d))
-                                                                                            .toBigInteger(),
-                                                                                  uemAddress,
-                                                                                  data,
-                                                                                  BigInteger.ZERO);
-      return processResponse(transactionReceiptProcessor, sendTransactionCall);
+      BigInteger transactionGasLimit = BigDecimal.valueOf(estimatedGas.doubleValue())
+                                                 .multiply(BigDecimal.valueOf(1.2d))
+                                                 .toBigInteger();
+      EthSendTransaction sendTransactionCall = sendTransaction(transactionManager,
+                                                               hubNonceManager,
+                                                               transactionFees,
+                                                               transactionGasLimit,
+                                                               uemAddress,
+                                                               data);
+      return getTransactionHash(sendTransactionCall);
     } catch (JsonRpcError error) {
       if (error.getData() != null) {
         throw new TransactionException(error.getData().toString());
@@ -132,38 +186,88 @@ public class ContractUtils {
     }
   }
 
-  @SneakyThrows
-  private static BigInteger getNonce(Web3j web3j, String address) {
-    EthGetTransactionCount ethGetTransactionCount = web3j.ethGetTransactionCount(address, DefaultBlockParameterName.PENDING)
-                                                         .send();
-    return ethGetTransactionCount.getTransactionCount();
+  private static EthSendTransaction sendTransaction(TransactionManager transactionManager,
+                                                    HubNonceManager hubNonceManager,
+                                                    TransactionFees transactionFees,
+                                                    BigInteger gasLimit,
+                                                    String to,
+                                                    String data) throws IOException {
+    String fromAddress = transactionManager.getFromAddress();
+    EthSendTransaction sendTransactionCall;
+    try {
+      sendTransactionCall = sendTransaction(transactionManager, transactionFees, gasLimit, to, data);
+    } catch (IOException | RuntimeException e) {
+      // The allocated nonce may not have been used, thus re-seed it
+      hubNonceManager.resync(fromAddress);
+      throw e;
+    }
+    if (sendTransactionCall != null && sendTransactionCall.hasError()) {
+      hubNonceManager.resync(fromAddress);
+      if (hubNonceManager.isNonceError(sendTransactionCall.getError().getMessage())) {
+        // Retry once with a nonce resynchronized from blockchain
+        sendTransactionCall = sendTransaction(transactionManager, transactionFees, gasLimit, to, data);
+        if (sendTransactionCall != null && sendTransactionCall.hasError()) {
+          hubNonceManager.resync(fromAddress);
+        }
+      }
+    }
+    return sendTransactionCall;
+  }
+
+  private static EthSendTransaction sendTransaction(TransactionManager transactionManager,
+                                                    TransactionFees transactionFees,
+                                                    BigInteger gasLimit,
+                                                    String to,
+                                                    String data) throws IOException {
+    if (transactionFees.isEip1559()) {
+      return transactionManager.sendEIP1559Transaction(transactionFees.getChainId(),
+                                                       transactionFees.getMaxPriorityFeePerGas(),
+                                                       transactionFees.getMaxFeePerGas(),
+                                                       gasLimit,
+                                                       to,
+                                                       data,
+                                                       BigInteger.ZERO);
+    } else {
+      return transactionManager.sendTransaction(transactionFees.getGasPrice(), gasLimit, to, data, BigInteger.ZERO);
+    }
   }
 
-  private static TransactionReceipt processResponse(TransactionReceiptProcessor transactionReceiptProcessor,
-                                                    EthSendTransaction ethSendTransaction) throws IOException,
-                                                                                           TransactionException {
+  private static String getTransactionHash(EthSendTransaction ethSendTransaction) {
     if (ethSendTransaction.hasError()) {
       throw new JsonRpcError(ethSendTransaction.getError());
     }
-
-    String transactionHash = ethSendTransaction.getTransactionHash();
-
-    return transactionReceiptProcessor.waitForTransactionReceipt(transactionHash);
+    return ethSendTransaction.getTransactionHash();
   }
 
   public static List<ReportSentEventResponse> getReportSentEvents(TransactionReceipt transactionReceipt) {
     List<EventValuesWithLog> valueList = staticExtractEventParametersWithLog(REPORTSENT_EVENT, transactionReceipt);
     ArrayList<ReportSentEventResponse> responses = new ArrayList<>(valueList.size());
     for (EventValuesWithLog eventValues : valueList) {
-      ReportSentEventResponse typedResponse = new ReportSentEventResponse();
-      typedResponse.log = eventValues.getLog();
-      typedResponse.hub = (String) eventValues.getIndexedValues().get(0).getValue();
-      typedResponse.reportId = (BigInteger) eventValues.getIndexedValues().get(1).getValue();
-      responses.add(typedResponse);
+      responses.add(toReportSentEvent(eventValues));
     }
     return responses;
   }
 
+  /**
+   * Decodes a ReportSent event from a log retrieved using eth_getLogs
+   *
+   * @param log UEM contract {@link Log}
+   * @return {@link ReportSentEventResponse} or null if the log isn't a
+   *         ReportSent event
+   */
+  public static ReportSentEventResponse getReportSentEvent(Log log) {
+    EventValuesWithLog eventValues = staticExtractEventParametersWithLog(REPORTSENT_EVENT, log);
+    return eventValues == null ? null : toReportSentEvent(eventValues);
+  }
+
+  private static ReportSentEventResponse toReportSentEvent(EventValuesWithLog eventValues) {
+    ReportSentEventResponse typedResponse = new ReportSentEventResponse();
+    typedResponse.log = eventValues.getLog();
+    typedResponse.hub = (String) eventValues.getIndexedValues().get(0).getValue();
+    typedResponse.reportId = (BigInteger) eventValues.getIndexedValues().get(1).getValue();
+    return typedResponse;
+  }
+
   private static List<EventValuesWithLog> staticExtractEventParametersWithLog(Event event,
                                                                               TransactionReceipt transactionReceipt) {
     return transactionReceipt.getLogs()
@@ -203,6 +307,44 @@ public class ContractUtils {
     }
   }
 
+  private static class TransactionFees {
+
+    private final long       chainId;
+
+    private final BigInteger gasPrice;
+
+    private final BigInteger maxPriorityFeePerGas;
+
+    private final BigInteger maxFeePerGas;
+
+    public TransactionFees(long chainId, BigInteger gasPrice, BigInteger maxPriorityFeePerGas, BigInteger maxFeePerGas) {
+      this.chainId = chainId;
+      this.gasPrice = gasPrice;
+      this.maxPriorityFeePerGas = maxPriorityFeePerGas;
+      this.maxFeePerGas = maxFeePerGas;
+    }
+
+    public boolean isEip1559() {
+      return maxFeePerGas != null;
+    }
+
+    public long getChainId() {
+      return chainId;
+    }
+
+    public BigInteger getGasPrice() {
+      return gasPrice;
+    }
+
+    public BigInteger getMaxPriorityFeePerGas() {
+      return maxPriorityFeePerGas;
+    }
+
+    public BigInteger getMaxFeePerGas() {
+      return maxFeePerGas;
+    }
+  }
+
   public static class ReportSentEventResponse extends BaseEventResponse {
 
     public String     hub;      // NOSONAR
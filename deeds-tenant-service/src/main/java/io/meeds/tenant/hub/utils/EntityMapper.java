@@ -21,12 +21,8 @@ import static org.exoplatform.wallet.utils.WalletUtils.getContractAddress;
 import static org.exoplatform.wallet.utils.WalletUtils.getNetworkId;
 
 import java.time.Instant;
-import java.util.Objects;
 import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import org.exoplatform.wallet.model.reward.RewardPeriod;
@@ -38,6 +34,7 @@ import io.meeds.tenant.hub.constant.HubReportStatusType;
 import io.meeds.tenant.hub.model.HubReportLocalStatus;
 import io.meeds.wom.api.model.HubReport;
 import io.meeds.wom.api.model.HubReportPayload;
+import io.meeds.wom.api.utils.LowerCaseSortedSet;
 
 public class EntityMapper {
 
@@ -56,21 +53,20 @@ public class EntityMapper {
     RewardPeriod rewardPeriod = rewardReport.getPeriod();
     long recipientsCount = rewardReport.getValidRewardCount();
     double hubRewardAmount = rewardReport.getTokensSent();
-    double hubTopReceiverAmount = rewardReport.getValidRewards()
-                                              .stream()
-                                              .filter(Objects::nonNull)
-                                              .mapToDouble(WalletReward::getTokensSent)
-                                              .max()
-                                              .orElse(0d);
-    SortedSet<String> transactions = rewardReport.getValidRewards()
-                                                 .stream()
-                                                 .filter(Objects::nonNull)
-                                                 .map(WalletReward::getTransaction)
-                                                 .filter(Objects::nonNull)
-                                                 .filter(TransactionDetail::isSucceeded)
-                                                 .map(TransactionDetail::getHash)
-                                                 .filter(Objects::nonNull)
-                                                 .collect(Collectors.toCollection(TreeSet::new));
+    // Compute rewards metrics in a single iteration, with hashes lower cased
+    // on insertion to build the report transactions list only once
+    double hubTopReceiverAmount = 0d;
+    LowerCaseSortedSet.Builder transactions = LowerCaseSortedSet.builder();
+    for (WalletReward reward : rewardReport.getValidRewards()) {
+      if (reward == null) {
+        continue;
+      }
+      hubTopReceiverAmount = Math.max(hubTopReceiverAmount, reward.getTokensSent());
+      TransactionDetail transaction = reward.getTransaction();
+      if (transaction != null && transaction.isSucceeded()) {
+        transactions.add(transaction.getHash());
+      }
+    }
 
     String periodType = rewardPeriod.getRewardPeriodType().name();
     Instant toDate = Instant.ofEpochSecond(rewardPeriod.getEndDateInSeconds());
@@ -94,7 +90,7 @@ public class EntityMapper {
                                 rewardTokenNetworkId,
                                 hubRewardAmount,
                                 hubTopReceiverAmount,
-                                lowerCase(transactions));
+                                transactions.build());
   }
 
   public static HubReportLocalStatus toHubLocalReport(HubReportPayload reportData, // NOSONAR
@@ -158,14 +154,13 @@ public class EntityMapper {
                                     error);
   }
 
+  /**
+   * @param hashes transaction hashes
+   * @return an immutable sorted set of lower cased hashes, to copy before
+   *         any modification
+   */
   public static SortedSet<String> lowerCase(SortedSet<String> hashes) {
-    if (CollectionUtils.isEmpty(hashes)) {
-      return new TreeSet<>();
-    } else {
-      return hashes.stream()
-                   .map(StringUtils::lowerCase)
-                   .collect(Collectors.toCollection(TreeSet::new));
-    }
+    return LowerCaseSortedSet.of(hashes);
   }
 
 }
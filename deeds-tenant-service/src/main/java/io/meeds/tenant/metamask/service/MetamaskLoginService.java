@@ -21,6 +21,8 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,6 +30,7 @@ import org.picketlink.idm.api.SecureRandomProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.web3j.crypto.Hash;
 import org.web3j.crypto.Keys;
 import org.web3j.crypto.Sign;
 import org.web3j.crypto.Sign.SignatureData;
@@ -79,6 +82,15 @@ public class MetamaskLoginService {
   @Value("#{'${meeds.login.metamask.allowedRootAccessWallets:}'.split(',')}")
   private List<String>           allowedRootWallets           = new ArrayList<>();
 
+  @Setter
+  @Value("${meeds.login.metamask.verificationTicket.ttl:120}")
+  private long                   verificationTicketTtl        = 120;
+
+  @Value("${meeds.login.metamask.verificationTicket.maxSize:10000}")
+  private int                    verificationTicketMaxSize    = 10000;
+
+  private Map<String, Long>      verificationTickets          = new ConcurrentHashMap<>();
+
   @PostConstruct
   @ContainerTransactional
   public void init() {
@@ -152,7 +164,9 @@ public class MetamaskLoginService {
   }
 
   /**
-   * Validates signed message by a wallet using Metamask
+   * Validates signed message by a wallet using Metamask. When a verification
+   * ticket has been issued for the same signature, it will be consumed instead
+   * of recovering the public key from the signature again.
    * 
    * @param walletAddress wallet Address (wallet public key)
    * @param rawMessage raw signed message
@@ -160,10 +174,39 @@ public class MetamaskLoginService {
    * @return true if the message has been decrypted successfully, else false
    */
   public boolean validateSignedMessage(String walletAddress, String rawMessage, String signedMessage) {
+    return validateSignedMessage(walletAddress, rawMessage, signedMessage, false);
+  }
+
+  /**
+   * Validates signed message by a wallet using Metamask and optionally keeps a
+   * verification ticket to avoid recovering the signature public key twice in
+   * the same login flow.
+   * 
+   * @param walletAddress wallet Address (wallet public key)
+   * @param rawMessage raw signed message, which is the login message (nonce)
+   *          stored in user session
+   * @param signedMessage encrypted message
+   * @param issueTicket whether to issue a short-lived verification ticket when
+   *          the signature is valid, to be consumed by the next validation of
+   *          the same login flow
+   * @return true if the message has been decrypted successfully, else false
+   */
+  public boolean validateSignedMessage(String walletAddress,
+                                       String rawMessage,
+                                       String signedMessage,
+                                       boolean issueTicket) {
     if (StringUtils.isBlank(walletAddress) || StringUtils.isBlank(rawMessage) || StringUtils.isBlank(signedMessage)) {
       return false;
     }
+    String ticketKey = getVerificationTicketKey(walletAddress, rawMessage, signedMessage);
+    boolean validated = consumeVerificationTicket(ticketKey) || recoverSignedMessage(walletAddress, rawMessage, signedMessage);
+    if (validated && issueTicket) {
+      issueVerificationTicket(ticketKey);
+    }
+    return validated;
+  }
 
+  private boolean recoverSignedMessage(String walletAddress, String rawMessage, String signedMessage) {
     try {
       byte[] signatureBytes = Numeric.hexStringToByteArray(signedMessage);
       if (signatureBytes.length < 64) {
@@ -254,6 +297,27 @@ public class MetamaskLoginService {
     return hubService.getDeedId();
   }
 
+  private boolean consumeVerificationTicket(String ticketKey) {
+    Long expirationTime = verificationTickets.remove(ticketKey);
+    return expirationTime != null && expirationTime >= System.currentTimeMillis();
+  }
+
+  private void issueVerificationTicket(String ticketKey) {
+    if (verificationTickets.size() >= verificationTicketMaxSize) {
+      long now = System.currentTimeMillis();
+      verificationTickets.values().removeIf(expirationTime -> expirationTime < now);
+      if (verificationTickets.size() >= verificationTicketMaxSize) {
+        LOG.debug("Maximum verification tickets count reached, the signature will be verified again on login");
+        return;
+      }
+    }
+    verificationTickets.put(ticketKey, System.currentTimeMillis() + verificationTicketTtl * 1000);
+  }
+
+  private String getVerificationTicketKey(String walletAddress, String rawMessage, String signedMessage) {
+    return StringUtils.lowerCase(walletAddress) + "@" + Hash.sha3String(rawMessage) + "@" + Hash.sha3String(signedMessage);
+  }
+
   private String generateRandomToken() {
     SecureRandom secureRandom = secureRandomProvider.getSecureRandom();
     return secureRandom.nextLong() + "-" + secureRandom.nextLong() + "-" + secureRandom.nextLong();
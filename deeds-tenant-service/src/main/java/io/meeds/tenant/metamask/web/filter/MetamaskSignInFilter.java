@@ -125,7 +125,12 @@ public class MetamaskSignInFilter extends JspBasedWebHandler implements Filter {
           // Forward to user registration form after signedMessage validation
           String rawMessage = metamaskLoginService.getLoginMessage(request.getSession());
           String signedMessage = password.replace(METAMASK_SIGNED_MESSAGE_PREFIX, "");
-          boolean messageValidated = metamaskLoginService.validateSignedMessage(walletAddress, rawMessage, signedMessage);
+          // Issue a verification ticket to consume by the authenticator when
+          // login after registration
+          boolean messageValidated = metamaskLoginService.validateSignedMessage(walletAddress,
+                                                                                rawMessage,
+                                                                                signedMessage,
+                                                                                true);
           if (messageValidated) {
             // Preserve original username & password fields in session in
             // order to login user after registration
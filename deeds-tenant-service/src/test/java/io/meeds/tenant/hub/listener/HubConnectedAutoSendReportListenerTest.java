@@ -18,8 +18,8 @@
  */
 package io.meeds.tenant.hub.listener;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -35,11 +35,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.services.listener.ListenerService;
-import org.exoplatform.wallet.model.reward.RewardPeriod;
-import org.exoplatform.wallet.model.reward.RewardReport;
-import org.exoplatform.wallet.reward.service.RewardReportService;
 
-import io.meeds.tenant.hub.service.HubReportService;
+import io.meeds.tenant.hub.service.HubReportSendJobService;
 import io.meeds.wom.api.model.Hub;
 
 @SpringBootTest(classes = {
@@ -49,10 +46,7 @@ import io.meeds.wom.api.model.Hub;
 public class HubConnectedAutoSendReportListenerTest {
 
   @MockBean
-  private RewardReportService                rewardReportService;
-
-  @MockBean
-  private HubReportService                   hubReportService;
+  private HubReportSendJobService            hubReportSendJobService;
 
   @MockBean
   private ListenerService                    listenerService;
@@ -60,84 +54,32 @@ public class HubConnectedAutoSendReportListenerTest {
   @Mock
   private Hub                                hub;
 
-  @Mock
-  private RewardReport                       rewardReport;
-
-  @Mock
-  private RewardPeriod                       period;
-
   @Mock
   private Event<Hub, Object>                 event;
 
   @Autowired
   private HubConnectedAutoSendReportListener listener;
 
-  private long                               periodId = 3l;
-
-  @Test
-  public void autoSendLastReportOnEvent() throws Exception {
-    when(event.getSource()).thenReturn(hub);
-    when(hub.isConnected()).thenReturn(true);
-    when(hub.getJoinDate()).thenReturn(Instant.now());
-    when(rewardReportService.getRewardReport(any())).thenReturn(rewardReport);
-    when(rewardReport.isCompletelyProceeded()).thenReturn(true);
-    when(rewardReport.getPeriod()).thenReturn(period);
-    when(period.getId()).thenReturn(periodId);
-    when(hubReportService.getReportId(periodId)).thenReturn(0l);
-    
-    listener.onEvent(event);
-
-    verify(hubReportService).sendReport(periodId);
-  }
-
-  @Test
-  public void avoidAutoSendWhenNoLastReport() throws Exception {
-    when(event.getSource()).thenReturn(hub);
-    when(hub.isConnected()).thenReturn(true);
-    when(hub.getJoinDate()).thenReturn(Instant.now());
-
-    listener.onEvent(event);
-    verifyNoInteractions(hubReportService);
-  }
-
-  @Test
-  public void avoidAutoSendLastReportWhenNotCompleted() throws Exception {
-    when(event.getSource()).thenReturn(hub);
-    when(hub.isConnected()).thenReturn(true);
-    when(hub.getJoinDate()).thenReturn(Instant.now());
-    when(rewardReportService.getRewardReport(any())).thenReturn(rewardReport);
-
-    listener.onEvent(event);
-
-    verifyNoInteractions(hubReportService);
-  }
-
   @Test
-  public void avoidAutoSendLastReportWhenAlreadySent() throws Exception {
+  public void autoSendUnsentReportsOnEvent() throws Exception {
     when(event.getSource()).thenReturn(hub);
     when(hub.isConnected()).thenReturn(true);
     when(hub.getJoinDate()).thenReturn(Instant.now());
-    when(rewardReportService.getRewardReport(any())).thenReturn(rewardReport);
-    when(rewardReport.isCompletelyProceeded()).thenReturn(true);
-    when(rewardReport.getPeriod()).thenReturn(period);
-    when(period.getId()).thenReturn(periodId);
-    when(hubReportService.getReportId(periodId)).thenReturn(2l);
 
     listener.onEvent(event);
 
-    verify(hubReportService, never()).sendReport(anyLong());
+    verify(hubReportSendJobService).backfillReports(null);
   }
 
   @Test
-  public void avoidAutoSendLastReportWhenJoinDateIsBeforeOneHour() throws Exception {
+  public void autoSendUnsentReportsWhenReconnected() throws Exception {
     when(event.getSource()).thenReturn(hub);
     when(hub.isConnected()).thenReturn(true);
     when(hub.getJoinDate()).thenReturn(Instant.now().minusSeconds(7200l));
 
     listener.onEvent(event);
 
-    verifyNoInteractions(hubReportService);
-    verifyNoInteractions(rewardReportService);
+    verify(hubReportSendJobService).backfillReports(null);
   }
 
   @Test
@@ -148,7 +90,7 @@ public class HubConnectedAutoSendReportListenerTest {
     listener.onEvent(event);
 
     verify(hub).isConnected();
-    verifyNoInteractions(hubReportService);
+    verifyNoInteractions(hubReportSendJobService);
   }
 
   @Test
@@ -158,7 +100,7 @@ public class HubConnectedAutoSendReportListenerTest {
     listener.onEvent(event);
 
     verify(hub, never()).getJoinDate();
-    verifyNoInteractions(hubReportService);
+    verifyNoInteractions(hubReportSendJobService);
   }
 
 }
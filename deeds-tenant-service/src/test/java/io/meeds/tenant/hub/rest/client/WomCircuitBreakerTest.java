@@ -0,0 +1,81 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class WomCircuitBreakerTest {
+
+  @Test
+  void openAfterConsecutiveFailures() {
+    WomCircuitBreaker circuitBreaker = new WomCircuitBreaker(3, 60000);
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordSuccess();
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordFailure();
+    assertTrue(circuitBreaker.allowRequest());
+    assertFalse(circuitBreaker.isOpen());
+
+    circuitBreaker.recordFailure();
+    assertTrue(circuitBreaker.isOpen());
+    assertFalse(circuitBreaker.allowRequest());
+  }
+
+  @Test
+  void allowSingleTrialWhenHalfOpen() throws InterruptedException {
+    WomCircuitBreaker circuitBreaker = new WomCircuitBreaker(1, 50);
+    circuitBreaker.recordFailure();
+    assertFalse(circuitBreaker.allowRequest());
+
+    Thread.sleep(100);
+    assertTrue(circuitBreaker.allowRequest());
+    assertFalse(circuitBreaker.allowRequest());
+
+    // Trial failed
+    circuitBreaker.recordFailure();
+    assertFalse(circuitBreaker.allowRequest());
+
+    Thread.sleep(100);
+    assertTrue(circuitBreaker.allowRequest());
+    // Trial succeeded
+    circuitBreaker.recordSuccess();
+    assertFalse(circuitBreaker.isOpen());
+    assertTrue(circuitBreaker.allowRequest());
+    assertTrue(circuitBreaker.allowRequest());
+  }
+
+  @Test
+  void releaseTrialWhenNoOutcome() throws InterruptedException {
+    WomCircuitBreaker circuitBreaker = new WomCircuitBreaker(1, 50);
+    circuitBreaker.recordFailure();
+    Thread.sleep(100);
+    assertTrue(circuitBreaker.allowRequest());
+    assertFalse(circuitBreaker.allowRequest());
+
+    // Trial ended without outcome
+    circuitBreaker.releaseTrial();
+    assertTrue(circuitBreaker.isOpen());
+    assertTrue(circuitBreaker.allowRequest());
+  }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.meeds.tenant.hub.constant.WomEndpointType;
+
+class WomClientMetricsTest {
+
+  @Test
+  void recordRequests() {
+    WomClientMetrics metrics = new WomClientMetrics();
+    metrics.recordRequest(WomEndpointType.HUBS, TimeUnit.MILLISECONDS.toNanos(20), 200);
+    metrics.recordRequest(WomEndpointType.HUBS, TimeUnit.MILLISECONDS.toNanos(300), 200);
+    metrics.recordRequest(WomEndpointType.HUBS, TimeUnit.MILLISECONDS.toNanos(40), 503);
+    metrics.recordError(WomEndpointType.HUBS, "wom.errorResponse: Server Error. URL = GET http://localhost/api/hubs");
+    metrics.recordError(WomEndpointType.TOKEN, "wom.unavailable");
+
+    assertEquals(3l, metrics.getRequestCounts().get("hubs"));
+    assertEquals(0l, metrics.getRequestCounts().get("token"));
+    assertEquals(120d, metrics.getMeanLatencies().get("hubs"), 0.1d);
+    assertEquals(300l, metrics.getMaxLatencies().get("hubs"));
+    assertEquals(2l, metrics.getStatusCounts().get("hubs.200"));
+    assertEquals(1l, metrics.getStatusCounts().get("hubs.503"));
+    assertEquals(1l, metrics.getErrorCounts().get("hubs.wom.errorResponse"));
+    assertEquals(1l, metrics.getErrorCounts().get("token.wom.unavailable"));
+
+    String prometheusMetrics = metrics.toPrometheusFormat();
+    assertTrue(prometheusMetrics.contains("meeds_wom_requests_seconds_bucket{endpoint=\"hubs\",le=\"0.05\"} 2\n"));
+    assertTrue(prometheusMetrics.contains("meeds_wom_requests_seconds_bucket{endpoint=\"hubs\",le=\"0.25\"} 2\n"));
+    assertTrue(prometheusMetrics.contains("meeds_wom_requests_seconds_bucket{endpoint=\"hubs\",le=\"0.5\"} 3\n"));
+    assertTrue(prometheusMetrics.contains("meeds_wom_requests_seconds_count{endpoint=\"hubs\"} 3\n"));
+    assertTrue(prometheusMetrics.contains("meeds_wom_responses_total{endpoint=\"hubs\",status=\"503\"} 1\n"));
+    assertTrue(prometheusMetrics.contains("meeds_wom_errors_total{endpoint=\"token\",error=\"wom.unavailable\"} 1\n"));
+  }
+
+}
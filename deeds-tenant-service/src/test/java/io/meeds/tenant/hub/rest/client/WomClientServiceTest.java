@@ -0,0 +1,137 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.tenant.hub.model.WomResponse;
+import io.meeds.wom.api.constant.WomException;
+import io.meeds.wom.api.model.Hub;
+import io.meeds.wom.api.model.HubReport;
+import io.meeds.wom.api.utils.JsonUtils;
+
+@SpringBootTest(classes = {
+                            WomClientService.class,
+})
+@ExtendWith(MockitoExtension.class)
+class WomClientServiceTest {
+
+  @MockBean
+  private WomConnectionService womConnectionService;
+
+  @Autowired
+  private WomClientService     womClientService;
+
+  private String               hubAddress = "0x27d282d1e7e790df596f50a234602d9e761d22aa";
+
+  private String               entityTag  = "\"etag\"";
+
+  @Test
+  void getHubAsync() throws Exception {
+    Hub hub = new Hub();
+    hub.setAddress(hubAddress);
+    hub.setDeedId(3l);
+    when(womConnectionService.processGetAsync(any(), isNull(), isNull())).thenReturn(CompletableFuture.completedFuture(new WomResponse(HttpStatus.SC_OK,
+                                                                                                                                      JsonUtils.toJsonString(hub),
+                                                                                                                                      entityTag,
+                                                                                                                                      null)));
+    Hub retrievedHub = womClientService.getHubAsync(hubAddress, false).get();
+    assertEquals(hubAddress, retrievedHub.getAddress());
+    assertEquals(3l, retrievedHub.getDeedId());
+
+    when(womConnectionService.processGetAsync(any(), eq(entityTag), isNull())).thenReturn(CompletableFuture.completedFuture(new WomResponse(HttpStatus.SC_NOT_MODIFIED,
+                                                                                                                                           null,
+                                                                                                                                           entityTag,
+                                                                                                                                           null)));
+    assertSame(retrievedHub, womClientService.getHubAsync(hubAddress, false).get());
+
+    when(womConnectionService.processGetAsync(any(), eq(entityTag), isNull())).thenReturn(CompletableFuture.completedFuture(null));
+    assertNull(womClientService.getHubAsync(hubAddress, false).get());
+  }
+
+  @Test
+  void getHubFromStreamedContent() throws Exception {
+    String address = "0x609a6f01b7976439603356e41d5456b42df957b7";
+    Hub hub = new Hub();
+    hub.setAddress(address);
+    when(womConnectionService.processGet(any(), isNull(), isNull(), eq(Hub.class))).thenReturn(new WomResponse(HttpStatus.SC_OK,
+                                                                                                                null,
+                                                                                                                entityTag,
+                                                                                                                null,
+                                                                                                                hub));
+    assertSame(hub, womClientService.getHub(address, false));
+
+    when(womConnectionService.processGet(any(), eq(entityTag), isNull(), eq(Hub.class))).thenReturn(new WomResponse(HttpStatus.SC_NOT_MODIFIED,
+                                                                                                                     null,
+                                                                                                                     entityTag,
+                                                                                                                     null));
+    assertSame(hub, womClientService.getHub(address, false));
+  }
+
+  @Test
+  void retrieveReport() throws Exception {
+    HubReport report = new HubReport();
+    report.setReportId(2l);
+    when(womConnectionService.processGet(any(), eq(HubReport.class))).thenReturn(report);
+    assertSame(report, womClientService.retrieveReport(2l));
+  }
+
+  @Test
+  void saveHubAsync() throws Exception {
+    Hub hub = new Hub();
+    hub.setAddress(hubAddress);
+    when(womConnectionService.processPutAsync(any(), argThat(json -> json.contains(hubAddress)))).thenReturn(CompletableFuture.completedFuture("saved"));
+    assertEquals("saved", womClientService.saveHubAsync(hub, "signedMessage", "token").get());
+  }
+
+  @Test
+  void retrieveReportAsync() throws Exception {
+    HubReport report = new HubReport();
+    report.setReportId(2l);
+    report.setDeedId(3l);
+    when(womConnectionService.processGetAsync(any())).thenReturn(CompletableFuture.completedFuture(JsonUtils.toJsonString(report)));
+    assertEquals(3l, womClientService.retrieveReportAsync(2l).get().getDeedId());
+
+    when(womConnectionService.processGetAsync(any())).thenReturn(CompletableFuture.failedFuture(new WomException("wom.errorResponse")));
+    CompletableFuture<HubReport> reportFuture = womClientService.retrieveReportAsync(2l);
+    ExecutionException exception = assertThrows(ExecutionException.class, reportFuture::get);
+    assertTrue(exception.getCause() instanceof WomException);
+  }
+
+}
@@ -0,0 +1,224 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.rest.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.meeds.wom.api.constant.WomException;
+import io.meeds.wom.api.constant.WomParsingException;
+import io.meeds.wom.api.model.HubReport;
+
+@SpringBootTest(classes = {
+                            WomConnectionService.class,
+})
+@ExtendWith(MockitoExtension.class)
+class WomConnectionServiceTest {
+
+  static {
+    // Shorten the token endpoint timeout, when not already loaded
+    System.setProperty("meeds.wom.timeout.token", "500");
+  }
+
+  @MockBean
+  private WomClientMetrics           womClientMetrics;
+
+  @Autowired
+  private WomConnectionService       womConnectionService;
+
+  private HttpServer                 server;
+
+  private CountDownLatch             responseLatch;
+
+  private Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void startServer() throws IOException {
+    responseLatch = new CountDownLatch(1);
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/hubs/retry", exchange -> respond(exchange, countHit("retry") == 1 ? 503 : 200, "retried"));
+    server.createContext("/hubs/unavailable", exchange -> {
+      countHit("unavailable");
+      respond(exchange, 503, "");
+    });
+    server.createContext("/hubs/malformed", exchange -> respond(exchange, 200, "{\"reportId\": "));
+    server.createContext("/hubs/report", exchange -> respond(exchange, 200, "{\"reportId\": 2}"));
+    server.createContext("/hubs/large", this::respondLargeBody);
+    server.createContext("/hubs/token", exchange -> {
+      try {
+        responseLatch.await(30, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      respond(exchange, 200, "token");
+    });
+    server.start();
+    // Start each test with a closed circuit
+    ReflectionTestUtils.setField(womConnectionService, "circuitBreaker", new WomCircuitBreaker(5, 30000));
+  }
+
+  @AfterEach
+  void stopServer() {
+    responseLatch.countDown();
+    server.stop(0);
+  }
+
+  @Test
+  void retryIdempotentRequestWithBackoff() throws WomException {
+    long start = System.currentTimeMillis();
+    assertEquals("retried", womConnectionService.processGet(getUri("/hubs/retry")));
+    assertEquals(2, hits.get("retry").get());
+    // Jittered backoff of at least the half of the retry delay
+    assertTrue(System.currentTimeMillis() - start >= 100);
+  }
+
+  @Test
+  void retryIdempotentRequestUntilMaxRetries() {
+    assertThrows(WomException.class, () -> womConnectionService.processGet(getUri("/hubs/unavailable")));
+    assertEquals(3, hits.get("unavailable").get());
+  }
+
+  @Test
+  void doNotRetryNotIdempotentRequest() {
+    assertThrows(WomException.class, () -> womConnectionService.processPut(getUri("/hubs/unavailable"), "{}"));
+    assertEquals(1, hits.get("unavailable").get());
+  }
+
+  @Test
+  void abortRetryWhenInterrupted() {
+    Thread.currentThread().interrupt();
+    try {
+      WomException exception = assertThrows(WomException.class,
+                                            () -> womConnectionService.processGet(getUri("/hubs/unavailable")));
+      assertEquals("wom.unavailable", exception.getMessage());
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted(); // NOSONAR clear interrupted flag
+    }
+  }
+
+  @Test
+  void failWhenResponseTimeoutReached() {
+    // Not idempotent request to avoid waiting for retries
+    WomException exception = assertThrows(WomException.class,
+                                          () -> womConnectionService.processPut(getUri("/hubs/token"), "{}"));
+    assertEquals("wom.unavailable", exception.getMessage());
+  }
+
+  @Test
+  void releaseHalfOpenTrialWhenResponseUnreadable() throws Exception {
+    WomCircuitBreaker circuitBreaker = new WomCircuitBreaker(1, 0);
+    ReflectionTestUtils.setField(womConnectionService, "circuitBreaker", circuitBreaker);
+    circuitBreaker.recordFailure();
+
+    assertThrows(WomException.class, () -> womConnectionService.processGet(getUri("/hubs/malformed"), HubReport.class));
+    // The trial was released, thus the circuit isn't stuck half-open
+    assertEquals(2l, womConnectionService.processGet(getUri("/hubs/report"), HubReport.class).getReportId());
+  }
+
+  @Test
+  void failWhenResponseTooLarge() {
+    WomException exception = assertThrows(WomException.class,
+                                          () -> womConnectionService.processGet(getUri("/hubs/large")));
+    assertEquals("wom.responseTooLarge", exception.getMessage());
+  }
+
+  @Test
+  void failWhenStreamedResponseTooLarge() {
+    WomException exception = assertThrows(WomException.class,
+                                          () -> womConnectionService.processGet(getUri("/hubs/large"), HubReport.class));
+    assertEquals("wom.responseTooLarge", exception.getMessage());
+  }
+
+  @Test
+  void failWhenAsyncResponseTooLarge() {
+    CompletableFuture<String> response = womConnectionService.processPutAsync(getUri("/hubs/large"), "{}");
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> response.get(30, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof WomException);
+    assertEquals("wom.responseTooLarge", exception.getCause().getMessage());
+  }
+
+  @Test
+  void failWhenResponseMalformed() {
+    WomException exception = assertThrows(WomParsingException.class,
+                                          () -> womConnectionService.processGet(getUri("/hubs/malformed"), HubReport.class));
+    assertEquals("wom.unableToParseObject", exception.getMessage());
+  }
+
+  private URI getUri(String path) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+  }
+
+  private int countHit(String name) {
+    return hits.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+  }
+
+  private void respondLargeBody(HttpExchange exchange) throws IOException {
+    long maxSize = (long) ReflectionTestUtils.getField(WomConnectionService.class, "MAX_BODY_SIZE");
+    byte[] chunk = new byte[8192];
+    Arrays.fill(chunk, (byte) ' ');
+    // Chunked response of unknown length, to check the size while reading
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      for (long written = 0; written <= maxSize; written += chunk.length) {
+        outputStream.write(chunk);
+      }
+    } catch (IOException e) {
+      // Expected when the client stops reading the response
+    }
+  }
+
+  private void respond(HttpExchange exchange, int code, String body) throws IOException {
+    byte[] content = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(code, content.length == 0 ? -1 : content.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(content);
+    }
+  }
+
+}
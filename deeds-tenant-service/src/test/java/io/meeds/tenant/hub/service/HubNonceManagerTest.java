@@ -0,0 +1,116 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+@SpringBootTest(classes = {
+  HubNonceManager.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubNonceManagerTest {
+
+  @MockBean
+  private PolygonContractGasProvider polygonContractGasProvider;
+
+  @Autowired
+  private HubNonceManager            hubNonceManager;
+
+  @Mock
+  private Web3j                      web3j;
+
+  private String                     address = "0x290b11b1ab6a31ff95490e4e0eeffec6402cce99";
+
+  private BigInteger                 nonce   = BigInteger.valueOf(12);
+
+  @BeforeEach
+  void init() {
+    hubNonceManager.resync(address);
+  }
+
+  @Test
+  void allocateNonce() throws Exception {
+    mockPendingNonce();
+    assertEquals(nonce, hubNonceManager.getNonce(address));
+    assertEquals(nonce, hubNonceManager.allocateNonce(address));
+    assertEquals(nonce.add(BigInteger.ONE), hubNonceManager.allocateNonce(address.toUpperCase().replace("0X", "0x")));
+    assertEquals(nonce.add(BigInteger.TWO), hubNonceManager.getNonce(address));
+    verify(web3j, times(1)).ethGetTransactionCount(address, DefaultBlockParameterName.PENDING);
+  }
+
+  @Test
+  void resync() throws Exception {
+    mockPendingNonce();
+    assertEquals(nonce, hubNonceManager.allocateNonce(address));
+    assertEquals(nonce.add(BigInteger.ONE), hubNonceManager.getNonce(address));
+
+    hubNonceManager.resync(address);
+    assertEquals(nonce, hubNonceManager.getNonce(address));
+    verify(web3j, times(2)).ethGetTransactionCount(address, DefaultBlockParameterName.PENDING);
+  }
+
+  @Test
+  void isNonceError() {
+    assertTrue(hubNonceManager.isNonceError("nonce too low"));
+    assertTrue(hubNonceManager.isNonceError("Replacement transaction underpriced"));
+    assertFalse(hubNonceManager.isNonceError("insufficient funds"));
+    assertFalse(hubNonceManager.isNonceError("already known"));
+    assertFalse(hubNonceManager.isNonceError(null));
+  }
+
+  @Test
+  void isKnownTransactionError() {
+    assertTrue(hubNonceManager.isKnownTransactionError("already known"));
+    assertTrue(hubNonceManager.isKnownTransactionError("Known transaction: 0x1234"));
+    assertFalse(hubNonceManager.isKnownTransactionError("nonce too low"));
+    assertFalse(hubNonceManager.isKnownTransactionError(null));
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private void mockPendingNonce() throws Exception {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    Request request = mock(Request.class);
+    EthGetTransactionCount ethGetTransactionCount = mock(EthGetTransactionCount.class);
+    when(web3j.ethGetTransactionCount(address, DefaultBlockParameterName.PENDING)).thenReturn(request);
+    when(request.send()).thenReturn(ethGetTransactionCount);
+    when(ethGetTransactionCount.getTransactionCount()).thenReturn(nonce);
+  }
+
+}
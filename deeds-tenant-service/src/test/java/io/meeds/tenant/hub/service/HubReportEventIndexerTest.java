@@ -0,0 +1,198 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static io.meeds.tenant.hub.utils.ContractUtils.REPORTSENT_EVENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthLog.LogObject;
+import org.web3j.utils.Numeric;
+
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.model.HubReportState;
+import io.meeds.tenant.hub.model.HubTenant;
+import io.meeds.tenant.hub.storage.HubReportEventStorage;
+import io.meeds.tenant.hub.storage.HubReportSnapshotStorage;
+import io.meeds.tenant.hub.storage.HubReportStorage;
+
+@SpringBootTest(classes = {
+  HubReportEventIndexer.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportEventIndexerTest {
+
+  @MockBean
+  private HubService                 hubService;
+
+  @MockBean
+  private PolygonContractGasProvider polygonContractGasProvider;
+
+  @MockBean
+  private HubReportEventStorage      hubReportEventStorage;
+
+  @MockBean
+  private HubReportStorage           hubReportStorage;
+
+  @MockBean
+  private HubReportSnapshotStorage   hubReportSnapshotStorage;
+
+  @Autowired
+  private HubReportEventIndexer      hubReportEventIndexer;
+
+  @Mock
+  private Web3j                      web3j;
+
+  @Mock
+  private HubTenant                  hub;
+
+  private String                     uemAddress = "0x290b11b1ab6a31ff95490e4e0eeffec6402cce99";
+
+  private String                     hubAddress = "0x609a6f01b7976439603356e41d5456b42df957b7";
+
+  private String                     txHash     = "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
+
+  private long                       periodId   = 53l;
+
+  private long                       reportId   = 3l;
+
+  private long                       blockTime  = 1710000000l;
+
+  @Test
+  void indexReportEventsWhenNotConnected() throws Exception {
+    assertEquals(0, hubReportEventIndexer.indexReportEvents());
+    verify(polygonContractGasProvider, never()).getWeb3j();
+  }
+
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  void indexReportEvents() throws Exception {
+    when(hubService.isConnected()).thenReturn(true);
+    when(hubService.getHub()).thenReturn(hub);
+    when(hubService.getHubAddress()).thenReturn(hubAddress);
+    when(hub.getUemAddress()).thenReturn(uemAddress);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(hubReportEventStorage.getLastIndexedBlock(uemAddress)).thenReturn(900l);
+
+    Request blockNumberRequest = mock(Request.class);
+    EthBlockNumber ethBlockNumber = mock(EthBlockNumber.class);
+    when(web3j.ethBlockNumber()).thenReturn(blockNumberRequest);
+    when(blockNumberRequest.send()).thenReturn(ethBlockNumber);
+    when(ethBlockNumber.getBlockNumber()).thenReturn(BigInteger.valueOf(1000));
+
+    Request logsRequest = mock(Request.class);
+    EthLog ethLog = mock(EthLog.class);
+    when(web3j.ethGetLogs(any())).thenReturn(logsRequest);
+    when(logsRequest.send()).thenReturn(ethLog);
+    // First call fails because of a too large range, thus retry with a
+    // smaller one
+    when(ethLog.hasError()).thenReturn(true, false);
+    when(ethLog.getLogs()).thenReturn((List) Collections.singletonList(newReportSentLog(950l)));
+
+    Request blockRequest = mock(Request.class);
+    EthBlock ethBlock = mock(EthBlock.class);
+    EthBlock.Block block = mock(EthBlock.Block.class);
+    when(web3j.ethGetBlockByNumber(any(), anyBoolean())).thenReturn(blockRequest);
+    when(blockRequest.send()).thenReturn(ethBlock);
+    when(ethBlock.getBlock()).thenReturn(block);
+    when(block.getTimestamp()).thenReturn(BigInteger.valueOf(blockTime));
+
+    when(hubReportStorage.getReportStateByTransactionHash(txHash)).thenReturn(new HubReportState(periodId,
+                                                                                                 0,
+                                                                                                 HubReportStatusType.SENDING,
+                                                                                                 null,
+                                                                                                 txHash,
+                                                                                                 null,
+                                                                                                 null));
+
+    assertEquals(1, hubReportEventIndexer.indexReportEvents());
+    verify(web3j, times(2)).ethGetLogs(any());
+    verify(hubReportEventStorage).saveEvent(argThat(event -> event.getReportId() == reportId
+                                                             && txHash.equals(event.getTransactionHash())
+                                                             && event.getBlockNumber() == 950l
+                                                             && Instant.ofEpochSecond(blockTime)
+                                                                       .equals(event.getBlockTime())));
+    verify(hubReportStorage).saveReportPeriodId(periodId, reportId);
+    verify(hubReportSnapshotStorage).deleteSnapshot(periodId);
+    // 1000 - 32 confirmations
+    verify(hubReportEventStorage).saveLastIndexedBlock(uemAddress, 968l);
+  }
+
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  void indexReportEventsWhenUpToDate() throws Exception {
+    when(hubService.isConnected()).thenReturn(true);
+    when(hubService.getHub()).thenReturn(hub);
+    when(hubService.getHubAddress()).thenReturn(hubAddress);
+    when(hub.getUemAddress()).thenReturn(uemAddress);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(hubReportEventStorage.getLastIndexedBlock(uemAddress)).thenReturn(968l);
+
+    Request blockNumberRequest = mock(Request.class);
+    EthBlockNumber ethBlockNumber = mock(EthBlockNumber.class);
+    when(web3j.ethBlockNumber()).thenReturn(blockNumberRequest);
+    when(blockNumberRequest.send()).thenReturn(ethBlockNumber);
+    when(ethBlockNumber.getBlockNumber()).thenReturn(BigInteger.valueOf(1000));
+
+    assertEquals(0, hubReportEventIndexer.indexReportEvents());
+    verify(web3j, never()).ethGetLogs(any());
+    verify(hubReportEventStorage, never()).saveLastIndexedBlock(anyString(), anyLong());
+  }
+
+  private LogObject newReportSentLog(long blockNumber) {
+    LogObject log = new LogObject();
+    log.setAddress(uemAddress);
+    log.setTransactionHash(txHash);
+    log.setBlockNumber(Numeric.encodeQuantity(BigInteger.valueOf(blockNumber)));
+    log.setData("0x");
+    log.setTopics(Arrays.asList(EventEncoder.encode(REPORTSENT_EVENT),
+                                Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(hubAddress), 64),
+                                Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(reportId), 64)));
+    return log;
+  }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import org.exoplatform.services.listener.ListenerService;
+
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+import io.meeds.tenant.hub.constant.HubReportSendJobStatusType;
+import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.tenant.hub.model.HubReportSendJob;
+import io.meeds.wom.api.constant.WomException;
+
+@SpringBootTest(classes = {
+  HubReportSendJobService.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportSendJobServiceTest {
+
+  @MockBean
+  private HubReportService        hubReportService;
+
+  @MockBean
+  private HubService              hubService;
+
+  @MockBean
+  private ListenerService         listenerService;
+
+  @Autowired
+  private HubReportSendJobService hubReportSendJobService;
+
+  private long                    periodId = 53l;
+
+  private long                    reportId = 356l;
+
+  @Test
+  void sendReport() throws Exception {
+    HubReportLocalStatus report = new HubReportLocalStatus();
+    report.setReportId(reportId);
+    CompletableFuture<HubReportLocalStatus> sending = new CompletableFuture<>();
+    when(hubReportService.sendReportAsync(periodId, null)).thenReturn(sending);
+
+    HubReportSendJob job = hubReportSendJobService.sendReport(periodId);
+    assertNotNull(job);
+    assertNotNull(job.getId());
+    assertEquals(periodId, job.getPeriodId());
+    assertSame(job, hubReportSendJobService.sendReport(periodId));
+    assertSame(job, hubReportSendJobService.getJob(job.getId()));
+
+    waitJobStatus(job, HubReportSendJobStatusType.RUNNING);
+    // The job is completed once the report is sent, without holding a sender
+    // thread while waiting for the transaction receipt
+    assertNull(job.getEndDate());
+    sending.complete(report);
+    waitJobEnd(job);
+    assertEquals(HubReportSendJobStatusType.DONE, job.getStatus());
+    assertEquals(reportId, job.getReportId());
+    assertNull(job.getError());
+    verify(hubReportService).sendReportAsync(periodId, null);
+  }
+
+  @Test
+  void sendReportWithError() throws Exception {
+    when(hubReportService.sendReportAsync(periodId,
+                                          GasUrgencyType.HIGH)).thenReturn(CompletableFuture.failedFuture(new WomException("wom.testError")));
+
+    HubReportSendJob job = hubReportSendJobService.sendReport(periodId, GasUrgencyType.HIGH);
+    assertEquals(GasUrgencyType.HIGH, job.getUrgency());
+    waitJobEnd(job);
+    assertEquals(HubReportSendJobStatusType.FAILED, job.getStatus());
+    assertEquals("wom.testError", job.getError());
+    // Already notified when storing the sending error
+    verify(listenerService, never()).broadcast(HubReportService.REPORT_SENDING_ERROR_EVENT, periodId, null);
+  }
+
+  @Test
+  void sendReportWhenRejected() throws Exception {
+    when(hubReportService.sendReportAsync(periodId, null)).thenThrow(new WomException("wom.testError"));
+
+    HubReportSendJob job = hubReportSendJobService.sendReport(periodId);
+    waitJobEnd(job);
+    assertEquals(HubReportSendJobStatusType.FAILED, job.getStatus());
+    assertEquals("wom.testError", job.getError());
+    verify(listenerService).broadcast(HubReportService.REPORT_SENDING_ERROR_EVENT, periodId, null);
+  }
+
+  @Test
+  void sendReportWhenSendingInProgress() throws Exception {
+    when(hubReportService.isSending(periodId)).thenReturn(true);
+    WomException exception = assertThrows(WomException.class, () -> hubReportSendJobService.sendReport(periodId));
+    assertEquals("wom.reportSendingInProgress", exception.getMessage());
+    verify(hubReportService, never()).sendReportAsync(anyLong(), any());
+
+    when(hubReportService.isSending(periodId)).thenReturn(false);
+    when(hubReportService.sendReportAsync(periodId, null)).thenThrow(new WomException("wom.reportSendingInProgress"));
+    HubReportSendJob job = hubReportSendJobService.sendReport(periodId);
+    waitJobEnd(job);
+    assertEquals(HubReportSendJobStatusType.FAILED, job.getStatus());
+    assertEquals("wom.reportSendingInProgress", job.getError());
+    verify(listenerService, never()).broadcast(HubReportService.REPORT_SENDING_ERROR_EVENT, periodId, null);
+  }
+
+  @Test
+  void sendReportWhenNotSendable() throws Exception {
+    long notSendablePeriodId = 55l;
+    when(hubReportService.sendReportAsync(notSendablePeriodId, null)).thenReturn(CompletableFuture.completedFuture(null));
+    HubReportSendJob job = hubReportSendJobService.sendReport(notSendablePeriodId);
+    waitJobEnd(job);
+    assertEquals(HubReportSendJobStatusType.FAILED, job.getStatus());
+    assertEquals("wom.reportNotSendable", job.getError());
+    verify(listenerService).broadcast(HubReportService.REPORT_SENDING_ERROR_EVENT, notSendablePeriodId, null);
+  }
+
+  @Test
+  void backfillReports() throws Exception {
+    long otherPeriodId = 54l;
+    HubReportLocalStatus report = new HubReportLocalStatus();
+    report.setReportId(reportId);
+    Instant joinDate = Instant.now();
+    when(hubService.getHubJoinDate()).thenReturn(joinDate);
+    when(hubReportService.getSendablePeriodIds(eq(joinDate.minus(7, ChronoUnit.DAYS)),
+                                               anyInt())).thenReturn(List.of(periodId, otherPeriodId));
+    when(hubReportService.sendReportAsync(periodId, GasUrgencyType.LOW)).thenReturn(CompletableFuture.completedFuture(report));
+    when(hubReportService.sendReportAsync(otherPeriodId, GasUrgencyType.LOW)).thenThrow(new WomException("wom.testError"));
+
+    List<HubReportSendJob> jobs = hubReportSendJobService.backfillReports(GasUrgencyType.LOW);
+    assertEquals(2, jobs.size());
+    assertEquals(periodId, jobs.get(0).getPeriodId());
+    assertEquals(otherPeriodId, jobs.get(1).getPeriodId());
+    assertSame(jobs.get(0), hubReportSendJobService.getJob(jobs.get(0).getId()));
+
+    waitJobEnd(jobs.get(0));
+    waitJobEnd(jobs.get(1));
+    assertEquals(HubReportSendJobStatusType.DONE, jobs.get(0).getStatus());
+    assertEquals(reportId, jobs.get(0).getReportId());
+    assertEquals(HubReportSendJobStatusType.FAILED, jobs.get(1).getStatus());
+    assertEquals("wom.testError", jobs.get(1).getError());
+  }
+
+  @Test
+  void backfillReportsWhenNotConnected() {
+    assertTrue(hubReportSendJobService.backfillReports(null).isEmpty());
+    verifyNoInteractions(hubReportService);
+  }
+
+  @Test
+  void getJobWhenNotExists() {
+    assertNull(hubReportSendJobService.getJob("notExisting"));
+  }
+
+  private void waitJobStatus(HubReportSendJob job, HubReportSendJobStatusType status) throws InterruptedException {
+    int retries = 200;
+    while (job.getStatus() != status && retries-- > 0) {
+      Thread.sleep(50);
+    }
+  }
+
+  private void waitJobEnd(HubReportSendJob job) throws InterruptedException {
+    // Backfill jobs are throttled by the submission rate
+    int retries = 200;
+    while (job.getEndDate() == null && retries-- > 0) {
+      Thread.sleep(50);
+    }
+  }
+
+}
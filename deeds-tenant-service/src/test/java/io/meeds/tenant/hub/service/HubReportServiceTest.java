@@ -24,32 +24,43 @@ import static io.meeds.tenant.hub.service.HubReportService.REPORT_SENDING_IN_PRO
 import static io.meeds.tenant.hub.service.HubReportService.REPORT_SENT_EVENT;
 import static io.meeds.tenant.hub.utils.EntityMapper.toHubLocalReport;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigInteger;
 import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -58,12 +69,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.web3j.crypto.Hash;
 
-import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.services.listener.ListenerService;
-import org.exoplatform.services.organization.OrganizationService;
-import org.exoplatform.services.organization.User;
-import org.exoplatform.services.organization.UserHandler;
-import org.exoplatform.services.organization.UserStatus;
 import org.exoplatform.wallet.model.reward.RewardPeriod;
 import org.exoplatform.wallet.model.reward.RewardPeriodType;
 import org.exoplatform.wallet.model.reward.RewardReport;
@@ -77,9 +83,18 @@ import io.meeds.gamification.constant.RealizationStatus;
 import io.meeds.gamification.service.RealizationService;
 import io.meeds.gamification.service.RuleService;
 import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.model.HubReportEvent;
 import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+import io.meeds.tenant.hub.model.HubReportPeriodMetrics;
+import io.meeds.tenant.hub.model.HubReportState;
 import io.meeds.tenant.hub.model.HubTenant;
 import io.meeds.tenant.hub.rest.client.WomClientService;
+import io.meeds.tenant.hub.storage.HubReportEventStorage;
+import io.meeds.tenant.hub.storage.HubReportOutboxStorage;
+import io.meeds.tenant.hub.storage.HubReportPeriodMetricsStorage;
+import io.meeds.tenant.hub.storage.HubReportSendingStorage;
+import io.meeds.tenant.hub.storage.HubReportSnapshotStorage;
 import io.meeds.tenant.hub.storage.HubReportStorage;
 import io.meeds.tenant.hub.storage.HubWalletStorage;
 import io.meeds.wom.api.constant.WomException;
@@ -93,9 +108,6 @@ import io.meeds.wom.api.model.HubReportVerifiableData;
 @ExtendWith(MockitoExtension.class)
 class HubReportServiceTest {
 
-  @MockBean
-  private OrganizationService       organizationService;
-
   @MockBean
   private RewardReportService       rewardReportService;
 
@@ -108,6 +120,9 @@ class HubReportServiceTest {
   @MockBean
   private HubService                hubService;
 
+  @MockBean
+  private HubUsersCounter           hubUsersCounter;
+
   @MockBean
   private WomClientService          womServiceClient;
 
@@ -117,6 +132,21 @@ class HubReportServiceTest {
   @MockBean
   private HubReportStorage          hubReportStorage;
 
+  @MockBean
+  private HubReportSnapshotStorage  hubReportSnapshotStorage;
+
+  @MockBean
+  private HubReportPeriodMetricsStorage hubReportPeriodMetricsStorage;
+
+  @MockBean
+  private HubReportOutboxStorage    hubReportOutboxStorage;
+
+  @MockBean
+  private HubReportEventStorage     hubReportEventStorage;
+
+  @MockBean
+  private HubReportSendingStorage   hubReportSendingStorage;
+
   @MockBean
   private ListenerService           listenerService;
 
@@ -132,12 +162,6 @@ class HubReportServiceTest {
   @Mock
   private HubTenant                 hub;
 
-  @Mock
-  private UserHandler               userHandler;
-
-  @Mock
-  private ListAccess<User>          listAccess;
-
   @Autowired
   private HubReportService          hubReportService;
 
@@ -218,6 +242,8 @@ class HubReportServiceTest {
   private String                    txHash                    =
                                            "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
 
+  private String                    rawTransaction            = "0x02f8b18301388102";
+
   private Instant                   sentDate                  = Instant.now();
 
   private MockedStatic<WalletUtils> walletUtils;
@@ -253,14 +279,13 @@ class HubReportServiceTest {
     when(hub.getNetworkId()).thenReturn(networkId);
     when(hubService.getDeedId()).thenReturn(deedId);
 
-    when(organizationService.getUserHandler()).thenReturn(userHandler);
-    when(userHandler.findAllUsers(UserStatus.ENABLED)).thenReturn(listAccess);
-    when(listAccess.getSize()).thenReturn((int) usersCount);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
 
     when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
 
     report = hubReportService.sendReport(periodId);
     assertNull(report, "Shouldn't send report when not completely processed yet");
+    verify(hubUsersCounter, never()).reconcile();
 
     when(rewardReport.isCompletelyProceeded()).thenReturn(true);
     when(rewardReport.getValidRewardCount()).thenReturn(recipientsCount);
@@ -271,10 +296,11 @@ class HubReportServiceTest {
                                                                                            null,
                                                                                            null)));
 
-    when(rewardPeriod.getId()).thenReturn(periodId);
+    lenient().when(rewardPeriod.getId()).thenReturn(periodId);
     when(rewardPeriod.getStartDateInSeconds()).thenReturn(periodStartTime);
     when(rewardPeriod.getEndDateInSeconds()).thenReturn(periodEndTime);
     when(rewardPeriod.getRewardPeriodType()).thenReturn(RewardPeriodType.WEEK);
+    when(hubReportStorage.getPeriodKey(rewardPeriod)).thenReturn(periodId);
 
     when(transaction.getHash()).thenReturn(txHash);
     when(transaction.getContractAmount()).thenReturn(topReceiverAmount);
@@ -289,36 +315,57 @@ class HubReportServiceTest {
                                                                                                                                   .thenReturn(achievementsCount);
     when(ruleService.countRules(any())).thenReturn(actionsCount);
 
-    when(hubWalletStorage.sendReportTransaction(any(), any(), anyLong())).thenReturn(reportId);
+    when(hubWalletStorage.sendReportTransactionAsync(any(),
+                                                     any(),
+                                                     anyLong(),
+                                                     any(),
+                                                     any())).thenReturn(CompletableFuture.completedFuture(reportId));
 
     HubReport hubReport = newHubReport();
-    when(womServiceClient.saveReport(any())).thenReturn(hubReport);
+    when(womServiceClient.saveReportAsync(any())).thenReturn(CompletableFuture.completedFuture(hubReport));
     String signature = "0x22235879963145";
     String hash = StringUtils.lowerCase(Hash.sha3(signature));
     when(hubWalletStorage.signHubMessage(any())).thenReturn(signature);
     report = hubReportService.sendReport(periodId);
     assertNotNull(report, "Shouldn't send report when not completely processed yet");
-
-    verify(hubWalletStorage).sendReportTransaction(newHubReportPayload(),
-                                                   uemAddress,
-                                                   networkId);
-    verify(hubReportStorage).saveStatus(rewardPeriod, HubReportStatusType.SENDING.name());
-    verify(listenerService).broadcast(REPORT_SENDING_IN_PROGRESS_EVENT, rewardPeriod.getId(), null);
-
-    verify(hubReportStorage).saveReportPeriodId(rewardPeriod, reportId);
-    verify(hubReportStorage).saveStatus(rewardPeriod, HubReportStatusType.SENT.name());
-    verify(hubReportStorage).saveSentDate(eq(rewardPeriod), any());
-    verify(listenerService).broadcast(REPORT_SENT_EVENT, rewardPeriod.getId(), reportId);
-    verify(listenerService, never()).broadcast(REPORT_SENDING_ERROR_EVENT, rewardPeriod.getId(), null);
-
-    verify(womServiceClient).saveReport(new HubReportVerifiableData(hash,
-                                                                    signature,
-                                                                    hubReport));
+    verify(hubUsersCounter).reconcile();
+
+    verify(hubWalletStorage).sendReportTransactionAsync(eq(newHubReportPayload()),
+                                                        eq(uemAddress),
+                                                        eq(networkId),
+                                                        isNull(),
+                                                        any());
+    // Status events are broadcasted once the status change is committed
+    InOrder inOrder = inOrder(hubReportSendingStorage, listenerService);
+    inOrder.verify(hubReportSendingStorage).markAsSending(periodId);
+    inOrder.verify(listenerService).broadcast(REPORT_SENDING_IN_PROGRESS_EVENT, periodId, null);
+    inOrder.verify(hubReportSendingStorage).markAsSent(periodId, reportId);
+    inOrder.verify(listenerService).broadcast(REPORT_SENT_EVENT, periodId, reportId);
+    verify(listenerService, never()).broadcast(REPORT_SENDING_ERROR_EVENT, periodId, null);
+    verify(hubReportOutboxStorage).deleteEntry(periodId);
+
+    verify(womServiceClient).saveReportAsync(new HubReportVerifiableData(hash,
+                                                                         signature,
+                                                                         hubReport));
     verify(listenerService).broadcast(REPORT_PERSISTED_EVENT, reportId, null);
 
-    when(hubWalletStorage.sendReportTransaction(any(), any(), anyLong())).thenThrow(IllegalStateException.class);
+    when(hubWalletStorage.sendReportTransactionAsync(any(),
+                                                     any(),
+                                                     anyLong(),
+                                                     any(),
+                                                     any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException()));
     assertThrows(IllegalStateException.class, () -> hubReportService.sendReport(periodId));
-    verify(listenerService).broadcast(REPORT_SENDING_ERROR_EVENT, rewardPeriod.getId(), null);
+    verify(hubReportSendingStorage).markAsError(eq(periodId), argThat(error -> StringUtils.contains(error, "wom.unknownError")));
+    verify(listenerService).broadcast(REPORT_SENDING_ERROR_EVENT, periodId, null);
+
+    // No snapshot stored while the sending status may not be committed yet
+    CompletableFuture<Long> sending = new CompletableFuture<>();
+    when(hubWalletStorage.sendReportTransactionAsync(any(), any(), anyLong(), any(), any())).thenReturn(sending);
+    CompletableFuture<HubReportLocalStatus> reportSending = hubReportService.sendReportAsync(periodId, null);
+    hubReportService.refreshReportSnapshot(periodId);
+    verify(hubReportSnapshotStorage, never()).saveSnapshot(any());
+    sending.completeExceptionally(new WomException("wom.testError"));
+    assertThrows(CompletionException.class, reportSending::join);
   }
 
   @Test
@@ -342,7 +389,7 @@ class HubReportServiceTest {
     when(hubService.getHub()).thenReturn(hub);
     when(hubService.getHubAddress()).thenReturn(hubAddress);
     when(hubService.getDeedId()).thenReturn(deedId);
-    when(organizationService.getUserHandler()).thenReturn(userHandler);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
     when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
     when(transaction.getHash()).thenReturn(txHash);
     when(realizationService.countParticipantsBetweenDates(any(), any())).thenReturn(participantsCount);
@@ -364,6 +411,111 @@ class HubReportServiceTest {
                                   null), report);
   }
 
+  @Test
+  void getReportWithRefreshWhenWomUnavailable() throws Exception {
+    when(hubReportStorage.getReportId(periodId)).thenReturn(reportId);
+    WomException womException = new WomException("wom.unableToConnect");
+    when(womServiceClient.retrieveReport(reportId)).thenThrow(womException);
+    assertSame(womException, assertThrows(WomException.class, () -> hubReportService.getReport(periodId, true)));
+
+    Instant blockTime = sentDate.minusSeconds(60);
+    when(hubReportEventStorage.getEvent(reportId)).thenReturn(new HubReportEvent(reportId, txHash, 12l, blockTime));
+    when(hubService.getDeedId()).thenReturn(deedId);
+    HubReport snapshotReport = newHubReport();
+    snapshotReport.setDeedId(-1);
+    when(hubReportSnapshotStorage.getSnapshot(periodId)).thenReturn(toHubLocalReport(snapshotReport,
+                                                                                     periodId,
+                                                                                     0,
+                                                                                     true,
+                                                                                     true,
+                                                                                     HubReportStatusType.ERROR_SENDING,
+                                                                                     "wom.unableToConnect"));
+
+    HubReport hubReport = newHubReport();
+    hubReport.setSentDate(blockTime);
+    HubReportLocalStatus report = hubReportService.getReport(periodId, true);
+    assertEquals(toHubLocalReport(hubReport,
+                                  periodId,
+                                  reportId,
+                                  HubReportStatusType.SENT.isCanRefresh(),
+                                  HubReportStatusType.SENT.isCanSend(),
+                                  HubReportStatusType.SENT,
+                                  null), report);
+    verify(rewardReportService, never()).getRewardReportByPeriodId(periodId);
+  }
+
+  @Test
+  void getReportWithIndexedEvent() throws Exception {
+    Instant blockTime = sentDate.minusSeconds(60);
+    when(rewardReportService.getRewardReportByPeriodId(periodId)).thenReturn(rewardReport);
+    when(rewardReport.getPeriod()).thenReturn(rewardPeriod);
+    when(hubService.isConnected()).thenReturn(true);
+    when(hubService.getHubAddress()).thenReturn(hubAddress);
+    when(hubService.getDeedId()).thenReturn(deedId);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
+    when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
+    when(rewardReport.getValidRewardCount()).thenReturn(recipientsCount);
+    when(rewardReport.getTokensSent()).thenReturn(tokensSent);
+    when(rewardReport.getValidRewards()).thenReturn(Collections.singleton(new WalletReward(null,
+                                                                                           null,
+                                                                                           transaction,
+                                                                                           null,
+                                                                                           null)));
+    when(rewardPeriod.getStartDateInSeconds()).thenReturn(periodStartTime);
+    when(rewardPeriod.getEndDateInSeconds()).thenReturn(periodEndTime);
+    when(rewardPeriod.getRewardPeriodType()).thenReturn(RewardPeriodType.WEEK);
+    when(transaction.getHash()).thenReturn(txHash);
+    when(transaction.getContractAmount()).thenReturn(topReceiverAmount);
+    when(transaction.isSucceeded()).thenReturn(true);
+    when(realizationService.countParticipantsBetweenDates(any(), any())).thenReturn(participantsCount);
+    when(realizationService.countRealizationsByFilter(any())).thenReturn(achievementsCount);
+    when(ruleService.countRules(any())).thenReturn(actionsCount);
+    when(hubReportStorage.getPeriodKey(rewardPeriod)).thenReturn(periodId);
+    // Sent transaction without known outcome nor status
+    when(hubReportStorage.getReportState(periodId)).thenReturn(new HubReportState(periodId,
+                                                                                   0,
+                                                                                   null,
+                                                                                   null,
+                                                                                   txHash,
+                                                                                   null,
+                                                                                   null));
+    when(hubReportEventStorage.getEventByTransactionHash(txHash)).thenReturn(new HubReportEvent(reportId,
+                                                                                                txHash,
+                                                                                                12l,
+                                                                                                blockTime));
+
+    HubReport hubReport = newHubReport();
+    hubReport.setSentDate(blockTime);
+    HubReportLocalStatus report = hubReportService.getReport(periodId, false);
+    assertEquals(toHubLocalReport(hubReport,
+                                  periodId,
+                                  reportId,
+                                  false,
+                                  false,
+                                  HubReportStatusType.SENT,
+                                  null), report);
+    assertEquals(reportId, hubReportService.getReportId(periodId));
+  }
+
+  @Test
+  void getPeriodIdWithIndexedEvent() {
+    assertEquals(0, hubReportService.getPeriodId(reportId));
+
+    when(hubReportStorage.getPeriodId(reportId)).thenReturn(periodId);
+    assertEquals(periodId, hubReportService.getPeriodId(reportId));
+
+    long indexedPeriodId = 3l;
+    when(hubReportEventStorage.getEvent(reportId)).thenReturn(new HubReportEvent(reportId, txHash, 12l, sentDate));
+    when(hubReportStorage.getReportStateByTransactionHash(txHash)).thenReturn(new HubReportState(indexedPeriodId,
+                                                                                                  0,
+                                                                                                  HubReportStatusType.SENDING,
+                                                                                                  null,
+                                                                                                  txHash,
+                                                                                                  null,
+                                                                                                  null));
+    assertEquals(indexedPeriodId, hubReportService.getPeriodId(reportId));
+  }
+
   @Test
   void getReportWithoutRefreshWhenNoReward() {
     assertThrows(WomException.class, () -> hubReportService.getReport(periodId, false));
@@ -378,9 +530,7 @@ class HubReportServiceTest {
     when(hubService.getHubAddress()).thenReturn(hubAddress);
     lenient().when(hub.getAddress()).thenReturn(hubAddress);
     when(hubService.getDeedId()).thenReturn(deedId);
-    when(organizationService.getUserHandler()).thenReturn(userHandler);
-    when(userHandler.findAllUsers(UserStatus.ENABLED)).thenReturn(listAccess);
-    when(listAccess.getSize()).thenReturn((int) usersCount);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
     when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
     when(rewardReport.getValidRewardCount()).thenReturn(recipientsCount);
     when(rewardReport.getTokensSent()).thenReturn(tokensSent);
@@ -436,6 +586,86 @@ class HubReportServiceTest {
 
   }
 
+  @Test
+  void getReportOfClosedPeriodWithStoredMetrics() throws Exception {
+    when(rewardReportService.getRewardReportByPeriodId(periodId)).thenReturn(rewardReport);
+    when(rewardReport.getPeriod()).thenReturn(rewardPeriod);
+    when(rewardReport.isCompletelyProceeded()).thenReturn(true);
+    when(hubService.isConnected()).thenReturn(true);
+    when(hubService.getHubAddress()).thenReturn(hubAddress);
+    when(hubService.getDeedId()).thenReturn(deedId);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
+    when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
+    when(rewardReport.getValidRewardCount()).thenReturn(recipientsCount);
+    when(rewardReport.getTokensSent()).thenReturn(tokensSent);
+    when(rewardReport.getValidRewards()).thenReturn(Collections.singleton(new WalletReward(null,
+                                                                                           null,
+                                                                                           transaction,
+                                                                                           null,
+                                                                                           null)));
+    when(rewardPeriod.getStartDateInSeconds()).thenReturn(periodStartTime);
+    when(rewardPeriod.getEndDateInSeconds()).thenReturn(periodEndTime);
+    when(rewardPeriod.getRewardPeriodType()).thenReturn(RewardPeriodType.WEEK);
+    when(transaction.getHash()).thenReturn(txHash);
+    when(transaction.getContractAmount()).thenReturn(topReceiverAmount);
+    when(transaction.isSucceeded()).thenReturn(true);
+    when(ruleService.countRules(any())).thenReturn(actionsCount);
+    when(hubReportStorage.getStatus(rewardPeriod)).thenReturn("SENT");
+    when(hubReportStorage.getReportId(rewardPeriod)).thenReturn(reportId);
+    when(hubReportStorage.getPeriodKey(rewardPeriod)).thenReturn(periodId);
+    when(hubReportPeriodMetricsStorage.getMetrics(periodId)).thenReturn(new HubReportPeriodMetrics(periodId,
+                                                                                                   participantsCount,
+                                                                                                   achievementsCount,
+                                                                                                   Instant.now()));
+
+    HubReportLocalStatus report = hubReportService.getReport(periodId, false);
+    assertEquals(toHubLocalReport(newHubReport(),
+                                  periodId,
+                                  reportId,
+                                  false,
+                                  false,
+                                  HubReportStatusType.SENT,
+                                  null), report);
+    verify(realizationService, never()).countParticipantsBetweenDates(any(), any());
+    verify(realizationService, never()).countRealizationsByFilter(any());
+    verify(hubReportPeriodMetricsStorage, never()).saveMetrics(any());
+
+    // Metrics deleted when recomputing
+    when(hubReportPeriodMetricsStorage.getMetrics(periodId)).thenReturn(null);
+    when(realizationService.countParticipantsBetweenDates(any(), any())).thenReturn(participantsCount);
+    when(realizationService.countRealizationsByFilter(any())).thenReturn(achievementsCount);
+    assertEquals(report, hubReportService.recomputeReportMetrics(periodId));
+    verify(hubReportPeriodMetricsStorage).deleteMetrics(periodId);
+    verify(hubReportSnapshotStorage).deleteSnapshot(periodId);
+    verify(hubReportPeriodMetricsStorage).saveMetrics(any());
+  }
+
+  @Test
+  void recomputeReportMetricsWhenNoReward() {
+    WomException exception = assertThrows(WomException.class, () -> hubReportService.recomputeReportMetrics(periodId));
+    assertEquals("wom.unableToRetrieveReward", exception.getMessage());
+  }
+
+  @Test
+  void getReportOfClosedPeriodWithoutStoredMetrics() throws Exception {
+    when(rewardReportService.getRewardReportByPeriodId(periodId)).thenReturn(rewardReport);
+    when(rewardReport.getPeriod()).thenReturn(rewardPeriod);
+    when(rewardReport.isCompletelyProceeded()).thenReturn(true);
+    when(rewardPeriod.getStartDateInSeconds()).thenReturn(periodStartTime);
+    when(rewardPeriod.getEndDateInSeconds()).thenReturn(periodEndTime);
+    when(rewardPeriod.getRewardPeriodType()).thenReturn(RewardPeriodType.WEEK);
+    when(hubReportStorage.getPeriodKey(rewardPeriod)).thenReturn(periodId);
+    when(realizationService.countParticipantsBetweenDates(any(), any())).thenReturn(participantsCount);
+    when(realizationService.countRealizationsByFilter(any())).thenReturn(achievementsCount);
+
+    HubReportLocalStatus report = hubReportService.getReport(periodId, false);
+    assertEquals(participantsCount, report.getParticipantsCount());
+    assertEquals(achievementsCount, report.getAchievementsCount());
+    verify(hubReportPeriodMetricsStorage).saveMetrics(argThat(metrics -> metrics.getPeriodId() == periodId
+                                                                         && metrics.getParticipantsCount() == participantsCount
+                                                                         && metrics.getAchievementsCount() == achievementsCount));
+  }
+
   @Test
   void getReportsWhenNoLocalRewards() {
     List<HubReportLocalStatus> reports = hubReportService.getReports(0, 10);
@@ -460,7 +690,7 @@ class HubReportServiceTest {
     when(hubService.getHub()).thenReturn(hub);
     when(hubService.getHubAddress()).thenReturn(hubAddress);
     when(hubService.getDeedId()).thenReturn(deedId);
-    when(organizationService.getUserHandler()).thenReturn(userHandler);
+    when(hubUsersCounter.getEnabledUsersCount()).thenReturn(usersCount);
     when(hubReportStorage.getSentDate(rewardPeriod)).thenReturn(sentDate);
 
     when(realizationService.countParticipantsBetweenDates(any(), any())).thenReturn(participantsCount);
@@ -482,6 +712,132 @@ class HubReportServiceTest {
     assertEquals(0, reports.size());
   }
 
+  @Test
+  void getSendablePeriodIds() {
+    Instant fromDate = Instant.now().minus(30, ChronoUnit.DAYS);
+    RewardPeriod currentPeriod = mock(RewardPeriod.class);
+    RewardPeriod sentPeriod = mock(RewardPeriod.class);
+    RewardPeriod blankStatusPeriod = mock(RewardPeriod.class);
+    RewardPeriod sendingPeriod = mock(RewardPeriod.class);
+    RewardPeriod oldPeriod = mock(RewardPeriod.class);
+    when(hubService.isConnected()).thenReturn(true);
+    when(currentPeriod.getEndDateInSeconds()).thenReturn(Instant.now().plus(2, ChronoUnit.DAYS).getEpochSecond());
+    when(currentPeriod.getId()).thenReturn(53l);
+    mockSendablePeriod(rewardPeriod, periodId, 5, null);
+    mockSendablePeriod(sentPeriod, 54l, 12, new HubReportState(54l, reportId, null, sentDate, txHash, null, null));
+    mockSendablePeriod(blankStatusPeriod, 57l, 19, new HubReportState(57l, 0, null, null, null, null, null));
+    mockSendablePeriod(sendingPeriod,
+                       58l,
+                       26,
+                       new HubReportState(58l, 0, HubReportStatusType.SENDING, null, txHash, null, null));
+    mockSendablePeriod(oldPeriod, 55l, 33, new HubReportState(55l, 0, HubReportStatusType.ERROR_SENDING, null, null, null, null));
+    when(rewardReportService.findRewardReportPeriods(0, 20)).thenReturn(List.of(currentPeriod,
+                                                                                rewardPeriod,
+                                                                                sentPeriod,
+                                                                                blankStatusPeriod,
+                                                                                sendingPeriod,
+                                                                                oldPeriod));
+    when(rewardReport.isCompletelyProceeded()).thenReturn(true);
+
+    assertEquals(List.of(periodId, 57l), hubReportService.getSendablePeriodIds(fromDate, 10));
+    verify(rewardReportService, never()).getRewardReportByPeriodId(55l);
+    assertEquals(List.of(periodId, 57l, 55l), hubReportService.getSendablePeriodIds(null, 10));
+    assertEquals(List.of(periodId), hubReportService.getSendablePeriodIds(null, 1));
+    assertEquals(List.of(), hubReportService.getSendablePeriodIds(null, 0));
+    verify(hubReportSnapshotStorage, never()).getSnapshots(any());
+    verify(rewardReportService, never()).getRewardReportByPeriodId(53l);
+    verify(rewardReportService, never()).getRewardReportByPeriodId(54l);
+    verify(rewardReportService, never()).getRewardReportByPeriodId(58l);
+  }
+
+  @Test
+  void isSending() {
+    assertFalse(hubReportService.isSending(periodId));
+    when(hubReportOutboxStorage.getEntry(periodId)).thenReturn(newOutboxEntry());
+    assertTrue(hubReportService.isSending(periodId));
+  }
+
+  @Test
+  void recoverPendingReports() throws WomException {
+    HubReportOutboxEntry entry = newOutboxEntry();
+    when(hubReportOutboxStorage.getEntries()).thenReturn(Collections.singletonList(entry));
+    when(hubWalletStorage.recoverReportTransaction(txHash, rawTransaction)).thenReturn(reportId);
+    String signature = "0x22235879963145";
+    when(hubWalletStorage.signHubMessage(any())).thenReturn(signature);
+    when(womServiceClient.saveReportAsync(any())).thenReturn(CompletableFuture.completedFuture(newHubReport()));
+
+    hubReportService.recoverPendingReports();
+
+    verify(hubReportSendingStorage).markAsSent(periodId, reportId);
+    verify(listenerService).broadcast(REPORT_SENT_EVENT, periodId, reportId);
+    verify(womServiceClient).saveReportAsync(argThat(report -> report.getReportId() == reportId
+                                                               && StringUtils.equals(signature, report.getSignature())));
+    verify(hubReportOutboxStorage).deleteEntry(periodId);
+  }
+
+  @Test
+  void recoverPendingReportsWhenTransactionPending() throws WomException {
+    when(hubReportOutboxStorage.getEntries()).thenReturn(Collections.singletonList(newOutboxEntry()));
+    when(hubWalletStorage.recoverReportTransaction(txHash, rawTransaction)).thenReturn(0l);
+
+    hubReportService.recoverPendingReports();
+
+    verify(hubReportSendingStorage, never()).markAsSent(anyLong(), anyLong());
+    verify(womServiceClient, never()).saveReportAsync(any());
+    verify(hubReportOutboxStorage, never()).deleteEntry(periodId);
+  }
+
+  @Test
+  void recoverPendingReportsWhenTransactionDropped() throws WomException {
+    when(hubReportOutboxStorage.getEntries()).thenReturn(Collections.singletonList(newOutboxEntry()));
+    WomException exception = new WomException("uem.sendReportTransactionDropped");
+    when(hubWalletStorage.recoverReportTransaction(txHash, rawTransaction)).thenThrow(exception);
+
+    hubReportService.recoverPendingReports();
+
+    verify(hubReportSendingStorage).markAsError(eq(periodId),
+                                                argThat(status -> StringUtils.contains(status,
+                                                                                       "uem.sendReportTransactionDropped")));
+    verify(listenerService).broadcast(REPORT_SENDING_ERROR_EVENT, periodId, null);
+    verify(womServiceClient, never()).saveReportAsync(any());
+  }
+
+  @Test
+  void recoverPendingReportsWhenAlreadyMined() throws WomException {
+    when(hubReportOutboxStorage.getEntries()).thenReturn(Collections.singletonList(newOutboxEntry()));
+    when(hubReportStorage.getReportId(periodId)).thenReturn(reportId);
+    when(hubWalletStorage.signHubMessage(any())).thenReturn("0x22235879963145");
+    when(womServiceClient.saveReportAsync(any())).thenReturn(CompletableFuture.completedFuture(newHubReport()));
+
+    hubReportService.recoverPendingReports();
+
+    verify(hubWalletStorage, never()).recoverReportTransaction(any(), any());
+    verify(hubReportSendingStorage, never()).markAsSent(anyLong(), anyLong());
+    verify(womServiceClient).saveReportAsync(argThat(report -> report.getReportId() == reportId));
+    verify(hubReportOutboxStorage).deleteEntry(periodId);
+  }
+
+  private void mockSendablePeriod(RewardPeriod period, long id, int endDaysAgo, HubReportState reportState) {
+    when(period.getId()).thenReturn(id);
+    when(period.getEndDateInSeconds()).thenReturn(Instant.now().minus(endDaysAgo, ChronoUnit.DAYS).getEpochSecond());
+    lenient().when(hubReportStorage.getReportState(id)).thenReturn(reportState);
+    lenient().when(rewardReportService.getRewardReportByPeriodId(id)).thenReturn(rewardReport);
+  }
+
+  private HubReportOutboxEntry newOutboxEntry() {
+    HubReportPayload payload = new HubReportPayload();
+    payload.setHubAddress(hubAddress);
+    payload.setDeedId(deedId);
+    return new HubReportOutboxEntry(periodId,
+                                    payload,
+                                    uemAddress,
+                                    networkId,
+                                    txHash,
+                                    BigInteger.TWO,
+                                    rawTransaction,
+                                    Instant.now());
+  }
+
   private HubReportPayload newHubReportPayload() {
     return new HubReportPayload(reportId,
                                 StringUtils.lowerCase(hubAddress),
@@ -27,19 +27,27 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -49,8 +57,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.web3j.utils.EnsUtils;
 
+import org.exoplatform.commons.file.model.FileInfo;
+import org.exoplatform.commons.file.model.FileItem;
+import org.exoplatform.commons.file.services.FileService;
+import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.portal.branding.BrandingService;
-import org.exoplatform.portal.branding.model.Logo;
 import org.exoplatform.portal.config.model.PortalConfig;
 import org.exoplatform.portal.mop.service.LayoutService;
 import org.exoplatform.services.listener.ListenerService;
@@ -105,6 +116,9 @@ class HubServiceTest {
   @MockBean
   private ListenerService     listenerService;
 
+  @MockBean
+  private FileService         fileService;
+
   @Mock
   private HubTenant           hub;
 
@@ -121,7 +135,10 @@ class HubServiceTest {
   private Page                note;
 
   @Mock
-  private Logo                logo;
+  private FileInfo            logoInfo;
+
+  @Mock
+  private FileItem            logoFile;
 
   @Autowired
   private HubService          hubService;
@@ -332,7 +349,7 @@ class HubServiceTest {
   }
 
   @Test
-  void connectToWoM() throws WomException  {
+  void connectToWoM() throws Exception {
     when(hubWalletStorage.getOrCreateHubAddress()).thenReturn(hubAddress);
     when(hubIdentityStorage.getHubAddress()).thenReturn(hubAddress);
     setHubCardProperties();
@@ -344,16 +361,16 @@ class HubServiceTest {
     hubService.connectToWoM(connectionRequest);
 
     verify(hubIdentityStorage).saveHubConnectionResponse(argThat(connectionResponse -> connectionResponse != null && connectionResponse.equals(response)));
-    verify(womServiceClient, never()).saveHubAvatar(any(), any(), any(), any());
+    verify(womServiceClient, never()).saveHubAvatar(any(), any(), any(), any(), anyLong());
 
-    when(logo.getData()).thenReturn(new byte[3]);
+    when(logoInfo.getSize()).thenReturn(3l);
 
     hubService.connectToWoM(connectionRequest);
-    verify(womServiceClient, never()).saveHubAvatar(any(), any(), any(), any());
+    verify(womServiceClient, never()).saveHubAvatar(any(), any(), any(), any(), anyLong());
 
-    when(brandingService.getLogo()).thenReturn(logo);
+    mockLogo(System.currentTimeMillis());
     hubService.connectToWoM(connectionRequest);
-    verify(womServiceClient).saveHubAvatar(eq(hubAddress), anyString(), anyString(), any());
+    verify(womServiceClient).saveHubAvatar(eq(hubAddress), anyString(), anyString(), any(), eq(3l));
     verify(hubIdentityStorage, atLeast(1)).getHub(true); // Must refresh from WoM
   }
 
@@ -411,23 +428,131 @@ class HubServiceTest {
   }
 
   @Test
-  void updateHubCardWhenChanged() throws WomException {
+  void updateHubCardWhenChanged() throws Exception {
     when(hubIdentityStorage.getHubAddress()).thenReturn(hubAddress);
     setHubConnected();
     setHubCardProperties();
 
     long logoUpdateTime = System.currentTimeMillis();
 
-    when(brandingService.getLogo()).thenReturn(logo);
-    when(logo.getData()).thenReturn(new byte[3]);
-    when(logo.getUpdatedDate()).thenReturn(logoUpdateTime);
+    when(logoInfo.getSize()).thenReturn(3l);
+    when(logoInfo.getChecksum()).thenReturn("checksum");
+    mockLogo(logoUpdateTime);
 
     when(womServiceClient.generateToken()).thenReturn(tokenId);
+    when(womServiceClient.saveHubAsync(any(), anyString(), eq(tokenId))).thenReturn(CompletableFuture.completedFuture(null));
 
     when(hub.clone()).thenAnswer(invocation -> cloneHub(hub));
     hubService.updateHubCard();
-    verify(womServiceClient).saveHub(eq(hub), anyString(), eq(tokenId));
-    verify(hubIdentityStorage).saveHubAvatarUpdateTime(logoUpdateTime);
+    verify(womServiceClient).saveHubAsync(argThat(updatedHub -> updatedHub != hub
+                                                                && updatedHub.getName().containsValue(companyName)
+                                                                && updatedHub.getDescription().containsValue(noteContent)
+                                                                && StringUtils.equals(themeStyle.get("primaryColor"),
+                                                                                      updatedHub.getColor())),
+                                          anyString(),
+                                          eq(tokenId));
+    verify(hub, never()).setName(any());
+    verify(womServiceClient).saveHubAvatar(eq(hubAddress), anyString(), eq(tokenId), any(), eq(3l));
+    verify(hubIdentityStorage).saveHubAvatarUpdateTime(logoUpdateTime, "checksum");
+  }
+
+  @Test
+  void updateHubCardWhenHubUpdateFails() throws Exception {
+    when(hubIdentityStorage.getHubAddress()).thenReturn(hubAddress);
+    setHubConnected();
+    setHubCardProperties();
+    when(womServiceClient.generateToken()).thenReturn(tokenId);
+    when(womServiceClient.saveHubAsync(any(), anyString(), eq(tokenId))).thenReturn(CompletableFuture.failedFuture(new WomException("wom.testError")));
+    when(hub.clone()).thenAnswer(invocation -> cloneHub(hub));
+
+    WomException exception = assertThrows(WomException.class, () -> hubService.updateHubCard());
+    assertEquals("wom.testError", exception.getMessage());
+    verify(hubIdentityStorage).refreshHubIdentity();
+    verify(listenerService, never()).broadcast(anyString(), any(), any());
+  }
+
+  @Test
+  void updateHubCardWhenNotChanged() throws Exception {
+    HubTenant connectedHub = new HubTenant();
+    connectedHub.setAddress(hubAddress);
+    connectedHub.setDeedId(deedId);
+    connectedHub.setConnected(true);
+    connectedHub.setName(Collections.singletonMap(Locale.ENGLISH.toLanguageTag(), companyName));
+    connectedHub.setDescription(Collections.singletonMap(Locale.ENGLISH.toLanguageTag(), ""));
+    connectedHub.setColor(themeStyle.get("primaryColor"));
+    connectedHub.setUrl(CommonsUtils.getCurrentDomain());
+    connectedHub.setAvatarUpdateTime(System.currentTimeMillis());
+    when(hubIdentityStorage.getHub(false)).thenReturn(connectedHub);
+    when(brandingService.getCompanyName()).thenReturn(companyName);
+    when(brandingService.getThemeStyle()).thenReturn(themeStyle);
+
+    hubService.updateHubCard();
+    hubService.updateHubCard();
+    verifyNoInteractions(womServiceClient);
+    verify(fileService, never()).getFile(anyLong());
+    verify(hubWalletStorage, never()).signHubMessage(any());
+    verify(hubIdentityStorage, never()).refreshHubIdentity();
+    verify(listenerService, never()).broadcast(anyString(), any(), any());
+  }
+
+  @Test
+  void updateHubCardWhenAvatarContentNotChanged() throws WomException {
+    HubTenant connectedHub = new HubTenant();
+    connectedHub.setAddress(hubAddress);
+    connectedHub.setDeedId(deedId);
+    connectedHub.setConnected(true);
+    connectedHub.setName(Collections.singletonMap(Locale.ENGLISH.toLanguageTag(), companyName));
+    connectedHub.setDescription(Collections.singletonMap(Locale.ENGLISH.toLanguageTag(), ""));
+    connectedHub.setColor(themeStyle.get("primaryColor"));
+    connectedHub.setUrl(CommonsUtils.getCurrentDomain());
+    connectedHub.setAvatarUpdateTime(System.currentTimeMillis() - 1000);
+    when(hubIdentityStorage.getHub(false)).thenReturn(connectedHub);
+    when(brandingService.getCompanyName()).thenReturn(companyName);
+    when(brandingService.getThemeStyle()).thenReturn(themeStyle);
+
+    long logoUpdateTime = System.currentTimeMillis();
+    when(brandingService.getLogoId()).thenReturn(5l);
+    when(fileService.getFileInfo(5l)).thenReturn(logoInfo);
+    when(logoInfo.getUpdatedDate()).thenReturn(new Date(logoUpdateTime));
+    when(logoInfo.getSize()).thenReturn(3l);
+    when(logoInfo.getChecksum()).thenReturn("checksum");
+    when(hubIdentityStorage.getHubAvatarHash()).thenReturn("checksum");
+
+    hubService.updateHubCard();
+    verifyNoInteractions(womServiceClient);
+    verify(hubIdentityStorage).saveHubAvatarUpdateTime(logoUpdateTime, "checksum");
+  }
+
+  @Test
+  void saveHubBanner() throws Exception {
+    assertThrows(WomException.class, () -> hubService.saveHubBanner(6l));
+
+    when(hubIdentityStorage.getHubAddress()).thenReturn(hubAddress);
+    FileInfo bannerInfo = mock(FileInfo.class);
+    FileItem bannerFile = mock(FileItem.class);
+    when(fileService.getFileInfo(6l)).thenReturn(bannerInfo);
+    when(bannerInfo.getSize()).thenReturn(4l);
+    when(bannerInfo.getChecksum()).thenReturn("bannerChecksum");
+    when(fileService.getFile(6l)).thenReturn(bannerFile);
+    when(bannerFile.getAsStream()).thenAnswer(invocation -> new ByteArrayInputStream(new byte[4]));
+    when(womServiceClient.generateToken()).thenReturn(tokenId);
+
+    hubService.saveHubBanner(6l);
+    verify(womServiceClient).saveHubBanner(eq(hubAddress), any(), eq(tokenId), eq(tokenId), any(), eq(4l));
+    verify(hubIdentityStorage).saveHubBannerHash("bannerChecksum");
+
+    when(hubIdentityStorage.getHubBannerHash()).thenReturn("bannerChecksum");
+    hubService.saveHubBanner(6l);
+    verify(womServiceClient, times(1)).saveHubBanner(any(), any(), any(), any(), any(), anyLong());
+  }
+
+  private void mockLogo(long logoUpdateTime) throws Exception {
+    when(brandingService.getLogoId()).thenReturn(5l);
+    when(fileService.getFileInfo(5l)).thenReturn(logoInfo);
+    when(logoInfo.getId()).thenReturn(5l);
+    when(logoInfo.getUpdatedDate()).thenReturn(new Date(logoUpdateTime));
+    when(fileService.getFile(5l)).thenReturn(logoFile);
+    when(logoFile.getAsStream()).thenAnswer(invocation -> new ByteArrayInputStream(new byte[3]));
   }
 
   private void setHubConnected() {
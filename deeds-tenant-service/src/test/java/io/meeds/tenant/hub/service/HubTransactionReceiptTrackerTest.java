@@ -0,0 +1,135 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+@SpringBootTest(classes = {
+  HubTransactionReceiptTracker.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubTransactionReceiptTrackerTest {
+
+  @MockBean
+  private PolygonContractGasProvider   polygonContractGasProvider;
+
+  @Autowired
+  private HubTransactionReceiptTracker hubTransactionReceiptTracker;
+
+  @Mock
+  private Web3j                        web3j;
+
+  @Mock
+  private TransactionReceipt           transactionReceipt;
+
+  private String                       transactionHash        = "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d96a3b7c1f38";
+
+  private String                       pendingTransactionHash = "0x0f4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d96a3b7c1f39";
+
+  @AfterEach
+  void destroy() {
+    hubTransactionReceiptTracker.destroy();
+  }
+
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  void getTransactionReceipt() throws Exception {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    Request blockNumberRequest = mock(Request.class);
+    EthBlockNumber ethBlockNumber = mock(EthBlockNumber.class);
+    when(web3j.ethBlockNumber()).thenReturn(blockNumberRequest);
+    when(blockNumberRequest.send()).thenReturn(ethBlockNumber);
+    when(ethBlockNumber.getBlockNumber()).thenReturn(BigInteger.valueOf(10));
+
+    BatchRequest batchRequest = mock(BatchRequest.class);
+    BatchResponse batchResponse = mock(BatchResponse.class);
+    EthGetTransactionReceipt ethGetTransactionReceipt = mock(EthGetTransactionReceipt.class);
+    when(web3j.newBatch()).thenReturn(batchRequest);
+    when(batchRequest.send()).thenReturn(batchResponse);
+    when(batchResponse.getResponses()).thenReturn((List) Collections.singletonList(ethGetTransactionReceipt));
+    when(ethGetTransactionReceipt.getTransactionReceipt()).thenReturn(Optional.of(transactionReceipt));
+    when(transactionReceipt.getTransactionHash()).thenReturn(transactionHash);
+
+    String upperCaseHash = transactionHash.toUpperCase().replace("0X", "0x");
+    CompletableFuture<TransactionReceipt> receiptFuture = hubTransactionReceiptTracker.getTransactionReceipt(upperCaseHash);
+    assertSame(receiptFuture, hubTransactionReceiptTracker.getTransactionReceipt(transactionHash));
+    assertEquals(1, hubTransactionReceiptTracker.getPendingTransactionsCount());
+
+    hubTransactionReceiptTracker.checkPendingReceipts();
+    assertSame(transactionReceipt, receiptFuture.get(1, TimeUnit.SECONDS));
+    assertEquals(0, hubTransactionReceiptTracker.getPendingTransactionsCount());
+
+    CompletableFuture<TransactionReceipt> pendingFuture = hubTransactionReceiptTracker.getTransactionReceipt(pendingTransactionHash);
+    // No new mined block, thus no receipt check
+    hubTransactionReceiptTracker.checkPendingReceipts();
+    assertFalse(pendingFuture.isDone());
+    verify(web3j, times(1)).newBatch();
+    verify(web3j, times(2)).ethBlockNumber();
+  }
+
+  @Test
+  void waitForTransactionReceiptWhenStopped() throws Exception {
+    CompletableFuture<Throwable> waitResult = CompletableFuture.supplyAsync(() -> {
+      try {
+        hubTransactionReceiptTracker.waitForTransactionReceipt(transactionHash);
+        return null;
+      } catch (Exception e) {
+        return e;
+      }
+    });
+    long timeout = System.currentTimeMillis() + 5000;
+    while (hubTransactionReceiptTracker.getPendingTransactionsCount() == 0 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    hubTransactionReceiptTracker.destroy();
+    assertTrue(waitResult.get(5, TimeUnit.SECONDS) instanceof TransactionException);
+  }
+
+}
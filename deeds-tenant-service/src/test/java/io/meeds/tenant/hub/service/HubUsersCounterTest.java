@@ -0,0 +1,79 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.services.organization.OrganizationService;
+import org.exoplatform.services.organization.User;
+import org.exoplatform.services.organization.UserHandler;
+import org.exoplatform.services.organization.UserStatus;
+
+@SpringBootTest(classes = {
+  HubUsersCounter.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubUsersCounterTest {
+
+  @MockBean
+  private OrganizationService organizationService;
+
+  @Autowired
+  private HubUsersCounter     hubUsersCounter;
+
+  @Mock
+  private UserHandler         userHandler;
+
+  @Mock
+  private ListAccess<User>    listAccess;
+
+  @Test
+  void getEnabledUsersCount() throws Exception {
+    when(organizationService.getUserHandler()).thenReturn(userHandler);
+    when(userHandler.findAllUsers(UserStatus.ENABLED)).thenReturn(listAccess);
+    when(listAccess.getSize()).thenReturn(25, 30);
+
+    assertEquals(25, hubUsersCounter.reconcile());
+    assertEquals(25, hubUsersCounter.getEnabledUsersCount());
+    hubUsersCounter.increment();
+    hubUsersCounter.increment();
+    hubUsersCounter.decrement();
+    // Retrieved from the counter without counting users again
+    assertEquals(26, hubUsersCounter.getEnabledUsersCount());
+    verify(listAccess, times(1)).getSize();
+
+    assertEquals(30, hubUsersCounter.reconcile());
+    assertEquals(30, hubUsersCounter.getEnabledUsersCount());
+    assertTrue(hubUsersCounter.toPrometheusFormat().contains("meeds_hub_enabled_users 30\n"));
+  }
+
+}
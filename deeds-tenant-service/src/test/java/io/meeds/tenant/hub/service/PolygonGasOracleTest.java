@@ -0,0 +1,101 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthFeeHistory.FeeHistory;
+import org.web3j.utils.Convert;
+
+import org.exoplatform.wallet.blockchain.service.EthereumClientConnector;
+
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+
+@SpringBootTest(classes = {
+  PolygonGasOracle.class,
+})
+@ExtendWith(MockitoExtension.class)
+class PolygonGasOracleTest {
+
+  @MockBean
+  private EthereumClientConnector clientConnector;
+
+  @Autowired
+  private PolygonGasOracle        polygonGasOracle;
+
+  @Mock
+  private Web3j                   web3j;
+
+  @Test
+  void getFees() throws Exception {
+    mockFeeHistory();
+    polygonGasOracle.refreshFees();
+
+    assertEquals(gwei(40), polygonGasOracle.getBaseFee());
+    // Lower than minimal Polygon priority fee
+    assertEquals(gwei(30), polygonGasOracle.getMaxPriorityFeePerGas(GasUrgencyType.LOW));
+    assertEquals(gwei(40), polygonGasOracle.getMaxPriorityFeePerGas(GasUrgencyType.MEDIUM));
+    assertEquals(gwei(60), polygonGasOracle.getMaxPriorityFeePerGas(GasUrgencyType.HIGH));
+    assertEquals(gwei(140), polygonGasOracle.getMaxFeePerGas(GasUrgencyType.HIGH));
+    assertEquals(gwei(90), polygonGasOracle.getGasPrice(GasUrgencyType.MEDIUM));
+
+    // Fees retrieved from cache
+    verify(web3j, times(1)).ethFeeHistory(eq(10), eq(DefaultBlockParameterName.LATEST), anyList());
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private void mockFeeHistory() throws Exception {
+    when(clientConnector.getWeb3j(false)).thenReturn(web3j);
+    Request request = mock(Request.class);
+    EthFeeHistory ethFeeHistory = mock(EthFeeHistory.class);
+    FeeHistory feeHistory = mock(FeeHistory.class);
+    when(web3j.ethFeeHistory(eq(10), eq(DefaultBlockParameterName.LATEST), anyList())).thenReturn(request);
+    when(request.send()).thenReturn(ethFeeHistory);
+    when(ethFeeHistory.getFeeHistory()).thenReturn(feeHistory);
+    when(feeHistory.getBaseFeePerGas()).thenReturn(Arrays.asList(gwei(35), gwei(38), gwei(41), gwei(40)));
+    when(feeHistory.getReward()).thenReturn(Arrays.asList(Arrays.asList(gwei(1), gwei(35), gwei(50)),
+                                                          Arrays.asList(gwei(3), gwei(45), gwei(70)),
+                                                          Arrays.asList(gwei(2), gwei(40), gwei(60))));
+  }
+
+  private BigInteger gwei(int value) {
+    return Convert.toWei(String.valueOf(value), Convert.Unit.GWEI).toBigInteger();
+  }
+
+}
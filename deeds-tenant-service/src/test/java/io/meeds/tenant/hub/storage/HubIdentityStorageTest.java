@@ -47,17 +47,24 @@ import static io.meeds.tenant.hub.plugin.WalletHubIdentityProvider.WOM_NETWORK_I
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -159,6 +166,7 @@ class HubIdentityStorageTest {
     hubProfile.setProperty(ADDRESS, hubAddress);
     lenient().when(hubIdentity.getProfile()).thenReturn(hubProfile);
     lenient().when(hubIdentity.getId()).thenReturn(hubIdentityId);
+    lenient().when(womServiceClient.getHubAsync(any(), anyBoolean())).thenReturn(CompletableFuture.completedFuture(null));
   }
 
   @Test
@@ -206,7 +214,7 @@ class HubIdentityStorageTest {
 
   @Test
   void getHubWhenExistsInWomButDisconnected() throws WomException {
-    when(womServiceClient.getHub(hubAddress, false)).thenReturn(hubFromWom);
+    when(womServiceClient.getHubAsync(hubAddress, false)).thenReturn(CompletableFuture.completedFuture(hubFromWom));
 
     when(hubFromWom.getCity()).thenReturn(city);
     when(hubFromWom.getDeedId()).thenReturn(deedId);
@@ -260,7 +268,7 @@ class HubIdentityStorageTest {
 
   @Test
   void getHubWhenExistsInWomWhenConnected() throws WomException {
-    when(womServiceClient.getHub(hubAddress, false)).thenReturn(hubFromWom);
+    when(womServiceClient.getHubAsync(hubAddress, false)).thenReturn(CompletableFuture.completedFuture(hubFromWom));
 
     when(hubFromWom.isConnected()).thenReturn(true);
     when(hubFromWom.getCity()).thenReturn(city);
@@ -313,6 +321,68 @@ class HubIdentityStorageTest {
     assertEquals(usersCount, hub.getUsersCount());
   }
 
+  @Test
+  void getHubWhenNotModifiedInWom() throws WomException {
+    when(womServiceClient.getHubAsync(hubAddress, true)).thenReturn(CompletableFuture.completedFuture(hubFromWom));
+    when(hubFromWom.getCreatedDate()).thenReturn(createdDate);
+    when(hubFromWom.getUpdatedDate()).thenReturn(updatedDate);
+    hubProfile.setProperty(NAME, "{\"name\":\"" + name + "\"}");
+
+    assertNotNull(hubIdentityStorage.getHub(true));
+    verify(identityManager).updateProfile(hubProfile);
+
+    // Same Hub instance returned by client when not modified on WoM
+    assertNotNull(hubIdentityStorage.getHub(true));
+    verify(womServiceClient, times(2)).getHubAsync(hubAddress, true);
+    verify(identityManager).updateProfile(hubProfile);
+  }
+
+  @Test
+  void getHubWhileRefreshing() throws Exception {
+    HubTenant hub = hubIdentityStorage.getHub();
+    assertNotNull(hub);
+
+    CountDownLatch refreshStarted = new CountDownLatch(1);
+    CompletableFuture<Hub> hubRetrieval = new CompletableFuture<>();
+    when(womServiceClient.getHubAsync(hubAddress, false)).thenAnswer(invocation -> {
+      refreshStarted.countDown();
+      return hubRetrieval;
+    });
+    when(hubFromWom.getCreatedDate()).thenReturn(createdDate);
+    when(hubFromWom.getUpdatedDate()).thenReturn(updatedDate);
+    hubProfile.setProperty(NAME, "{\"name\":\"" + name + "\"}");
+    hubIdentityStorage.refreshHubIdentity();
+
+    CompletableFuture<HubTenant> refresh = CompletableFuture.supplyAsync(() -> hubIdentityStorage.getHub());
+    assertTrue(refreshStarted.await(10, TimeUnit.SECONDS));
+    // Previous Hub returned while refreshing
+    assertSame(hub, hubIdentityStorage.getHub());
+
+    hubRetrieval.complete(hubFromWom);
+    HubTenant refreshedHub = refresh.get(10, TimeUnit.SECONDS);
+    assertNotNull(refreshedHub);
+    assertSame(refreshedHub, hubIdentityStorage.getHub());
+    verify(womServiceClient, times(1)).getHubAsync(hubAddress, false);
+  }
+
+  @Test
+  void getHubParsedOncePerProfileVersion() {
+    when(walletTokenAdminService.getAdminWalletAddress()).thenReturn(hubOwnerAddress);
+
+    HubTenant hub = hubIdentityStorage.getHub();
+    assertNotNull(hub);
+    hubIdentityStorage.refreshHubIdentity();
+    assertSame(hub, hubIdentityStorage.getHub());
+    verify(walletTokenAdminService, times(1)).getAdminWalletAddress();
+
+    hubProfile.setProperty(URL, url);
+    hubIdentityStorage.refreshHubIdentity();
+    HubTenant updatedHub = hubIdentityStorage.getHub();
+    assertNotSame(hub, updatedHub);
+    assertEquals(url, updatedHub.getUrl());
+    verify(walletTokenAdminService, times(2)).getAdminWalletAddress();
+  }
+
   @Test
   void getHubAddress() {
     assertEquals(hubAddress, hubIdentityStorage.getHubAddress());
@@ -360,4 +430,17 @@ class HubIdentityStorageTest {
     verify(identityManager).updateProfile(hubProfile);
   }
 
+  @Test
+  void saveHubAvatarUpdateTimeWithHash() {
+    long avatarUpdateTime = System.currentTimeMillis();
+    String avatarHash = "avatarHash";
+    hubIdentityStorage.saveHubAvatarUpdateTime(avatarUpdateTime, avatarHash);
+    assertEquals(String.valueOf(avatarUpdateTime), hubProfile.getProperty(HUB_AVATAR_UPDATE));
+    assertEquals(avatarHash, hubIdentityStorage.getHubAvatarHash());
+
+    hubIdentityStorage.saveHubAvatarUpdateTime(avatarUpdateTime);
+    assertNull(hubIdentityStorage.getHubAvatarHash());
+    verify(identityManager, times(2)).updateProfile(hubProfile);
+  }
+
 }
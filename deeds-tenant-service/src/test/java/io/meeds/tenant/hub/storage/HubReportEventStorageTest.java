@@ -0,0 +1,120 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.tenant.hub.dao.HubReportEventCheckpointDAO;
+import io.meeds.tenant.hub.dao.HubReportEventDAO;
+import io.meeds.tenant.hub.entity.HubReportEventCheckpointEntity;
+import io.meeds.tenant.hub.entity.HubReportEventEntity;
+import io.meeds.tenant.hub.model.HubReportEvent;
+
+@SpringBootTest(classes = {
+  HubReportEventStorage.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportEventStorageTest {
+
+  @MockBean
+  private HubReportEventDAO           hubReportEventDAO;
+
+  @MockBean
+  private HubReportEventCheckpointDAO hubReportEventCheckpointDAO;
+
+  @Autowired
+  private HubReportEventStorage       hubReportEventStorage;
+
+  private long                        reportId    = 3l;
+
+  private String                      uemAddress  = "0x290B11b1Ab6A31Ff95490E4e0eefFEc6402CCe99";
+
+  private String                      txHash      = "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
+
+  private long                        blockNumber = 45218l;
+
+  private Instant                     blockTime   = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+  @Test
+  void saveEvent() {
+    hubReportEventStorage.saveEvent(new HubReportEvent(reportId, txHash.toUpperCase(), blockNumber, blockTime));
+    verify(hubReportEventDAO).save(argThat(entity -> entity.getReportId() == reportId
+                                                     && txHash.equals(entity.getTransactionHash())
+                                                     && entity.getBlockNumber() == blockNumber
+                                                     && blockTime.equals(entity.getBlockTime())));
+  }
+
+  @Test
+  void getEvent() {
+    assertNull(hubReportEventStorage.getEvent(reportId));
+
+    when(hubReportEventDAO.findById(reportId)).thenReturn(Optional.of(newEntity()));
+    assertEquals(newEvent(), hubReportEventStorage.getEvent(reportId));
+  }
+
+  @Test
+  void getEventByTransactionHash() {
+    assertNull(hubReportEventStorage.getEventByTransactionHash(txHash));
+
+    when(hubReportEventDAO.findFirstByTransactionHash(txHash)).thenReturn(newEntity());
+    assertEquals(newEvent(), hubReportEventStorage.getEventByTransactionHash(txHash.toUpperCase()));
+  }
+
+  @Test
+  void getLastIndexedBlock() {
+    assertEquals(-1l, hubReportEventStorage.getLastIndexedBlock(uemAddress));
+
+    String contractAddress = uemAddress.toLowerCase();
+    HubReportEventCheckpointEntity checkpoint = new HubReportEventCheckpointEntity(contractAddress, blockNumber, blockTime);
+    when(hubReportEventCheckpointDAO.findById(contractAddress)).thenReturn(Optional.of(checkpoint));
+    assertEquals(blockNumber, hubReportEventStorage.getLastIndexedBlock(uemAddress));
+  }
+
+  @Test
+  void saveLastIndexedBlock() {
+    hubReportEventStorage.saveLastIndexedBlock(uemAddress, blockNumber);
+    verify(hubReportEventCheckpointDAO).save(argThat(entity -> uemAddress.toLowerCase().equals(entity.getContractAddress())
+                                                               && entity.getLastBlock() == blockNumber
+                                                               && entity.getUpdatedDate() != null));
+  }
+
+  private HubReportEventEntity newEntity() {
+    return new HubReportEventEntity(reportId, txHash, blockNumber, blockTime);
+  }
+
+  private HubReportEvent newEvent() {
+    return new HubReportEvent(reportId, txHash, blockNumber, blockTime);
+  }
+
+}
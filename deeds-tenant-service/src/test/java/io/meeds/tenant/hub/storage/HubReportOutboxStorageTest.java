@@ -0,0 +1,139 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+
+import io.meeds.tenant.hub.dao.HubReportOutboxDAO;
+import io.meeds.tenant.hub.entity.HubReportOutboxEntity;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+import io.meeds.wom.api.model.HubReportPayload;
+import io.meeds.wom.api.utils.JsonUtils;
+
+@SpringBootTest(classes = {
+  HubReportOutboxStorage.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportOutboxStorageTest {
+
+  @MockBean
+  private HubReportOutboxDAO     hubReportOutboxDAO;
+
+  @Autowired
+  private HubReportOutboxStorage hubReportOutboxStorage;
+
+  private long                   periodId       = 53l;
+
+  private String                 uemAddress     = "0x290b11b1ab6a31ff95490e4e0eeffec6402cce99";
+
+  private long                   uemNetworkId   = 80001l;
+
+  private String                 txHash         = "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
+
+  private String                 rawTransaction = "0x02f8b18301388102";
+
+  private Instant                createdDate    = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @Test
+  void saveEntry() throws Exception {
+    HubReportOutboxEntry entry = newEntry();
+    hubReportOutboxStorage.saveEntry(entry);
+    String payload = JsonUtils.toJsonString(entry.getPayload());
+    verify(hubReportOutboxDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                      && payload.equals(entity.getPayload())
+                                                      && uemAddress.equals(entity.getUemAddress())
+                                                      && entity.getUemNetworkId() == uemNetworkId
+                                                      && txHash.equals(entity.getTransactionHash())
+                                                      && entity.getNonce() == 2
+                                                      && rawTransaction.equals(entity.getRawTransaction())
+                                                      && createdDate.equals(entity.getCreatedDate())));
+  }
+
+  @Test
+  void getEntry() throws Exception {
+    assertNull(hubReportOutboxStorage.getEntry(periodId));
+
+    when(hubReportOutboxDAO.findById(periodId)).thenReturn(Optional.of(newEntity()));
+    assertEquals(newEntry(), hubReportOutboxStorage.getEntry(periodId));
+  }
+
+  @Test
+  void getEntries() throws Exception {
+    when(hubReportOutboxDAO.findAll(any(Sort.class))).thenReturn(List.of(newEntity()));
+    assertEquals(List.of(newEntry()), hubReportOutboxStorage.getEntries());
+  }
+
+  @Test
+  void deleteEntry() {
+    hubReportOutboxStorage.deleteEntry(periodId);
+    verify(hubReportOutboxDAO, never()).deleteById(any());
+
+    when(hubReportOutboxDAO.existsById(periodId)).thenReturn(true);
+    hubReportOutboxStorage.deleteEntry(periodId);
+    verify(hubReportOutboxDAO).deleteById(periodId);
+  }
+
+  private HubReportOutboxEntity newEntity() throws Exception {
+    HubReportOutboxEntry entry = newEntry();
+    return new HubReportOutboxEntity(periodId,
+                                     JsonUtils.toJsonString(entry.getPayload()),
+                                     uemAddress,
+                                     uemNetworkId,
+                                     txHash,
+                                     2,
+                                     rawTransaction,
+                                     createdDate);
+  }
+
+  private HubReportOutboxEntry newEntry() {
+    HubReportPayload payload = new HubReportPayload();
+    payload.setHubAddress(uemAddress);
+    payload.setDeedId(3);
+    payload.setUsersCount(25);
+    return new HubReportOutboxEntry(periodId,
+                                    payload,
+                                    uemAddress,
+                                    uemNetworkId,
+                                    txHash,
+                                    BigInteger.TWO,
+                                    rawTransaction,
+                                    createdDate);
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.tenant.hub.dao.HubReportPeriodMetricsDAO;
+import io.meeds.tenant.hub.entity.HubReportPeriodMetricsEntity;
+import io.meeds.tenant.hub.model.HubReportPeriodMetrics;
+
+@SpringBootTest(classes = {
+  HubReportPeriodMetricsStorage.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportPeriodMetricsStorageTest {
+
+  @MockBean
+  private HubReportPeriodMetricsDAO     hubReportPeriodMetricsDAO;
+
+  @Autowired
+  private HubReportPeriodMetricsStorage hubReportPeriodMetricsStorage;
+
+  private long                          periodId          = 53l;
+
+  private long                          participantsCount = 85l;
+
+  private long                          achievementsCount = 5569l;
+
+  private Instant                       computedDate      = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @Test
+  void saveMetrics() {
+    hubReportPeriodMetricsStorage.saveMetrics(newMetrics());
+    verify(hubReportPeriodMetricsDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                             && entity.getParticipantsCount() == participantsCount
+                                                             && entity.getAchievementsCount() == achievementsCount
+                                                             && computedDate.equals(entity.getComputedDate())));
+  }
+
+  @Test
+  void getMetrics() {
+    assertNull(hubReportPeriodMetricsStorage.getMetrics(periodId));
+
+    when(hubReportPeriodMetricsDAO.findById(periodId)).thenReturn(Optional.of(newEntity()));
+    assertEquals(newMetrics(), hubReportPeriodMetricsStorage.getMetrics(periodId));
+  }
+
+  @Test
+  void getMetricsOfPeriods() {
+    assertTrue(hubReportPeriodMetricsStorage.getMetrics(Collections.emptyList()).isEmpty());
+    verify(hubReportPeriodMetricsDAO, never()).findAllById(any());
+
+    when(hubReportPeriodMetricsDAO.findAllById(List.of(periodId, 54l))).thenReturn(List.of(newEntity()));
+    assertEquals(Map.of(periodId, newMetrics()), hubReportPeriodMetricsStorage.getMetrics(List.of(periodId, 54l)));
+  }
+
+  @Test
+  void deleteMetrics() {
+    hubReportPeriodMetricsStorage.deleteMetrics(periodId);
+    verify(hubReportPeriodMetricsDAO, never()).deleteById(any());
+
+    when(hubReportPeriodMetricsDAO.existsById(periodId)).thenReturn(true);
+    hubReportPeriodMetricsStorage.deleteMetrics(periodId);
+    verify(hubReportPeriodMetricsDAO).deleteById(periodId);
+  }
+
+  private HubReportPeriodMetricsEntity newEntity() {
+    return new HubReportPeriodMetricsEntity(periodId, participantsCount, achievementsCount, computedDate);
+  }
+
+  private HubReportPeriodMetrics newMetrics() {
+    return new HubReportPeriodMetrics(periodId, participantsCount, achievementsCount, computedDate);
+  }
+
+}
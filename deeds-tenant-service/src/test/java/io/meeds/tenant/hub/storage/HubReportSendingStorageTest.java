@@ -0,0 +1,100 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.model.HubReportOutboxEntry;
+import io.meeds.wom.api.model.HubReportPayload;
+
+@SpringBootTest(classes = {
+  HubReportSendingStorage.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportSendingStorageTest {
+
+  @MockBean
+  private HubReportStorage        hubReportStorage;
+
+  @MockBean
+  private HubReportOutboxStorage  hubReportOutboxStorage;
+
+  @Autowired
+  private HubReportSendingStorage hubReportSendingStorage;
+
+  private long                    periodId = 53l;
+
+  private long                    reportId = 356l;
+
+  private String                  txHash   = "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
+
+  @Test
+  void markAsSending() {
+    hubReportSendingStorage.markAsSending(periodId);
+    verify(hubReportStorage).saveStatus(periodId, HubReportStatusType.SENDING.name());
+  }
+
+  @Test
+  void saveSignedTransaction() {
+    HubReportOutboxEntry entry = new HubReportOutboxEntry(periodId,
+                                                          new HubReportPayload(),
+                                                          "0x290b11b1ab6a31ff95490e4e0eeffec6402cce99",
+                                                          80001l,
+                                                          txHash,
+                                                          BigInteger.TWO,
+                                                          "0x02f8b18301388102",
+                                                          Instant.now());
+    hubReportSendingStorage.saveSignedTransaction(entry);
+    verify(hubReportOutboxStorage).saveEntry(entry);
+    verify(hubReportStorage).saveTransactionHash(periodId, txHash);
+  }
+
+  @Test
+  void markAsSent() {
+    hubReportSendingStorage.markAsSent(periodId, reportId);
+    verify(hubReportStorage).saveReportPeriodId(periodId, reportId);
+    verify(hubReportStorage).saveStatus(periodId, HubReportStatusType.SENT.name());
+    verify(hubReportStorage).saveSentDate(eq(periodId), any());
+  }
+
+  @Test
+  void markAsError() {
+    String error = "wom.testError";
+    hubReportSendingStorage.markAsError(periodId, error);
+    InOrder inOrder = inOrder(hubReportOutboxStorage, hubReportStorage);
+    inOrder.verify(hubReportOutboxStorage).deleteEntry(periodId);
+    inOrder.verify(hubReportStorage).saveStatus(periodId, error);
+  }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.dao.HubReportSnapshotDAO;
+import io.meeds.tenant.hub.entity.HubReportSnapshotEntity;
+import io.meeds.tenant.hub.model.HubReportLocalStatus;
+import io.meeds.wom.api.utils.JsonUtils;
+
+@SpringBootTest(classes = {
+  HubReportSnapshotStorage.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportSnapshotStorageTest {
+
+  @MockBean
+  private HubReportSnapshotDAO     hubReportSnapshotDAO;
+
+  @Autowired
+  private HubReportSnapshotStorage hubReportSnapshotStorage;
+
+  private long                     periodId = 53l;
+
+  private long                     reportId = 356l;
+
+  private Instant                  fromDate = Instant.now().minusSeconds(500);
+
+  @Test
+  void saveSnapshot() {
+    HubReportLocalStatus report = newReport();
+    hubReportSnapshotStorage.saveSnapshot(report);
+    verify(hubReportSnapshotDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                        && entity.getReportId() == reportId
+                                                        && entity.getStatus() == HubReportStatusType.SENT
+                                                        && fromDate.equals(entity.getFromDate())
+                                                        && entity.getPayload() != null
+                                                        && entity.getUpdatedDate() != null));
+  }
+
+  @Test
+  void getSnapshot() throws Exception {
+    assertNull(hubReportSnapshotStorage.getSnapshot(periodId));
+
+    when(hubReportSnapshotDAO.findById(periodId)).thenReturn(Optional.of(newEntity()));
+    HubReportLocalStatus snapshot = hubReportSnapshotStorage.getSnapshot(periodId);
+    assertNotNull(snapshot);
+    assertEquals(newReport(), snapshot);
+  }
+
+  @Test
+  void getSnapshots() throws Exception {
+    assertTrue(hubReportSnapshotStorage.getSnapshots(Collections.emptyList()).isEmpty());
+    verifyNoInteractions(hubReportSnapshotDAO);
+
+    when(hubReportSnapshotDAO.findByPeriodIdIn(List.of(periodId, 2l))).thenReturn(List.of(newEntity()));
+    Map<Long, HubReportLocalStatus> snapshots = hubReportSnapshotStorage.getSnapshots(List.of(periodId, 2l));
+    assertEquals(1, snapshots.size());
+    assertEquals(newReport(), snapshots.get(periodId));
+  }
+
+  @Test
+  void deleteSnapshot() {
+    hubReportSnapshotStorage.deleteSnapshot(periodId);
+    verify(hubReportSnapshotDAO, never()).deleteById(any());
+
+    when(hubReportSnapshotDAO.existsById(periodId)).thenReturn(true);
+    hubReportSnapshotStorage.deleteSnapshot(periodId);
+    verify(hubReportSnapshotDAO).deleteById(periodId);
+  }
+
+  @Test
+  void deleteSnapshots() {
+    hubReportSnapshotStorage.deleteSnapshots();
+    verify(hubReportSnapshotDAO).deleteAllInBatch();
+  }
+
+  private HubReportSnapshotEntity newEntity() throws Exception {
+    HubReportLocalStatus report = newReport();
+    return new HubReportSnapshotEntity(periodId,
+                                       reportId,
+                                       report.getStatus(),
+                                       fromDate,
+                                       JsonUtils.toJsonString(report),
+                                       Instant.now());
+  }
+
+  private HubReportLocalStatus newReport() {
+    HubReportLocalStatus report = new HubReportLocalStatus();
+    report.setPeriodId(periodId);
+    report.setReportId(reportId);
+    report.setFromDate(fromDate);
+    report.setStatus(HubReportStatusType.SENT);
+    return report;
+  }
+
+}
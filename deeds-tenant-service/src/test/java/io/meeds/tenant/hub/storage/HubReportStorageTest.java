@@ -18,24 +18,25 @@
  */
 package io.meeds.tenant.hub.storage;
 
-import static io.meeds.tenant.hub.storage.HubReportStorage.REWARD_PERIOD_ID_APPLICATION;
-import static io.meeds.tenant.hub.storage.HubReportStorage.REWARD_REPORT_ID_APPLICATION;
-import static io.meeds.tenant.hub.storage.HubReportStorage.REWARD_REPORT_SENT_DATE_APPLICATION;
-import static io.meeds.tenant.hub.storage.HubReportStorage.REWARD_REPORT_STATUS_APPLICATION;
-import static io.meeds.tenant.hub.storage.HubReportStorage.UEM_CONTEXT;
+import static io.meeds.wom.api.utils.JsonUtils.fromJsonString;
+import static io.meeds.wom.api.utils.JsonUtils.toJsonString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
@@ -46,12 +47,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
-import org.exoplatform.commons.api.settings.SettingService;
-import org.exoplatform.commons.api.settings.SettingValue;
 import org.exoplatform.wallet.model.reward.RewardPeriod;
 import org.exoplatform.wallet.model.reward.RewardPeriodType;
 import org.exoplatform.wallet.reward.service.RewardReportService;
 
+import io.meeds.tenant.hub.constant.HubReportStatusType;
+import io.meeds.tenant.hub.dao.HubReportDAO;
+import io.meeds.tenant.hub.entity.HubReportEntity;
+import io.meeds.tenant.hub.model.HubReportState;
+import io.meeds.wom.api.model.WomErrorMessage;
+
+import lombok.SneakyThrows;
+
 @SpringBootTest(classes = {
   HubReportStorage.class,
 })
@@ -62,7 +69,7 @@ class HubReportStorageTest {
   private RewardReportService rewardReportService;
 
   @MockBean
-  private SettingService      settingService;
+  private HubReportDAO        hubReportDAO;
 
   @Autowired
   private HubReportStorage    hubReportStorage;
@@ -78,36 +85,67 @@ class HubReportStorageTest {
 
   @Test
   void saveStatus() {
-    String status = "NEW";
+    String status = "SENT";
 
     hubReportStorage.saveStatus(periodId, status);
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_REPORT_STATUS_APPLICATION),
-                               eq(String.valueOf(periodId)),
-                               argThat(setting -> StringUtils.equals(status, setting.getValue().toString())));
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && entity.getStatus() == HubReportStatusType.SENT
+                                                && entity.getError() == null));
+  }
+
+  @Test
+  void saveStatusWithError() {
+    String error = "{\"code\":0,\"shouldRetry\":true,\"messageKey\":\"wom.unknownError\"}";
+
+    hubReportStorage.saveStatus(periodId, error);
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && entity.getStatus() == HubReportStatusType.ERROR_SENDING
+                                                && StringUtils.equals(error, entity.getError())
+                                                && StringUtils.equals("wom.unknownError", entity.getErrorKey())));
+  }
+
+  @Test
+  void saveStatusWithLongError() {
+    String error = StringUtils.repeat("e", 3000);
+    hubReportStorage.saveStatus(periodId, error);
+    verify(hubReportDAO).save(argThat(entity -> entity.getStatus() == HubReportStatusType.ERROR_SENDING
+                                                && StringUtils.equals(error.substring(0, 2000), entity.getError())
+                                                && entity.getErrorKey().length() == 250));
+  }
+
+  @Test
+  @SneakyThrows
+  void saveStatusWithLongJsonError() {
+    String error = toJsonString(new WomErrorMessage(500, false, "uem." + StringUtils.repeat("\"", 3000)));
+    hubReportStorage.saveStatus(periodId, error);
+    verify(hubReportDAO).save(argThat(entity -> {
+      assertTrue(entity.getError().length() <= 2000);
+      WomErrorMessage errorMessage = parseErrorMessage(entity.getError());
+      return entity.getStatus() == HubReportStatusType.ERROR_SENDING
+             && errorMessage.getCode() == 500
+             && StringUtils.startsWith(errorMessage.getMessageKey(), "uem.\"");
+    }));
   }
 
   @Test
   void saveStatusByPeriodHavingId() {
-    String status = "NEW";
+    String status = "SENDING";
     when(rewardPeriod.getId()).thenReturn(periodId);
 
     hubReportStorage.saveStatus(rewardPeriod, status);
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_REPORT_STATUS_APPLICATION),
-                               eq(String.valueOf(periodId)),
-                               argThat(setting -> StringUtils.equals(status, setting.getValue().toString())));
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && entity.getStatus() == HubReportStatusType.SENDING));
   }
 
   @Test
   void saveStatusByPeriodNotHavingId() {
-    String status = "NEW";
+    String status = "SENT";
     assertThrows(IllegalStateException.class, () -> hubReportStorage.saveStatus(rewardPeriod, status));
   }
 
   @Test
   void saveStatusByPeriodHavingIdRetrievedFromStore() {
-    String status = "NEW";
+    String status = "SENT";
     RewardPeriodType periodType = RewardPeriodType.WEEK;
     LocalDate periodMedianDate = LocalDate.now();
 
@@ -119,57 +157,48 @@ class HubReportStorageTest {
     when(rewardPeriodFromStore.getId()).thenReturn(periodId);
 
     hubReportStorage.saveStatus(rewardPeriod, status);
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_REPORT_STATUS_APPLICATION),
-                               eq(String.valueOf(periodId)),
-                               argThat(setting -> StringUtils.equals(status, setting.getValue().toString())));
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && entity.getStatus() == HubReportStatusType.SENT));
   }
 
   @Test
   void saveReportPeriodId() {
     when(rewardPeriod.getId()).thenReturn(periodId);
+    when(hubReportDAO.findById(periodId)).thenReturn(Optional.of(newEntity(HubReportStatusType.SENDING, 0)));
     hubReportStorage.saveReportPeriodId(rewardPeriod, reportId);
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_REPORT_ID_APPLICATION),
-                               eq(String.valueOf(periodId)),
-                               argThat(setting -> StringUtils.equals(String.valueOf(reportId), setting.getValue().toString())));
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_PERIOD_ID_APPLICATION),
-                               eq(String.valueOf(reportId)),
-                               argThat(setting -> StringUtils.equals(String.valueOf(periodId), setting.getValue().toString())));
-
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && entity.getReportId() == reportId
+                                                && entity.getStatus() == HubReportStatusType.SENDING));
   }
 
   @Test
   void saveSentDate() {
     when(rewardPeriod.getId()).thenReturn(periodId);
     hubReportStorage.saveSentDate(rewardPeriod, sentDate);
-    verify(settingService).set(eq(UEM_CONTEXT),
-                               eq(REWARD_REPORT_SENT_DATE_APPLICATION),
-                               eq(String.valueOf(periodId)),
-                               argThat(setting -> StringUtils.equals(String.valueOf(sentDate.toEpochMilli()), setting.getValue().toString())));
+    verify(hubReportDAO).save(argThat(entity -> entity.getPeriodId() == periodId
+                                                && sentDate.equals(entity.getSentDate())));
   }
 
   @Test
   void getStatus() {
-    String status = "SENT";
     when(rewardPeriod.getId()).thenReturn(periodId);
     assertNull(hubReportStorage.getStatus(rewardPeriod));
 
-    when(settingService.get(UEM_CONTEXT,
-                            REWARD_REPORT_STATUS_APPLICATION,
-                            String.valueOf(periodId))).thenAnswer(invocation -> SettingValue.create(status));
-    assertEquals(status, hubReportStorage.getStatus(rewardPeriod));
+    when(hubReportDAO.findById(periodId)).thenReturn(Optional.of(newEntity(HubReportStatusType.SENT, reportId)));
+    assertEquals("SENT", hubReportStorage.getStatus(rewardPeriod));
+
+    HubReportEntity errorEntity = newEntity(HubReportStatusType.ERROR_SENDING, 0);
+    errorEntity.setError("wom.error");
+    when(hubReportDAO.findById(periodId)).thenReturn(Optional.of(errorEntity));
+    assertEquals("wom.error", hubReportStorage.getStatus(rewardPeriod));
   }
 
   @Test
   void getReportId() {
     when(rewardPeriod.getId()).thenReturn(periodId);
     assertEquals(0, hubReportStorage.getReportId(rewardPeriod));
-    
-    when(settingService.get(UEM_CONTEXT,
-                            REWARD_REPORT_ID_APPLICATION,
-                            String.valueOf(periodId))).thenAnswer(invocation -> SettingValue.create(String.valueOf(reportId)));
+
+    when(hubReportDAO.findById(periodId)).thenReturn(Optional.of(newEntity(HubReportStatusType.SENT, reportId)));
     assertEquals(reportId, hubReportStorage.getReportId(rewardPeriod));
   }
 
@@ -177,9 +206,7 @@ class HubReportStorageTest {
   void getPeriodId() {
     assertEquals(0, hubReportStorage.getPeriodId(reportId));
 
-    when(settingService.get(UEM_CONTEXT,
-                            REWARD_PERIOD_ID_APPLICATION,
-                            String.valueOf(reportId))).thenAnswer(invocation -> SettingValue.create(String.valueOf(periodId)));
+    when(hubReportDAO.findFirstByReportId(reportId)).thenReturn(newEntity(HubReportStatusType.SENT, reportId));
     assertEquals(periodId, hubReportStorage.getPeriodId(reportId));
   }
 
@@ -189,10 +216,48 @@ class HubReportStorageTest {
     assertNotNull(hubReportStorage.getSentDate(rewardPeriod));
     assertNotEquals(sentDate.toEpochMilli(), hubReportStorage.getSentDate(rewardPeriod).toEpochMilli());
 
-    when(settingService.get(UEM_CONTEXT,
-                            REWARD_REPORT_SENT_DATE_APPLICATION,
-                            String.valueOf(periodId))).thenAnswer(invocation -> SettingValue.create(String.valueOf(sentDate.toEpochMilli())));
+    when(hubReportDAO.findById(periodId)).thenReturn(Optional.of(newEntity(HubReportStatusType.SENT, reportId)));
     assertEquals(sentDate.toEpochMilli(), hubReportStorage.getSentDate(rewardPeriod).toEpochMilli());
   }
 
+  @Test
+  void findByPeriodIds() {
+    assertTrue(hubReportStorage.findByPeriodIds(Collections.emptyList()).isEmpty());
+    verifyNoInteractions(hubReportDAO);
+
+    when(hubReportDAO.findByPeriodIdIn(List.of(periodId))).thenReturn(List.of(newEntity(HubReportStatusType.SENT, reportId)));
+    List<HubReportState> reports = hubReportStorage.findByPeriodIds(List.of(periodId));
+    assertEquals(1, reports.size());
+    assertEquals(periodId, reports.get(0).getPeriodId());
+    assertEquals(reportId, reports.get(0).getReportId());
+    assertEquals(HubReportStatusType.SENT, reports.get(0).getStatus());
+  }
+
+  @Test
+  void findByStatus() {
+    assertTrue(hubReportStorage.findByStatus(HubReportStatusType.SENDING).isEmpty());
+
+    when(hubReportDAO.findByStatus(HubReportStatusType.SENDING)).thenReturn(List.of(newEntity(HubReportStatusType.SENDING,
+                                                                                              0)));
+    List<HubReportState> reports = hubReportStorage.findByStatus(HubReportStatusType.SENDING);
+    assertEquals(1, reports.size());
+    assertEquals(periodId, reports.get(0).getPeriodId());
+    assertEquals(HubReportStatusType.SENDING, reports.get(0).getStatus());
+  }
+
+  private HubReportEntity newEntity(HubReportStatusType status, long reportId) {
+    return new HubReportEntity(periodId,
+                               reportId,
+                               status,
+                               sentDate,
+                               null,
+                               null,
+                               null);
+  }
+
+  @SneakyThrows
+  private WomErrorMessage parseErrorMessage(String error) {
+    return fromJsonString(error, WomErrorMessage.class);
+  }
+
 }
@@ -21,18 +21,23 @@ package io.meeds.tenant.hub.storage;
 import static org.exoplatform.wallet.utils.WalletUtils.WALLET_ADMIN_REMOTE_ID;
 import static org.exoplatform.wallet.utils.WalletUtils.toJsonString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -43,10 +48,16 @@ import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,17 +69,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.web3j.abi.EventValues;
 import org.web3j.abi.datatypes.Address;
 import org.web3j.abi.datatypes.generated.Uint256;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
 import org.web3j.crypto.WalletFile;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthEstimateGas;
 import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
@@ -86,6 +101,11 @@ import org.exoplatform.wallet.utils.WalletUtils;
 import org.exoplatform.web.security.codec.AbstractCodec;
 import org.exoplatform.web.security.codec.CodecInitializer;
 
+import io.meeds.tenant.hub.constant.GasUrgencyType;
+import io.meeds.tenant.hub.model.HubSignedTransaction;
+import io.meeds.tenant.hub.service.HubNonceManager;
+import io.meeds.tenant.hub.service.HubTransactionManagerFactory;
+import io.meeds.tenant.hub.service.HubTransactionReceiptTracker;
 import io.meeds.tenant.hub.service.PolygonContractGasProvider;
 import io.meeds.wom.api.constant.WomException;
 import io.meeds.wom.api.model.HubReportPayload;
@@ -94,6 +114,9 @@ import lombok.SneakyThrows;
 
 @SpringBootTest(classes = {
                             HubWalletStorage.class,
+                            HubNonceManager.class,
+                            HubTransactionReceiptTracker.class,
+                            HubTransactionManagerFactory.class,
 })
 @ExtendWith(MockitoExtension.class)
 class HubWalletStorageTest {
@@ -113,6 +136,15 @@ class HubWalletStorageTest {
   @Autowired
   private HubWalletStorage            hubWalletStorage;
 
+  @Autowired
+  private HubNonceManager             hubNonceManager;
+
+  @SpyBean
+  private HubTransactionManagerFactory hubTransactionManagerFactory;
+
+  @SpyBean
+  private HubTransactionReceiptTracker hubTransactionReceiptTracker;
+
   @Mock
   private Web3j                       web3j;
 
@@ -185,6 +217,8 @@ class HubWalletStorageTest {
   private String                      txHash               =
                                              "0xef4e9db309b5dd7020ce463ae726b4d0759e1de0635661de91d8d98e83ae2862";
 
+  private String                      rawTransaction       = "0x02f8b18301388102";
+
   private Instant                     sentDate             = Instant.now();
 
   private MockedStatic<WalletUtils>   walletUtils;
@@ -193,6 +227,8 @@ class HubWalletStorageTest {
 
   @BeforeEach
   void init() {
+    hubNonceManager.resync(hubAddress);
+    hubWalletStorage.clearHubWallet();
     walletUtils = mockStatic(WalletUtils.class);
     contract = mockStatic(Contract.class);
     walletUtils.when(WalletUtils::getNetworkId).thenReturn(rewardTokenNetworkId);
@@ -261,6 +297,25 @@ class HubWalletStorageTest {
                  signedMessage.replace("0x", "").toLowerCase());
   }
 
+  @Test
+  void signHubMessageUsingCachedWallet() throws WomException {
+    when(hubIdentityStorage.getHubWallet()).thenAnswer(invocation -> {
+      WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
+      when(codecInitializer.getCodec()).thenReturn(codec);
+      when(walletAccountService.getAdminAccountPassword()).thenReturn(password);
+      when(codec.decode(any())).thenAnswer(args -> args.getArgument(0));
+      return toJsonString(walletFile);
+    });
+
+    String signedMessage = hubWalletStorage.signHubMessage("rawMessage");
+    assertEquals(signedMessage, hubWalletStorage.signHubMessage("rawMessage"));
+    verify(hubIdentityStorage, times(1)).getHubWallet();
+
+    hubWalletStorage.clearHubWallet();
+    assertEquals(signedMessage, hubWalletStorage.signHubMessage("rawMessage"));
+    verify(hubIdentityStorage, times(2)).getHubWallet();
+  }
+
   @SuppressWarnings("rawtypes")
   @Test
   @SneakyThrows
@@ -280,7 +335,7 @@ class HubWalletStorageTest {
       return toJsonString(walletFile);
     });
 
-    hubWalletStorage.setTransactionManager(transactionManager);
+    mockTransactionManager();
     hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
 
     BigInteger nonce = BigInteger.TWO;
@@ -301,7 +356,7 @@ class HubWalletStorageTest {
     });
 
     BigInteger gasPrice = BigInteger.valueOf(31l);
-    when(polygonContractGasProvider.getGasPrice(any())).thenReturn(gasPrice);
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(gasPrice);
 
     when(transactionManager.getFromAddress()).thenReturn(hubAddress);
     EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
@@ -322,6 +377,76 @@ class HubWalletStorageTest {
     assertEquals(reportId, createdReportId);
   }
 
+  @SuppressWarnings("rawtypes")
+  @Test
+  @SneakyThrows
+  void sendReportTransactionWithEIP1559Fees() {
+    walletUtils.when(WalletUtils::getSettings).thenReturn(globalSettings);
+    walletUtils.when(() -> WalletUtils.convertToDecimals(anyDouble(), anyInt())).thenCallRealMethod();
+    when(globalSettings.getContractDetail()).thenReturn(contractDetail);
+    when(contractDetail.getDecimals()).thenReturn(decimals);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(polygonContractGasProvider.getChainId()).thenReturn(uemNetworkId);
+    HubReportPayload reportPayload = newHubReportPayload();
+    when(hubIdentityStorage.getHubWallet()).thenAnswer(invocation -> {
+      WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
+      when(codecInitializer.getCodec()).thenReturn(codec);
+      when(walletAccountService.getAdminAccountPassword()).thenReturn(password);
+      when(codec.decode(any())).thenAnswer(args -> args.getArgument(0));
+      return toJsonString(walletFile);
+    });
+
+    mockTransactionManager();
+    hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
+
+    BigInteger nonce = BigInteger.TWO;
+    BigInteger estimatedGas = BigInteger.TEN;
+    when(web3j.ethGetTransactionCount(hubAddress, DefaultBlockParameterName.PENDING)).thenAnswer(args -> {
+      EthGetTransactionCount ethGetTransactionCount = mock(EthGetTransactionCount.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethGetTransactionCount);
+      when(ethGetTransactionCount.getTransactionCount()).thenReturn(nonce);
+      return request;
+    });
+    when(web3j.ethEstimateGas(any())).thenAnswer(args -> {
+      EthEstimateGas gasEstimate = mock(EthEstimateGas.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(gasEstimate);
+      when(gasEstimate.getAmountUsed()).thenReturn(estimatedGas);
+      return request;
+    });
+
+    BigInteger maxPriorityFeePerGas = BigInteger.valueOf(30l);
+    BigInteger maxFeePerGas = BigInteger.valueOf(52l);
+    when(polygonContractGasProvider.isEIP1559Enabled()).thenReturn(true);
+    when(polygonContractGasProvider.getMaxPriorityFeePerGas(GasUrgencyType.HIGH)).thenReturn(maxPriorityFeePerGas);
+    when(polygonContractGasProvider.getMaxFeePerGas(GasUrgencyType.HIGH)).thenReturn(maxFeePerGas);
+
+    when(transactionManager.getFromAddress()).thenReturn(hubAddress);
+    EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
+    TransactionReceipt receipt = mock(TransactionReceipt.class);
+    when(transactionManager.sendEIP1559Transaction(eq(uemNetworkId),
+                                                   eq(maxPriorityFeePerGas),
+                                                   eq(maxFeePerGas),
+                                                   eq(BigDecimal.valueOf(estimatedGas.doubleValue())
+                                                                .multiply(BigDecimal.valueOf(1.2d))
+                                                                .toBigInteger()),
+                                                   eq(uemAddress),
+                                                   anyString(),
+                                                   eq(BigInteger.ZERO))).thenReturn(ethSendTransaction);
+    when(transactionReceiptProcessor.waitForTransactionReceipt(any())).thenReturn(receipt);
+    when(receipt.isStatusOK()).thenReturn(true);
+    when(receipt.getLogs()).thenReturn(Collections.singletonList(mock(Log.class)));
+    mockReportSentEventResponse();
+
+    long createdReportId = hubWalletStorage.sendReportTransaction(reportPayload,
+                                                                  uemAddress,
+                                                                  uemNetworkId,
+                                                                  GasUrgencyType.HIGH);
+    assertEquals(reportId, createdReportId);
+    verify(polygonContractGasProvider, never()).getGasPrice(nullable(GasUrgencyType.class));
+  }
+
   @SuppressWarnings("rawtypes")
   @Test
   @SneakyThrows
@@ -341,7 +466,7 @@ class HubWalletStorageTest {
       return toJsonString(walletFile);
     });
 
-    hubWalletStorage.setTransactionManager(transactionManager);
+    mockTransactionManager();
     hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
 
     BigInteger nonce = BigInteger.TWO;
@@ -362,7 +487,7 @@ class HubWalletStorageTest {
     });
 
     BigInteger gasPrice = BigInteger.valueOf(31l);
-    when(polygonContractGasProvider.getGasPrice(any())).thenReturn(gasPrice);
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(gasPrice);
 
     when(transactionManager.getFromAddress()).thenReturn(hubAddress);
     EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
@@ -423,7 +548,7 @@ class HubWalletStorageTest {
       return toJsonString(walletFile);
     });
 
-    hubWalletStorage.setTransactionManager(transactionManager);
+    mockTransactionManager();
     hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
 
     BigInteger nonce = BigInteger.TWO;
@@ -445,7 +570,7 @@ class HubWalletStorageTest {
     });
 
     BigInteger gasPrice = BigInteger.valueOf(31l);
-    when(polygonContractGasProvider.getGasPrice(any())).thenReturn(gasPrice);
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(gasPrice);
 
     when(transactionManager.getFromAddress()).thenReturn(hubAddress);
     WomException exception = assertThrows(WomException.class,
@@ -472,7 +597,7 @@ class HubWalletStorageTest {
       return toJsonString(walletFile);
     });
 
-    hubWalletStorage.setTransactionManager(transactionManager);
+    mockTransactionManager();
     hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
 
     BigInteger nonce = BigInteger.TWO;
@@ -484,7 +609,7 @@ class HubWalletStorageTest {
       return request;
     });
     BigInteger gasPrice = BigInteger.valueOf(35l);
-    when(polygonContractGasProvider.getGasPrice(any())).thenReturn(gasPrice);
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(gasPrice);
 
     when(transactionManager.getFromAddress()).thenReturn(hubAddress);
 
@@ -514,7 +639,7 @@ class HubWalletStorageTest {
       return toJsonString(walletFile);
     });
 
-    hubWalletStorage.setTransactionManager(transactionManager);
+    mockTransactionManager();
     hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
 
     BigInteger nonce = BigInteger.TWO;
@@ -526,7 +651,7 @@ class HubWalletStorageTest {
       return request;
     });
     BigInteger gasPrice = BigInteger.valueOf(31l);
-    when(polygonContractGasProvider.getGasPrice(any())).thenReturn(gasPrice);
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(gasPrice);
 
     when(transactionManager.getFromAddress()).thenReturn(hubAddress);
 
@@ -537,6 +662,285 @@ class HubWalletStorageTest {
     assertEquals(customRevertException, exception.getMessage());
   }
 
+  @SuppressWarnings("rawtypes")
+  @Test
+  @SneakyThrows
+  void sendReportTransactionWithSignedTransactionListener() {
+    walletUtils.when(WalletUtils::getSettings).thenReturn(globalSettings);
+    walletUtils.when(() -> WalletUtils.convertToDecimals(anyDouble(), anyInt())).thenCallRealMethod();
+    when(globalSettings.getContractDetail()).thenReturn(contractDetail);
+    when(contractDetail.getDecimals()).thenReturn(decimals);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(polygonContractGasProvider.getChainId()).thenReturn(uemNetworkId);
+    WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
+    when(hubIdentityStorage.getHubWallet()).thenReturn(toJsonString(walletFile));
+    when(codecInitializer.getCodec()).thenReturn(codec);
+    when(walletAccountService.getAdminAccountPassword()).thenReturn(password);
+    when(codec.decode(any())).thenAnswer(args -> args.getArgument(0));
+    hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
+
+    BigInteger nonce = BigInteger.TWO;
+    when(web3j.ethGetTransactionCount(hubAddress, DefaultBlockParameterName.PENDING)).thenAnswer(args -> {
+      EthGetTransactionCount ethGetTransactionCount = mock(EthGetTransactionCount.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethGetTransactionCount);
+      when(ethGetTransactionCount.getTransactionCount()).thenReturn(nonce);
+      return request;
+    });
+    when(web3j.ethEstimateGas(any())).thenAnswer(args -> {
+      EthEstimateGas gasEstimate = mock(EthEstimateGas.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(gasEstimate);
+      when(gasEstimate.getAmountUsed()).thenReturn(BigInteger.TEN);
+      return request;
+    });
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(BigInteger.valueOf(31l));
+
+    List<HubSignedTransaction> signedTransactions = new ArrayList<>();
+    when(web3j.ethSendRawTransaction(anyString())).thenAnswer(args -> {
+      // The signed transaction is stored before submitting it
+      assertEquals(1, signedTransactions.size());
+      assertEquals(args.getArgument(0), signedTransactions.get(0).getRawTransaction());
+      EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethSendTransaction);
+      when(ethSendTransaction.getTransactionHash()).thenReturn(signedTransactions.get(0).getTransactionHash());
+      return request;
+    });
+    TransactionReceipt receipt = mock(TransactionReceipt.class);
+    when(transactionReceiptProcessor.waitForTransactionReceipt(any())).thenReturn(receipt);
+    when(receipt.isStatusOK()).thenReturn(true);
+    when(receipt.getLogs()).thenReturn(Collections.singletonList(mock(Log.class)));
+    mockReportSentEventResponse();
+
+    long createdReportId = hubWalletStorage.sendReportTransaction(newHubReportPayload(),
+                                                                  uemAddress,
+                                                                  uemNetworkId,
+                                                                  null,
+                                                                  signedTransactions::add);
+    assertEquals(reportId, createdReportId);
+    assertEquals(1, signedTransactions.size());
+    HubSignedTransaction signedTransaction = signedTransactions.get(0);
+    assertEquals(nonce, signedTransaction.getNonce());
+    assertEquals(Hash.sha3(signedTransaction.getRawTransaction()), signedTransaction.getTransactionHash());
+    verify(transactionReceiptProcessor).waitForTransactionReceipt(signedTransaction.getTransactionHash());
+  }
+
+  @SuppressWarnings("rawtypes")
+  @Test
+  @SneakyThrows
+  void sendReportTransactionWhenAlreadyKnown() {
+    walletUtils.when(WalletUtils::getSettings).thenReturn(globalSettings);
+    walletUtils.when(() -> WalletUtils.convertToDecimals(anyDouble(), anyInt())).thenCallRealMethod();
+    when(globalSettings.getContractDetail()).thenReturn(contractDetail);
+    when(contractDetail.getDecimals()).thenReturn(decimals);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(polygonContractGasProvider.getChainId()).thenReturn(uemNetworkId);
+    WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
+    when(hubIdentityStorage.getHubWallet()).thenReturn(toJsonString(walletFile));
+    when(codecInitializer.getCodec()).thenReturn(codec);
+    when(walletAccountService.getAdminAccountPassword()).thenReturn(password);
+    when(codec.decode(any())).thenAnswer(args -> args.getArgument(0));
+    hubWalletStorage.setTransactionReceiptProcessor(transactionReceiptProcessor);
+
+    BigInteger nonce = BigInteger.TWO;
+    when(web3j.ethGetTransactionCount(hubAddress, DefaultBlockParameterName.PENDING)).thenAnswer(args -> {
+      EthGetTransactionCount ethGetTransactionCount = mock(EthGetTransactionCount.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethGetTransactionCount);
+      when(ethGetTransactionCount.getTransactionCount()).thenReturn(nonce);
+      return request;
+    });
+    when(web3j.ethEstimateGas(any())).thenAnswer(args -> {
+      EthEstimateGas gasEstimate = mock(EthEstimateGas.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(gasEstimate);
+      when(gasEstimate.getAmountUsed()).thenReturn(BigInteger.TEN);
+      return request;
+    });
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(BigInteger.valueOf(31l));
+
+    List<HubSignedTransaction> signedTransactions = new ArrayList<>();
+    when(web3j.ethSendRawTransaction(anyString())).thenAnswer(args -> {
+      // The signed transaction is stored before submitting it
+      assertEquals(1, signedTransactions.size());
+      assertEquals(args.getArgument(0), signedTransactions.get(0).getRawTransaction());
+      EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethSendTransaction);
+      when(ethSendTransaction.hasError()).thenReturn(true);
+      when(ethSendTransaction.getError()).thenReturn(new Response.Error(-32000, "already known"));
+      return request;
+    });
+    TransactionReceipt receipt = mock(TransactionReceipt.class);
+    when(transactionReceiptProcessor.waitForTransactionReceipt(any())).thenReturn(receipt);
+    when(receipt.isStatusOK()).thenReturn(true);
+    when(receipt.getLogs()).thenReturn(Collections.singletonList(mock(Log.class)));
+    mockReportSentEventResponse();
+
+    long createdReportId = hubWalletStorage.sendReportTransaction(newHubReportPayload(),
+                                                                  uemAddress,
+                                                                  uemNetworkId,
+                                                                  null,
+                                                                  signedTransactions::add);
+    assertEquals(reportId, createdReportId);
+    assertEquals(1, signedTransactions.size());
+    HubSignedTransaction signedTransaction = signedTransactions.get(0);
+    assertEquals(nonce, signedTransaction.getNonce());
+    assertEquals(Hash.sha3(signedTransaction.getRawTransaction()), signedTransaction.getTransactionHash());
+    verify(transactionReceiptProcessor).waitForTransactionReceipt(signedTransaction.getTransactionHash());
+    // The already submitted transaction isn't signed again with a new nonce
+    verify(web3j, times(1)).ethSendRawTransaction(anyString());
+  }
+
+  @SuppressWarnings("rawtypes")
+  @Test
+  @SneakyThrows
+  void sendReportTransactionAsync() {
+    walletUtils.when(WalletUtils::getSettings).thenReturn(globalSettings);
+    walletUtils.when(() -> WalletUtils.convertToDecimals(anyDouble(), anyInt())).thenCallRealMethod();
+    when(globalSettings.getContractDetail()).thenReturn(contractDetail);
+    when(contractDetail.getDecimals()).thenReturn(decimals);
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    when(polygonContractGasProvider.getChainId()).thenReturn(uemNetworkId);
+    WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
+    when(hubIdentityStorage.getHubWallet()).thenReturn(toJsonString(walletFile));
+    when(codecInitializer.getCodec()).thenReturn(codec);
+    when(walletAccountService.getAdminAccountPassword()).thenReturn(password);
+    when(codec.decode(any())).thenAnswer(args -> args.getArgument(0));
+
+    BigInteger nonce = BigInteger.TWO;
+    when(web3j.ethGetTransactionCount(hubAddress, DefaultBlockParameterName.PENDING)).thenAnswer(args -> {
+      EthGetTransactionCount ethGetTransactionCount = mock(EthGetTransactionCount.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethGetTransactionCount);
+      when(ethGetTransactionCount.getTransactionCount()).thenReturn(nonce);
+      return request;
+    });
+    when(web3j.ethEstimateGas(any())).thenAnswer(args -> {
+      EthEstimateGas gasEstimate = mock(EthEstimateGas.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(gasEstimate);
+      when(gasEstimate.getAmountUsed()).thenReturn(BigInteger.TEN);
+      return request;
+    });
+    when(polygonContractGasProvider.getGasPrice(nullable(GasUrgencyType.class))).thenReturn(BigInteger.valueOf(31l));
+
+    List<HubSignedTransaction> signedTransactions = new ArrayList<>();
+    when(web3j.ethSendRawTransaction(anyString())).thenAnswer(args -> {
+      EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
+      Request request = mock(Request.class);
+      when(request.send()).thenReturn(ethSendTransaction);
+      when(ethSendTransaction.getTransactionHash()).thenReturn(signedTransactions.get(0).getTransactionHash());
+      return request;
+    });
+    CompletableFuture<TransactionReceipt> receiptFuture = new CompletableFuture<>();
+    doReturn(receiptFuture).when(hubTransactionReceiptTracker).getTransactionReceipt(any());
+
+    CompletableFuture<Long> reportIdFuture = hubWalletStorage.sendReportTransactionAsync(newHubReportPayload(),
+                                                                                         uemAddress,
+                                                                                         uemNetworkId,
+                                                                                         null,
+                                                                                         signedTransactions::add);
+    assertEquals(1, signedTransactions.size());
+    verify(hubTransactionReceiptTracker).getTransactionReceipt(signedTransactions.get(0).getTransactionHash());
+    // Not blocked until the transaction is mined
+    assertFalse(reportIdFuture.isDone());
+
+    TransactionReceipt receipt = mock(TransactionReceipt.class);
+    when(receipt.isStatusOK()).thenReturn(true);
+    when(receipt.getLogs()).thenReturn(Collections.singletonList(mock(Log.class)));
+    mockReportSentEventResponse();
+    receiptFuture.complete(receipt);
+    assertEquals(reportId, reportIdFuture.get(1, TimeUnit.SECONDS));
+
+    // Receipt tracking stopped while waiting for the transaction receipt
+    CompletableFuture<TransactionReceipt> cancelledReceiptFuture = new CompletableFuture<>();
+    cancelledReceiptFuture.cancel(false);
+    doReturn(cancelledReceiptFuture).when(hubTransactionReceiptTracker).getTransactionReceipt(any());
+    CompletableFuture<Long> cancelledReportIdFuture = hubWalletStorage.sendReportTransactionAsync(newHubReportPayload(),
+                                                                                                  uemAddress,
+                                                                                                  uemNetworkId,
+                                                                                                  null,
+                                                                                                  null);
+    CompletionException exception = assertThrows(CompletionException.class, cancelledReportIdFuture::join);
+    assertTrue(exception.getCause() instanceof IllegalStateException);
+  }
+
+  @Test
+  @SneakyThrows
+  void recoverReportTransactionWhenMined() {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    TransactionReceipt receipt = mock(TransactionReceipt.class);
+    mockTransactionReceipt(receipt);
+    when(receipt.isStatusOK()).thenReturn(true);
+    when(receipt.getLogs()).thenReturn(Collections.singletonList(mock(Log.class)));
+    mockReportSentEventResponse();
+
+    assertEquals(reportId, hubWalletStorage.recoverReportTransaction(txHash, rawTransaction));
+    verify(web3j, never()).ethSendRawTransaction(any());
+  }
+
+  @Test
+  @SneakyThrows
+  void recoverReportTransactionWhenPending() {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    mockTransactionReceipt(null);
+    mockSendRawTransaction("already known");
+
+    assertEquals(0, hubWalletStorage.recoverReportTransaction(txHash, rawTransaction));
+  }
+
+  @Test
+  @SneakyThrows
+  void recoverReportTransactionWhenRejectedTemporarily() {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    mockTransactionReceipt(null);
+    mockSendRawTransaction("max fee per gas less than block base fee");
+
+    assertEquals(0, hubWalletStorage.recoverReportTransaction(txHash, rawTransaction));
+    verify(web3j, times(1)).ethGetTransactionReceipt(txHash);
+  }
+
+  @Test
+  @SneakyThrows
+  void recoverReportTransactionWhenDropped() {
+    when(polygonContractGasProvider.getWeb3j()).thenReturn(web3j);
+    mockTransactionReceipt(null);
+    mockSendRawTransaction("nonce too low");
+
+    WomException exception = assertThrows(WomException.class,
+                                          () -> hubWalletStorage.recoverReportTransaction(txHash, rawTransaction));
+    assertEquals("uem.sendReportTransactionDropped", exception.getMessage());
+    verify(web3j, times(2)).ethGetTransactionReceipt(txHash);
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @SneakyThrows
+  private void mockTransactionManager() {
+    doReturn(transactionManager).when(hubTransactionManagerFactory)
+                                .createTransactionManager(eq(web3j), any(), eq(uemNetworkId), any());
+  }
+
+  private void mockTransactionReceipt(TransactionReceipt receipt) {
+    Request request = mock(Request.class);
+    EthGetTransactionReceipt ethGetTransactionReceipt = mock(EthGetTransactionReceipt.class);
+    when(web3j.ethGetTransactionReceipt(txHash)).thenReturn(request);
+    when(request.send()).thenReturn(ethGetTransactionReceipt);
+    when(ethGetTransactionReceipt.getTransactionReceipt()).thenReturn(Optional.ofNullable(receipt));
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @SneakyThrows
+  private void mockSendRawTransaction(String error) {
+    Request request = mock(Request.class);
+    EthSendTransaction ethSendTransaction = mock(EthSendTransaction.class);
+    when(web3j.ethSendRawTransaction(rawTransaction)).thenReturn(request);
+    when(request.send()).thenReturn(ethSendTransaction);
+    when(ethSendTransaction.hasError()).thenReturn(true);
+    when(ethSendTransaction.getError()).thenReturn(new Response.Error(-32000, error));
+  }
+
   @SneakyThrows
   public String generateWallet() {
     WalletFile walletFile = org.web3j.crypto.Wallet.createLight(password, hubWallet);
@@ -0,0 +1,129 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.tenant.hub.upgrade;
+
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.MIGRATION_APPLICATION;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.MIGRATION_DONE_KEY;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.REWARD_PERIOD_ID_APPLICATION;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.REWARD_REPORT_ID_APPLICATION;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.REWARD_REPORT_SENT_DATE_APPLICATION;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.REWARD_REPORT_STATUS_APPLICATION;
+import static io.meeds.tenant.hub.upgrade.HubReportSettingsMigration.UEM_CONTEXT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import org.exoplatform.commons.api.settings.SettingService;
+import org.exoplatform.commons.api.settings.SettingValue;
+import org.exoplatform.commons.api.settings.data.Scope;
+
+import io.meeds.tenant.hub.storage.HubReportStorage;
+
+@SpringBootTest(classes = {
+  HubReportSettingsMigration.class,
+})
+@ExtendWith(MockitoExtension.class)
+class HubReportSettingsMigrationTest {
+
+  @MockBean
+  private SettingService             settingService;
+
+  @MockBean
+  private HubReportStorage           hubReportStorage;
+
+  @Autowired
+  private HubReportSettingsMigration hubReportSettingsMigration;
+
+  private long                       periodId = 53l;
+
+  private long                       reportId = 356l;
+
+  private Instant                    sentDate = Instant.ofEpochMilli(System.currentTimeMillis());
+
+  @Test
+  void migrateWhenNoSettings() {
+    hubReportSettingsMigration.migrate();
+    verify(hubReportStorage, never()).saveStatus(anyLong(), anyString());
+    verify(settingService, never()).remove(any(), any(Scope.class));
+  }
+
+  @Test
+  void migrate() {
+    mockSetting(REWARD_REPORT_STATUS_APPLICATION, "SENT");
+    mockSetting(REWARD_REPORT_ID_APPLICATION, String.valueOf(reportId));
+    mockSetting(REWARD_REPORT_SENT_DATE_APPLICATION, String.valueOf(sentDate.toEpochMilli()));
+
+    hubReportSettingsMigration.migrate();
+    verify(hubReportStorage).saveStatus(periodId, "SENT");
+    verify(hubReportStorage).saveReportPeriodId(periodId, reportId);
+    verify(hubReportStorage).saveSentDate(periodId, sentDate);
+    verify(settingService).remove(UEM_CONTEXT, REWARD_REPORT_STATUS_APPLICATION);
+    verify(settingService).remove(UEM_CONTEXT, REWARD_REPORT_ID_APPLICATION);
+    verify(settingService).remove(UEM_CONTEXT, REWARD_PERIOD_ID_APPLICATION);
+    verify(settingService).remove(UEM_CONTEXT, REWARD_REPORT_SENT_DATE_APPLICATION);
+  }
+
+  @Test
+  void initOnce() {
+    // Ignore the migration triggered when the test context is refreshed
+    clearInvocations(settingService, hubReportStorage);
+    mockSetting(REWARD_REPORT_STATUS_APPLICATION, "SENT");
+
+    hubReportSettingsMigration.init();
+    verify(hubReportStorage).saveStatus(periodId, "SENT");
+    verify(settingService).set(any(),
+                               any(),
+                               any(),
+                               argThat(value -> Boolean.TRUE.equals(value.getValue())));
+
+    doReturn(SettingValue.create(true)).when(settingService).get(UEM_CONTEXT, MIGRATION_APPLICATION, MIGRATION_DONE_KEY);
+    hubReportSettingsMigration.init();
+    verify(settingService).getSettingsByContextAndScope(UEM_CONTEXT.getName(),
+                                                        UEM_CONTEXT.getId(),
+                                                        REWARD_REPORT_STATUS_APPLICATION.getName(),
+                                                        REWARD_REPORT_STATUS_APPLICATION.getId());
+  }
+
+  @SuppressWarnings("rawtypes")
+  private void mockSetting(Scope scope, String value) {
+    Map<String, SettingValue> settings = Collections.singletonMap(String.valueOf(periodId), SettingValue.create(value));
+    when(settingService.getSettingsByContextAndScope(UEM_CONTEXT.getName(),
+                                                     UEM_CONTEXT.getId(),
+                                                     scope.getName(),
+                                                     scope.getId())).thenReturn(settings);
+  }
+
+}
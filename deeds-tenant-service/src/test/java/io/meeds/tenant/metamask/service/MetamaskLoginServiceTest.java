@@ -25,7 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -37,6 +39,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.mockito.stubbing.OngoingStubbing;
@@ -44,6 +47,7 @@ import org.picketlink.idm.api.SecureRandomProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.web3j.crypto.Sign;
 
 import org.exoplatform.account.setup.web.AccountSetupService;
 import org.exoplatform.portal.config.UserACL;
@@ -191,6 +195,32 @@ class MetamaskLoginServiceTest {
     assertTrue(metamaskLoginService.validateSignedMessage(walletAddress, rawMessage, signedMessage));
   }
 
+  @Test
+  void testValidateSignedMessageWithVerificationTicket() {
+    String walletAddress = "0x927f51a2996Ff74d1C380F92DC9006b53A225CeF";
+    String rawMessage = "-2037692822791791745-3891968992033463560-1384458414145506416";
+    String signedMessage =
+                         "0x92874882ac3b2292dc4a05af2f0eceac48fee97392a26d8bc9002159c35279ac0b72729cbdd6e864696782176a39a5cdfbca45c3eec5b34e1f82d2a906356a7d1c";
+
+    try (MockedStatic<Sign> sign = mockStatic(Sign.class, CALLS_REAL_METHODS)) {
+      assertTrue(metamaskLoginService.validateSignedMessage(walletAddress, rawMessage, signedMessage, true));
+      sign.verify(() -> Sign.signedPrefixedMessageToKey(any(), any()), times(1));
+
+      // Ticket consumed without recovering the signature again
+      assertTrue(metamaskLoginService.validateSignedMessage(walletAddress.toLowerCase(), rawMessage, signedMessage));
+      sign.verify(() -> Sign.signedPrefixedMessageToKey(any(), any()), times(1));
+
+      // Ticket already consumed
+      assertTrue(metamaskLoginService.validateSignedMessage(walletAddress, rawMessage, signedMessage));
+      sign.verify(() -> Sign.signedPrefixedMessageToKey(any(), any()), times(2));
+
+      // Ticket bound to signed raw message
+      assertTrue(metamaskLoginService.validateSignedMessage(walletAddress, rawMessage, signedMessage, true));
+      assertFalse(metamaskLoginService.validateSignedMessage(walletAddress, walletAddress, signedMessage));
+      sign.verify(() -> Sign.signedPrefixedMessageToKey(any(), any()), times(4));
+    }
+  }
+
   @Test
   void testGenerateLoginMessage() {
     mockSecureRandomService();
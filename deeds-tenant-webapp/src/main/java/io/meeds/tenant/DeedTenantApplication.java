@@ -22,13 +22,16 @@ import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfigurati
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import io.meeds.spring.AvailableIntegration;
 import io.meeds.spring.kernel.PortalApplicationContextInitializer;
 
 @SpringBootApplication(scanBasePackages = {
-    "io.meeds.tenant",
+    DeedTenantApplication.MODULE_NAME,
     AvailableIntegration.KERNEL_MODULE,
+    AvailableIntegration.JPA_MODULE,
+    AvailableIntegration.LIQUIBASE_MODULE,
     AvailableIntegration.WEB_SECURITY_MODULE,
     AvailableIntegration.WEB_TRANSACTION_MODULE,
   }, exclude = {
@@ -38,9 +41,12 @@ import io.meeds.spring.kernel.PortalApplicationContextInitializer;
     HibernateJpaAutoConfiguration.class
 })
 @EnableCaching
+@EnableJpaRepositories(basePackages = DeedTenantApplication.MODULE_NAME)
 @PropertySource("classpath:application.properties")
 @PropertySource("classpath:application-common.properties")
 @PropertySource("classpath:tenant.properties")
 public class DeedTenantApplication extends PortalApplicationContextInitializer {
 
+  public static final String MODULE_NAME = "io.meeds.tenant";
+
 }
@@ -69,12 +69,12 @@ export function getLocalRewardDetails(date) {
   });
 }
 
-export function sendReport(id) {
-  return fetch(`/deeds-tenant/rest/reports/${id}`, {
+export function sendReport(id, urgency) {
+  return fetch(`/deeds-tenant/rest/reports/${id}${urgency && `?urgency=${urgency}` || ''}`, {
     method: 'PUT',
     credentials: 'include',
   }).then((resp) => {
-    if (resp?.status === 200) {
+    if (resp?.status === 200 || resp?.status === 202) {
       return resp.json();
     } else if (resp?.status === 404) {
       return null;